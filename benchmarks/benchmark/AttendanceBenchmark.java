@@ -0,0 +1,76 @@
+package benchmark;
+
+import model.Attendance;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The attendance rules the calculator and reports apply to every row,
+ * over one month of attendance
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AttendanceBenchmark {
+
+    private List<Attendance> month;
+
+    @Setup
+    public void setUp() {
+        month = BenchmarkData.monthOfAttendance(10001, 0.3);
+    }
+
+    @Benchmark
+    public double workHours() {
+        double total = 0;
+        for (Attendance attendance : month) {
+            total += attendance.getWorkHours();
+        }
+        return total;
+    }
+
+    @Benchmark
+    public int lateDays() {
+        int late = 0;
+        for (Attendance attendance : month) {
+            if (attendance.isLate()) {
+                late++;
+            }
+        }
+        return late;
+    }
+
+    @Benchmark
+    public int undertimeDays() {
+        int undertime = 0;
+        for (Attendance attendance : month) {
+            if (attendance.hasUndertime()) {
+                undertime++;
+            }
+        }
+        return undertime;
+    }
+
+    @Benchmark
+    public double lateAndUndertimeMinutes() {
+        double minutes = 0;
+        for (Attendance attendance : month) {
+            minutes += attendance.getLateMinutes() + attendance.getUndertimeMinutes();
+        }
+        return minutes;
+    }
+}
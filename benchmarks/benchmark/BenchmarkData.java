@@ -0,0 +1,165 @@
+package benchmark;
+
+import model.Attendance;
+import model.Employee;
+import model.LeaveRequest;
+import model.Overtime;
+import model.Payroll;
+import service.PayrollCalculator;
+import service.PayrollInputs;
+import service.StatutoryRates;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Synthetic in-memory payroll data for the benchmarks.
+ *
+ * Everything is generated from a fixed seed, so every run measures the same
+ * inputs, and nothing touches the database.
+ */
+final class BenchmarkData {
+    /** A closed month, so the calculator accepts it whatever today's date is */
+    static final LocalDate PERIOD_START = LocalDate.of(2024, 6, 1);
+    static final LocalDate PERIOD_END = LocalDate.of(2024, 6, 30);
+
+    private static final long SEED = 20240601L;
+    private static final String[] FIRST_NAMES = {"Manuel", "Antonio", "Bianca", "Isabella", "Eduard", "Andrea", "Brad", "Alice"};
+    private static final String[] LAST_NAMES = {"Garcia", "Lim", "Aquino", "Reyes", "Hernandez", "Villanueva", "San Jose", "Romualdez"};
+    private static final String[] POSITIONS = {"Chief Executive Officer", "HR Manager", "Payroll Rank and File",
+            "Account Manager", "Sales & Marketing", "Customer Service and Relations"};
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Silence the per-payroll INFO logging, which would otherwise dominate
+     * the measurements
+     */
+    static void quietLogging() {
+        Logger.getLogger("").setLevel(Level.WARNING);
+        Logger.getLogger("service").setLevel(Level.WARNING);
+        Logger.getLogger("dao").setLevel(Level.WARNING);
+    }
+
+    /**
+     * Calculator on the built-in statutory rates, so no rate tables are read
+     */
+    static PayrollCalculator calculator() {
+        return new PayrollCalculator(StatutoryRates.defaults());
+    }
+
+    static List<Employee> employees(int count) {
+        Random random = new Random(SEED);
+        List<Employee> employees = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Employee employee = new Employee(FIRST_NAMES[i % FIRST_NAMES.length],
+                    LAST_NAMES[(i / FIRST_NAMES.length) % LAST_NAMES.length], 10001 + i);
+            employee.setPosition(POSITIONS[i % POSITIONS.length]);
+            employee.setStatus(Employee.EmploymentStatus.REGULAR);
+            employee.setBasicSalary(22_500 + random.nextInt(30) * 2_500);
+            employee.setRiceSubsidy(1_500);
+            employee.setPhoneAllowance(500 + random.nextInt(3) * 500);
+            employee.setClothingAllowance(500 + random.nextInt(3) * 500);
+            employee.setSssNumber(String.format("44-%07d-%d", 4506000 + i, i % 10));
+            employee.setPhilhealthNumber(String.format("8204767%05d", i));
+            employee.setTinNumber(String.format("442-605-%03d-000", i % 1000));
+            employee.setPagibigNumber(String.format("6910%08d", i));
+            employees.add(employee);
+        }
+        return employees;
+    }
+
+    static Map<Integer, Employee> byId(List<Employee> employees) {
+        Map<Integer, Employee> employeesById = new LinkedHashMap<>();
+        for (Employee employee : employees) {
+            employeesById.put(employee.getEmployeeId(), employee);
+        }
+        return employeesById;
+    }
+
+    /**
+     * One attendance row per weekday of the period
+     * @param lateOrUndertimeShare Share of days, from 0 to 1, that start late
+     *        or end early
+     */
+    static List<Attendance> monthOfAttendance(int employeeId, double lateOrUndertimeShare) {
+        Random random = new Random(SEED + employeeId);
+        List<Attendance> attendance = new ArrayList<>();
+        for (LocalDate day = PERIOD_START; !day.isAfter(PERIOD_END); day = day.plusDays(1)) {
+            if (day.getDayOfWeek() == DayOfWeek.SATURDAY || day.getDayOfWeek() == DayOfWeek.SUNDAY) {
+                continue;
+            }
+            LocalTime logIn = LocalTime.of(7, 45 + random.nextInt(15));
+            LocalTime logOut = LocalTime.of(17, random.nextInt(30));
+            if (random.nextDouble() < lateOrUndertimeShare) {
+                if (random.nextBoolean()) {
+                    logIn = LocalTime.of(8, 16 + random.nextInt(44));
+                } else {
+                    logOut = LocalTime.of(16, random.nextInt(60));
+                }
+            }
+            attendance.add(new Attendance(employeeId, Date.valueOf(day), Time.valueOf(logIn), Time.valueOf(logOut)));
+        }
+        return attendance;
+    }
+
+    /**
+     * A few approved overtime entries within the period
+     */
+    static List<Overtime> overtime(int employeeId, int entries) {
+        List<Overtime> overtime = new ArrayList<>(entries);
+        for (int i = 0; i < entries; i++) {
+            Overtime entry = new Overtime(employeeId, Date.valueOf(PERIOD_START.plusDays(3 + i * 5L)), 1.5 + i % 3);
+            entry.setApproved(true);
+            overtime.add(entry);
+        }
+        return overtime;
+    }
+
+    static List<LeaveRequest> unpaidLeave(int employeeId, int days) {
+        List<LeaveRequest> leaves = new ArrayList<>();
+        if (days > 0) {
+            LeaveRequest leave = new LeaveRequest(employeeId, Date.valueOf(PERIOD_START.plusDays(10)),
+                    Date.valueOf(PERIOD_START.plusDays(9 + days)), "Unpaid");
+            leave.setStatus(LeaveRequest.STATUS_APPROVED);
+            leaves.add(leave);
+        }
+        return leaves;
+    }
+
+    static PayrollInputs inputs(Employee employee, double lateOrUndertimeShare, int overtimeEntries, int unpaidLeaveDays) {
+        int employeeId = employee.getEmployeeId();
+        return new PayrollInputs(employee, PERIOD_START, PERIOD_END,
+                monthOfAttendance(employeeId, lateOrUndertimeShare),
+                overtime(employeeId, overtimeEntries),
+                unpaidLeave(employeeId, unpaidLeaveDays));
+    }
+
+    /**
+     * Computed payrolls for a set of employees, for the export and
+     * rendering benchmarks
+     */
+    static List<Payroll> payrolls(List<Employee> employees) {
+        PayrollCalculator calculator = calculator();
+        List<Payroll> payrolls = new ArrayList<>(employees.size());
+        for (Employee employee : employees) {
+            try {
+                payrolls.add(calculator.compute(inputs(employee, 0.2, 2, 0)));
+            } catch (PayrollCalculator.PayrollCalculationException e) {
+                throw new IllegalStateException("Synthetic payroll failed for " + employee.getEmployeeId(), e);
+            }
+        }
+        return payrolls;
+    }
+}
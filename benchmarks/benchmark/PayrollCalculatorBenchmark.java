@@ -0,0 +1,90 @@
+package benchmark;
+
+import model.Employee;
+import model.Payroll;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import service.PayrollCalculator;
+import service.PayrollInputs;
+import service.StatutoryRateTable.ContributionType;
+import service.StatutoryRates;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link PayrollCalculator#compute} for one employee and one month, and the
+ * statutory contribution and tax lookups it makes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PayrollCalculatorBenchmark {
+
+    /** Share of days that start late or end early */
+    @Param({"0.0", "0.3"})
+    public double lateOrUndertimeShare;
+
+    private PayrollCalculator calculator;
+    private StatutoryRates rates;
+    private PayrollInputs regularMonth;
+    private PayrollInputs overtimeAndLeaveMonth;
+    private double[] salaries;
+
+    @Setup
+    public void setUp() {
+        BenchmarkData.quietLogging();
+        calculator = BenchmarkData.calculator();
+        rates = StatutoryRates.defaults();
+
+        List<Employee> employees = BenchmarkData.employees(64);
+        regularMonth = BenchmarkData.inputs(employees.get(0), lateOrUndertimeShare, 0, 0);
+        overtimeAndLeaveMonth = BenchmarkData.inputs(employees.get(1), lateOrUndertimeShare, 4, 2);
+        salaries = employees.stream().mapToDouble(Employee::getBasicSalary).toArray();
+    }
+
+    @Benchmark
+    public Payroll computeRegularMonth() throws PayrollCalculator.PayrollCalculationException {
+        return calculator.compute(regularMonth);
+    }
+
+    @Benchmark
+    public Payroll computeWithOvertimeAndUnpaidLeave() throws PayrollCalculator.PayrollCalculationException {
+        return calculator.compute(overtimeAndLeaveMonth);
+    }
+
+    /**
+     * SSS, PhilHealth and Pag-IBIG for a spread of salaries
+     */
+    @Benchmark
+    public void contributions(Blackhole blackhole) {
+        LocalDate asOf = BenchmarkData.PERIOD_END;
+        for (double salary : salaries) {
+            blackhole.consume(rates.calculate(ContributionType.SSS, salary, asOf));
+            blackhole.consume(rates.calculate(ContributionType.PHILHEALTH, salary, asOf));
+            blackhole.consume(rates.calculate(ContributionType.PAGIBIG, salary, asOf));
+        }
+    }
+
+    @Benchmark
+    public void withholdingTax(Blackhole blackhole) {
+        LocalDate asOf = BenchmarkData.PERIOD_END;
+        for (double salary : salaries) {
+            blackhole.consume(rates.calculate(ContributionType.WITHHOLDING_TAX, salary, asOf));
+        }
+    }
+}
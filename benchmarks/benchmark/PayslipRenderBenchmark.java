@@ -0,0 +1,70 @@
+package benchmark;
+
+import model.Employee;
+import model.Payroll;
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JasperPrint;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import service.JasperReportService;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Payslip rendering through the compiled Jasper template. The template is
+ * compiled once in setup, so these measure filling and PDF export only.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PayslipRenderBenchmark {
+
+    private static final int BATCH_SIZE = 50;
+
+    private JasperReportService jasperReportService;
+    private Employee employee;
+    private Payroll payroll;
+    private List<Payroll> batch;
+    private Map<Integer, Employee> employeesById;
+
+    @Setup
+    public void setUp() throws JRException {
+        BenchmarkData.quietLogging();
+        jasperReportService = new JasperReportService();
+
+        List<Employee> employees = BenchmarkData.employees(BATCH_SIZE);
+        batch = BenchmarkData.payrolls(employees);
+        employeesById = BenchmarkData.byId(employees);
+        employee = employees.get(0);
+        payroll = batch.get(0);
+
+        // Compile the template outside the measurement
+        jasperReportService.renderPayslipPDF(employee, payroll);
+    }
+
+    @Benchmark
+    public byte[] renderSinglePayslip() throws JRException {
+        return jasperReportService.renderPayslipPDF(employee, payroll);
+    }
+
+    /**
+     * Fill only, without PDF export, for a batch of payslips
+     */
+    @Benchmark
+    public JasperPrint fillPayslipBatch() throws JRException {
+        return jasperReportService.fillPayslips(batch, employeesById);
+    }
+}
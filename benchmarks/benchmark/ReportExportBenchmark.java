@@ -0,0 +1,76 @@
+package benchmark;
+
+import model.Employee;
+import model.Payroll;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import service.PayrollReport;
+import service.ReportGenerator;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CSV and HTML export of a monthly payroll report, written to memory so
+ * disk speed does not enter the measurement
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReportExportBenchmark {
+
+    @Param({"50", "1000"})
+    public int employeeCount;
+
+    private ReportGenerator reportGenerator;
+    private PayrollReport report;
+    private Map<Integer, Employee> employeesById;
+    private int expectedSize;
+
+    @Setup
+    public void setUp() throws IOException {
+        BenchmarkData.quietLogging();
+        reportGenerator = new ReportGenerator(BenchmarkData.calculator());
+
+        List<Employee> employees = BenchmarkData.employees(employeeCount);
+        List<Payroll> payrolls = BenchmarkData.payrolls(employees);
+        employeesById = BenchmarkData.byId(employees);
+
+        report = new PayrollReport("Monthly Payroll Report", PayrollReport.ReportType.MONTHLY_PAYROLL, "benchmark");
+        report.setPeriodStart(BenchmarkData.PERIOD_START);
+        report.setPeriodEnd(BenchmarkData.PERIOD_END);
+        report.setPayrollData(payrolls);
+
+        // Size the buffer once so the benchmarks measure formatting, not array growth
+        expectedSize = exportCsv().getBuffer().length() + exportHtml().getBuffer().length();
+    }
+
+    @Benchmark
+    public StringWriter exportCsv() throws IOException {
+        StringWriter writer = new StringWriter(expectedSize);
+        reportGenerator.exportReportToCSV(report, employeesById, writer);
+        return writer;
+    }
+
+    @Benchmark
+    public StringWriter exportHtml() throws IOException {
+        StringWriter writer = new StringWriter(expectedSize);
+        reportGenerator.exportReportToHTML(report, employeesById, writer);
+        return writer;
+    }
+}
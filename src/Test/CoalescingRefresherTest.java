@@ -0,0 +1,99 @@
+package test;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import ui.CoalescingRefresher;
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+@DisplayName("Coalescing Refresher Tests")
+class CoalescingRefresherTest {
+
+    // One latch per worker started; a worker finishes when its latch is released
+    private final List<CountDownLatch> workers = new CopyOnWriteArrayList<>();
+    private CoalescingRefresher refresher;
+
+    @BeforeEach
+    void setUp() {
+        refresher = new CoalescingRefresher(() -> {
+            CountDownLatch release = new CountDownLatch(1);
+            workers.add(release);
+            return new SwingWorker<Void, Void>() {
+                @Override
+                protected Void doInBackground() throws Exception {
+                    release.await();
+                    return null;
+                }
+            };
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        workers.forEach(CountDownLatch::countDown);
+    }
+
+    @Test
+    @DisplayName("Should run one refresh at a time and queue exactly one more")
+    void testRequestsCoalesce() throws Exception {
+        onEdt(refresher::request);
+        assertEquals(1, workers.size());
+
+        // Requests while the first refresh runs collapse into one rerun
+        onEdt(() -> {
+            refresher.request();
+            refresher.request();
+            refresher.request();
+        });
+        assertEquals(1, workers.size());
+        assertTrue(isRunning());
+
+        workers.get(0).countDown();
+        waitFor(() -> workers.size() == 2);
+        assertTrue(isRunning());
+
+        workers.get(1).countDown();
+        waitFor(() -> !isRunning());
+        assertEquals(2, workers.size());
+    }
+
+    @Test
+    @DisplayName("Should start a new refresh once the previous one has finished")
+    void testRequestAfterFinish() throws Exception {
+        onEdt(refresher::request);
+        workers.get(0).countDown();
+        waitFor(() -> !isRunning());
+
+        onEdt(refresher::request);
+        assertEquals(2, workers.size());
+        assertTrue(isRunning());
+    }
+
+    private boolean isRunning() {
+        boolean[] running = new boolean[1];
+        onEdt(() -> running[0] = refresher.isRunning());
+        return running[0];
+    }
+
+    private static void onEdt(Runnable action) {
+        try {
+            SwingUtilities.invokeAndWait(action);
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Timed out waiting for refresher");
+            Thread.sleep(10);
+        }
+    }
+}
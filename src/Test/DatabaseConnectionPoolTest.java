@@ -0,0 +1,464 @@
+package test;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import util.ConfigurationManager;
+import util.DatabaseConnectionPool;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+@DisplayName("Database Connection Pool Tests")
+class DatabaseConnectionPoolTest {
+
+    private final List<LogRecord> logRecords = Collections.synchronizedList(new ArrayList<>());
+    private final Handler logCapture = new Handler() {
+        @Override
+        public void publish(LogRecord record) {
+            logRecords.add(record);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+    private final Logger poolLogger = Logger.getLogger(DatabaseConnectionPool.class.getName());
+
+    private FakeDataSource database;
+    private String url;
+    private DatabaseConnectionPool pool;
+
+    @BeforeEach
+    void setUp() {
+        database = new FakeDataSource();
+        url = FakeDriver.register(database);
+        poolLogger.addHandler(logCapture);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (pool != null) {
+            pool.closeAllConnections();
+        }
+        poolLogger.removeHandler(logCapture);
+        FakeDriver.unregister(url);
+    }
+
+    @Test
+    @DisplayName("Should report a connection held past the leak threshold once, with where it was borrowed")
+    void testLeakDetection() throws Exception {
+        pool = createPool("db.pool.leak.detection.millis", "200");
+
+        Connection leaked = pool.getConnection();
+        pool.getConnection().close();
+
+        // The monitor checks every few seconds
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (pool.getLeakCount() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+
+        assertEquals(1, pool.getLeakCount());
+        String[] borrowed = pool.getBorrowedConnections();
+        assertEquals(1, borrowed.length);
+        assertTrue(borrowed[0].endsWith("(reported as possible leak)"), borrowed[0]);
+
+        LogRecord report = findLog(Level.WARNING, "Possible connection leak");
+        assertNotNull(report);
+        assertNotNull(report.getThrown());
+        assertTrue(stackMentions(report.getThrown(), "testLeakDetection"));
+
+        leaked.close();
+        assertEquals(0, pool.getBorrowedConnections().length);
+        assertNotNull(findLog(Level.INFO, "reported as a possible leak was returned"));
+        assertEquals(1, pool.getLeakCount());
+    }
+
+    @Test
+    @DisplayName("Should not report connections while leak detection is off")
+    @SuppressWarnings("try")
+    void testLeakDetectionOff() throws Exception {
+        pool = createPool("db.pool.leak.detection.millis", "0");
+
+        try (Connection ignored = pool.getConnection()) {
+            assertEquals(1, pool.getBorrowedConnections().length);
+        }
+        assertEquals(0, pool.getBorrowedConnections().length);
+        assertEquals(0, pool.getLeakCount());
+        // Returned to the pool, not closed
+        assertEquals(1, pool.getAvailableConnections());
+        assertEquals(1, database.getOpenConnections());
+    }
+
+    @Test
+    @DisplayName("Should not open a connection past the maximum while one is being validated")
+    @SuppressWarnings("try")
+    void testValidationKeepsMaximum() throws Exception {
+        CountDownLatch validating = new CountDownLatch(1);
+        CountDownLatch finishValidation = new CountDownLatch(1);
+        database.onValidate(() -> {
+            validating.countDown();
+            awaitQuietly(finishValidation);
+        });
+        pool = createPool("db.pool.max.size", "1", "db.pool.initial.size", "1", "db.pool.min.idle", "1",
+                "db.pool.maintenance.seconds", "1", "db.pool.validation.idle.seconds", "1");
+
+        // The monitor has taken the only connection off the idle list to check it
+        assertTrue(validating.await(10, TimeUnit.SECONDS));
+        ExecutorService borrower = Executors.newSingleThreadExecutor();
+        try {
+            Future<Long> borrow = borrower.submit(() -> {
+                try (Connection ignored = pool.getConnection()) {
+                    return pool.getConnectionsCreated();
+                }
+            });
+            Thread.sleep(300);
+            assertFalse(borrow.isDone(), "Borrower should wait for the connection being validated");
+
+            finishValidation.countDown();
+            assertEquals(1, borrow.get(10, TimeUnit.SECONDS));
+        } finally {
+            finishValidation.countDown();
+            borrower.shutdownNow();
+        }
+        assertEquals(1, database.getMaxOpenConnections());
+    }
+
+    @Test
+    @DisplayName("Should never hold more physical connections than the maximum under load")
+    void testMaximumUnderLoad() throws Exception {
+        // Connections expire and are validated, evicted and reopened while borrowers run
+        pool = createPool("db.pool.max.size", "3", "db.pool.initial.size", "3", "db.pool.min.idle", "3",
+                "db.pool.maintenance.seconds", "1", "db.pool.validation.idle.seconds", "1",
+                "db.pool.max.lifetime.seconds", "1");
+        long until = System.currentTimeMillis() + 2500;
+
+        ExecutorService borrowers = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(borrowers.submit(() -> {
+                    int borrows = 0;
+                    while (System.currentTimeMillis() < until) {
+                        try (Connection connection = pool.getConnection()) {
+                            connection.prepareStatement("SELECT 1").close();
+                            borrows++;
+                        }
+                    }
+                    return borrows;
+                }));
+            }
+            for (Future<Integer> result : results) {
+                assertTrue(result.get(30, TimeUnit.SECONDS) > 0);
+            }
+        } finally {
+            borrowers.shutdownNow();
+        }
+
+        assertTrue(pool.getEvictionCount() > 0, "Expected expired connections to be replaced");
+        assertTrue(database.getMaxOpenConnections() <= 3,
+                "Physical connections peaked at " + database.getMaxOpenConnections());
+        assertEquals(0, pool.getActiveConnections());
+    }
+
+    @Test
+    @DisplayName("Should replace idle connections that fail validation")
+    void testInvalidConnectionsReplaced() throws Exception {
+        pool = createPool("db.pool.initial.size", "2", "db.pool.min.idle", "2",
+                "db.pool.maintenance.seconds", "1", "db.pool.validation.idle.seconds", "1");
+        assertEquals(2, pool.getAvailableConnections());
+
+        // The server dropped them, e.g. after wait_timeout
+        database.setValid(false);
+        assertTrue(await(() -> pool.getValidationFailureCount() >= 2));
+        database.setValid(true);
+        assertTrue(await(() -> pool.getAvailableConnections() == 2 && pool.getConnectionsCreated() >= 4));
+
+        assertEquals(2, database.getOpenConnections());
+    }
+
+    @Test
+    @DisplayName("Should refill to the minimum once an unreachable database comes back")
+    void testRefillAfterOutage() throws Exception {
+        database.setDown(true);
+        pool = createPool("db.pool.initial.size", "2", "db.pool.min.idle", "2", "db.pool.maintenance.seconds", "1");
+        assertEquals(0, pool.getAvailableConnections());
+        assertThrows(java.sql.SQLException.class, pool::getConnection);
+
+        // Let maintenance fail more than once; the outage is logged only the first time
+        Thread.sleep(2500);
+        database.setDown(false);
+        assertTrue(await(() -> pool.getAvailableConnections() == 2));
+
+        assertEquals(1, countLogs(Level.WARNING, "Cannot open pooled connections"));
+        assertNotNull(findLog(Level.INFO, "Database reachable again"));
+        assertEquals(0, pool.getActiveConnections());
+    }
+
+    @Test
+    @DisplayName("Should close a connection past its lifetime instead of lending it")
+    @SuppressWarnings("try")
+    void testExpiredConnectionEvictedOnBorrow() throws Exception {
+        pool = createPool("db.pool.max.lifetime.seconds", "1");
+        pool.getConnection().close();
+        assertEquals(1, pool.getAvailableConnections());
+
+        Thread.sleep(1100);
+        try (Connection ignored = pool.getConnection()) {
+            assertEquals(1, pool.getEvictionCount());
+            assertEquals(2, pool.getConnectionsCreated());
+        }
+        assertEquals(1, database.getOpenConnections());
+    }
+
+    @Test
+    @DisplayName("Should give statements the pooled connection, so closing it returns it to the pool")
+    void testStatementGetConnection() throws Exception {
+        pool = createPool();
+        Connection connection = pool.getConnection();
+        PreparedStatement cached = connection.prepareStatement("SELECT 1");
+        PreparedStatement uncached = connection.prepareStatement("SELECT 2",
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        Statement plain = connection.createStatement();
+        CallableStatement call = connection.prepareCall("{call refresh_totals()}");
+
+        assertSame(connection, cached.getConnection());
+        assertSame(connection, uncached.getConnection());
+        assertSame(connection, plain.getConnection());
+        assertSame(connection, call.getConnection());
+
+        call.getConnection().close();
+
+        assertTrue(connection.isClosed());
+        assertEquals(0, pool.getActiveConnections());
+        assertEquals(1, pool.getAvailableConnections());
+        assertEquals(1, database.getOpenConnections());
+    }
+
+    @Test
+    @DisplayName("Should reuse a returned statement and never share one in use")
+    void testStatementCacheReuse() throws Exception {
+        pool = createPool();
+        try (Connection connection = pool.getConnection()) {
+            PreparedStatement first = connection.prepareStatement("SELECT a");
+            // The first is taken out of the cache, so this one is prepared anew
+            PreparedStatement second = connection.prepareStatement("SELECT a");
+            assertNotSame(first, second);
+            assertEquals(2, database.getStatementsCreated());
+
+            first.close();
+            // One idle statement per query is kept; the other is closed
+            second.close();
+            assertEquals(1, database.getStatementsClosed());
+            assertThrows(SQLException.class, first::executeQuery);
+
+            connection.prepareStatement("SELECT a").close();
+        }
+
+        assertEquals(2, database.getStatementsCreated());
+        assertEquals(1, pool.getStatementCacheHitCount());
+        assertEquals(2, pool.getStatementCacheMissCount());
+    }
+
+    @Test
+    @DisplayName("Should reset settings a borrower changed before reusing a statement")
+    void testStatementCacheResetsSettings() throws Exception {
+        pool = createPool();
+        try (Connection connection = pool.getConnection()) {
+            PreparedStatement streaming = connection.prepareStatement("SELECT a");
+            streaming.setFetchSize(Integer.MIN_VALUE);
+            streaming.setMaxRows(10);
+            streaming.setQueryTimeout(30);
+            streaming.close();
+
+            PreparedStatement reused = connection.prepareStatement("SELECT a");
+            assertEquals(1, pool.getStatementCacheHitCount());
+            assertEquals(0, reused.getFetchSize());
+            assertEquals(0, reused.getMaxRows());
+            assertEquals(0, reused.getQueryTimeout());
+            reused.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Should close a result set left open when its statement goes back to the cache")
+    void testStatementCacheClosesOpenResultSet() throws Exception {
+        pool = createPool();
+        try (Connection connection = pool.getConnection()) {
+            PreparedStatement statement = connection.prepareStatement("SELECT a");
+            ResultSet resultSet = statement.executeQuery();
+            statement.close();
+
+            assertTrue(resultSet.isClosed());
+            connection.prepareStatement("SELECT a").close();
+            assertEquals(1, pool.getStatementCacheHitCount());
+        }
+    }
+
+    @Test
+    @DisplayName("Should close the least recently used statement when the cache is full")
+    void testStatementCacheEviction() throws Exception {
+        pool = createPool("db.pool.statement.cache.size", "2");
+        try (Connection connection = pool.getConnection()) {
+            connection.prepareStatement("SELECT a").close();
+            connection.prepareStatement("SELECT b").close();
+            // Using a again makes b the least recently used
+            connection.prepareStatement("SELECT a").close();
+            connection.prepareStatement("SELECT c").close();
+
+            assertEquals(1, pool.getStatementCacheEvictionCount());
+            assertEquals(1, database.getStatementsClosed());
+
+            connection.prepareStatement("SELECT a").close();
+            connection.prepareStatement("SELECT c").close();
+            connection.prepareStatement("SELECT b").close();
+        }
+
+        assertEquals(2, pool.getStatementCacheEvictionCount());
+        assertEquals(3, pool.getStatementCacheHitCount());
+        assertEquals(4, pool.getStatementCacheMissCount());
+        assertEquals(4, database.getStatementsCreated());
+    }
+
+    @Test
+    @DisplayName("Should apply the statement cache size to each connection separately")
+    void testStatementCachePerConnection() throws Exception {
+        pool = createPool("db.pool.statement.cache.size", "2");
+        Connection first = pool.getConnection();
+        Connection second = pool.getConnection();
+        for (Connection connection : List.of(first, second)) {
+            connection.prepareStatement("SELECT a").close();
+            connection.prepareStatement("SELECT b").close();
+        }
+
+        assertEquals(0, pool.getStatementCacheEvictionCount());
+        assertEquals(4, pool.getStatementCacheMissCount());
+
+        first.prepareStatement("SELECT c").close();
+        assertEquals(1, pool.getStatementCacheEvictionCount());
+        // The second connection's cache is untouched
+        second.prepareStatement("SELECT a").close();
+        second.prepareStatement("SELECT b").close();
+        assertEquals(2, pool.getStatementCacheHitCount());
+
+        first.close();
+        second.close();
+    }
+
+    @Test
+    @DisplayName("Should close cached statements with the connection they belong to")
+    void testStatementsClosedWithEvictedConnection() throws Exception {
+        pool = createPool("db.pool.max.lifetime.seconds", "1");
+        try (Connection connection = pool.getConnection()) {
+            connection.prepareStatement("SELECT a").close();
+            connection.prepareStatement("SELECT b").close();
+        }
+        assertEquals(0, database.getStatementsClosed());
+
+        Thread.sleep(1100);
+        try (Connection connection = pool.getConnection()) {
+            assertEquals(1, pool.getEvictionCount());
+            assertEquals(2, database.getStatementsClosed());
+
+            // The new connection starts with an empty cache
+            connection.prepareStatement("SELECT a").close();
+            assertEquals(0, pool.getStatementCacheHitCount());
+        }
+
+        pool.closeAllConnections();
+        assertEquals(3, database.getStatementsClosed());
+    }
+
+    /**
+     * Pool of at most 2 connections on the test database, opened on demand;
+     * extra settings are given as key and value pairs
+     */
+    private DatabaseConnectionPool createPool(String... settings) {
+        Properties properties = new Properties();
+        properties.setProperty("db.driver", FakeDriver.class.getName());
+        properties.setProperty("db.url", url);
+        properties.setProperty("db.pool.initial.size", "0");
+        properties.setProperty("db.pool.min.idle", "0");
+        properties.setProperty("db.pool.max.size", "2");
+        properties.setProperty("db.pool.borrow.timeout.seconds", "5");
+        properties.setProperty("db.pool.maintenance.seconds", "3600");
+        properties.setProperty("db.pool.status.log.seconds", "0");
+        for (int i = 0; i < settings.length; i += 2) {
+            properties.setProperty(settings[i], settings[i + 1]);
+        }
+        return new DatabaseConnectionPool(new ConfigurationManager(properties));
+    }
+
+    private int countLogs(Level level, String text) {
+        int count = 0;
+        synchronized (logRecords) {
+            for (LogRecord record : logRecords) {
+                if (record.getLevel() == level && record.getMessage().contains(text)) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private LogRecord findLog(Level level, String text) {
+        synchronized (logRecords) {
+            for (LogRecord record : logRecords) {
+                if (record.getLevel() == level && record.getMessage().contains(text)) {
+                    return record;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static boolean await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                return false;
+            }
+            Thread.sleep(50);
+        }
+        return true;
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static boolean stackMentions(Throwable thrown, String methodName) {
+        for (StackTraceElement element : thrown.getStackTrace()) {
+            if (element.getMethodName().equals(methodName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
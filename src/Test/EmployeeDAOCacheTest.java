@@ -0,0 +1,107 @@
+package test;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static test.FakeDataSource.row;
+
+import dao.EmployeeDAO;
+import model.Employee;
+import util.DBConnection;
+import util.ExpiringCache;
+import java.util.List;
+import java.util.Map;
+
+@DisplayName("Employee DAO Cache Tests")
+class EmployeeDAOCacheTest {
+
+    private static final String BY_ID = "WHERE employee_id = ?";
+    private static final String ALL = "ORDER BY last_name, first_name";
+
+    private FakeDataSource database;
+    private EmployeeDAO employeeDAO;
+
+    @BeforeEach
+    void setUp() {
+        database = new FakeDataSource();
+        database.respond(BY_ID, List.of(employeeRow(10001, "Garcia")));
+        database.respond(ALL, List.of(employeeRow(10001, "Garcia"), employeeRow(10002, "Lim")));
+        DBConnection.setDataSource(database);
+        EmployeeDAO.clearCache();
+        employeeDAO = new EmployeeDAO();
+    }
+
+    @AfterEach
+    void tearDown() {
+        DBConnection.setDataSource(null);
+        EmployeeDAO.clearCache();
+    }
+
+    @Test
+    @DisplayName("Should read an employee from the database once and count the hit")
+    void testReadThrough() {
+        ExpiringCache<Integer, Employee> cache = EmployeeDAO.getEmployeeCache();
+        long hits = cache.getHitCount();
+        long misses = cache.getMissCount();
+
+        Employee first = employeeDAO.getEmployeeById(10001);
+        Employee second = employeeDAO.getEmployeeById(10001);
+
+        assertEquals(1, queries(BY_ID));
+        assertEquals("Garcia", second.getLastName());
+        assertEquals(hits + 1, cache.getHitCount());
+        assertEquals(misses + 1, cache.getMissCount());
+
+        // Callers get their own copies, so changing one does not change the cache
+        first.setLastName("Changed");
+        assertEquals("Garcia", employeeDAO.getEmployeeById(10001).getLastName());
+    }
+
+    @Test
+    @DisplayName("Should serve single employees from a full list that was just read")
+    void testAllEmployeesFillsByIdCache() {
+        assertEquals(2, employeeDAO.getAllEmployees().size());
+        assertEquals(2, employeeDAO.getAllEmployees().size());
+
+        assertEquals("Lim", employeeDAO.getEmployeeById(10002).getLastName());
+        assertEquals(1, queries(ALL));
+        assertEquals(0, queries(BY_ID));
+    }
+
+    @Test
+    @DisplayName("Should read again after an employee is updated")
+    void testUpdateInvalidates() {
+        employeeDAO.getEmployeeById(10001);
+        employeeDAO.getAllEmployees();
+
+        Employee employee = employeeDAO.getEmployeeById(10001);
+        employee.setBasicSalary(60000.0);
+        employeeDAO.updateEmployee(employee);
+
+        employeeDAO.getEmployeeById(10001);
+        employeeDAO.getAllEmployees();
+        assertEquals(2, queries(BY_ID));
+        assertEquals(2, queries(ALL));
+    }
+
+    @Test
+    @DisplayName("Should read again after an employee is deleted")
+    void testDeleteInvalidates() {
+        employeeDAO.getEmployeeById(10001);
+
+        employeeDAO.deleteEmployee(10001);
+
+        employeeDAO.getEmployeeById(10001);
+        assertEquals(2, queries(BY_ID));
+    }
+
+    private long queries(String sqlFragment) {
+        return database.getExecuted().stream()
+                .filter(run -> run.sql.contains(sqlFragment) && run.sql.startsWith("SELECT"))
+                .count();
+    }
+
+    private static Map<String, Object> employeeRow(int employeeId, String lastName) {
+        return row("employee_id", employeeId, "first_name", "Test", "last_name", lastName,
+                "status", "Regular", "position", "Account Manager", "basic_salary", 50000.0);
+    }
+}
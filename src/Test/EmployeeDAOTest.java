@@ -58,6 +58,18 @@ class EmployeeDAOTest {
         assertEquals("Manuel III", employee.getFirstName());
     }
 
+    @Test
+    @DisplayName("Should load the department through the employee's position")
+    void testGetEmployeeDepartment() {
+        // Act
+        Employee ceo = employeeDAO.getEmployeeById(10001);
+        Employee hrManager = employeeDAO.getEmployeeById(10006);
+
+        // Assert
+        assertEquals("Executive", ceo.getDepartment());
+        assertEquals("Human Resources", hrManager.getDepartment());
+    }
+
     @Test
     @DisplayName("Should return null for non-existent employee")
     void testGetNonExistentEmployee() {
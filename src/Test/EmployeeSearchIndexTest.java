@@ -0,0 +1,91 @@
+package test;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import model.Employee;
+import service.EmployeeSearchIndex;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+@DisplayName("Employee Search Index Tests")
+class EmployeeSearchIndexTest {
+
+    private EmployeeSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = EmployeeSearchIndex.getInstance();
+        // Building from a list keeps the index off the database
+        index.rebuild(Arrays.asList(
+                employee(10001, "Manuel III", "Garcia", "Chief Executive Officer", "N/A"),
+                employee(10002, "Antonio", "Lim", "Chief Operating Officer", "Garcia, Manuel III"),
+                employee(10003, "Bianca Sofia", "Aquino", "Chief Finance Officer", "Garcia, Manuel III"),
+                employee(10004, "Isabella", "Reyes", "Chief Marketing Officer", "Garcia, Manuel III"),
+                employee(10005, "Eduard", "Hernandez", "IT Operations and Systems", "Lim, Antonio"),
+                employee(10006, "Andrea Mae", "Villanueva", "HR Manager", "Lim, Antonio"),
+                employee(10007, "Brad", "San José", "HR Team Leader", "Villanueva, Andrea Mae"),
+                employee(10008, "Alice", "Romualdez", "HR Rank and File", "San José, Brad")));
+    }
+
+    @Test
+    @DisplayName("Should match word prefixes in any field")
+    void testPrefixMatch() {
+        assertEquals(List.of(10006, 10007), ids(index.search("villa"))); // last name, then supervisor
+        assertEquals(List.of(10003), ids(index.search("bian")));
+        assertEquals(List.of(10005), ids(index.search("10005")));
+        assertTrue(ids(index.search("1000")).containsAll(List.of(10001, 10005, 10008)));
+        assertTrue(index.search("xyz").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should require every query word to match")
+    void testAllWordsMustMatch() {
+        assertEquals(List.of(10003), ids(index.search("chief fin")));
+        assertEquals(List.of(10007), ids(index.search("hr team")));
+        assertTrue(index.search("chief manager").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should rank name matches above supervisor matches")
+    void testRanking() {
+        List<Integer> results = ids(index.search("garcia"));
+
+        // Garcia himself first, then the three who report to him by name order
+        assertEquals(List.of(10001, 10003, 10002, 10004), results);
+    }
+
+    @Test
+    @DisplayName("Should ignore case and accents")
+    void testNormalization() {
+        assertEquals(List.of(10007, 10008), ids(index.search("JOSE brad")));
+        assertEquals(List.of(10007, 10008), ids(index.search("Jose")));
+    }
+
+    @Test
+    @DisplayName("Should return everyone in name order for a blank query and honor the limit")
+    void testBlankQueryAndLimit() {
+        List<Integer> everyone = ids(index.search("  "));
+        assertEquals(8, everyone.size());
+        assertEquals(10003, everyone.get(0)); // Aquino sorts first
+
+        assertEquals(2, index.search("chief", 2).size());
+        assertEquals(4, index.search("chief", 0).size());
+    }
+
+    private static Employee employee(int id, String firstName, String lastName, String position, String supervisor) {
+        Employee employee = new Employee(firstName, lastName, id);
+        employee.setPosition(position);
+        employee.setImmediateSupervisor(supervisor);
+        return employee;
+    }
+
+    private static List<Integer> ids(List<Employee> employees) {
+        List<Integer> ids = new ArrayList<>();
+        for (Employee employee : employees) {
+            ids.add(employee.getEmployeeId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,93 @@
+package test;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import util.ExpiringCache;
+
+@DisplayName("Expiring Cache Tests")
+class ExpiringCacheTest {
+
+    @Test
+    @DisplayName("Should return cached values and count hits and misses")
+    void testHitsAndMisses() {
+        ExpiringCache<Integer, String> cache = new ExpiringCache<>(10, 60);
+        assertNull(cache.get(1));
+
+        cache.put(1, "one", cache.stamp());
+
+        assertEquals("one", cache.get(1));
+        assertEquals("one", cache.get(1));
+        assertEquals(2, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(2 / 3.0, cache.getHitRate(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Should drop entries once their time to live has passed")
+    void testExpiry() throws InterruptedException {
+        ExpiringCache<Integer, String> cache = new ExpiringCache<>(10, 1);
+        cache.put(1, "one", cache.stamp());
+        assertEquals("one", cache.get(1));
+
+        Thread.sleep(1100);
+
+        assertNull(cache.get(1));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    @DisplayName("Should evict the least recently used entry when full")
+    void testLeastRecentlyUsedEviction() {
+        ExpiringCache<Integer, String> cache = new ExpiringCache<>(2, 60);
+        cache.put(1, "one", cache.stamp());
+        cache.put(2, "two", cache.stamp());
+
+        // Reading 1 makes 2 the least recently used
+        assertEquals("one", cache.get(1));
+        cache.put(3, "three", cache.stamp());
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals("one", cache.get(1));
+        assertNull(cache.get(2));
+        assertEquals("three", cache.get(3));
+    }
+
+    @Test
+    @DisplayName("Should not cache a value loaded before an invalidation")
+    void testStaleStampIsDropped() {
+        ExpiringCache<Integer, String> cache = new ExpiringCache<>(10, 60);
+
+        long stamp = cache.stamp();
+        // Another thread writes employee 1 while this one is still loading it
+        cache.invalidate(1);
+        cache.put(1, "stale", stamp);
+        assertNull(cache.get(1));
+
+        cache.put(1, "fresh", cache.stamp());
+        assertEquals("fresh", cache.get(1));
+
+        long beforeClear = cache.stamp();
+        cache.invalidateAll();
+        assertEquals(0, cache.size());
+        cache.put(2, "stale", beforeClear);
+        assertNull(cache.get(2));
+    }
+
+    @Test
+    @DisplayName("Should cache nothing when size or time to live is zero")
+    void testDisabled() {
+        ExpiringCache<Integer, String> noSize = new ExpiringCache<>(0, 60);
+        ExpiringCache<Integer, String> noTtl = new ExpiringCache<>(10, 0);
+
+        noSize.put(1, "one", noSize.stamp());
+        noTtl.put(1, "one", noTtl.stamp());
+
+        assertFalse(noSize.isEnabled());
+        assertFalse(noTtl.isEnabled());
+        assertNull(noSize.get(1));
+        assertNull(noTtl.get(1));
+        assertEquals(0, noSize.size());
+    }
+}
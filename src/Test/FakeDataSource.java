@@ -0,0 +1,439 @@
+package test;
+
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.logging.Logger;
+import javax.sql.DataSource;
+
+/**
+ * In-memory stand-in for the database in tests, installed with
+ * DBConnection.setDataSource. Queries answer with the rows registered for
+ * a fragment of their SQL, and every statement run is recorded.
+ */
+class FakeDataSource implements DataSource {
+
+    /**
+     * A statement the code under test ran, with its parameters by index
+     */
+    static final class Executed {
+        final String sql;
+        final Map<Integer, Object> parameters = new TreeMap<>();
+
+        Executed(String sql) {
+            this.sql = sql;
+        }
+    }
+
+    private final Map<String, List<Map<String, Object>>> results = new LinkedHashMap<>();
+    private final List<Executed> executed = Collections.synchronizedList(new ArrayList<>());
+    private final List<String> failing = Collections.synchronizedList(new ArrayList<>());
+    private int openConnections;
+    private int maxOpenConnections;
+    private int statementsCreated;
+    private int statementsClosed;
+    private int commits;
+    private int rollbacks;
+    private int closedInTransaction;
+    private volatile boolean down;
+    private volatile boolean valid = true;
+    private volatile Runnable onValidate;
+
+    /**
+     * Answer queries whose SQL contains {@code sqlFragment} with these rows
+     */
+    FakeDataSource respond(String sqlFragment, List<Map<String, Object>> rows) {
+        results.put(sqlFragment, rows);
+        return this;
+    }
+
+    /**
+     * Fail statements whose SQL contains {@code sqlFragment} when they are executed
+     */
+    FakeDataSource failOn(String sqlFragment) {
+        failing.add(sqlFragment);
+        return this;
+    }
+
+    List<Executed> getExecuted() {
+        return new ArrayList<>(executed);
+    }
+
+    synchronized int getOpenConnections() {
+        return openConnections;
+    }
+
+    /** Most connections open at the same time */
+    synchronized int getMaxOpenConnections() {
+        return maxOpenConnections;
+    }
+
+    /** Statements created on the server by prepareStatement, prepareCall and createStatement */
+    synchronized int getStatementsCreated() {
+        return statementsCreated;
+    }
+
+    /** Statements closed, by their own close() or by their connection's */
+    synchronized int getStatementsClosed() {
+        return statementsClosed;
+    }
+
+    synchronized int getCommits() {
+        return commits;
+    }
+
+    synchronized int getRollbacks() {
+        return rollbacks;
+    }
+
+    /** Connections closed with auto-commit still off */
+    synchronized int getClosedInTransaction() {
+        return closedInTransaction;
+    }
+
+    /** Refuse new connections, as a database that is down does */
+    void setDown(boolean down) {
+        this.down = down;
+    }
+
+    /** Whether open connections pass isValid */
+    void setValid(boolean valid) {
+        this.valid = valid;
+    }
+
+    /** Run on the validating thread at each isValid call, e.g. to hold it there */
+    void onValidate(Runnable action) {
+        this.onValidate = action;
+    }
+
+    /**
+     * One result row; pass column names and values alternately
+     */
+    static Map<String, Object> row(Object... columnsAndValues) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (int i = 0; i < columnsAndValues.length; i += 2) {
+            row.put((String) columnsAndValues[i], columnsAndValues[i + 1]);
+        }
+        return row;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (down) {
+            throw new SQLException("Connection refused");
+        }
+        synchronized (this) {
+            openConnections++;
+            maxOpenConnections = Math.max(maxOpenConnections, openConnections);
+        }
+        return proxy(Connection.class, new ConnectionHandler());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return getConnection();
+    }
+
+    @Override
+    public PrintWriter getLogWriter() {
+        return null;
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) {
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) {
+    }
+
+    @Override
+    public int getLoginTimeout() {
+        return 0;
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        throw new SQLException("Not a wrapper");
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) {
+        return false;
+    }
+
+    private List<Map<String, Object>> rowsFor(String sql) {
+        for (Map.Entry<String, List<Map<String, Object>>> result : results.entrySet()) {
+            if (sql.contains(result.getKey())) {
+                return result.getValue();
+            }
+        }
+        return Collections.emptyList();
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+        private final List<StatementHandler> statements = new ArrayList<>();
+        private boolean closed;
+        private boolean autoCommit = true;
+
+        @Override
+        public Object invoke(Object connection, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "prepareStatement":
+                case "prepareCall":
+                    return statement((Connection) connection, method.getReturnType(), (String) args[0]);
+                case "createStatement":
+                    return statement((Connection) connection, Statement.class, null);
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        // As in JDBC, closing a connection closes its statements
+                        for (StatementHandler statement : statements) {
+                            statement.close();
+                        }
+                        synchronized (FakeDataSource.this) {
+                            openConnections--;
+                            if (!autoCommit) {
+                                closedInTransaction++;
+                            }
+                        }
+                    }
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "isValid": {
+                    Runnable action = onValidate;
+                    if (action != null) {
+                        action.run();
+                    }
+                    return valid && !closed;
+                }
+                case "getAutoCommit":
+                    return autoCommit && !closed;
+                case "setAutoCommit":
+                    autoCommit = (Boolean) args[0];
+                    return null;
+                case "commit":
+                    synchronized (FakeDataSource.this) {
+                        commits++;
+                    }
+                    return null;
+                case "rollback":
+                    synchronized (FakeDataSource.this) {
+                        rollbacks++;
+                    }
+                    return null;
+                default:
+                    return defaultValue(method);
+            }
+        }
+
+        private Object statement(Connection connection, Class<?> type, String sql) {
+            StatementHandler handler = new StatementHandler(connection, sql);
+            statements.add(handler);
+            synchronized (FakeDataSource.this) {
+                statementsCreated++;
+            }
+            return proxy(type, handler);
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+        private final Connection connection;
+        private final String preparedSql;
+        private Executed current;
+        private int batched;
+        private boolean closed;
+        // Fetch size, max rows and query timeout, by setter name without "set"
+        private final Map<String, Integer> settings = new TreeMap<>();
+
+        StatementHandler(Connection connection, String preparedSql) {
+            this.connection = connection;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object statement, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                executed().parameters.put((Integer) args[0], name.equals("setNull") ? null : args[1]);
+                return null;
+            }
+            if (name.startsWith("execute")) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : preparedSql;
+                for (String fragment : failing) {
+                    if (sql != null && sql.contains(fragment)) {
+                        throw new SQLException("Injected failure: " + fragment);
+                    }
+                }
+            }
+            switch (name) {
+                case "setFetchSize":
+                case "setMaxRows":
+                case "setQueryTimeout":
+                    settings.put(name.substring(3), (Integer) args[0]);
+                    return null;
+                case "getFetchSize":
+                case "getMaxRows":
+                case "getQueryTimeout":
+                    return settings.getOrDefault(name.substring(3), 0);
+                case "addBatch":
+                    // Each batched row is recorded as its own statement
+                    executed();
+                    current = null;
+                    batched++;
+                    return null;
+                case "executeBatch": {
+                    int[] counts = new int[batched];
+                    Arrays.fill(counts, 1);
+                    batched = 0;
+                    current = null;
+                    return counts;
+                }
+                case "executeQuery": {
+                    String sql = args != null ? (String) args[0] : preparedSql;
+                    Executed run = args != null ? record(new Executed(sql)) : executed();
+                    current = null;
+                    return proxy(ResultSet.class, new ResultSetHandler(rowsFor(run.sql)));
+                }
+                case "execute":
+                case "executeUpdate": {
+                    if (args != null) {
+                        record(new Executed((String) args[0]));
+                    } else {
+                        executed();
+                    }
+                    current = null;
+                    return name.equals("execute") ? Boolean.FALSE : Integer.valueOf(0);
+                }
+                case "getConnection":
+                    return connection;
+                case "close":
+                    close();
+                    return null;
+                case "isClosed":
+                    return closed;
+                default:
+                    return defaultValue(method);
+            }
+        }
+
+        void close() {
+            if (!closed) {
+                closed = true;
+                synchronized (FakeDataSource.this) {
+                    statementsClosed++;
+                }
+            }
+        }
+
+        private Executed executed() {
+            if (current == null) {
+                current = record(new Executed(preparedSql));
+            }
+            return current;
+        }
+
+        private Executed record(Executed run) {
+            executed.add(run);
+            return run;
+        }
+    }
+
+    private static final class ResultSetHandler implements InvocationHandler {
+        private final List<Map<String, Object>> rows;
+        private int position = -1;
+        private boolean wasNull;
+        private boolean closed;
+
+        ResultSetHandler(List<Map<String, Object>> rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public Object invoke(Object resultSet, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "next":
+                    return ++position < rows.size();
+                case "wasNull":
+                    return wasNull;
+                case "close":
+                    closed = true;
+                    return null;
+                case "isClosed":
+                    return closed;
+                default:
+                    break;
+            }
+            if (!name.startsWith("get") || args == null || !(args[0] instanceof String)) {
+                return defaultValue(method);
+            }
+
+            Object value = rows.get(position).get((String) args[0]);
+            wasNull = value == null;
+            if (value == null) {
+                return defaultValue(method);
+            }
+            Class<?> type = method.getReturnType();
+            if (type == boolean.class) {
+                return value instanceof Boolean ? value : ((Number) value).intValue() != 0;
+            } else if (type == int.class) {
+                return ((Number) value).intValue();
+            } else if (type == long.class) {
+                return ((Number) value).longValue();
+            } else if (type == double.class) {
+                return ((Number) value).doubleValue();
+            } else if (type == BigDecimal.class) {
+                return new BigDecimal(value.toString());
+            } else if (type == String.class) {
+                return value.toString();
+            }
+            return value;
+        }
+    }
+
+    private static Object defaultValue(Method method) {
+        Class<?> type = method.getReturnType();
+        if (type == boolean.class) {
+            return false;
+        } else if (type == int.class) {
+            return 0;
+        } else if (type == long.class) {
+            return 0L;
+        } else if (type == double.class) {
+            return 0.0;
+        } else if (type == float.class) {
+            return 0.0f;
+        } else if (type == short.class) {
+            return (short) 0;
+        } else if (type == byte.class) {
+            return (byte) 0;
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(FakeDataSource.class.getClassLoader(), new Class<?>[] {type}, handler);
+    }
+}
@@ -0,0 +1,86 @@
+package test;
+
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * JDBC driver for {@link FakeDataSource} databases, so code that opens its
+ * own connections from a URL, like the connection pool, can run on them.
+ * Set db.driver to this class and db.url to {@link #register}'s URL.
+ */
+public class FakeDriver implements Driver {
+    private static final String URL_PREFIX = "jdbc:fakedb:";
+    private static final Map<String, FakeDataSource> DATABASES = new ConcurrentHashMap<>();
+
+    static {
+        try {
+            DriverManager.registerDriver(new FakeDriver());
+        } catch (SQLException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * @return URL that connects to the given database
+     */
+    static String register(FakeDataSource database) {
+        String url = URL_PREFIX + UUID.randomUUID();
+        DATABASES.put(url, database);
+        return url;
+    }
+
+    static void unregister(String url) {
+        DATABASES.remove(url);
+    }
+
+    @Override
+    public Connection connect(String url, Properties info) throws SQLException {
+        if (!acceptsURL(url)) {
+            return null;
+        }
+        FakeDataSource database = DATABASES.get(url);
+        if (database == null) {
+            throw new SQLException("No test database at " + url);
+        }
+        return database.getConnection();
+    }
+
+    @Override
+    public boolean acceptsURL(String url) {
+        return url != null && url.startsWith(URL_PREFIX);
+    }
+
+    @Override
+    public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+        return new DriverPropertyInfo[0];
+    }
+
+    @Override
+    public int getMajorVersion() {
+        return 1;
+    }
+
+    @Override
+    public int getMinorVersion() {
+        return 0;
+    }
+
+    @Override
+    public boolean jdbcCompliant() {
+        return false;
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+}
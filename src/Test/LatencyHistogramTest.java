@@ -0,0 +1,73 @@
+package test;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import util.LatencyHistogram;
+import java.util.concurrent.TimeUnit;
+
+@DisplayName("Latency Histogram Tests")
+class LatencyHistogramTest {
+
+    @Test
+    @DisplayName("Should report zeros when nothing was recorded")
+    void testEmpty() {
+        LatencyHistogram.Snapshot snapshot = new LatencyHistogram().snapshot();
+
+        assertEquals(0, snapshot.getCount());
+        assertEquals(0, snapshot.getMeanMillis());
+        assertEquals(0, snapshot.getPercentileMillis(99));
+        assertEquals(0, snapshot.getMaxMillis());
+    }
+
+    @Test
+    @DisplayName("Should estimate percentiles as the upper bound of their bucket")
+    void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 90; i++) {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(500)); // under 1 ms
+        }
+        for (int i = 0; i < 9; i++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(20)); // 10 to 25 ms
+        }
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(3000)); // 2500 to 5000 ms
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(100, snapshot.getCount());
+        assertEquals(32.25, snapshot.getMeanMillis(), 1e-9);
+        assertEquals(1, snapshot.getPercentileMillis(50));
+        assertEquals(1, snapshot.getPercentileMillis(90));
+        assertEquals(25, snapshot.getPercentileMillis(95));
+        assertEquals(25, snapshot.getPercentileMillis(99));
+        // The slowest bucket's bound is 5000 ms, but nothing took longer than 3000 ms
+        assertEquals(3000, snapshot.getPercentileMillis(100));
+        assertEquals(3000, snapshot.getMaxMillis());
+    }
+
+    @Test
+    @DisplayName("Should report the slowest value for durations past the last bucket")
+    void testOverflowBucket() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(2));
+        histogram.record(TimeUnit.SECONDS.toNanos(45));
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(5, snapshot.getPercentileMillis(50)); // 2 ms is in the 2 to 5 ms bucket
+        assertEquals(45000, snapshot.getPercentileMillis(99));
+        assertEquals(45000, snapshot.getMaxMillis());
+    }
+
+    @Test
+    @DisplayName("Should keep counting after a snapshot is taken")
+    void testSnapshotIsAPointInTime() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(7));
+        LatencyHistogram.Snapshot before = histogram.snapshot();
+
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(7));
+
+        assertEquals(1, before.getCount());
+        assertEquals(2, histogram.snapshot().getCount());
+        assertEquals(14, histogram.snapshot().getTotalMillis(), 1e-9);
+    }
+}
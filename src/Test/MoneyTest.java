@@ -0,0 +1,78 @@
+package test;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import util.Money;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+@DisplayName("Money Tests")
+class MoneyTest {
+
+    @Test
+    @DisplayName("Should convert peso amounts to whole centavos")
+    void testOf() {
+        assertEquals(123456, Money.of(1234.56));
+        assertEquals(-123456, Money.of(-1234.56));
+        assertEquals(30, Money.of(0.1 + 0.2));
+        assertEquals(101, Money.of(1.005));
+        assertEquals(100, Money.of(1.005, RoundingMode.DOWN));
+        assertThrows(ArithmeticException.class, () -> Money.of(Double.NaN));
+    }
+
+    @Test
+    @DisplayName("Should round divisions with the requested mode")
+    void testDivideRoundingModes() {
+        // 5 / 2 and -5 / 2 sit exactly on the half
+        assertEquals(3, Money.divide(5, 2, RoundingMode.HALF_UP));
+        assertEquals(-3, Money.divide(-5, 2, RoundingMode.HALF_UP));
+        assertEquals(2, Money.divide(5, 2, RoundingMode.HALF_DOWN));
+        assertEquals(2, Money.divide(5, 2, RoundingMode.HALF_EVEN));
+        assertEquals(4, Money.divide(7, 2, RoundingMode.HALF_EVEN));
+        assertEquals(-2, Money.divide(-5, 2, RoundingMode.CEILING));
+        assertEquals(-3, Money.divide(-5, 2, RoundingMode.FLOOR));
+        assertEquals(3, Money.divide(7, 3, RoundingMode.UP));
+        assertEquals(2, Money.divide(7, 3, RoundingMode.DOWN));
+        assertThrows(ArithmeticException.class, () -> Money.divide(7, 3, RoundingMode.UNNECESSARY));
+        assertThrows(ArithmeticException.class, () -> Money.divide(7, 0, RoundingMode.HALF_UP));
+    }
+
+    @Test
+    @DisplayName("Should agree with BigDecimal for every rounding mode")
+    void testDivideMatchesBigDecimal() {
+        long[] amounts = {-1000001, -2500, -7, -1, 0, 1, 7, 2500, 1000001};
+        long[] divisors = {-22, -3, -2, 1, 2, 3, 22, 480};
+        for (RoundingMode mode : RoundingMode.values()) {
+            if (mode == RoundingMode.UNNECESSARY) {
+                continue;
+            }
+            for (long amount : amounts) {
+                for (long divisor : divisors) {
+                    long expected = BigDecimal.valueOf(amount)
+                            .divide(BigDecimal.valueOf(divisor), 0, mode).longValueExact();
+                    assertEquals(expected, Money.divide(amount, divisor, mode),
+                            amount + " / " + divisor + " " + mode);
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should apply a ratio with a single rounding")
+    void testMultiply() {
+        // 50,000 a month for 21 of 22 days
+        assertEquals(4772727, Money.multiply(Money.ofPesos(50000), 21, 22, RoundingMode.HALF_UP));
+        assertThrows(ArithmeticException.class,
+                () -> Money.multiply(Long.MAX_VALUE, 2, 1, RoundingMode.HALF_UP));
+    }
+
+    @Test
+    @DisplayName("Should format amounts with separators and two decimals")
+    void testFormat() {
+        assertEquals("0.00", Money.format(0));
+        assertEquals("1,234.50", Money.format(123450));
+        assertEquals("-0.05", Money.format(-5));
+        assertEquals(new BigDecimal("-1234.50"), Money.toBigDecimal(-123450));
+    }
+}
@@ -0,0 +1,162 @@
+package test;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static test.FakeDataSource.row;
+
+import dao.EmployeeDAO;
+import model.Employee;
+import model.Payroll;
+import service.PayrollBatchService;
+import service.PayrollBatchService.BatchResult;
+import service.PayrollCalculator;
+import service.PayrollCalculator.PayrollCalculationException;
+import service.PayrollPeriodData;
+import service.StatutoryRates;
+import util.DBConnection;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+@DisplayName("Payroll Batch Service Tests")
+class PayrollBatchServiceTest {
+
+    private static final LocalDate PERIOD_START = LocalDate.of(2024, 6, 1);
+    private static final LocalDate PERIOD_END = LocalDate.of(2024, 6, 30);
+
+    private FakeDataSource database;
+
+    @BeforeEach
+    void setUp() {
+        database = new FakeDataSource();
+        DBConnection.setDataSource(database);
+        EmployeeDAO.clearCache();
+    }
+
+    @AfterEach
+    void tearDown() {
+        DBConnection.setDataSource(null);
+        EmployeeDAO.clearCache();
+    }
+
+    @Test
+    @DisplayName("Should apply statutory rates edited since the last run")
+    void testRunUsesCurrentRates() {
+        respondWithSss("2025-03-01 08:00:00", 999.00);
+        StatutoryRates.refresh();
+        respondWithSss("2025-03-01 08:00:01", 500.00);
+
+        PayrollBatchService service = new PayrollBatchService(new PayrollCalculator(), 1);
+        BatchResult result = service.calculate(periodWith(employee(10001)));
+
+        assertFalse(result.hasFailures());
+        assertEquals(500.00, result.getPayroll(10001).getSss(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Should recalculate only dirty employees that still exist")
+    void testCalculateDirty() {
+        database.respond("FROM payroll_change_log c", List.of(
+                row("employee_id", 10001), row("employee_id", 10003)));
+        database.respond("ORDER BY last_name, first_name", List.of(employeeRow(10001), employeeRow(10002)));
+
+        BatchResult result = fixedRateService().calculateDirty(PERIOD_START, PERIOD_END);
+
+        // 10002 has not changed and 10003 was deleted but is still in the change log
+        assertEquals(List.of(10001), result.getPayrolls().stream().map(p -> p.getEmployeeId()).toList());
+        assertFalse(result.hasFailures());
+
+        FakeDataSource.Executed dirtyQuery = executed("FROM payroll_change_log c");
+        Date start = Date.valueOf(PERIOD_START);
+        Date end = Date.valueOf(PERIOD_END);
+        assertEquals(Map.of(1, start, 2, end, 3, end, 4, start, 5, start, 6, end), dirtyQuery.parameters);
+    }
+
+    @Test
+    @DisplayName("Should not load the period when nothing is dirty")
+    void testCalculateDirtyWithNothingChanged() {
+        BatchResult result = fixedRateService().calculateDirty(PERIOD_START, PERIOD_END);
+
+        assertEquals(0, result.getSuccessCount());
+        assertTrue(database.getExecuted().stream().noneMatch(run -> run.sql.contains("FROM attendance")));
+    }
+
+    @Test
+    @DisplayName("Should save dirty payrolls and purge the change log in a payroll run")
+    void testRunPeriod() {
+        database.respond("FROM payroll_change_log c", List.of(row("employee_id", 10002)));
+        database.respond("ORDER BY last_name, first_name", List.of(employeeRow(10001), employeeRow(10002)));
+
+        BatchResult result = fixedRateService().runPeriod(PERIOD_START, PERIOD_END);
+
+        assertEquals(1, result.getSuccessCount());
+        FakeDataSource.Executed upsert = executed("INSERT INTO payroll (");
+        assertEquals(10002, upsert.parameters.get(1));
+        FakeDataSource.Executed purge = executed("DELETE c FROM payroll_change_log c");
+        assertNotNull(purge.parameters.get(1));
+        assertTrue(purge.sql.contains("p.inputs_change_id >= c.change_id"), "Only processed entries are purged");
+    }
+
+    @Test
+    @DisplayName("Should leave an employee dirty for a change logged during the run")
+    void testChangeLoggedDuringRunStaysDirty() {
+        database.respond("FROM payroll_change_log c", List.of(row("employee_id", 10002)));
+        database.respond("ORDER BY last_name, first_name", List.of(employeeRow(10001), employeeRow(10002)));
+        database.respond("AS latest_change_id", List.of(row("latest_change_id", 41L)));
+
+        // An attendance edit is logged after the snapshot was loaded, before the save
+        PayrollCalculator calculator = new PayrollCalculator(StatutoryRates.defaults()) {
+            @Override
+            public Payroll calculatePayroll(int employeeId, PayrollPeriodData periodData)
+                    throws PayrollCalculationException {
+                database.respond("AS latest_change_id", List.of(row("latest_change_id", 42L)));
+                return super.calculatePayroll(employeeId, periodData);
+            }
+        };
+        BatchResult result = new PayrollBatchService(calculator, 1).runPeriod(PERIOD_START, PERIOD_END);
+
+        // Saved at the snapshot's position, so change 42 is still newer than the payroll
+        assertEquals(41L, result.getChangeLogPosition());
+        assertEquals(41L, executed("INSERT INTO payroll (").parameters.get(22));
+        assertTrue(executed("FROM payroll_change_log c").sql.contains("c.change_id > p.inputs_change_id"));
+    }
+
+    private static PayrollBatchService fixedRateService() {
+        return new PayrollBatchService(new PayrollCalculator(StatutoryRates.defaults()), 1);
+    }
+
+    private FakeDataSource.Executed executed(String sqlFragment) {
+        return database.getExecuted().stream()
+                .filter(run -> run.sql.contains(sqlFragment))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("Not executed: " + sqlFragment));
+    }
+
+    private static Map<String, Object> employeeRow(int employeeId) {
+        return row("employee_id", employeeId, "first_name", "Test", "last_name", "Employee" + employeeId,
+                "status", "Regular", "department", "Executive", "basic_salary", 50000.0);
+    }
+
+    private static PayrollPeriodData periodWith(Employee... employees) {
+        return new PayrollPeriodData(PERIOD_START, PERIOD_END, List.of(employees), null, null, null);
+    }
+
+    private static Employee employee(int id) {
+        Employee employee = new Employee("Test", "Employee " + id, id);
+        employee.setBasicSalary(50000.0);
+        employee.setStatus("Regular");
+        return employee;
+    }
+
+    // One unbounded SSS bracket at a fixed amount, under a rate version ending in updatedAt
+    private void respondWithSss(String updatedAt, double amount) {
+        database.respond("AS rate_count", List.of(
+                row("rate_count", 1, "rates_updated_at", Timestamp.valueOf(updatedAt))));
+        database.respond("ORDER BY contribution_type", List.of(
+                row("contribution_type", "SSS", "effective_date", Date.valueOf("2018-01-01"),
+                        "upper_bound", null, "fixed_amount", amount, "rate", 0, "excess_over", 0,
+                        "min_amount", 0, "max_amount", null, "annualized", false)));
+    }
+}
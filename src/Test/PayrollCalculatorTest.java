@@ -1,15 +1,14 @@
 package test;
 
 import org.junit.jupiter.api.*;
-import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.Mock;
-import org.mockito.MockitoExtensions;
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.Mockito.*;
 
 import dao.*;
 import model.*;
 import service.PayrollCalculator;
+import service.PayrollInputs;
+import service.StatutoryRates;
+import util.Money;
 import java.time.LocalDate;
 import java.sql.Date;
 import java.sql.Time;
@@ -17,22 +16,15 @@ import java.time.LocalTime;
 import java.util.List;
 import java.util.ArrayList;
 
-@ExtendWith(MockitoExtensions.class)
 @DisplayName("Payroll Calculator Tests")
 class PayrollCalculatorTest {
 
-    @Mock
-    private EmployeeDAO mockEmployeeDAO;
-    
-    @Mock
-    private AttendanceDAO mockAttendanceDAO;
-
     private PayrollCalculator payrollCalculator;
     private Employee testEmployee;
 
     @BeforeEach
     void setUp() {
-        payrollCalculator = new PayrollCalculator();
+        payrollCalculator = new PayrollCalculator(StatutoryRates.defaults());
         setupTestEmployee();
     }
 
@@ -102,6 +94,53 @@ class PayrollCalculatorTest {
             () -> payrollCalculator.calculatePayroll(10001, periodStart, periodEnd));
     }
 
+    @Test
+    @DisplayName("Should compute payroll from pre-loaded inputs")
+    void testComputeFromInputs() throws Exception {
+        // Arrange
+        LocalDate periodStart = LocalDate.of(2024, 6, 1);
+        LocalDate periodEnd = LocalDate.of(2024, 6, 30);
+        List<Attendance> attendanceList = createMockAttendanceData();
+        PayrollInputs inputs = new PayrollInputs(testEmployee, periodStart, periodEnd,
+                attendanceList, new ArrayList<>(), new ArrayList<>());
+
+        // Act
+        Payroll payroll = payrollCalculator.compute(inputs);
+
+        // Assert
+        // Basic pay is the monthly rate times days over working days, rounded once to the centavo
+        double basicPay = Money.toPesos(Money.multiply(Money.ofPesos(50000), attendanceList.size(),
+                PayrollCalculator.PayrollConstants.STANDARD_WORKING_DAYS_PER_MONTH, Money.DEFAULT_ROUNDING));
+        assertAll("Computed payroll",
+            () -> assertEquals(10001, payroll.getEmployeeId()),
+            () -> assertEquals(attendanceList.size(), payroll.getDaysWorked()),
+            () -> assertEquals(basicPay, payroll.getGrossEarnings(), 0.001),
+            () -> assertEquals(0.0, payroll.getLateDeduction(), 0.001),
+            () -> assertEquals(0.0, payroll.getUndertimeDeduction(), 0.001),
+            () -> assertEquals(payroll.getGrossPay() - payroll.getTotalDeductions(), payroll.getNetPay(), 0.001)
+        );
+    }
+
+    @Test
+    @DisplayName("Should give identical results for identical inputs")
+    void testComputeIsDeterministic() throws Exception {
+        PayrollInputs inputs = new PayrollInputs(testEmployee, LocalDate.of(2024, 6, 1), LocalDate.of(2024, 6, 30),
+                createMockAttendanceData(), null, null);
+
+        Payroll first = payrollCalculator.compute(inputs);
+        Payroll second = payrollCalculator.compute(inputs);
+
+        assertEquals(first.getNetPay(), second.getNetPay());
+        assertEquals(first.getTotalDeductions(), second.getTotalDeductions());
+    }
+
+    @Test
+    @DisplayName("Should reject null inputs")
+    void testComputeNullInputs() {
+        assertThrows(PayrollCalculator.PayrollCalculationException.class,
+            () -> payrollCalculator.compute(null));
+    }
+
     private List<Attendance> createMockAttendanceData() {
         List<Attendance> attendanceList = new ArrayList<>();
         
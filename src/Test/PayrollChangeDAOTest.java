@@ -0,0 +1,63 @@
+package test;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+import dao.PayrollChangeDAO;
+import util.DBConnection;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+
+@DisplayName("Payroll Change DAO Tests")
+class PayrollChangeDAOTest {
+
+    private static final LocalDate PERIOD_START = LocalDate.of(2024, 6, 1);
+    private static final LocalDate PERIOD_END = LocalDate.of(2024, 6, 30);
+
+    private PayrollChangeDAO changeDAO;
+
+    @BeforeEach
+    void setUp() {
+        changeDAO = new PayrollChangeDAO();
+    }
+
+    @Test
+    @DisplayName("Should keep the same input version while nothing changes")
+    void testVersionIsStable() {
+        assertEquals(changeDAO.getPeriodInputVersion(PERIOD_START, PERIOD_END),
+                changeDAO.getPeriodInputVersion(PERIOD_START, PERIOD_END));
+    }
+
+    @Test
+    @DisplayName("Should change the input version when a rate is edited in place")
+    void testVersionChangesWithRate() throws Exception {
+        String before = changeDAO.getPeriodInputVersion(PERIOD_START, PERIOD_END);
+
+        // The bracket count and creation times stay the same; only updated_at moves
+        adjustPagibigCap(1);
+        try {
+            assertNotEquals(before, changeDAO.getPeriodInputVersion(PERIOD_START, PERIOD_END));
+        } finally {
+            adjustPagibigCap(-1);
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject missing period dates")
+    void testNullDates() {
+        assertThrows(IllegalArgumentException.class,
+                () -> changeDAO.getPeriodInputVersion(null, PERIOD_END));
+        assertThrows(IllegalArgumentException.class,
+                () -> changeDAO.getPeriodInputVersion(PERIOD_START, null));
+    }
+
+    private static void adjustPagibigCap(int delta) throws Exception {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                     "UPDATE statutory_rate_brackets SET max_amount = max_amount + ? "
+                     + "WHERE contribution_type = 'PAGIBIG' AND max_amount IS NOT NULL")) {
+            stmt.setInt(1, delta);
+            assertTrue(stmt.executeUpdate() > 0, "No Pag-IBIG bracket with a cap to edit");
+        }
+    }
+}
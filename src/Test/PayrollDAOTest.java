@@ -0,0 +1,143 @@
+package test;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import static test.FakeDataSource.row;
+
+import dao.PayrollDAO;
+import model.Payroll;
+import service.PayrollCalculator;
+import service.PayrollReport;
+import service.ReportGenerator;
+import service.StatutoryRates;
+import util.DBConnection;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+@DisplayName("Payroll DAO Tests")
+class PayrollDAOTest {
+
+    private static final LocalDate PERIOD_START = LocalDate.of(2024, 6, 1);
+    private static final LocalDate PERIOD_END = LocalDate.of(2024, 6, 30);
+
+    private FakeDataSource database;
+
+    @BeforeEach
+    void setUp() {
+        database = new FakeDataSource();
+        DBConnection.setDataSource(database);
+    }
+
+    @AfterEach
+    void tearDown() {
+        DBConnection.setDataSource(null);
+    }
+
+    @Test
+    @DisplayName("Should read a finalized period and its finalized check in one statement")
+    void testFinalizedPeriodInOneStatement() {
+        database.respond("FROM employees e LEFT JOIN payroll p", List.of(
+                savedRow(10001, 90000.00, 20000.00),
+                savedRow(10002, 60000.00, 12500.50)));
+
+        PayrollReport report = new ReportGenerator(new PayrollCalculator(StatutoryRates.defaults()))
+                .generateMonthlyPayrollReport(PERIOD_START, "tester");
+
+        assertEquals(1, database.getExecuted().size());
+        assertEquals(0, database.getOpenConnections());
+        assertEquals(2, report.getPayrollData().size());
+        assertEquals(2, report.getSummary().getTotalEmployees());
+        assertEquals(150000.00, report.getSummary().getTotalGrossPay(), 0.001);
+        assertEquals(32500.50, report.getSummary().getTotalDeductions(), 0.001);
+        assertEquals(117499.50, report.getSummary().getTotalNetPay(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Should bind the change window and the period to the right parameters")
+    void testPeriodParameters() {
+        new PayrollDAO().getPayrollsForPeriod(PERIOD_START, PERIOD_END);
+
+        Map<Integer, Object> parameters = database.getExecuted().get(0).parameters;
+        // Changes overlapping the period, then the period the payroll row is saved under
+        assertEquals(Date.valueOf(PERIOD_END), parameters.get(1));
+        assertEquals(Date.valueOf(PERIOD_START), parameters.get(2));
+        assertEquals(Date.valueOf(PERIOD_START), parameters.get(3));
+        assertEquals(Date.valueOf(PERIOD_END), parameters.get(4));
+    }
+
+    @Test
+    @DisplayName("Should judge staleness by change log position, not by save time")
+    void testStalenessUsesChangeLogPosition() {
+        new PayrollDAO().getPayrollsForPeriod(PERIOD_START, PERIOD_END);
+
+        // A change logged while a run was calculating is older than the row's updated_at
+        String sql = database.getExecuted().get(0).sql;
+        assertTrue(sql.contains("c.change_id > p.inputs_change_id"));
+        assertFalse(sql.contains("updated_at"));
+    }
+
+    @Test
+    @DisplayName("Should separate missing and out-of-date payroll from saved rows")
+    void testStaleEmployees() {
+        Map<String, Object> outOfDate = savedRow(10002, 60000.00, 12500.50);
+        outOfDate.put("stale", 1);
+        database.respond("FROM employees e LEFT JOIN payroll p", List.of(
+                savedRow(10001, 90000.00, 20000.00),
+                outOfDate,
+                // No saved payroll: the payroll columns are all NULL
+                row("current_employee_id", 10003, "payroll_id", null, "stale", 1)));
+
+        PayrollDAO.PeriodPayrolls saved = new PayrollDAO().getPayrollsForPeriod(PERIOD_START, PERIOD_END);
+
+        assertFalse(saved.isFinalized());
+        assertEquals(List.of(10001), List.copyOf(saved.getPayrolls().keySet()));
+        assertEquals(List.of(10002, 10003), saved.getStaleEmployeeIds());
+        Payroll payroll = saved.getPayrolls().get(10001);
+        assertEquals(7, payroll.getPayrollId());
+        assertEquals(90000.00, payroll.getGrossPay(), 0.001);
+        assertEquals(Date.valueOf(PERIOD_END), payroll.getPeriodEnd());
+    }
+
+    @Test
+    @DisplayName("Should reject missing period dates")
+    void testNullDates() {
+        PayrollDAO payrollDAO = new PayrollDAO();
+        assertThrows(IllegalArgumentException.class, () -> payrollDAO.getPayrollsForPeriod(null, PERIOD_END));
+        assertThrows(IllegalArgumentException.class, () -> payrollDAO.getPayrollsForPeriod(PERIOD_START, null));
+        assertTrue(database.getExecuted().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should stream payroll history into a CSV export with its totals")
+    void testExportPayrollHistoryToCSV(@TempDir Path directory) throws Exception {
+        Map<String, Object> garcia = savedRow(10001, 90000.00, 20000.00);
+        garcia.put("employee_name", "Manuel Garcia");
+        Map<String, Object> lim = savedRow(10002, 60000.00, 12500.50);
+        lim.put("employee_name", "Antonio Lim");
+        database.respond("JOIN employees e ON e.employee_id = p.employee_id", List.of(garcia, lim));
+        Path file = directory.resolve("history.csv");
+
+        int rows = new ReportGenerator(new PayrollCalculator(StatutoryRates.defaults()))
+                .exportPayrollHistoryToCSV(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31), file.toString());
+
+        String csv = Files.readString(file);
+        assertEquals(2, rows);
+        assertTrue(csv.contains("Manuel Garcia"));
+        assertTrue(csv.contains("Antonio Lim"));
+        assertTrue(csv.contains("Total Employees,2"));
+        assertTrue(csv.contains("Total Net Pay,117499.50"));
+        assertEquals(0, database.getOpenConnections());
+    }
+
+    private static Map<String, Object> savedRow(int employeeId, double grossPay, double deductions) {
+        return row("current_employee_id", employeeId, "payroll_id", 7, "employee_id", employeeId,
+                "period_start", Date.valueOf(PERIOD_START), "period_end", Date.valueOf(PERIOD_END),
+                "gross_pay", grossPay, "total_deductions", deductions, "net_pay", grossPay - deductions,
+                "stale", 0);
+    }
+}
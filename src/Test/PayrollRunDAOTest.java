@@ -0,0 +1,135 @@
+package test;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static test.FakeDataSource.row;
+
+import dao.PayrollRunDAO;
+import model.Payroll;
+import util.DBConnection;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@DisplayName("Payroll Run DAO Tests")
+class PayrollRunDAOTest {
+
+    private static final Date PERIOD_START = Date.valueOf(LocalDate.of(2024, 6, 1));
+    private static final Date PERIOD_END = Date.valueOf(LocalDate.of(2024, 6, 30));
+    private static final String RUN_DESCRIPTION = "Payroll 2024-06-01 to 2024-06-30";
+
+    private FakeDataSource database;
+
+    @BeforeEach
+    void setUp() {
+        database = new FakeDataSource();
+        DBConnection.setDataSource(database);
+    }
+
+    @AfterEach
+    void tearDown() {
+        DBConnection.setDataSource(null);
+    }
+
+    @Test
+    @DisplayName("Should save a run in one committed transaction")
+    void testSaveRunCommits() {
+        database.respond("SELECT employee_id, payroll_id FROM payroll", List.of(
+                row("employee_id", 10001, "payroll_id", 501), row("employee_id", 10002, "payroll_id", 502)));
+        Payroll second = payroll(10002);
+        Payroll first = payroll(10001);
+
+        int saved = new PayrollRunDAO(1).saveRun(List.of(second, first));
+
+        assertEquals(2, saved);
+        assertEquals(1, database.getCommits());
+        assertEquals(0, database.getRollbacks());
+        assertEquals(0, database.getClosedInTransaction());
+        assertEquals(0, database.getOpenConnections());
+        // Rows are written in key order whatever order the run is in
+        assertEquals(List.of(10001, 10002), employeeIds(executed("INSERT INTO payroll (")));
+        // SSS and tax for each payroll; lines with no amount are skipped
+        assertEquals(4, executed("INSERT INTO deductions").size());
+        assertEquals(501, first.getPayrollId());
+        assertEquals(502, second.getPayrollId());
+    }
+
+    @Test
+    @DisplayName("Should roll back the whole run when a statement fails")
+    void testSaveRunRollsBack() {
+        database.failOn("INSERT INTO deductions");
+        Payroll payroll = payroll(10001);
+
+        assertThrows(RuntimeException.class, () -> new PayrollRunDAO().saveRun(List.of(payroll)));
+
+        assertEquals(0, database.getCommits());
+        assertEquals(1, database.getRollbacks());
+        assertEquals(0, database.getClosedInTransaction());
+        assertEquals(0, database.getOpenConnections());
+        assertEquals(0, payroll.getPayrollId());
+        assertTrue(executed("SELECT employee_id, payroll_id FROM payroll").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should replace the deduction lines of a run saved again")
+    void testSaveRunAgain() {
+        PayrollRunDAO runDAO = new PayrollRunDAO();
+
+        runDAO.saveRun(List.of(payroll(10001)));
+        runDAO.saveRun(List.of(payroll(10001)));
+
+        assertEquals(2, database.getCommits());
+        assertEquals(0, database.getClosedInTransaction());
+        assertTrue(executed("INSERT INTO payroll (").get(0).sql.contains("ON DUPLICATE KEY UPDATE"));
+
+        // Each save deletes this run's earlier lines before writing its own
+        List<FakeDataSource.Executed> statements = database.getExecuted();
+        List<String> order = new ArrayList<>();
+        for (FakeDataSource.Executed statement : statements) {
+            if (statement.sql.contains("DELETE FROM deductions")) {
+                assertEquals(10001, statement.parameters.get(1));
+                assertEquals(PERIOD_END, statement.parameters.get(2));
+                assertEquals(RUN_DESCRIPTION, statement.parameters.get(3));
+                order.add("delete");
+            } else if (statement.sql.contains("INSERT INTO deductions")) {
+                assertEquals(RUN_DESCRIPTION, statement.parameters.get(4));
+                order.add("insert");
+            }
+        }
+        assertEquals(List.of("delete", "insert", "insert", "delete", "insert", "insert"), order);
+    }
+
+    @Test
+    @DisplayName("Should not open a connection for an empty run")
+    void testEmptyRun() {
+        assertEquals(0, new PayrollRunDAO().saveRun(List.of()));
+        assertTrue(database.getExecuted().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should reject a run with a payroll missing its period")
+    void testIncompletePayroll() {
+        Payroll incomplete = new Payroll();
+        incomplete.setEmployeeId(10001);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new PayrollRunDAO().saveRun(List.of(payroll(10002), incomplete)));
+        assertTrue(database.getExecuted().isEmpty());
+    }
+
+    private static Payroll payroll(int employeeId) {
+        Payroll payroll = new Payroll(employeeId, PERIOD_START, PERIOD_END);
+        payroll.setSss(1125.00);
+        payroll.setTax(2500.00);
+        return payroll;
+    }
+
+    private List<FakeDataSource.Executed> executed(String sqlFragment) {
+        return database.getExecuted().stream().filter(run -> run.sql.contains(sqlFragment)).toList();
+    }
+
+    private static List<Object> employeeIds(List<FakeDataSource.Executed> statements) {
+        return statements.stream().map(run -> run.parameters.get(1)).toList();
+    }
+}
@@ -0,0 +1,160 @@
+package test;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static test.FakeDataSource.row;
+
+import dao.EmployeeDAO;
+import model.Employee;
+import model.Payroll;
+import service.JasperReportService;
+import service.PayrollBatchService;
+import service.PayrollCalculator;
+import service.PayslipArchiveService;
+import service.PayslipArchiveService.ArchiveResult;
+import service.PayslipArchiveService.Grouping;
+import service.StatutoryRates;
+import util.DBConnection;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.ZipFile;
+
+@DisplayName("Payslip Archive Service Tests")
+class PayslipArchiveServiceTest {
+
+    private static final LocalDate PERIOD_START = LocalDate.of(2024, 6, 1);
+    private static final LocalDate PERIOD_END = LocalDate.of(2024, 6, 30);
+
+    private Path directory;
+    private FakeDataSource database;
+    private PayslipArchiveService archiveService;
+    private final List<Payroll> payrolls = new ArrayList<>();
+    private final Map<Integer, Employee> employeesById = new HashMap<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("payslip-archive-test");
+        database = new FakeDataSource();
+        DBConnection.setDataSource(database);
+        EmployeeDAO.clearCache();
+        archiveService = new PayslipArchiveService(new TextPayslipRenderer(),
+                new PayrollBatchService(new PayrollCalculator(StatutoryRates.defaults()), 1), 2);
+
+        addEmployee(10001, "Garcia", "Executive");
+        addEmployee(10002, "Lim", "Executive");
+        addEmployee(10006, "Villanueva", "Human Resources");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        DBConnection.setDataSource(null);
+        EmployeeDAO.clearCache();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toArray(Path[]::new)) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should write one archive per department")
+    void testArchiveByDepartment() throws IOException {
+        ArchiveResult result = archiveService.writeArchive(payrolls, employeesById, Grouping.BY_DEPARTMENT,
+                directory, null);
+
+        assertEquals(3, result.getPayslipCount());
+        assertEquals(2, result.getArchives().size());
+        assertEquals(2, entryCount(directory.resolve("Payslips_Executive_2024_06.zip")));
+        assertEquals(1, entryCount(directory.resolve("Payslips_Human_Resources_2024_06.zip")));
+    }
+
+    @Test
+    @DisplayName("Should put every payslip in one archive when not grouping")
+    void testSingleArchive() throws IOException {
+        Path target = directory.resolve("payslips.zip");
+
+        ArchiveResult result = archiveService.writeArchive(payrolls, employeesById, Grouping.SINGLE, target, null);
+
+        assertEquals(List.of(target), result.getArchives());
+        assertEquals(3, entryCount(target));
+    }
+
+    @Test
+    @DisplayName("Should print a finalized period from its saved payroll without recalculating")
+    void testArchiveFinalizedPeriod() throws IOException {
+        database.respond("FROM employees e LEFT JOIN payroll p", List.of(savedRow(10001), savedRow(10002)));
+        database.respond("ORDER BY last_name, first_name", List.of(employeeRow(10001, 50000), employeeRow(10002, 40000)));
+        Path target = directory.resolve("payslips.zip");
+
+        ArchiveResult result = archiveService.archivePeriod(PERIOD_START, PERIOD_END, Grouping.SINGLE, target, null);
+
+        assertEquals(2, result.getPayslipCount());
+        assertFalse(result.hasFailures());
+        assertEquals(2, entryCount(target));
+        // Nothing a calculation reads was queried
+        assertTrue(database.getExecuted().stream().noneMatch(run -> run.sql.contains("FROM attendance")));
+    }
+
+    @Test
+    @DisplayName("Should report employees whose payroll calculation failed")
+    void testArchiveReportsCalculationFailures() throws IOException {
+        // No saved payroll, so the period is calculated
+        database.respond("FROM employees e LEFT JOIN payroll p", List.of(
+                row("current_employee_id", 10001, "payroll_id", null, "stale", 1),
+                row("current_employee_id", 10002, "payroll_id", null, "stale", 1)));
+        // A basic salary of zero fails validation
+        database.respond("ORDER BY last_name, first_name", List.of(employeeRow(10001, 50000), employeeRow(10002, 0)));
+        Path target = directory.resolve("payslips.zip");
+
+        ArchiveResult result = archiveService.archivePeriod(PERIOD_START, PERIOD_END, Grouping.SINGLE, target, null);
+
+        assertEquals(1, result.getPayslipCount());
+        assertEquals(1, entryCount(target));
+        assertEquals(List.of(10002), List.copyOf(result.getFailures().keySet()));
+    }
+
+    private static Map<String, Object> savedRow(int employeeId) {
+        return row("current_employee_id", employeeId, "payroll_id", employeeId, "employee_id", employeeId,
+                "period_start", Date.valueOf(PERIOD_START), "period_end", Date.valueOf(PERIOD_END),
+                "gross_pay", 30000.00, "total_deductions", 5000.00, "net_pay", 25000.00, "stale", 0);
+    }
+
+    private static Map<String, Object> employeeRow(int employeeId, double basicSalary) {
+        return row("employee_id", employeeId, "first_name", "Test", "last_name", "Employee" + employeeId,
+                "status", "Regular", "department", "Executive", "basic_salary", basicSalary);
+    }
+
+    private void addEmployee(int id, String lastName, String department) {
+        Employee employee = new Employee("Test", lastName, id);
+        employee.setDepartment(department);
+        employeesById.put(id, employee);
+        payrolls.add(new Payroll(id, Date.valueOf(LocalDate.of(2024, 6, 1)), Date.valueOf(LocalDate.of(2024, 6, 30))));
+    }
+
+    private static int entryCount(Path archive) throws IOException {
+        assertTrue(Files.isRegularFile(archive), "Missing archive " + archive.getFileName());
+        try (ZipFile zip = new ZipFile(archive.toFile())) {
+            return zip.size();
+        }
+    }
+
+    /**
+     * Stands in for the Jasper renderer, which the archive logic does not depend on
+     */
+    private static final class TextPayslipRenderer extends JasperReportService {
+        @Override
+        public byte[] renderPayslipPDF(Employee employee, Payroll payroll) {
+            return ("Payslip " + employee.getEmployeeId()).getBytes(StandardCharsets.UTF_8);
+        }
+    }
+}
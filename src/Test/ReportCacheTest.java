@@ -0,0 +1,141 @@
+package test;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import model.Payroll;
+import service.ReportCache;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+@DisplayName("Report Cache Tests")
+class ReportCacheTest {
+
+    private static final LocalDate PERIOD_START = LocalDate.of(2024, 6, 1);
+    private static final LocalDate PERIOD_END = LocalDate.of(2024, 6, 30);
+
+    private Path directory;
+    private String version;
+    private ReportCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("report-cache-test");
+        version = "v1";
+        cache = new ReportCache((start, end) -> version, 10, 60, directory, 10);
+        loads = new AtomicInteger();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    @Test
+    @DisplayName("Should load once per input version and keep a file on disk")
+    void testVersionedEntries() throws Exception {
+        assertEquals("payroll v1", load());
+        assertEquals("payroll v1", load());
+        assertEquals(1, loads.get());
+        assertEquals(1, fileCount());
+
+        version = "v2";
+        assertEquals("payroll v2", load());
+        assertEquals(2, loads.get());
+        // The superseded version's file is removed
+        assertEquals(1, fileCount());
+    }
+
+    @Test
+    @DisplayName("Should serve the disk tier to a new cache")
+    void testDiskTier() throws Exception {
+        load();
+
+        ReportCache restarted = new ReportCache((start, end) -> version, 10, 60, directory, 10);
+        assertEquals("payroll v1", restarted.get("payroll", PERIOD_START, PERIOD_END, () -> "recomputed"));
+    }
+
+    @Test
+    @DisplayName("Should leave files alone when marked stale and drop them on the next lookup")
+    void testMarkStale() throws Exception {
+        load();
+
+        cache.markStale();
+        assertEquals(1, fileCount());
+
+        assertFalse(cache.lookup("payroll", PERIOD_START, PERIOD_END).isHit());
+        assertEquals(0, fileCount());
+        assertEquals("payroll v1", load());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("Should not store a value loaded before the cache was marked stale")
+    void testStoreAfterMarkStale() throws Exception {
+        ReportCache.Lookup<String> lookup = cache.lookup("payroll", PERIOD_START, PERIOD_END);
+        cache.markStale();
+        lookup.store("stale");
+
+        assertEquals(0, fileCount());
+        assertFalse(cache.lookup("payroll", PERIOD_START, PERIOD_END).isHit());
+    }
+
+    @Test
+    @DisplayName("Should read cached payroll maps back from disk")
+    void testDiskTierPayroll() throws Exception {
+        LinkedHashMap<Integer, Payroll> payrolls = new LinkedHashMap<>();
+        payrolls.put(10001, new Payroll(10001, Date.valueOf(PERIOD_START), Date.valueOf(PERIOD_END)));
+        cache.get("payroll", PERIOD_START, PERIOD_END, () -> payrolls);
+
+        ReportCache restarted = new ReportCache((start, end) -> version, 10, 60, directory, 10);
+        LinkedHashMap<Integer, Payroll> read = restarted.get("payroll", PERIOD_START, PERIOD_END, LinkedHashMap::new);
+        assertEquals(10001, read.get(10001).getEmployeeId());
+        assertEquals(Date.valueOf(PERIOD_END), read.get(10001).getPeriodEnd());
+    }
+
+    @Test
+    @DisplayName("Should reject and delete a disk entry holding a type it does not cache")
+    void testDiskTierRejectsOtherTypes() throws Exception {
+        load();
+        Path file;
+        try (Stream<Path> files = Files.list(directory)) {
+            file = files.filter(path -> path.toString().endsWith(".ser")).findFirst().orElseThrow();
+        }
+        try (OutputStream out = Files.newOutputStream(file);
+             ObjectOutputStream objects = new ObjectOutputStream(out)) {
+            objects.writeObject(new AtomicInteger(42));
+        }
+
+        ReportCache restarted = new ReportCache((start, end) -> version, 10, 60, directory, 10);
+        assertEquals("recomputed", restarted.get("payroll", PERIOD_START, PERIOD_END, () -> "recomputed"));
+        // The rejected file was replaced by the recomputed entry
+        assertEquals(1, fileCount());
+        assertEquals("recomputed", new ReportCache((start, end) -> version, 10, 60, directory, 10)
+                .get("payroll", PERIOD_START, PERIOD_END, () -> "again"));
+    }
+
+    private String load() throws Exception {
+        return cache.get("payroll", PERIOD_START, PERIOD_END, () -> {
+            loads.incrementAndGet();
+            return "payroll " + version;
+        });
+    }
+
+    private long fileCount() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(".ser")).count();
+        }
+    }
+}
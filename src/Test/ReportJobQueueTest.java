@@ -0,0 +1,179 @@
+package test;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import dao.ReportJobDAO;
+import service.ReportJob;
+import service.ReportJob.Priority;
+import service.ReportJob.Status;
+import service.ReportJobQueue;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+@DisplayName("Report Job Queue Tests")
+class ReportJobQueueTest {
+
+    private final List<String> logged = new CopyOnWriteArrayList<>();
+    private ReportJobQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        // One worker, so jobs queued behind a blocker run strictly in queue order
+        queue = new ReportJobQueue(new RecordingReportJobDAO(), 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        queue.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should run higher priority jobs first, in request order within a priority")
+    void testPriorityOrder() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        ReportJob<String> blocker = queue.submit("blocker", 1, null, Priority.NORMAL, job -> {
+            release.await();
+            return "blocker";
+        });
+
+        List<String> runOrder = new CopyOnWriteArrayList<>();
+        ReportJob<String> last = null;
+        String[] names = {"low", "normal", "high-1", "high-2"};
+        Priority[] priorities = {Priority.LOW, Priority.NORMAL, Priority.HIGH, Priority.HIGH};
+        for (int i = 0; i < names.length; i++) {
+            String name = names[i];
+            ReportJob<String> job = queue.submit(name, 1, Map.of("n", i), priorities[i], j -> {
+                runOrder.add(name);
+                return name;
+            });
+            if (priorities[i] == Priority.LOW) {
+                last = job;
+            }
+        }
+
+        // The running blocker is still active and sorts among the normal priority jobs
+        assertEquals(List.of("high-1", "high-2", "blocker", "normal", "low"), names(queue.getActiveJobs()));
+        release.countDown();
+
+        assertEquals("blocker", blocker.getResult().get(5, TimeUnit.SECONDS));
+        assertEquals("low", last.getResult().get(5, TimeUnit.SECONDS));
+        assertEquals(List.of("high-1", "high-2", "normal", "low"), runOrder);
+        assertEquals(Status.SUCCESS, last.getStatus());
+    }
+
+    @Test
+    @DisplayName("Should cancel a queued job without running it")
+    void testCancelQueuedJob() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        ReportJob<String> blocker = queue.submit("blocker", 1, null, Priority.NORMAL, job -> {
+            release.await();
+            return "blocker";
+        });
+        boolean[] ran = new boolean[1];
+        ReportJob<String> queued = queue.submit("queued", 1, null, Priority.HIGH, job -> {
+            ran[0] = true;
+            return "queued";
+        });
+
+        assertTrue(queued.cancel());
+        assertEquals(Status.CANCELLED, queued.getStatus());
+        assertTrue(queued.getResult().isCancelled());
+        assertNull(queue.getJob(queued.getId()));
+        assertFalse(queued.cancel());
+
+        release.countDown();
+        blocker.getResult().get(5, TimeUnit.SECONDS);
+        assertFalse(ran[0]);
+    }
+
+    @Test
+    @DisplayName("Should interrupt a running job when it is cancelled")
+    void testCancelRunningJob() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        ReportJob<String> running = queue.submit("running", 1, null, Priority.NORMAL, job -> {
+            started.countDown();
+            Thread.sleep(TimeUnit.SECONDS.toMillis(30));
+            return "finished";
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertEquals(Status.IN_PROGRESS, running.getStatus());
+
+        assertTrue(running.cancel());
+
+        assertThrows(CancellationException.class,
+                () -> running.getResult().get(5, TimeUnit.SECONDS));
+        assertEquals(Status.CANCELLED, running.getStatus());
+
+        // The worker is free again and does not carry the interrupt into the next job
+        ReportJob<Boolean> next = queue.submit("next", 1, null, Priority.NORMAL,
+                job -> Thread.currentThread().isInterrupted());
+        assertFalse(next.getResult().get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Should record a failed task without stopping the queue")
+    void testFailedJob() throws Exception {
+        ReportJob<String> failing = queue.submit("failing", 1, null, Priority.NORMAL, job -> {
+            throw new IllegalStateException("no data");
+        });
+        ReportJob<String> next = queue.submit("next", 1, null, Priority.NORMAL, job -> "ok");
+
+        assertEquals("ok", next.getResult().get(5, TimeUnit.SECONDS));
+        assertEquals(Status.FAILED, failing.getStatus());
+        assertEquals("no data", failing.getErrorMessage());
+        assertEquals(0, queue.getActiveJobCount());
+    }
+
+    @Test
+    @DisplayName("Should log the final status of jobs cancelled by shutdown")
+    void testShutdownLogsCancelledJobs() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        ReportJob<String> running = queue.submit("running", 1, null, Priority.NORMAL, job -> {
+            started.countDown();
+            Thread.sleep(TimeUnit.SECONDS.toMillis(30));
+            return "finished";
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        queue.shutdown();
+
+        assertThrows(CancellationException.class, () -> running.getResult().get(5, TimeUnit.SECONDS));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!logged.contains("1 Failed") && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        // report_generation_log has no Cancelled status
+        assertEquals(List.of("enqueue running", "1 In Progress", "1 Failed"), logged);
+    }
+
+    private static List<String> names(List<ReportJob<?>> jobs) {
+        List<String> names = new ArrayList<>();
+        for (ReportJob<?> job : jobs) {
+            names.add(job.getTemplateName());
+        }
+        return names;
+    }
+
+    /**
+     * Records log writes instead of calling the report log procedures
+     */
+    private final class RecordingReportJobDAO extends ReportJobDAO {
+        @Override
+        public int enqueue(String templateName, int requestedBy, String parametersJson, int priority) {
+            logged.add("enqueue " + templateName);
+            return logged.size();
+        }
+
+        @Override
+        public void updateStatus(int logId, String status, String outputPath, String errorMessage,
+                                 Integer generationTimeMs, Long fileSize) {
+            logged.add(logId + " " + status);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package test;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static test.FakeDataSource.row;
+
+import util.SqlStatistics;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+@DisplayName("SQL Statistics Tests")
+class SqlStatisticsTest {
+
+    private static final String SELECT_EMPLOYEES = "SELECT * FROM employees";
+
+    private FakeDataSource database;
+    private Connection connection;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        database = new FakeDataSource()
+                .respond(SELECT_EMPLOYEES, List.of(row("employee_id", 10001), row("employee_id", 10002)));
+        connection = database.getConnection();
+    }
+
+    @Test
+    @DisplayName("Should count executions and the rows read per statement")
+    void testExecutionsAndRows() throws SQLException {
+        SqlStatistics statistics = new SqlStatistics(true, 60_000, 10);
+
+        for (int i = 0; i < 3; i++) {
+            try (PreparedStatement stmt = prepare(statistics, SELECT_EMPLOYEES);
+                 ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    rs.getInt("employee_id");
+                }
+            }
+        }
+
+        SqlStatistics.StatementSnapshot snapshot = statistics.getSnapshots().get(0);
+        assertEquals(SELECT_EMPLOYEES, snapshot.getSql());
+        assertEquals(3, snapshot.getExecutions());
+        assertEquals(6, snapshot.getRows());
+        assertEquals(0, snapshot.getErrors());
+        assertEquals(3, statistics.getTotalExecutions());
+        assertEquals(0, statistics.getSlowQueryCount());
+    }
+
+    @Test
+    @DisplayName("Should count failed executions as errors")
+    void testErrors() {
+        SqlStatistics statistics = new SqlStatistics(true, 60_000, 10);
+        PreparedStatement failing = (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { PreparedStatement.class }, (proxy, method, args) -> {
+                    throw new SQLException("Table 'payroll' is locked");
+                });
+        PreparedStatement stmt = (PreparedStatement) statistics.instrument(failing, PreparedStatement.class, "UPDATE payroll");
+
+        assertThrows(SQLException.class, stmt::executeUpdate);
+
+        assertEquals(1, statistics.getTotalErrors());
+        assertEquals(1, statistics.getSnapshots().get(0).getExecutions());
+    }
+
+    @Test
+    @DisplayName("Should count statements past the limit under one entry")
+    void testOtherStatementsBucket() throws SQLException {
+        SqlStatistics statistics = new SqlStatistics(true, 60_000, 2);
+
+        for (String sql : List.of("SELECT 1", "SELECT 2", "SELECT 3", "SELECT 4", "SELECT 1")) {
+            try (PreparedStatement stmt = prepare(statistics, sql)) {
+                stmt.executeQuery().close();
+            }
+        }
+
+        assertEquals(3, statistics.getStatementCount());
+        assertEquals(5, statistics.getTotalExecutions());
+        assertEquals(2, executionsOf(statistics, "SELECT 1"));
+        assertEquals(1, executionsOf(statistics, "SELECT 2"));
+        assertEquals(2, executionsOf(statistics, "(other statements)"));
+    }
+
+    @Test
+    @DisplayName("Should take the SQL of a plain statement from each execute call")
+    void testPlainStatement() throws SQLException {
+        SqlStatistics statistics = new SqlStatistics(true, 60_000, 10);
+        Statement stmt = statistics.instrument(connection.createStatement(), Statement.class, null);
+
+        stmt.executeUpdate("DELETE FROM payroll_change_log");
+        stmt.execute("DELETE FROM payroll_change_log");
+
+        assertEquals(2, executionsOf(statistics, "DELETE FROM payroll_change_log"));
+    }
+
+    @Test
+    @DisplayName("Should count every execution at or above the threshold as slow")
+    void testSlowQueries() throws SQLException {
+        SqlStatistics statistics = new SqlStatistics(true, 0, 10);
+
+        try (PreparedStatement stmt = prepare(statistics, SELECT_EMPLOYEES)) {
+            stmt.executeQuery().close();
+            stmt.executeQuery().close();
+        }
+
+        assertEquals(2, statistics.getSlowQueryCount());
+        statistics.reset();
+        assertEquals(0, statistics.getSlowQueryCount());
+        assertEquals(0, statistics.getStatementCount());
+    }
+
+    @Test
+    @DisplayName("Should hand statements back untouched while disabled")
+    void testDisabled() throws SQLException {
+        SqlStatistics statistics = new SqlStatistics(false, 0, 10);
+        PreparedStatement raw = connection.prepareStatement(SELECT_EMPLOYEES);
+
+        assertSame(raw, statistics.instrument(raw, PreparedStatement.class, SELECT_EMPLOYEES));
+        assertEquals(0, statistics.getStatementCount());
+    }
+
+    private PreparedStatement prepare(SqlStatistics statistics, String sql) throws SQLException {
+        return (PreparedStatement) statistics.instrument(connection.prepareStatement(sql), PreparedStatement.class, sql);
+    }
+
+    private static long executionsOf(SqlStatistics statistics, String sql) {
+        for (SqlStatistics.StatementSnapshot snapshot : statistics.getSnapshots()) {
+            if (snapshot.getSql().equals(sql)) {
+                return snapshot.getExecutions();
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,143 @@
+package test;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static test.FakeDataSource.row;
+
+import model.StatutoryRateBracket;
+import service.StatutoryRateTable;
+import service.StatutoryRateTable.ContributionType;
+import service.StatutoryRates;
+import util.DBConnection;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+@DisplayName("Statutory Rate Table Tests")
+class StatutoryRateTableTest {
+
+    private static final LocalDate AS_OF = LocalDate.of(2024, 6, 30);
+    private static final double DELTA = 0.001;
+
+    private StatutoryRates rates;
+
+    private FakeDataSource database;
+
+    @BeforeEach
+    void setUp() {
+        rates = StatutoryRates.defaults();
+        database = new FakeDataSource();
+        DBConnection.setDataSource(database);
+    }
+
+    @AfterEach
+    void tearDown() {
+        DBConnection.setDataSource(null);
+    }
+
+    @Test
+    @DisplayName("Should apply SSS bracket upper bounds inclusively")
+    void testSSSBracketEdges() {
+        assertEquals(180.00, rates.calculate(ContributionType.SSS, 4000, AS_OF), DELTA);
+        assertEquals(202.50, rates.calculate(ContributionType.SSS, 4000.01, AS_OF), DELTA);
+        assertEquals(360.00, rates.calculate(ContributionType.SSS, 10000, AS_OF), DELTA);
+        assertEquals(900.00, rates.calculate(ContributionType.SSS, 25000, AS_OF), DELTA);
+        assertEquals(1125.00, rates.calculate(ContributionType.SSS, 50000, AS_OF), DELTA);
+    }
+
+    @Test
+    @DisplayName("Should clamp PhilHealth and cap Pag-IBIG")
+    void testPhilHealthAndPagIBIG() {
+        assertEquals(500.00, rates.calculate(ContributionType.PHILHEALTH, 10000, AS_OF), DELTA);
+        assertEquals(1250.00, rates.calculate(ContributionType.PHILHEALTH, 50000, AS_OF), DELTA);
+        assertEquals(5000.00, rates.calculate(ContributionType.PHILHEALTH, 500000, AS_OF), DELTA);
+
+        assertEquals(15.00, rates.calculate(ContributionType.PAGIBIG, 1500, AS_OF), DELTA);
+        assertEquals(100.00, rates.calculate(ContributionType.PAGIBIG, 5000, AS_OF), DELTA);
+        assertEquals(200.00, rates.calculate(ContributionType.PAGIBIG, 50000, AS_OF), DELTA);
+    }
+
+    @Test
+    @DisplayName("Should calculate withholding tax on annualized brackets")
+    void testWithholdingTax() {
+        assertEquals(0.0, rates.calculate(ContributionType.WITHHOLDING_TAX, 20000, AS_OF), DELTA);
+        // 600,000 a year: 22,500 + 20% of 200,000
+        assertEquals(62500.0 / 12, rates.calculate(ContributionType.WITHHOLDING_TAX, 50000, AS_OF), DELTA);
+        // 12,000,000 a year: 2,202,500 + 35% of 4,000,000
+        assertEquals(3602500.0 / 12, rates.calculate(ContributionType.WITHHOLDING_TAX, 1000000, AS_OF), DELTA);
+    }
+
+    @Test
+    @DisplayName("Should reject brackets out of order")
+    void testCompileRejectsUnorderedBrackets() {
+        LocalDate effective = LocalDate.of(2025, 1, 1);
+        List<StatutoryRateBracket> brackets = List.of(
+                new StatutoryRateBracket("SSS", effective, 5000.0, 200, 0, 0, 0, null, false),
+                new StatutoryRateBracket("SSS", effective, 4000.0, 180, 0, 0, 0, null, false),
+                new StatutoryRateBracket("SSS", effective, null, 300, 0, 0, 0, null, false));
+
+        assertThrows(IllegalArgumentException.class, () ->
+                StatutoryRateTable.compile(ContributionType.SSS, effective, brackets));
+    }
+
+    @Test
+    @DisplayName("Should treat the last bracket as unbounded")
+    void testLastBracketIsUnbounded() {
+        LocalDate effective = LocalDate.of(2025, 1, 1);
+        StatutoryRateTable table = StatutoryRateTable.compile(ContributionType.SSS, effective, List.of(
+                new StatutoryRateBracket("SSS", effective, 5000.0, 250, 0, 0, 0, null, false),
+                new StatutoryRateBracket("SSS", effective, 10000.0, 500, 0, 0, 0, null, false)));
+
+        assertEquals(250.0, table.calculate(100), DELTA);
+        assertEquals(500.0, table.calculate(1_000_000), DELTA);
+        assertEquals(2, table.getBracketCount());
+    }
+
+    @Test
+    @DisplayName("Should reload shared rates only when the rate tables change")
+    void testRefreshFollowsRateVersion() {
+        respondWithSss("2025-01-01 08:00:00", 999.00);
+        StatutoryRates loaded = StatutoryRates.refresh();
+        assertEquals(999.00, loaded.calculate(ContributionType.SSS, 50000, AS_OF), DELTA);
+        // Types with no rows keep the built-in schedule
+        assertEquals(200.00, loaded.calculate(ContributionType.PAGIBIG, 50000, AS_OF), DELTA);
+
+        // Same version: the brackets are not read again
+        respondWithSss("2025-01-01 08:00:00", 500.00);
+        int executed = database.getExecuted().size();
+        assertSame(loaded, StatutoryRates.refresh());
+        assertEquals(executed + 1, database.getExecuted().size());
+        assertSame(loaded, StatutoryRates.getInstance());
+
+        // Edited in place: only updated_at moves
+        respondWithSss("2025-01-01 08:00:01", 500.00);
+        StatutoryRates edited = StatutoryRates.refresh();
+        assertNotSame(loaded, edited);
+        assertEquals(500.00, edited.calculate(ContributionType.SSS, 50000, AS_OF), DELTA);
+        assertSame(edited, StatutoryRates.getInstance());
+    }
+
+    @Test
+    @DisplayName("Should keep loaded rates when the rate tables cannot be read")
+    void testRefreshKeepsRatesWhenDatabaseDown() {
+        respondWithSss("2025-02-01 08:00:00", 750.00);
+        StatutoryRates loaded = StatutoryRates.refresh();
+
+        database.setDown(true);
+
+        assertSame(loaded, StatutoryRates.refresh());
+        assertEquals(750.00, StatutoryRates.getInstance().calculate(ContributionType.SSS, 50000, AS_OF), DELTA);
+    }
+
+    // One unbounded SSS bracket at a fixed amount, under a rate version ending in updatedAt
+    private void respondWithSss(String updatedAt, double amount) {
+        database.respond("AS rate_count", List.of(
+                row("rate_count", 1, "rates_updated_at", Timestamp.valueOf(updatedAt))));
+        Map<String, Object> bracket = row("contribution_type", "SSS", "effective_date", Date.valueOf("2018-01-01"),
+                "upper_bound", null, "fixed_amount", amount, "rate", 0, "excess_over", 0,
+                "min_amount", 0, "max_amount", null, "annualized", false);
+        database.respond("ORDER BY contribution_type", List.of(bracket));
+    }
+}
@@ -8,7 +8,23 @@ import org.junit.platform.suite.api.Suite;
     EmployeeModelTest.class,
     AttendanceModelTest.class,
     PayrollCalculatorTest.class,
+    StatutoryRateTableTest.class,
+    MoneyTest.class,
+    ExpiringCacheTest.class,
+    EmployeeDAOCacheTest.class,
+    LatencyHistogramTest.class,
+    SqlStatisticsTest.class,
+    EmployeeSearchIndexTest.class,
+    CoalescingRefresherTest.class,
+    PayrollBatchServiceTest.class,
+    PayslipArchiveServiceTest.class,
+    ReportCacheTest.class,
+    ReportJobQueueTest.class,
     EmployeeDAOTest.class,
+    PayrollChangeDAOTest.class,
+    PayrollDAOTest.class,
+    PayrollRunDAOTest.class,
+    DatabaseConnectionPoolTest.class,
     LoginFormTest.class
 })
 public class TestSuite {
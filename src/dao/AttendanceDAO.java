@@ -6,12 +6,36 @@ import java.sql.*;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.*;
+import java.util.function.BiConsumer;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 
 public class AttendanceDAO {
     private static final Logger logger = Logger.getLogger(AttendanceDAO.class.getName());
 
+    private static final String SELECT_DATABASE_TIME = "SELECT CURRENT_TIMESTAMP";
+
+    // A null change time (parameters 3 and 4) selects the whole range
+    private static final String SELECT_ATTENDANCE_WITH_NAMES = """
+            SELECT a.id, a.employee_id, a.date, a.log_in, a.log_out,
+                   CONCAT(TRIM(e.first_name), ' ', TRIM(e.last_name)) AS employee_name
+            FROM attendance a
+            JOIN employees e ON e.employee_id = a.employee_id
+            WHERE a.date >= ? AND a.date <= ?
+              AND (? IS NULL OR a.updated_at >= ?)
+            ORDER BY a.date DESC, a.id DESC
+            """;
+
+    // Kept current by the attendance triggers; months with every row deleted read as zero
+    private static final String SELECT_MONTHLY_SUMMARY = """
+            SELECT employee_id, days_present, total_work_minutes, late_count, undertime_count
+            FROM attendance_monthly_summary
+            WHERE month_start = ? AND days_present > 0
+            ORDER BY employee_id
+            """;
+
+    private static final String CALL_REBUILD_MONTHLY_SUMMARY = "{CALL sp_rebuild_attendance_monthly_summary(?, ?)}";
+
     public List<Attendance> getAttendanceByEmployeeId(int empId) {
         if (empId <= 0) {
             throw new IllegalArgumentException("Employee ID must be positive");
@@ -78,6 +102,95 @@ public class AttendanceDAO {
     }
 
 
+    /**
+     * Retrieves attendance for every employee within a date range in a single
+     * query, grouped by employee ID. Used by company-wide payroll runs so each
+     * employee does not need its own round trip.
+     * @param periodStart Start date of the period (inclusive)
+     * @param periodEnd End date of the period (inclusive)
+     * @return Map of employee ID to attendance records, newest first
+     */
+    public Map<Integer, List<Attendance>> getAttendanceBetweenDatesGroupedByEmployee(LocalDate periodStart, LocalDate periodEnd) {
+        if (periodStart == null || periodEnd == null) {
+            throw new IllegalArgumentException("Period start and end dates cannot be null");
+        }
+        if (periodStart.isAfter(periodEnd)) {
+            throw new IllegalArgumentException("Period start date cannot be after end date");
+        }
+
+        Map<Integer, List<Attendance>> grouped = new HashMap<>();
+        String query = "SELECT * FROM attendance WHERE date >= ? AND date <= ? ORDER BY employee_id, date DESC";
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+
+            stmt.setDate(1, java.sql.Date.valueOf(periodStart));
+            stmt.setDate(2, java.sql.Date.valueOf(periodEnd));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Attendance a = mapResultSetToAttendance(rs);
+                    grouped.computeIfAbsent(a.getEmployeeId(), id -> new ArrayList<>()).add(a);
+                }
+            }
+
+        } catch (SQLException ex) {
+            logger.log(Level.SEVERE, "Error retrieving attendance between dates: " + periodStart + " and " + periodEnd, ex);
+            throw new RuntimeException("Failed to retrieve attendance records", ex);
+        }
+
+        return grouped;
+    }
+
+    /**
+     * Stream attendance records in a date range, newest first, each with the
+     * employee's full name, in one query. Rows are handed to the consumer as
+     * they arrive rather than collected into a list.
+     * @param periodStart Start date (inclusive)
+     * @param periodEnd End date (inclusive)
+     * @param changedSince Only rows inserted or updated at or after this
+     *                     database time, or null for all rows
+     * @param consumer Receives each record and the employee's name
+     * @return Database time taken before the read, to pass as changedSince next time
+     */
+    public Timestamp streamAttendanceWithEmployeeNames(LocalDate periodStart, LocalDate periodEnd, Timestamp changedSince,
+                                                       BiConsumer<Attendance, String> consumer) {
+        if (periodStart == null || periodEnd == null) {
+            throw new IllegalArgumentException("Period start and end dates cannot be null");
+        }
+        if (periodStart.isAfter(periodEnd)) {
+            throw new IllegalArgumentException("Period start date cannot be after end date");
+        }
+
+        try (Connection conn = DBConnection.getConnection()) {
+            Timestamp readStarted;
+            try (PreparedStatement stmt = conn.prepareStatement(SELECT_DATABASE_TIME);
+                 ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                readStarted = rs.getTimestamp(1);
+            }
+
+            try (PreparedStatement stmt = DBConnection.prepareStreamingStatement(conn, SELECT_ATTENDANCE_WITH_NAMES)) {
+                stmt.setDate(1, java.sql.Date.valueOf(periodStart));
+                stmt.setDate(2, java.sql.Date.valueOf(periodEnd));
+                stmt.setTimestamp(3, changedSince);
+                stmt.setTimestamp(4, changedSince);
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        consumer.accept(mapResultSetToAttendance(rs), rs.getString("employee_name"));
+                    }
+                }
+            }
+            return readStarted;
+
+        } catch (SQLException ex) {
+            logger.log(Level.SEVERE, "Error streaming attendance between dates: " + periodStart + " and " + periodEnd, ex);
+            throw new RuntimeException("Failed to retrieve attendance records", ex);
+        }
+    }
+
+
     public int insertAttendance(Attendance attendance) {
         // ENHANCED: Comprehensive input validation
         if (attendance == null) {
@@ -400,4 +513,96 @@ public class AttendanceDAO {
         attendance.setLogOut(rs.getTime("log_out")); // Using 'log_out' from database instead of 'logout_time'
         return attendance;
     }
+
+    /**
+     * Attendance totals of every employee for one month, read from
+     * attendance_monthly_summary instead of the attendance rows
+     * @param month Any date in the month
+     * @return summaries by employee ID; employees with no attendance are absent
+     */
+    public Map<Integer, MonthlySummary> getMonthlySummaries(LocalDate month) {
+        if (month == null) {
+            throw new IllegalArgumentException("Month cannot be null");
+        }
+
+        Map<Integer, MonthlySummary> summaries = new LinkedHashMap<>();
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_MONTHLY_SUMMARY)) {
+
+            stmt.setDate(1, java.sql.Date.valueOf(month.withDayOfMonth(1)));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    int employeeId = rs.getInt("employee_id");
+                    summaries.put(employeeId, new MonthlySummary(employeeId, rs.getInt("days_present"),
+                            rs.getLong("total_work_minutes"), rs.getInt("late_count"), rs.getInt("undertime_count")));
+                }
+            }
+
+        } catch (SQLException ex) {
+            logger.log(Level.SEVERE, "Error retrieving attendance summary for " + month, ex);
+            throw new RuntimeException("Failed to retrieve attendance summary", ex);
+        }
+
+        return summaries;
+    }
+
+    /**
+     * Recompute the monthly summary of every month overlapping a date range
+     * from the attendance table, e.g. to backfill or after a bulk load that
+     * bypassed the triggers
+     * @param from Any date in the first month
+     * @param to Any date in the last month
+     */
+    public void rebuildMonthlySummaries(LocalDate from, LocalDate to) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Dates cannot be null");
+        }
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Start date cannot be after end date");
+        }
+
+        try (Connection conn = DBConnection.getConnection();
+             CallableStatement stmt = conn.prepareCall(CALL_REBUILD_MONTHLY_SUMMARY)) {
+
+            stmt.setDate(1, java.sql.Date.valueOf(from));
+            stmt.setDate(2, java.sql.Date.valueOf(to));
+            stmt.execute();
+            logger.info("Rebuilt attendance monthly summary from " + from + " to " + to);
+
+        } catch (SQLException ex) {
+            logger.log(Level.SEVERE, "Error rebuilding attendance summary from " + from + " to " + to, ex);
+            throw new RuntimeException("Failed to rebuild attendance summary", ex);
+        }
+    }
+
+    /**
+     * One employee's attendance totals for a month
+     */
+    public static final class MonthlySummary {
+        private final int employeeId;
+        private final int daysPresent;
+        private final long totalWorkMinutes;
+        private final int lateCount;
+        private final int undertimeCount;
+
+        MonthlySummary(int employeeId, int daysPresent, long totalWorkMinutes, int lateCount, int undertimeCount) {
+            this.employeeId = employeeId;
+            this.daysPresent = daysPresent;
+            this.totalWorkMinutes = totalWorkMinutes;
+            this.lateCount = lateCount;
+            this.undertimeCount = undertimeCount;
+        }
+
+        public int getEmployeeId() { return employeeId; }
+        public int getDaysPresent() { return daysPresent; }
+        public long getTotalWorkMinutes() { return totalWorkMinutes; }
+        public double getTotalWorkHours() { return totalWorkMinutes / 60.0; }
+        public double getAverageHoursPerDay() { return daysPresent > 0 ? getTotalWorkHours() / daysPresent : 0; }
+        /** Days logged in after 08:15 */
+        public int getLateCount() { return lateCount; }
+        /** Days logged out before 17:00 */
+        public int getUndertimeCount() { return undertimeCount; }
+    }
 }
\ No newline at end of file
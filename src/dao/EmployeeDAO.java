@@ -1,6 +1,8 @@
 package dao;
 
+import util.ConfigurationManager;
 import util.DBConnection;
+import util.ExpiringCache;
 import model.Employee;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -11,15 +13,53 @@ import java.sql.Date;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+/**
+ * Data Access Object for employees.
+ *
+ * Reads go through a cache shared by every EmployeeDAO instance; it is
+ * cleared for an employee by insertEmployee, updateEmployee and
+ * deleteEmployee. Callers always get their own copies, so editing a
+ * returned Employee never changes what the cache holds.
+ */
 public class EmployeeDAO {
     private static final Logger LOGGER = Logger.getLogger(EmployeeDAO.class.getName());
 
+    private static final String ALL_EMPLOYEES_KEY = "all";
+
+    // employees has no department column; it follows from the position title via positions and departments
+    private static final String SELECT_EMPLOYEES =
+            "SELECT e.*, (SELECT d.department_name FROM positions p " +
+            "JOIN departments d ON d.department_id = p.department_id " +
+            "WHERE p.position_title = e.position LIMIT 1) AS department " +
+            "FROM employees e ";
+
+    private static final ExpiringCache<Integer, Employee> EMPLOYEE_CACHE;
+    private static final ExpiringCache<String, List<Employee>> ALL_EMPLOYEES_CACHE;
+
+    private static final List<IntConsumer> CHANGE_LISTENERS = new CopyOnWriteArrayList<>();
+
+    static {
+        ConfigurationManager config = ConfigurationManager.getInstance();
+        EMPLOYEE_CACHE = new ExpiringCache<>(config.getEmployeeCacheMaxSize(), config.getEmployeeCacheTtlSeconds());
+        ALL_EMPLOYEES_CACHE = new ExpiringCache<>(1, config.getEmployeeCacheTtlSeconds());
+    }
+
     public List<Employee> getAllEmployees() {
+        List<Employee> cached = ALL_EMPLOYEES_CACHE.get(ALL_EMPLOYEES_KEY);
+        if (cached != null) {
+            return copyOf(cached);
+        }
+
+        long stamp = ALL_EMPLOYEES_CACHE.stamp();
+        long employeeStamp = EMPLOYEE_CACHE.stamp();
         List<Employee> employees = new ArrayList<>();
-        String query = "SELECT * FROM employees ORDER BY last_name, first_name";
+        String query = SELECT_EMPLOYEES + "ORDER BY last_name, first_name";
 
         try (Connection conn = DBConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(query);
@@ -35,11 +75,24 @@ public class EmployeeDAO {
             throw new RuntimeException("Failed to fetch employees", ex);
         }
 
+        // Cache private copies so the caller's list can be changed freely
+        List<Employee> snapshot = copyOf(employees);
+        ALL_EMPLOYEES_CACHE.put(ALL_EMPLOYEES_KEY, snapshot, stamp);
+        for (Employee e : snapshot) {
+            EMPLOYEE_CACHE.put(e.getEmployeeId(), e, employeeStamp);
+        }
+
         return employees;
     }
 
     public Employee getEmployeeById(int employeeId) {
-        String query = "SELECT * FROM employees WHERE employee_id = ?";
+        Employee cached = EMPLOYEE_CACHE.get(employeeId);
+        if (cached != null) {
+            return copyOf(cached);
+        }
+
+        long stamp = EMPLOYEE_CACHE.stamp();
+        String query = SELECT_EMPLOYEES + "WHERE employee_id = ?";
 
         try (Connection conn = DBConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(query)) {
@@ -48,7 +101,9 @@ public class EmployeeDAO {
             ResultSet rs = stmt.executeQuery();
 
             if (rs.next()) {
-                return mapResultSetToEmployee(rs);
+                Employee e = mapResultSetToEmployee(rs);
+                EMPLOYEE_CACHE.put(employeeId, copyOf(e), stamp);
+                return e;
             }
 
         } catch (SQLException ex) {
@@ -171,6 +226,7 @@ public class EmployeeDAO {
             stmt.setDouble(19, e.getHourlyRate());
 
             int result = stmt.executeUpdate();
+            invalidateCache(e.getEmployeeId());
 
             if (result > 0) {
                 LOGGER.info("Successfully inserted employee: " + e.getEmployeeId() + " - " + e.getFullName());
@@ -245,6 +301,7 @@ public class EmployeeDAO {
             stmt.setInt(19, e.getEmployeeId());
 
             int result = stmt.executeUpdate();
+            invalidateCache(e.getEmployeeId());
 
             if (result > 0) {
                 LOGGER.info("Successfully updated employee: " + e.getEmployeeId() + " - " + e.getFullName());
@@ -272,6 +329,7 @@ public class EmployeeDAO {
 
             stmt.setInt(1, employeeId);
             int result = stmt.executeUpdate();
+            invalidateCache(employeeId);
 
             if (result > 0) {
                 LOGGER.info("Successfully deleted employee with ID: " + employeeId);
@@ -299,7 +357,7 @@ public class EmployeeDAO {
         }
 
         List<Employee> employees = new ArrayList<>();
-        String query = "SELECT * FROM employees WHERE status = ? ORDER BY last_name, first_name";
+        String query = SELECT_EMPLOYEES + "WHERE status = ? ORDER BY last_name, first_name";
 
         try (Connection conn = DBConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(query)) {
@@ -326,7 +384,7 @@ public class EmployeeDAO {
         }
 
         List<Employee> employees = new ArrayList<>();
-        String query = "SELECT * FROM employees WHERE position = ? ORDER BY last_name, first_name";
+        String query = SELECT_EMPLOYEES + "WHERE position = ? ORDER BY last_name, first_name";
 
         try (Connection conn = DBConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(query)) {
@@ -353,7 +411,7 @@ public class EmployeeDAO {
         }
 
         List<Employee> employees = new ArrayList<>();
-        String query = "SELECT * FROM employees WHERE immediate_supervisor = ? ORDER BY last_name, first_name";
+        String query = SELECT_EMPLOYEES + "WHERE immediate_supervisor = ? ORDER BY last_name, first_name";
 
         try (Connection conn = DBConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(query)) {
@@ -380,7 +438,7 @@ public class EmployeeDAO {
         }
 
         List<Employee> employees = new ArrayList<>();
-        String query = "SELECT * FROM employees WHERE " +
+        String query = SELECT_EMPLOYEES + "WHERE " +
                 "CONCAT(first_name, ' ', last_name) LIKE ? OR " +
                 "employee_id LIKE ? OR " +
                 "position LIKE ? " +
@@ -409,6 +467,88 @@ public class EmployeeDAO {
         return employees;
     }
 
+    /**
+     * Drop an employee and the all-employees list from the cache
+     */
+    private static void invalidateCache(int employeeId) {
+        EMPLOYEE_CACHE.invalidate(employeeId);
+        ALL_EMPLOYEES_CACHE.invalidateAll();
+
+        for (IntConsumer listener : CHANGE_LISTENERS) {
+            try {
+                listener.accept(employeeId);
+            } catch (RuntimeException ex) {
+                LOGGER.log(Level.WARNING, "Employee change listener failed for ID: " + employeeId, ex);
+            }
+        }
+    }
+
+    /**
+     * Be told the ID of every employee inserted, updated or deleted through this DAO.
+     * Listeners run on the writing thread and should only record the ID.
+     */
+    public static void addChangeListener(IntConsumer listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener cannot be null");
+        }
+        CHANGE_LISTENERS.add(listener);
+    }
+
+    /**
+     * Clear every cached employee, e.g. after changing the employees table outside this DAO
+     */
+    public static void clearCache() {
+        EMPLOYEE_CACHE.invalidateAll();
+        ALL_EMPLOYEES_CACHE.invalidateAll();
+    }
+
+    /**
+     * Hit/miss statistics of the by-ID and all-employees caches
+     */
+    public static String getCacheStatus() {
+        return "Employee " + EMPLOYEE_CACHE.getStats() + "; All-employees " + ALL_EMPLOYEES_CACHE.getStats();
+    }
+
+    public static ExpiringCache<Integer, Employee> getEmployeeCache() {
+        return EMPLOYEE_CACHE;
+    }
+
+    private static List<Employee> copyOf(List<Employee> employees) {
+        List<Employee> copies = new ArrayList<>(employees.size());
+        for (Employee e : employees) {
+            copies.add(copyOf(e));
+        }
+        return copies;
+    }
+
+    // Same fields, in the same order, as mapResultSetToEmployee
+    private static Employee copyOf(Employee source) {
+        Employee e = new Employee();
+        e.setEmployeeId(source.getEmployeeId());
+        e.setLastName(source.getLastName());
+        e.setFirstName(source.getFirstName());
+        if (source.getBirthday() != null) {
+            e.setBirthday(source.getBirthday());
+        }
+        e.setAddress(source.getAddress());
+        e.setPhoneNumber(source.getPhoneNumber());
+        e.setSssNumber(source.getSssNumber());
+        e.setPhilhealthNumber(source.getPhilhealthNumber());
+        e.setTinNumber(source.getTinNumber());
+        e.setPagibigNumber(source.getPagibigNumber());
+        e.setStatus(source.getStatus());
+        e.setPosition(source.getPosition());
+        e.setImmediateSupervisor(source.getImmediateSupervisor());
+        e.setDepartment(source.getDepartment());
+        e.setBasicSalary(source.getBasicSalary());
+        e.setRiceSubsidy(source.getRiceSubsidy());
+        e.setPhoneAllowance(source.getPhoneAllowance());
+        e.setClothingAllowance(source.getClothingAllowance());
+        e.setGrossSemiMonthlyRate(source.getGrossSemiMonthlyRate());
+        e.setHourlyRate(source.getHourlyRate());
+        return e;
+    }
+
     /**
      * Enhanced mapResultSetToEmployee with better null handling
      */
@@ -432,6 +572,7 @@ public class EmployeeDAO {
         e.setStatus(rs.getString("status"));
         e.setPosition(rs.getString("position"));
         e.setImmediateSupervisor(rs.getString("immediate_supervisor"));
+        e.setDepartment(rs.getString("department"));
         e.setBasicSalary(rs.getDouble("basic_salary"));
         e.setRiceSubsidy(rs.getDouble("rice_subsidy"));
         e.setPhoneAllowance(rs.getDouble("phone_allowance"));
@@ -468,6 +609,80 @@ public class EmployeeDAO {
         }
     }
 
+    /**
+     * Stream every employee in name order to a consumer, for exports.
+     * Rows are read through a server cursor and are not cached, so the
+     * whole directory is never held in memory.
+     * @param consumer Receives each employee
+     * @return Number of employees read
+     */
+    public int streamAllEmployees(Consumer<Employee> consumer) {
+        String query = SELECT_EMPLOYEES + "ORDER BY last_name, first_name";
+        int count = 0;
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = DBConnection.prepareStreamingStatement(conn, query);
+             ResultSet rs = stmt.executeQuery()) {
+
+            while (rs.next()) {
+                consumer.accept(mapResultSetToEmployee(rs));
+                count++;
+            }
+
+        } catch (SQLException ex) {
+            LOGGER.log(Level.SEVERE, "Error streaming employees", ex);
+            throw new RuntimeException("Failed to fetch employees", ex);
+        }
+
+        return count;
+    }
+
+    /**
+     * Get the average basic salary without loading employees
+     * @return average basic salary, or 0 if there are no employees
+     */
+    public double getAverageBasicSalary() {
+        String query = "SELECT COALESCE(AVG(basic_salary), 0) FROM employees";
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query);
+             ResultSet rs = stmt.executeQuery()) {
+
+            if (rs.next()) {
+                return rs.getDouble(1);
+            }
+
+        } catch (SQLException ex) {
+            LOGGER.log(Level.SEVERE, "Error getting average basic salary", ex);
+            throw new RuntimeException("Failed to get average salary", ex);
+        }
+
+        return 0.0;
+    }
+
+    /**
+     * Get the total number of employees without loading them
+     * @return number of employees
+     */
+    public int getEmployeeCount() {
+        String query = "SELECT COUNT(*) FROM employees";
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query);
+             ResultSet rs = stmt.executeQuery()) {
+
+            if (rs.next()) {
+                return rs.getInt(1);
+            }
+
+        } catch (SQLException ex) {
+            LOGGER.log(Level.SEVERE, "Error getting employee count", ex);
+            throw new RuntimeException("Failed to get employee count", ex);
+        }
+
+        return 0;
+    }
+
     /**
      * Get the count of employees by status
      * @param status Employment status
@@ -27,6 +27,15 @@ public class LeaveRequestDAO {
         ORDER BY start_date DESC
         """;
 
+    private static final String SELECT_APPROVED_BY_DATE_RANGE = """
+        SELECT * FROM leave_request
+        WHERE status = ?
+        AND ((start_date >= ? AND start_date <= ?)
+             OR (end_date >= ? AND end_date <= ?)
+             OR (start_date <= ? AND end_date >= ?))
+        ORDER BY employee_id, start_date DESC
+        """;
+
     private static final String SELECT_BY_STATUS =
             "SELECT * FROM leave_request WHERE status = ? ORDER BY start_date DESC";
 
@@ -168,6 +177,50 @@ public class LeaveRequestDAO {
         return approvedLeaves;
     }
 
+    /**
+     * Retrieves approved leave requests overlapping a date range for all
+     * employees in a single query, grouped by employee ID
+     * @param periodStart Start date of the period
+     * @param periodEnd End date of the period
+     * @return Map of employee ID to approved leave requests within the date range
+     * @throws IllegalArgumentException if parameters are invalid
+     * @throws RuntimeException if database error occurs
+     */
+    public Map<Integer, List<LeaveRequest>> getApprovedLeavesByDateRangeGroupedByEmployee(LocalDate periodStart, LocalDate periodEnd) {
+        validateDateRange(periodStart, periodEnd);
+
+        Map<Integer, List<LeaveRequest>> grouped = new HashMap<>();
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_APPROVED_BY_DATE_RANGE)) {
+
+            java.sql.Date sqlStartDate = java.sql.Date.valueOf(periodStart);
+            java.sql.Date sqlEndDate = java.sql.Date.valueOf(periodEnd);
+
+            stmt.setString(1, STATUS_APPROVED);
+            stmt.setDate(2, sqlStartDate);
+            stmt.setDate(3, sqlEndDate);
+            stmt.setDate(4, sqlStartDate);
+            stmt.setDate(5, sqlEndDate);
+            stmt.setDate(6, sqlStartDate);
+            stmt.setDate(7, sqlEndDate);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    LeaveRequest leave = mapResultSetToLeaveRequest(rs);
+                    grouped.computeIfAbsent(leave.getEmployeeId(), id -> new ArrayList<>()).add(leave);
+                }
+            }
+
+        } catch (SQLException ex) {
+            logger.log(Level.SEVERE, String.format(
+                    "Error retrieving approved leaves between dates: %s and %s", periodStart, periodEnd), ex);
+            throw new RuntimeException("Failed to retrieve approved leave requests for date range", ex);
+        }
+
+        return grouped;
+    }
+
     /**
      * Retrieves leave requests by status
      * @param status Leave request status
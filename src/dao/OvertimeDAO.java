@@ -24,6 +24,10 @@ public class OvertimeDAO {
         "SELECT overtime_id, employee_id, date, hours, reason, approved FROM overtime " +
         "WHERE employee_id = ? AND date >= ? AND date <= ? ORDER BY date DESC";
     
+    private static final String SELECT_BY_DATE_RANGE = 
+        "SELECT overtime_id, employee_id, date, hours, reason, approved FROM overtime " +
+        "WHERE date >= ? AND date <= ? ORDER BY employee_id, date DESC";
+    
     private static final String INSERT_OVERTIME = 
         "INSERT INTO overtime (employee_id, date, hours, reason, approved) VALUES (?, ?, ?, ?, ?)";
     
@@ -111,6 +115,42 @@ public class OvertimeDAO {
         return overtimeList;
     }
     
+    /**
+     * Retrieves overtime records for every employee within a date range in a
+     * single query, grouped by employee ID
+     * @param periodStart Start date of the period (inclusive)
+     * @param periodEnd End date of the period (inclusive)
+     * @return Map of employee ID to overtime records, empty map if none found
+     * @throws IllegalArgumentException if parameters are invalid
+     * @throws RuntimeException if database error occurs
+     */
+    public Map<Integer, List<Overtime>> getOvertimeByDateRangeGroupedByEmployee(LocalDate periodStart, LocalDate periodEnd) {
+        validateDateRange(periodStart, periodEnd);
+        
+        Map<Integer, List<Overtime>> grouped = new HashMap<>();
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_BY_DATE_RANGE)) {
+
+            stmt.setDate(1, java.sql.Date.valueOf(periodStart));
+            stmt.setDate(2, java.sql.Date.valueOf(periodEnd));
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Overtime overtime = mapResultSetToOvertime(rs);
+                    grouped.computeIfAbsent(overtime.getEmployeeId(), id -> new ArrayList<>()).add(overtime);
+                }
+            }
+
+        } catch (SQLException ex) {
+            logger.log(Level.SEVERE, 
+                String.format("Error retrieving overtime between dates: %s and %s", periodStart, periodEnd), ex);
+            throw new RuntimeException("Failed to retrieve overtime records for date range", ex);
+        }
+
+        return grouped;
+    }
+    
     /**
      * Retrieves a single overtime record by ID
      * @param overtimeId Overtime record ID
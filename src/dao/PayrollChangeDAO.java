@@ -0,0 +1,245 @@
+package dao;
+
+import util.DBConnection;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Reads the payroll change log that the attendance, overtime and leave
+ * triggers write, to find which employees need their payroll recalculated
+ * and which attendance days changed since a screen last read them
+ */
+public class PayrollChangeDAO {
+    private static final Logger logger = Logger.getLogger(PayrollChangeDAO.class.getName());
+
+    // Changes overlapping the period logged after the saved payroll's snapshot was read,
+    // plus employees with no saved payroll for the period at all
+    private static final String SELECT_DIRTY_EMPLOYEES = """
+            SELECT c.employee_id
+            FROM payroll_change_log c
+            LEFT JOIN payroll p
+                ON p.employee_id = c.employee_id AND p.period_start = ? AND p.period_end = ?
+            WHERE c.change_start <= ? AND c.change_end >= ?
+              AND (p.payroll_id IS NULL OR c.change_id > p.inputs_change_id)
+            UNION
+            SELECT e.employee_id
+            FROM employees e
+            WHERE NOT EXISTS (
+                SELECT 1 FROM payroll p
+                WHERE p.employee_id = e.employee_id AND p.period_start = ? AND p.period_end = ?)
+            ORDER BY employee_id
+            """;
+
+    private static final String SELECT_ATTENDANCE_CHANGES = """
+            SELECT DISTINCT employee_id, change_start
+            FROM payroll_change_log
+            WHERE source = 'ATTENDANCE' AND changed_at >= ?
+              AND change_start >= ? AND change_start <= ?
+            """;
+
+    // Everything a period's payroll is calculated from: the newest change to
+    // attendance, overtime or leave in the period, and the employee and rate tables
+    private static final String SELECT_PERIOD_INPUT_VERSION = """
+            SELECT
+                (SELECT COALESCE(MAX(change_id), 0) FROM payroll_change_log
+                    WHERE change_start <= ? AND change_end >= ?) AS last_change_id,
+                (SELECT COUNT(*) FROM employees) AS employee_count,
+                (SELECT MAX(updated_at) FROM employees) AS employees_updated_at,
+                (SELECT COUNT(*) FROM statutory_rate_brackets) AS rate_count,
+                (SELECT MAX(updated_at) FROM statutory_rate_brackets) AS rates_updated_at
+            """;
+
+    private static final String SELECT_LATEST_CHANGE_ID =
+        "SELECT COALESCE(MAX(change_id), 0) AS latest_change_id FROM payroll_change_log";
+
+    // Entries before the cutoff that every overlapping saved payroll has already seen,
+    // as long as one has, or whose employee no longer exists. Entries with no saved
+    // payroll yet are kept, so a run still in progress is not left clean.
+    private static final String DELETE_PROCESSED_CHANGES = """
+            DELETE c FROM payroll_change_log c
+            WHERE c.change_end < ?
+              AND (NOT EXISTS (SELECT 1 FROM employees e WHERE e.employee_id = c.employee_id)
+                OR (EXISTS (
+                        SELECT 1 FROM payroll p
+                        WHERE p.employee_id = c.employee_id
+                          AND p.period_start <= c.change_end AND p.period_end >= c.change_start
+                          AND p.inputs_change_id >= c.change_id)
+                    AND NOT EXISTS (
+                        SELECT 1 FROM payroll p
+                        WHERE p.employee_id = c.employee_id
+                          AND p.period_start <= c.change_end AND p.period_end >= c.change_start
+                          AND p.inputs_change_id < c.change_id)))
+            """;
+
+    /**
+     * Employees whose payroll for the period is missing or was calculated
+     * before a change to their attendance, overtime or leave within the period
+     * @param periodStart Start date
+     * @param periodEnd End date
+     * @return dirty employee IDs in ascending order
+     */
+    public List<Integer> getDirtyEmployeeIds(LocalDate periodStart, LocalDate periodEnd) {
+        if (periodStart == null || periodEnd == null) {
+            throw new IllegalArgumentException("Period dates cannot be null");
+        }
+        if (periodStart.isAfter(periodEnd)) {
+            throw new IllegalArgumentException("Period start cannot be after period end");
+        }
+
+        List<Integer> employeeIds = new ArrayList<>();
+        Date start = Date.valueOf(periodStart);
+        Date end = Date.valueOf(periodEnd);
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_DIRTY_EMPLOYEES)) {
+
+            stmt.setDate(1, start);
+            stmt.setDate(2, end);
+            stmt.setDate(3, end);
+            stmt.setDate(4, start);
+            stmt.setDate(5, start);
+            stmt.setDate(6, end);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    employeeIds.add(rs.getInt("employee_id"));
+                }
+            }
+
+        } catch (SQLException ex) {
+            logger.log(Level.SEVERE, "Error finding employees with payroll changes", ex);
+            throw new RuntimeException("Failed to read payroll change log", ex);
+        }
+
+        return employeeIds;
+    }
+
+    /**
+     * Newest entry in the change log. Read before loading a payroll snapshot
+     * and saved with its payrolls, so any change logged after the read, even
+     * one logged while the run is still calculating, leaves them dirty.
+     * @return change ID, or 0 when the log is empty
+     */
+    public long getLatestChangeId() {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_LATEST_CHANGE_ID);
+             ResultSet rs = stmt.executeQuery()) {
+
+            return rs.next() ? rs.getLong("latest_change_id") : 0;
+
+        } catch (SQLException ex) {
+            logger.log(Level.SEVERE, "Error reading the latest payroll change", ex);
+            throw new RuntimeException("Failed to read payroll change log", ex);
+        }
+    }
+
+    /**
+     * Attendance days inserted, updated or deleted since a database time.
+     * Unlike the attendance table itself this includes deletions, so a
+     * cached copy of attendance can drop rows that no longer exist.
+     * @param periodStart Start date (inclusive)
+     * @param periodEnd End date (inclusive)
+     * @param since Database time of the previous read
+     * @return changed dates by employee ID
+     */
+    public Map<Integer, Set<LocalDate>> getAttendanceChangesSince(LocalDate periodStart, LocalDate periodEnd, Timestamp since) {
+        if (periodStart == null || periodEnd == null || since == null) {
+            throw new IllegalArgumentException("Period dates and change time cannot be null");
+        }
+
+        Map<Integer, Set<LocalDate>> changes = new HashMap<>();
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_ATTENDANCE_CHANGES)) {
+
+            stmt.setTimestamp(1, since);
+            stmt.setDate(2, Date.valueOf(periodStart));
+            stmt.setDate(3, Date.valueOf(periodEnd));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    changes.computeIfAbsent(rs.getInt("employee_id"), id -> new HashSet<>())
+                            .add(rs.getDate("change_start").toLocalDate());
+                }
+            }
+
+        } catch (SQLException ex) {
+            logger.log(Level.SEVERE, "Error reading attendance changes since " + since, ex);
+            throw new RuntimeException("Failed to read payroll change log", ex);
+        }
+
+        return changes;
+    }
+
+    /**
+     * Version of the inputs to a period's payroll. It changes whenever
+     * attendance, overtime or leave in the period changes, or an employee or
+     * statutory rate is added, removed or updated, so results computed for a
+     * period can be reused for as long as its version stays the same.
+     * @param periodStart Start date
+     * @param periodEnd End date
+     * @return opaque version string
+     */
+    public String getPeriodInputVersion(LocalDate periodStart, LocalDate periodEnd) {
+        if (periodStart == null || periodEnd == null) {
+            throw new IllegalArgumentException("Period dates cannot be null");
+        }
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_PERIOD_INPUT_VERSION)) {
+
+            stmt.setDate(1, Date.valueOf(periodEnd));
+            stmt.setDate(2, Date.valueOf(periodStart));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                return rs.getLong("last_change_id")
+                        + "/" + rs.getInt("employee_count") + "@" + rs.getTimestamp("employees_updated_at")
+                        + "/" + rs.getInt("rate_count") + "@" + rs.getTimestamp("rates_updated_at");
+            }
+
+        } catch (SQLException ex) {
+            logger.log(Level.SEVERE, "Error reading payroll input version for " + periodStart + " to " + periodEnd, ex);
+            throw new RuntimeException("Failed to read payroll input version", ex);
+        }
+    }
+
+    /**
+     * Remove change entries that end before a date and are no longer needed:
+     * every saved payroll they overlap was calculated after them, or their
+     * employee was deleted. Entries a payroll has not caught up with yet are kept.
+     * @return number of entries removed
+     */
+    public int purgeProcessedChanges(LocalDate cutoff) {
+        if (cutoff == null) {
+            throw new IllegalArgumentException("Cutoff date cannot be null");
+        }
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(DELETE_PROCESSED_CHANGES)) {
+
+            stmt.setDate(1, Date.valueOf(cutoff));
+            int removed = stmt.executeUpdate();
+            logger.info("Purged " + removed + " processed payroll change entries before " + cutoff);
+            return removed;
+
+        } catch (SQLException ex) {
+            logger.log(Level.SEVERE, "Error purging payroll change log", ex);
+            throw new RuntimeException("Failed to purge payroll change log", ex);
+        }
+    }
+}
@@ -5,6 +5,7 @@ import model.Payroll;
 import java.sql.*;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.function.BiConsumer;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 
@@ -44,6 +45,31 @@ public class PayrollDAO {
     
     private static final String DELETE_PAYROLL = "DELETE FROM payroll WHERE payroll_id = ?";
     
+    // Payroll history across all employees with their names, oldest period first
+    private static final String SELECT_HISTORY_WITH_NAMES =
+        "SELECT p.payroll_id, p.employee_id, p.period_start, p.period_end, p.monthly_rate, p.days_worked, " +
+        "p.overtime_hours, p.gross_pay, p.total_deductions, p.net_pay, p.gross_earnings, p.late_deduction, " +
+        "p.undertime_deduction, p.unpaid_leave_deduction, p.overtime_pay, p.rice_subsidy, p.phone_allowance, " +
+        "p.clothing_allowance, p.sss, p.philhealth, p.pagibig, p.tax, " +
+        "CONCAT(TRIM(e.first_name), ' ', TRIM(e.last_name)) AS employee_name " +
+        "FROM payroll p JOIN employees e ON e.employee_id = p.employee_id " +
+        "WHERE p.period_start >= ? AND p.period_end <= ? ORDER BY p.period_start, p.employee_id";
+    
+    // Every current employee with their saved payroll of one period, on idx_payroll_period.
+    // A row is stale when there is no saved payroll, or the change log has an attendance,
+    // overtime or leave change in the period logged after its inputs were read (as PayrollChangeDAO does)
+    private static final String SELECT_BY_PERIOD =
+        "SELECT e.employee_id AS current_employee_id, p.payroll_id, p.employee_id, p.period_start, " +
+        "p.period_end, p.monthly_rate, p.days_worked, p.overtime_hours, p.gross_pay, p.total_deductions, " +
+        "p.net_pay, p.gross_earnings, p.late_deduction, p.undertime_deduction, p.unpaid_leave_deduction, " +
+        "p.overtime_pay, p.rice_subsidy, p.phone_allowance, p.clothing_allowance, p.sss, p.philhealth, " +
+        "p.pagibig, p.tax, (p.payroll_id IS NULL OR EXISTS (SELECT 1 FROM payroll_change_log c " +
+        "WHERE c.employee_id = e.employee_id AND c.change_start <= ? AND c.change_end >= ? " +
+        "AND c.change_id > p.inputs_change_id)) AS stale " +
+        "FROM employees e LEFT JOIN payroll p " +
+        "ON p.employee_id = e.employee_id AND p.period_start = ? AND p.period_end = ? " +
+        "ORDER BY e.employee_id";
+    
     private static final String SELECT_BY_ID = 
         "SELECT payroll_id, employee_id, period_start, period_end, monthly_rate, days_worked, " +
         "overtime_hours, gross_pay, total_deductions, net_pay, gross_earnings, late_deduction, " +
@@ -238,13 +264,59 @@ public class PayrollDAO {
         return null;
     }
 
+    /**
+     * Saved payroll of every current employee for exactly one period, and
+     * which employees need it recalculated, in a single query. A period
+     * with nothing to recalculate is finalized and can be reported from
+     * the saved rows as they are.
+     * @param periodStart Period start
+     * @param periodEnd Period end
+     * @return up-to-date payrolls and employees whose payroll is missing or stale
+     */
+    public PeriodPayrolls getPayrollsForPeriod(LocalDate periodStart, LocalDate periodEnd) {
+        if (periodStart == null || periodEnd == null) {
+            throw new IllegalArgumentException("Period dates cannot be null");
+        }
+
+        Map<Integer, Payroll> payrolls = new LinkedHashMap<>();
+        List<Integer> staleEmployeeIds = new ArrayList<>();
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_BY_PERIOD)) {
+
+            java.sql.Date start = java.sql.Date.valueOf(periodStart);
+            java.sql.Date end = java.sql.Date.valueOf(periodEnd);
+            stmt.setDate(1, end);
+            stmt.setDate(2, start);
+            stmt.setDate(3, start);
+            stmt.setDate(4, end);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    if (rs.getBoolean("stale")) {
+                        staleEmployeeIds.add(rs.getInt("current_employee_id"));
+                    } else {
+                        Payroll payroll = mapResultSetToPayroll(rs);
+                        payrolls.put(payroll.getEmployeeId(), payroll);
+                    }
+                }
+            }
+
+        } catch (SQLException ex) {
+            logger.log(Level.SEVERE, "Error retrieving payroll for period " + periodStart + " to " + periodEnd, ex);
+            throw new RuntimeException("Failed to retrieve payroll records", ex);
+        }
+
+        return new PeriodPayrolls(payrolls, staleEmployeeIds);
+    }
+
     /**
      * Sets payroll parameters for PreparedStatement
      * @param stmt PreparedStatement
      * @param payroll Payroll object
      * @throws SQLException if database error occurs
      */
-    private void setPayrollParameters(PreparedStatement stmt, Payroll payroll) throws SQLException {
+    static void setPayrollParameters(PreparedStatement stmt, Payroll payroll) throws SQLException {
         stmt.setInt(1, payroll.getEmployeeId());
         stmt.setDate(2, payroll.getPeriodStart());
         stmt.setDate(3, payroll.getPeriodEnd());
@@ -268,6 +340,46 @@ public class PayrollDAO {
         stmt.setDouble(21, payroll.getTax());
     }
 
+    /**
+     * Streams saved payroll records of all employees within a date range,
+     * each with the employee's full name. Rows are read through a server
+     * cursor and handed to the consumer one at a time, so any length of
+     * history is read in constant memory.
+     * @param startDate Earliest period start (inclusive)
+     * @param endDate Latest period end (inclusive)
+     * @param consumer Receives each payroll record and the employee's name
+     * @return Number of records read
+     */
+    public int streamPayrollHistory(LocalDate startDate, LocalDate endDate, BiConsumer<Payroll, String> consumer) {
+        if (startDate == null || endDate == null) {
+            throw new IllegalArgumentException("Start date and end date cannot be null");
+        }
+        if (startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("Start date cannot be after end date");
+        }
+
+        int count = 0;
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = DBConnection.prepareStreamingStatement(conn, SELECT_HISTORY_WITH_NAMES)) {
+
+            stmt.setDate(1, java.sql.Date.valueOf(startDate));
+            stmt.setDate(2, java.sql.Date.valueOf(endDate));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    consumer.accept(mapResultSetToPayroll(rs), rs.getString("employee_name"));
+                    count++;
+                }
+            }
+
+        } catch (SQLException ex) {
+            logger.log(Level.SEVERE, "Error streaming payroll history from " + startDate + " to " + endDate, ex);
+            throw new RuntimeException("Failed to retrieve payroll history", ex);
+        }
+
+        return count;
+    }
+
     /**
      * Maps ResultSet to Payroll object
      * @param rs ResultSet from database
@@ -300,4 +412,27 @@ public class PayrollDAO {
         payroll.setTax(rs.getDouble("tax"));
         return payroll;
     }
+
+    /**
+     * A period's saved payroll split into rows that are up to date and
+     * employees whose payroll is missing or older than a change
+     */
+    public static final class PeriodPayrolls {
+        private final Map<Integer, Payroll> payrolls;
+        private final List<Integer> staleEmployeeIds;
+
+        PeriodPayrolls(Map<Integer, Payroll> payrolls, List<Integer> staleEmployeeIds) {
+            this.payrolls = Collections.unmodifiableMap(payrolls);
+            this.staleEmployeeIds = Collections.unmodifiableList(staleEmployeeIds);
+        }
+
+        /** Up-to-date saved payrolls by employee ID, in employee ID order */
+        public Map<Integer, Payroll> getPayrolls() { return payrolls; }
+
+        /** Employees to recalculate, in ascending order */
+        public List<Integer> getStaleEmployeeIds() { return staleEmployeeIds; }
+
+        /** Whether every current employee has up-to-date saved payroll */
+        public boolean isFinalized() { return staleEmployeeIds.isEmpty(); }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,265 @@
+package dao;
+
+import model.Deduction;
+import model.Payroll;
+import util.ConfigurationManager;
+import util.DBConnection;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Saves a whole payroll run (payroll rows plus their deduction lines) in one
+ * transaction using JDBC batches.
+ *
+ * Payroll rows are upserted on (employee_id, period_start, period_end), and
+ * deduction lines previously written for the same period are replaced, so a
+ * run can be saved again after a recalculation. Either every row of the run
+ * is written or none is.
+ *
+ * Each row records the change log position its inputs were read at, which
+ * {@link PayrollChangeDAO} compares with the change log to find stale payrolls.
+ */
+public class PayrollRunDAO {
+    private static final Logger logger = Logger.getLogger(PayrollRunDAO.class.getName());
+
+    private static final String UPSERT_PAYROLL = """
+            INSERT INTO payroll (employee_id, period_start, period_end, monthly_rate, days_worked,
+                overtime_hours, gross_pay, total_deductions, net_pay, gross_earnings, late_deduction,
+                undertime_deduction, unpaid_leave_deduction, overtime_pay, rice_subsidy, phone_allowance,
+                clothing_allowance, sss, philhealth, pagibig, tax, inputs_change_id)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE
+                monthly_rate = VALUES(monthly_rate), days_worked = VALUES(days_worked),
+                overtime_hours = VALUES(overtime_hours), gross_pay = VALUES(gross_pay),
+                total_deductions = VALUES(total_deductions), net_pay = VALUES(net_pay),
+                gross_earnings = VALUES(gross_earnings), late_deduction = VALUES(late_deduction),
+                undertime_deduction = VALUES(undertime_deduction),
+                unpaid_leave_deduction = VALUES(unpaid_leave_deduction), overtime_pay = VALUES(overtime_pay),
+                rice_subsidy = VALUES(rice_subsidy), phone_allowance = VALUES(phone_allowance),
+                clothing_allowance = VALUES(clothing_allowance), sss = VALUES(sss),
+                philhealth = VALUES(philhealth), pagibig = VALUES(pagibig), tax = VALUES(tax),
+                inputs_change_id = VALUES(inputs_change_id), updated_at = CURRENT_TIMESTAMP
+            """;
+
+    // Only lines this DAO wrote for the period carry its description, manual deductions are left alone
+    private static final String DELETE_RUN_DEDUCTIONS =
+        "DELETE FROM deductions WHERE employee_id = ? AND deduction_date = ? AND description = ?";
+
+    private static final String INSERT_DEDUCTION =
+        "INSERT INTO deductions (employee_id, type, amount, description, deduction_date) VALUES (?, ?, ?, ?, ?)";
+
+    private static final String SELECT_PERIOD_PAYROLL_IDS =
+        "SELECT employee_id, payroll_id FROM payroll WHERE period_start = ? AND period_end = ?";
+
+    private final int batchSize;
+
+    public PayrollRunDAO() {
+        this(ConfigurationManager.getInstance().getPayrollPersistBatchSize());
+    }
+
+    /**
+     * @param batchSize rows sent to the server per executeBatch call
+     */
+    public PayrollRunDAO(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive, got: " + batchSize);
+        }
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Save a run whose change log position is unknown. The rows stay dirty
+     * for every logged change, so the next incremental run recalculates them.
+     * @see #saveRun(List, long)
+     */
+    public int saveRun(List<Payroll> payrolls) {
+        return saveRun(payrolls, 0);
+    }
+
+    /**
+     * Save every payroll of a run with its deduction lines in a single transaction.
+     * Payroll IDs are set on the given objects once the run is committed.
+     * @param payrolls calculated payrolls, may span several periods
+     * @param changeLogPosition newest change log ID read before the payrolls' inputs
+     * @return number of payroll rows saved
+     * @throws RuntimeException if anything fails; nothing from the run is kept
+     */
+    public int saveRun(List<Payroll> payrolls, long changeLogPosition) {
+        if (payrolls == null) {
+            throw new IllegalArgumentException("Payroll list cannot be null");
+        }
+        if (payrolls.isEmpty()) {
+            return 0;
+        }
+        for (Payroll payroll : payrolls) {
+            if (payroll == null || payroll.getPeriodStart() == null || payroll.getPeriodEnd() == null) {
+                throw new IllegalArgumentException("Every payroll in a run needs an employee and period dates");
+            }
+        }
+
+        // A stable key order keeps two overlapping runs from deadlocking on each other's rows
+        List<Payroll> ordered = new ArrayList<>(payrolls);
+        ordered.sort(Comparator.comparing(Payroll::getPeriodStart)
+                .thenComparing(Payroll::getPeriodEnd)
+                .thenComparingInt(Payroll::getEmployeeId));
+
+        long started = System.currentTimeMillis();
+
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                writePayrolls(conn, ordered, changeLogPosition);
+                int deductionLines = writeDeductions(conn, ordered);
+                Map<Integer, Integer> updated = assignPayrollIds(conn, ordered);
+                conn.commit();
+
+                logger.info(String.format("✅ Saved payroll run: %d payrolls (%d IDs assigned), %d deduction lines in %d ms",
+                        ordered.size(), updated.size(), deductionLines, System.currentTimeMillis() - started));
+                return ordered.size();
+
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                // The pool resets this as well, but a connection from another DataSource goes back as it is
+                conn.setAutoCommit(true);
+            }
+
+        } catch (SQLException ex) {
+            logger.log(Level.SEVERE, "Error saving payroll run, rolled back", ex);
+            throw new RuntimeException("Failed to save payroll run", ex);
+        }
+    }
+
+    private void writePayrolls(Connection conn, List<Payroll> payrolls, long changeLogPosition) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(UPSERT_PAYROLL)) {
+            int pending = 0;
+            for (Payroll payroll : payrolls) {
+                PayrollDAO.setPayrollParameters(stmt, payroll);
+                stmt.setLong(22, changeLogPosition);
+                stmt.addBatch();
+                if (++pending == batchSize) {
+                    stmt.executeBatch();
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                stmt.executeBatch();
+            }
+        }
+    }
+
+    private int writeDeductions(Connection conn, List<Payroll> payrolls) throws SQLException {
+        int lines = 0;
+
+        try (PreparedStatement delete = conn.prepareStatement(DELETE_RUN_DEDUCTIONS);
+             PreparedStatement insert = conn.prepareStatement(INSERT_DEDUCTION)) {
+
+            int pendingDeletes = 0;
+            int pendingInserts = 0;
+
+            for (Payroll payroll : payrolls) {
+                String description = runDescription(payroll);
+
+                delete.setInt(1, payroll.getEmployeeId());
+                delete.setDate(2, payroll.getPeriodEnd());
+                delete.setString(3, description);
+                delete.addBatch();
+                if (++pendingDeletes == batchSize) {
+                    delete.executeBatch();
+                    pendingDeletes = 0;
+                }
+            }
+            if (pendingDeletes > 0) {
+                delete.executeBatch();
+            }
+
+            for (Payroll payroll : payrolls) {
+                String description = runDescription(payroll);
+
+                for (Map.Entry<String, Double> line : deductionLines(payroll).entrySet()) {
+                    if (line.getValue() <= 0) {
+                        continue;
+                    }
+                    insert.setInt(1, payroll.getEmployeeId());
+                    insert.setString(2, line.getKey());
+                    insert.setDouble(3, line.getValue());
+                    insert.setString(4, description);
+                    insert.setDate(5, payroll.getPeriodEnd());
+                    insert.addBatch();
+                    lines++;
+                    if (++pendingInserts == batchSize) {
+                        insert.executeBatch();
+                        pendingInserts = 0;
+                    }
+                }
+            }
+            if (pendingInserts > 0) {
+                insert.executeBatch();
+            }
+        }
+
+        return lines;
+    }
+
+    // Batched upserts do not report generated keys reliably, so read them back per period
+    private Map<Integer, Integer> assignPayrollIds(Connection conn, List<Payroll> payrolls) throws SQLException {
+        Map<String, List<Payroll>> byPeriod = new LinkedHashMap<>();
+        for (Payroll payroll : payrolls) {
+            String period = payroll.getPeriodStart() + "/" + payroll.getPeriodEnd();
+            byPeriod.computeIfAbsent(period, p -> new ArrayList<>()).add(payroll);
+        }
+
+        Map<Integer, Integer> assigned = new HashMap<>();
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_PERIOD_PAYROLL_IDS)) {
+            for (List<Payroll> periodPayrolls : byPeriod.values()) {
+                Payroll first = periodPayrolls.get(0);
+                stmt.setDate(1, first.getPeriodStart());
+                stmt.setDate(2, first.getPeriodEnd());
+
+                Map<Integer, Integer> idsByEmployee = new HashMap<>();
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        idsByEmployee.put(rs.getInt("employee_id"), rs.getInt("payroll_id"));
+                    }
+                }
+
+                for (Payroll payroll : periodPayrolls) {
+                    Integer payrollId = idsByEmployee.get(payroll.getEmployeeId());
+                    if (payrollId != null) {
+                        payroll.setPayrollId(payrollId);
+                        assigned.put(payroll.getEmployeeId(), payrollId);
+                    }
+                }
+            }
+        }
+        return assigned;
+    }
+
+    private static Map<String, Double> deductionLines(Payroll payroll) {
+        Map<String, Double> lines = new LinkedHashMap<>();
+        lines.put(Deduction.TYPE_LATE, payroll.getLateDeduction());
+        lines.put(Deduction.TYPE_UNDERTIME, payroll.getUndertimeDeduction());
+        lines.put(Deduction.TYPE_UNPAID_LEAVE, payroll.getUnpaidLeaveDeduction());
+        lines.put(Deduction.TYPE_SSS, payroll.getSss());
+        lines.put(Deduction.TYPE_PHILHEALTH, payroll.getPhilhealth());
+        lines.put(Deduction.TYPE_PAGIBIG, payroll.getPagibig());
+        lines.put(Deduction.TYPE_TAX, payroll.getTax());
+        return lines;
+    }
+
+    private static String runDescription(Payroll payroll) {
+        return "Payroll " + payroll.getPeriodStart() + " to " + payroll.getPeriodEnd();
+    }
+}
@@ -0,0 +1,116 @@
+package dao;
+
+import util.DBConnection;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Writes report jobs to report_generation_log through the
+ * sp_generate_jasper_report and sp_update_report_status procedures
+ */
+public class ReportJobDAO {
+    private static final Logger logger = Logger.getLogger(ReportJobDAO.class.getName());
+
+    private static final String CALL_ENQUEUE = "{CALL sp_generate_jasper_report(?, ?, ?, ?, ?, ?, ?)}";
+    private static final String CALL_UPDATE_STATUS = "{CALL sp_update_report_status(?, ?, ?, ?, ?, ?)}";
+    private static final String SELECT_STATUS =
+        "SELECT generation_status FROM report_generation_log WHERE log_id = ?";
+
+    /**
+     * Log a report request as Queued
+     * @param templateName Name in report_templates
+     * @param requestedBy Employee ID of the requester
+     * @param parametersJson Report parameters as a JSON object
+     * @param priority Lower runs first
+     * @return log ID of the job
+     */
+    public int enqueue(String templateName, int requestedBy, String parametersJson, int priority) {
+        if (templateName == null || templateName.isBlank()) {
+            throw new IllegalArgumentException("Template name cannot be empty");
+        }
+
+        try (Connection conn = DBConnection.getConnection();
+             CallableStatement stmt = conn.prepareCall(CALL_ENQUEUE)) {
+
+            stmt.setString(1, templateName);
+            stmt.setInt(2, requestedBy);
+            stmt.setString(3, parametersJson);
+            stmt.setInt(4, priority);
+            stmt.registerOutParameter(5, Types.INTEGER);
+            stmt.registerOutParameter(6, Types.VARCHAR);
+            stmt.registerOutParameter(7, Types.VARCHAR);
+            stmt.execute();
+
+            if ("Failed".equals(stmt.getString(6))) {
+                throw new RuntimeException("Failed to queue report '" + templateName + "': " + stmt.getString(7));
+            }
+            return stmt.getInt(5);
+
+        } catch (SQLException ex) {
+            logger.log(Level.SEVERE, "Error queueing report " + templateName, ex);
+            throw new RuntimeException("Failed to queue report", ex);
+        }
+    }
+
+    /**
+     * Record a job's status, with its output and timing once it has finished
+     * @param logId Log ID from {@link #enqueue}
+     * @param status Queued, In Progress, Success or Failed
+     * @param outputPath Output file, may be null
+     * @param errorMessage Failure reason, may be null
+     * @param generationTimeMs Run time, null until finished
+     * @param fileSizeBytes Output size, null if there is no output file
+     */
+    public void updateStatus(int logId, String status, String outputPath, String errorMessage,
+                             Integer generationTimeMs, Long fileSizeBytes) {
+        try (Connection conn = DBConnection.getConnection();
+             CallableStatement stmt = conn.prepareCall(CALL_UPDATE_STATUS)) {
+
+            stmt.setInt(1, logId);
+            stmt.setString(2, status);
+            stmt.setString(3, outputPath);
+            stmt.setString(4, errorMessage);
+            if (generationTimeMs != null) {
+                stmt.setInt(5, generationTimeMs);
+            } else {
+                stmt.setNull(5, Types.INTEGER);
+            }
+            if (fileSizeBytes != null) {
+                stmt.setLong(6, fileSizeBytes);
+            } else {
+                stmt.setNull(6, Types.BIGINT);
+            }
+            stmt.execute();
+
+        } catch (SQLException ex) {
+            logger.log(Level.SEVERE, "Error updating report job " + logId + " to " + status, ex);
+            throw new RuntimeException("Failed to update report status", ex);
+        }
+    }
+
+    /**
+     * Current status of a logged job, for jobs run by another session
+     * @return status, or null if there is no such job
+     */
+    public String getStatus(int logId) {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_STATUS)) {
+
+            stmt.setInt(1, logId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getString("generation_status") : null;
+            }
+
+        } catch (SQLException ex) {
+            logger.log(Level.SEVERE, "Error reading report job " + logId, ex);
+            throw new RuntimeException("Failed to read report status", ex);
+        }
+    }
+}
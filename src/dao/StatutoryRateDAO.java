@@ -0,0 +1,94 @@
+package dao;
+
+import model.StatutoryRateBracket;
+import util.DBConnection;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Data Access Object for the effective-dated statutory rate brackets
+ * (SSS, PhilHealth, Pag-IBIG and withholding tax)
+ */
+public class StatutoryRateDAO {
+    private static final Logger LOGGER = Logger.getLogger(StatutoryRateDAO.class.getName());
+
+    // Unbounded brackets (NULL upper_bound) sort last within their schedule
+    private static final String SELECT_ALL_BRACKETS = """
+            SELECT contribution_type, effective_date, upper_bound, fixed_amount, rate,
+                   excess_over, min_amount, max_amount, annualized
+            FROM statutory_rate_brackets
+            ORDER BY contribution_type, effective_date, upper_bound IS NULL, upper_bound
+            """;
+
+    // Same components as the rate part of the payroll input version
+    private static final String SELECT_RATES_VERSION =
+        "SELECT COUNT(*) AS rate_count, MAX(updated_at) AS rates_updated_at FROM statutory_rate_brackets";
+
+    /**
+     * Every bracket of every schedule, grouped by contribution type and
+     * effective date with brackets in ascending order
+     */
+    public List<StatutoryRateBracket> getAllBrackets() {
+        List<StatutoryRateBracket> brackets = new ArrayList<>();
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_ALL_BRACKETS);
+             ResultSet rs = stmt.executeQuery()) {
+
+            while (rs.next()) {
+                brackets.add(mapResultSetToBracket(rs));
+            }
+
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error loading statutory rate brackets", e);
+            throw new RuntimeException("Failed to load statutory rate brackets", e);
+        }
+
+        return brackets;
+    }
+
+    /**
+     * Version of the rate tables; it changes whenever a bracket is added,
+     * removed or updated
+     * @return opaque version string
+     */
+    public String getRatesVersion() {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_RATES_VERSION);
+             ResultSet rs = stmt.executeQuery()) {
+
+            rs.next();
+            return rs.getInt("rate_count") + "@" + rs.getTimestamp("rates_updated_at");
+
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error reading statutory rate version", e);
+            throw new RuntimeException("Failed to read statutory rate version", e);
+        }
+    }
+
+    private StatutoryRateBracket mapResultSetToBracket(ResultSet rs) throws SQLException {
+        StatutoryRateBracket bracket = new StatutoryRateBracket();
+        bracket.setContributionType(rs.getString("contribution_type"));
+        bracket.setEffectiveDate(rs.getDate("effective_date").toLocalDate());
+        bracket.setUpperBound(toDouble(rs.getBigDecimal("upper_bound")));
+        bracket.setFixedAmount(rs.getDouble("fixed_amount"));
+        bracket.setRate(rs.getDouble("rate"));
+        bracket.setExcessOver(rs.getDouble("excess_over"));
+        bracket.setMinAmount(rs.getDouble("min_amount"));
+        bracket.setMaxAmount(toDouble(rs.getBigDecimal("max_amount")));
+        bracket.setAnnualized(rs.getBoolean("annualized"));
+        return bracket;
+    }
+
+    private static Double toDouble(BigDecimal value) {
+        return value != null ? value.doubleValue() : null;
+    }
+}
@@ -1,5 +1,7 @@
 package model;
 
+import util.Money;
+
 import java.sql.Date;
 import java.sql.Time;
 import java.time.LocalDate;
@@ -15,7 +17,7 @@ public abstract class Deduction {
     protected int deductionId;
     protected int employeeId;
     protected String type;
-    protected double amount;
+    protected long amount; // centavos, see Money
     protected String description;
     protected Date deductionDate;
 
@@ -80,10 +82,21 @@ public abstract class Deduction {
     }
 
     public double getAmount() {
-        return amount;
+        return Money.toPesos(amount);
     }
 
+    /**
+     * Amount in pesos, rounded half up to the centavo
+     */
     public void setAmount(double amount) {
+        setAmountCentavos(Money.of(amount));
+    }
+
+    public long getAmountCentavos() {
+        return amount;
+    }
+
+    public void setAmountCentavos(long amount) {
         if (amount < 0) {
             throw new IllegalArgumentException("Amount cannot be negative");
         }
@@ -112,7 +125,7 @@ public abstract class Deduction {
     }
 
     public String getFormattedAmount() {
-        return String.format("%.2f", amount);
+        return Money.format(amount);
     }
 
     @Override
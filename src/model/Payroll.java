@@ -1,39 +1,47 @@
 package model;
 
+import util.Money;
+
+import java.io.Serializable;
 import java.sql.Date;
 import java.sql.Time;
 import java.time.LocalDate;
 
 /**
  * Enhanced Payroll model class aligned with DAO and PayrollCalculator usage
+ * Amounts are held as whole centavos (see {@link Money}); the double
+ * accessors convert at the edge for the UI and database.
  * @author rejoice
  */
-public class Payroll {
+public class Payroll implements Serializable {
+    private static final long serialVersionUID = 2L;
+    private static final long WORKING_DAYS_PER_MONTH = 22;
+
     private int payrollId;
     private int employeeId;
     private Date periodStart;
     private Date periodEnd;
-    private double monthlyRate;
+    private long monthlyRate;
     private int daysWorked;
     private double overtimeHours;
-    private double grossPay;
-    private double totalDeductions;
-    private double netPay;
+    private long grossPay;
+    private long totalDeductions;
+    private long netPay;
     
     // Enhanced payroll components to match PayrollCalculator
-    private double grossEarnings;
-    private double dailyRate;
-    private double lateDeduction;
-    private double undertimeDeduction;
-    private double unpaidLeaveDeduction;
-    private double overtimePay;
-    private double riceSubsidy;
-    private double phoneAllowance;
-    private double clothingAllowance;
-    private double sss;
-    private double philhealth;
-    private double pagibig;
-    private double tax;
+    private long grossEarnings;
+    private long dailyRate;
+    private long lateDeduction;
+    private long undertimeDeduction;
+    private long unpaidLeaveDeduction;
+    private long overtimePay;
+    private long riceSubsidy;
+    private long phoneAllowance;
+    private long clothingAllowance;
+    private long sss;
+    private long philhealth;
+    private long pagibig;
+    private long tax;
     
     // Additional fields for better tracking
     private int unpaidLeaveCount;
@@ -91,23 +99,39 @@ public class Payroll {
     }
 
     public double getMonthlyRate() {
-        return monthlyRate;
+        return Money.toPesos(monthlyRate);
     }
 
     public void setMonthlyRate(double monthlyRate) {
+        setMonthlyRateCentavos(Money.of(monthlyRate));
+    }
+
+    public long getMonthlyRateCentavos() {
+        return monthlyRate;
+    }
+
+    public void setMonthlyRateCentavos(long monthlyRate) {
         if (monthlyRate < 0) {
             throw new IllegalArgumentException("Monthly rate cannot be negative");
         }
         this.monthlyRate = monthlyRate;
         // Auto-calculate daily rate when monthly rate is set
-        this.dailyRate = monthlyRate / 22.0; // 22 working days assumption
+        this.dailyRate = Money.divide(monthlyRate, WORKING_DAYS_PER_MONTH, Money.DEFAULT_ROUNDING);
     }
 
     public double getDailyRate() {
-        return dailyRate;
+        return Money.toPesos(dailyRate);
     }
 
     public void setDailyRate(double dailyRate) {
+        setDailyRateCentavos(Money.of(dailyRate));
+    }
+
+    public long getDailyRateCentavos() {
+        return dailyRate;
+    }
+
+    public void setDailyRateCentavos(long dailyRate) {
         if (dailyRate < 0) {
             throw new IllegalArgumentException("Daily rate cannot be negative");
         }
@@ -148,10 +172,18 @@ public class Payroll {
     }
 
     public double getGrossPay() {
-        return grossPay;
+        return Money.toPesos(grossPay);
     }
 
     public void setGrossPay(double grossPay) {
+        setGrossPayCentavos(Money.of(grossPay));
+    }
+
+    public long getGrossPayCentavos() {
+        return grossPay;
+    }
+
+    public void setGrossPayCentavos(long grossPay) {
         if (grossPay < 0) {
             throw new IllegalArgumentException("Gross pay cannot be negative");
         }
@@ -159,10 +191,18 @@ public class Payroll {
     }
 
     public double getTotalDeductions() {
-        return totalDeductions;
+        return Money.toPesos(totalDeductions);
     }
 
     public void setTotalDeductions(double totalDeductions) {
+        setTotalDeductionsCentavos(Money.of(totalDeductions));
+    }
+
+    public long getTotalDeductionsCentavos() {
+        return totalDeductions;
+    }
+
+    public void setTotalDeductionsCentavos(long totalDeductions) {
         if (totalDeductions < 0) {
             throw new IllegalArgumentException("Total deductions cannot be negative");
         }
@@ -170,10 +210,19 @@ public class Payroll {
     }
 
     public double getNetPay() {
-        return netPay;
+        return Money.toPesos(netPay);
     }
 
     public void setNetPay(double netPay) {
+        this.netPay = Money.of(netPay);
+    }
+
+    public long getNetPayCentavos() {
+        return netPay;
+    }
+
+    /** Net pay may be negative when deductions exceed earnings */
+    public void setNetPayCentavos(long netPay) {
         this.netPay = netPay;
     }
 
@@ -190,10 +239,18 @@ public class Payroll {
 
     // Earnings component getters and setters
     public double getGrossEarnings() {
-        return grossEarnings;
+        return Money.toPesos(grossEarnings);
     }
 
     public void setGrossEarnings(double grossEarnings) {
+        setGrossEarningsCentavos(Money.of(grossEarnings));
+    }
+
+    public long getGrossEarningsCentavos() {
+        return grossEarnings;
+    }
+
+    public void setGrossEarningsCentavos(long grossEarnings) {
         if (grossEarnings < 0) {
             throw new IllegalArgumentException("Gross earnings cannot be negative");
         }
@@ -201,10 +258,18 @@ public class Payroll {
     }
 
     public double getOvertimePay() {
-        return overtimePay;
+        return Money.toPesos(overtimePay);
     }
 
     public void setOvertimePay(double overtimePay) {
+        setOvertimePayCentavos(Money.of(overtimePay));
+    }
+
+    public long getOvertimePayCentavos() {
+        return overtimePay;
+    }
+
+    public void setOvertimePayCentavos(long overtimePay) {
         if (overtimePay < 0) {
             throw new IllegalArgumentException("Overtime pay cannot be negative");
         }
@@ -212,10 +277,18 @@ public class Payroll {
     }
 
     public double getRiceSubsidy() {
-        return riceSubsidy;
+        return Money.toPesos(riceSubsidy);
     }
 
     public void setRiceSubsidy(double riceSubsidy) {
+        setRiceSubsidyCentavos(Money.of(riceSubsidy));
+    }
+
+    public long getRiceSubsidyCentavos() {
+        return riceSubsidy;
+    }
+
+    public void setRiceSubsidyCentavos(long riceSubsidy) {
         if (riceSubsidy < 0) {
             throw new IllegalArgumentException("Rice subsidy cannot be negative");
         }
@@ -223,10 +296,18 @@ public class Payroll {
     }
 
     public double getPhoneAllowance() {
-        return phoneAllowance;
+        return Money.toPesos(phoneAllowance);
     }
 
     public void setPhoneAllowance(double phoneAllowance) {
+        setPhoneAllowanceCentavos(Money.of(phoneAllowance));
+    }
+
+    public long getPhoneAllowanceCentavos() {
+        return phoneAllowance;
+    }
+
+    public void setPhoneAllowanceCentavos(long phoneAllowance) {
         if (phoneAllowance < 0) {
             throw new IllegalArgumentException("Phone allowance cannot be negative");
         }
@@ -234,10 +315,18 @@ public class Payroll {
     }
 
     public double getClothingAllowance() {
-        return clothingAllowance;
+        return Money.toPesos(clothingAllowance);
     }
 
     public void setClothingAllowance(double clothingAllowance) {
+        setClothingAllowanceCentavos(Money.of(clothingAllowance));
+    }
+
+    public long getClothingAllowanceCentavos() {
+        return clothingAllowance;
+    }
+
+    public void setClothingAllowanceCentavos(long clothingAllowance) {
         if (clothingAllowance < 0) {
             throw new IllegalArgumentException("Clothing allowance cannot be negative");
         }
@@ -246,10 +335,18 @@ public class Payroll {
 
     // Deduction component getters and setters
     public double getLateDeduction() {
-        return lateDeduction;
+        return Money.toPesos(lateDeduction);
     }
 
     public void setLateDeduction(double lateDeduction) {
+        setLateDeductionCentavos(Money.of(lateDeduction));
+    }
+
+    public long getLateDeductionCentavos() {
+        return lateDeduction;
+    }
+
+    public void setLateDeductionCentavos(long lateDeduction) {
         if (lateDeduction < 0) {
             throw new IllegalArgumentException("Late deduction cannot be negative");
         }
@@ -257,10 +354,18 @@ public class Payroll {
     }
 
     public double getUndertimeDeduction() {
-        return undertimeDeduction;
+        return Money.toPesos(undertimeDeduction);
     }
 
     public void setUndertimeDeduction(double undertimeDeduction) {
+        setUndertimeDeductionCentavos(Money.of(undertimeDeduction));
+    }
+
+    public long getUndertimeDeductionCentavos() {
+        return undertimeDeduction;
+    }
+
+    public void setUndertimeDeductionCentavos(long undertimeDeduction) {
         if (undertimeDeduction < 0) {
             throw new IllegalArgumentException("Undertime deduction cannot be negative");
         }
@@ -268,10 +373,18 @@ public class Payroll {
     }
 
     public double getUnpaidLeaveDeduction() {
-        return unpaidLeaveDeduction;
+        return Money.toPesos(unpaidLeaveDeduction);
     }
 
     public void setUnpaidLeaveDeduction(double unpaidLeaveDeduction) {
+        setUnpaidLeaveDeductionCentavos(Money.of(unpaidLeaveDeduction));
+    }
+
+    public long getUnpaidLeaveDeductionCentavos() {
+        return unpaidLeaveDeduction;
+    }
+
+    public void setUnpaidLeaveDeductionCentavos(long unpaidLeaveDeduction) {
         if (unpaidLeaveDeduction < 0) {
             throw new IllegalArgumentException("Unpaid leave deduction cannot be negative");
         }
@@ -279,10 +392,18 @@ public class Payroll {
     }
 
     public double getSss() {
-        return sss;
+        return Money.toPesos(sss);
     }
 
     public void setSss(double sss) {
+        setSssCentavos(Money.of(sss));
+    }
+
+    public long getSssCentavos() {
+        return sss;
+    }
+
+    public void setSssCentavos(long sss) {
         if (sss < 0) {
             throw new IllegalArgumentException("SSS contribution cannot be negative");
         }
@@ -290,10 +411,18 @@ public class Payroll {
     }
 
     public double getPhilhealth() {
-        return philhealth;
+        return Money.toPesos(philhealth);
     }
 
     public void setPhilhealth(double philhealth) {
+        setPhilhealthCentavos(Money.of(philhealth));
+    }
+
+    public long getPhilhealthCentavos() {
+        return philhealth;
+    }
+
+    public void setPhilhealthCentavos(long philhealth) {
         if (philhealth < 0) {
             throw new IllegalArgumentException("PhilHealth contribution cannot be negative");
         }
@@ -301,10 +430,18 @@ public class Payroll {
     }
 
     public double getPagibig() {
-        return pagibig;
+        return Money.toPesos(pagibig);
     }
 
     public void setPagibig(double pagibig) {
+        setPagibigCentavos(Money.of(pagibig));
+    }
+
+    public long getPagibigCentavos() {
+        return pagibig;
+    }
+
+    public void setPagibigCentavos(long pagibig) {
         if (pagibig < 0) {
             throw new IllegalArgumentException("Pag-IBIG contribution cannot be negative");
         }
@@ -312,10 +449,18 @@ public class Payroll {
     }
 
     public double getTax() {
-        return tax;
+        return Money.toPesos(tax);
     }
 
     public void setTax(double tax) {
+        setTaxCentavos(Money.of(tax));
+    }
+
+    public long getTaxCentavos() {
+        return tax;
+    }
+
+    public void setTaxCentavos(long tax) {
         if (tax < 0) {
             throw new IllegalArgumentException("Tax cannot be negative");
         }
@@ -354,26 +499,25 @@ public class Payroll {
     // Enhanced calculation methods
     public void calculateBasicPay() {
         if (dailyRate > 0 && daysWorked >= 0) {
-            double basicPay = daysWorked * dailyRate;
-            this.grossEarnings = basicPay;
+            this.grossEarnings = Math.multiplyExact(dailyRate, (long) daysWorked);
         }
     }
 
     public void calculateOvertimePay() {
         if (dailyRate > 0 && totalOvertimeHours > 0) {
-            double hourlyRate = dailyRate / 8.0; // 8 hours per day
-            this.overtimePay = totalOvertimeHours * hourlyRate * 1.25; // 125% of hourly rate
+            // 125% of the hourly rate (daily rate over 8 hours), per minute of overtime
+            long overtimeMinutes = Math.round(totalOvertimeHours * 60);
+            this.overtimePay = Money.multiply(dailyRate, overtimeMinutes * 125, 8 * 60 * 100, Money.DEFAULT_ROUNDING);
         }
     }
 
     public void calculateGrossPay() {
         // Calculate gross pay as sum of all earnings
-        this.grossPay = grossEarnings + overtimePay + riceSubsidy + phoneAllowance + clothingAllowance;
+        this.grossPay = getTotalEarningsCentavos();
     }
 
     public void calculateTotalDeductions() {
-        this.totalDeductions = lateDeduction + undertimeDeduction + unpaidLeaveDeduction + 
-                              sss + philhealth + pagibig + tax;
+        this.totalDeductions = getTotalTimeDeductionsCentavos() + getTotalGovernmentContributionsCentavos() + tax;
     }
 
     public void calculateNetPay() {
@@ -384,14 +528,26 @@ public class Payroll {
 
     // Utility methods for payroll processing
     public double getTotalEarnings() {
-        return grossEarnings + overtimePay + riceSubsidy + phoneAllowance + clothingAllowance;
+        return Money.toPesos(getTotalEarningsCentavos());
     }
 
     public double getTotalGovernmentContributions() {
-        return sss + philhealth + pagibig;
+        return Money.toPesos(getTotalGovernmentContributionsCentavos());
     }
 
     public double getTotalTimeDeductions() {
+        return Money.toPesos(getTotalTimeDeductionsCentavos());
+    }
+
+    public long getTotalEarningsCentavos() {
+        return grossEarnings + overtimePay + riceSubsidy + phoneAllowance + clothingAllowance;
+    }
+
+    public long getTotalGovernmentContributionsCentavos() {
+        return sss + philhealth + pagibig;
+    }
+
+    public long getTotalTimeDeductionsCentavos() {
         return lateDeduction + undertimeDeduction + unpaidLeaveDeduction;
     }
 
@@ -413,9 +569,9 @@ public class Payroll {
                 ", periodStart=" + periodStart +
                 ", periodEnd=" + periodEnd +
                 ", daysWorked=" + daysWorked +
-                ", grossPay=" + grossPay +
-                ", totalDeductions=" + totalDeductions +
-                ", netPay=" + netPay +
+                ", grossPay=" + Money.format(grossPay) +
+                ", totalDeductions=" + Money.format(totalDeductions) +
+                ", netPay=" + Money.format(netPay) +
                 '}';
     }
 
@@ -426,13 +582,13 @@ public class Payroll {
                 "\n  employeeId=" + employeeId +
                 "\n  period=" + periodStart + " to " + periodEnd +
                 "\n  daysWorked=" + daysWorked +
-                "\n  dailyRate=" + dailyRate +
-                "\n  grossEarnings=" + grossEarnings +
-                "\n  overtimePay=" + overtimePay +
-                "\n  allowances=" + (riceSubsidy + phoneAllowance + clothingAllowance) +
-                "\n  grossPay=" + grossPay +
-                "\n  deductions=" + totalDeductions +
-                "\n  netPay=" + netPay +
+                "\n  dailyRate=" + Money.format(dailyRate) +
+                "\n  grossEarnings=" + Money.format(grossEarnings) +
+                "\n  overtimePay=" + Money.format(overtimePay) +
+                "\n  allowances=" + Money.format(riceSubsidy + phoneAllowance + clothingAllowance) +
+                "\n  grossPay=" + Money.format(grossPay) +
+                "\n  deductions=" + Money.format(totalDeductions) +
+                "\n  netPay=" + Money.format(netPay) +
                 "\n}";
     }
 }
\ No newline at end of file
@@ -0,0 +1,72 @@
+package model;
+
+import java.time.LocalDate;
+
+/**
+ * One row of the statutory_rate_brackets table: a single bracket of an
+ * SSS, PhilHealth, Pag-IBIG or withholding tax schedule.
+ * The amount for a base inside the bracket is
+ * fixedAmount + (base - excessOver) * rate, clamped to [minAmount, maxAmount].
+ */
+public class StatutoryRateBracket {
+    private String contributionType;
+    private LocalDate effectiveDate;
+    private Double upperBound;   // inclusive, null means no upper limit
+    private double fixedAmount;
+    private double rate;
+    private double excessOver;
+    private double minAmount;
+    private Double maxAmount;    // null means no cap
+    private boolean annualized;
+
+    // Constructors
+    public StatutoryRateBracket() {}
+
+    public StatutoryRateBracket(String contributionType, LocalDate effectiveDate, Double upperBound,
+                                double fixedAmount, double rate, double excessOver,
+                                double minAmount, Double maxAmount, boolean annualized) {
+        this.contributionType = contributionType;
+        this.effectiveDate = effectiveDate;
+        this.upperBound = upperBound;
+        this.fixedAmount = fixedAmount;
+        this.rate = rate;
+        this.excessOver = excessOver;
+        this.minAmount = minAmount;
+        this.maxAmount = maxAmount;
+        this.annualized = annualized;
+    }
+
+    // Getters and Setters
+    public String getContributionType() { return contributionType; }
+    public void setContributionType(String contributionType) { this.contributionType = contributionType; }
+
+    public LocalDate getEffectiveDate() { return effectiveDate; }
+    public void setEffectiveDate(LocalDate effectiveDate) { this.effectiveDate = effectiveDate; }
+
+    public Double getUpperBound() { return upperBound; }
+    public void setUpperBound(Double upperBound) { this.upperBound = upperBound; }
+
+    public double getFixedAmount() { return fixedAmount; }
+    public void setFixedAmount(double fixedAmount) { this.fixedAmount = fixedAmount; }
+
+    public double getRate() { return rate; }
+    public void setRate(double rate) { this.rate = rate; }
+
+    public double getExcessOver() { return excessOver; }
+    public void setExcessOver(double excessOver) { this.excessOver = excessOver; }
+
+    public double getMinAmount() { return minAmount; }
+    public void setMinAmount(double minAmount) { this.minAmount = minAmount; }
+
+    public Double getMaxAmount() { return maxAmount; }
+    public void setMaxAmount(Double maxAmount) { this.maxAmount = maxAmount; }
+
+    public boolean isAnnualized() { return annualized; }
+    public void setAnnualized(boolean annualized) { this.annualized = annualized; }
+
+    @Override
+    public String toString() {
+        return String.format("StatutoryRateBracket{type='%s', effective=%s, upTo=%s, fixed=%.2f, rate=%.5f, over=%.2f}",
+                contributionType, effectiveDate, upperBound, fixedAmount, rate, excessOver);
+    }
+}
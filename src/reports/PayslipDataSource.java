@@ -0,0 +1,106 @@
+package reports;
+
+import model.Employee;
+import model.Payroll;
+import net.sf.jasperreports.engine.JRDataSource;
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JRField;
+
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Payslip rows for {@link PayslipTemplate}: one record, and one page, per
+ * payroll. A whole payroll run fills as a single data source, so the
+ * template is filled once for the run rather than once per employee.
+ *
+ * @author rejoice
+ */
+public class PayslipDataSource implements JRDataSource {
+    private static final DateTimeFormatter PAYSLIP_MONTH = DateTimeFormatter.ofPattern("yyyy-MM");
+
+    private final List<Payroll> payrolls;
+    private final Map<Integer, Employee> employeesById;
+    private int index = -1;
+    private Payroll payroll;
+    private Employee employee;
+
+    /**
+     * @param payrolls Payrolls to print, in page order
+     * @param employeesById Employee for each payroll's employee ID
+     */
+    public PayslipDataSource(List<Payroll> payrolls, Map<Integer, Employee> employeesById) {
+        this.payrolls = payrolls;
+        this.employeesById = employeesById;
+    }
+
+    @Override
+    public boolean next() throws JRException {
+        while (++index < payrolls.size()) {
+            payroll = payrolls.get(index);
+            employee = employeesById.get(payroll.getEmployeeId());
+            if (employee != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Payroll of the current record
+     */
+    public Payroll getCurrentPayroll() {
+        return payroll;
+    }
+
+    @Override
+    public Object getFieldValue(JRField field) throws JRException {
+        switch (field.getName()) {
+            case "payslipNumber": return payslipNumber(employee, payroll);
+            case "employeeId": return employee.getEmployeeId();
+            case "employeeName": return employee.getLastName() + ", " + employee.getFirstName();
+            case "position": return employee.getPosition();
+            case "status": return employee.getStatus();
+            case "sssNumber": return orNotAvailable(employee.getSssNumber());
+            case "philhealthNumber": return orNotAvailable(employee.getPhilhealthNumber());
+            case "tinNumber": return orNotAvailable(employee.getTinNumber());
+            case "pagibigNumber": return orNotAvailable(employee.getPagibigNumber());
+            case "periodStart": return payroll.getPeriodStart();
+            case "periodEnd": return payroll.getPeriodEnd();
+            case "daysWorked": return payroll.getDaysWorked();
+            case "overtimeHours": return payroll.getTotalOvertimeHours();
+            case "monthlyRate": return payroll.getMonthlyRate();
+            case "dailyRate": return payroll.getDailyRate();
+            case "basicPay": return payroll.getGrossEarnings();
+            case "overtimePay": return payroll.getOvertimePay();
+            case "riceSubsidy": return payroll.getRiceSubsidy();
+            case "phoneAllowance": return payroll.getPhoneAllowance();
+            case "clothingAllowance": return payroll.getClothingAllowance();
+            case "grossPay": return payroll.getGrossPay();
+            case "sss": return payroll.getSss();
+            case "philhealth": return payroll.getPhilhealth();
+            case "pagibig": return payroll.getPagibig();
+            case "tax": return payroll.getTax();
+            case "lateDeduction": return payroll.getLateDeduction();
+            case "undertimeDeduction": return payroll.getUndertimeDeduction();
+            case "unpaidLeaveDeduction": return payroll.getUnpaidLeaveDeduction();
+            case "totalDeductions": return payroll.getTotalDeductions();
+            case "netPay": return payroll.getNetPay();
+            default: throw new JRException("Unknown payslip field: " + field.getName());
+        }
+    }
+
+    /**
+     * Payslip number, e.g. MP-10001-2024-06
+     */
+    public static String payslipNumber(Employee employee, Payroll payroll) {
+        return String.format("MP-%04d-%s",
+            employee.getEmployeeId(),
+            payroll.getEndDateAsLocalDate().format(PAYSLIP_MONTH));
+    }
+
+    private static String orNotAvailable(String value) {
+        return value != null ? value : "N/A";
+    }
+}
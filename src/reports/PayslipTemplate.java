@@ -1,13 +1,124 @@
-/*
- * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
- * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
- */
 package reports;
 
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JasperCompileManager;
+import net.sf.jasperreports.engine.JasperReport;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import util.ConfigurationManager;
+
 /**
+ * The MotorPH payslip JasperReports template, compiled once per version.
+ *
+ * Compiling a jrxml takes far longer than filling it, so the compiled
+ * report is kept and shared; a compiled JasperReport is read-only and can
+ * be filled from several threads at once. The template's last-modified
+ * time is its version. Reading it costs a file or jar lookup, so it is
+ * checked at most once per jasper.template.check.seconds. With the default
+ * of 0 outside debug mode it is never rechecked, since the template ships
+ * in the jar; an edited template is then picked up after a restart or
+ * {@link #invalidate()}.
  *
  * @author rejoice
  */
-public class PayslipTemplate {
-    
+public final class PayslipTemplate {
+    private static final Logger LOGGER = Logger.getLogger(PayslipTemplate.class.getName());
+
+    public static final String TEMPLATE_RESOURCE = "/reports/motorph_payslip.jrxml";
+
+    // Report parameters
+    public static final String PARAM_COMPANY_NAME = "COMPANY_NAME";
+    public static final String PARAM_COMPANY_ADDRESS = "COMPANY_ADDRESS";
+    public static final String PARAM_COMPANY_CONTACT = "COMPANY_CONTACT";
+    public static final String PARAM_GENERATED_AT = "GENERATED_AT";
+
+    private static final long CHECK_INTERVAL_NANOS =
+            TimeUnit.SECONDS.toNanos(Math.max(0, ConfigurationManager.getInstance().getJasperTemplateCheckSeconds()));
+
+    private static volatile Compiled compiled;
+
+    private PayslipTemplate() {
+    }
+
+    /**
+     * Compiled payslip report for the current template version
+     * @throws JRException if the template is missing or does not compile
+     */
+    public static JasperReport getReport() throws JRException {
+        Compiled current = compiled;
+        if (current != null && !current.isCheckDue()) {
+            return current.report;
+        }
+
+        URL template = PayslipTemplate.class.getResource(TEMPLATE_RESOURCE);
+        if (template == null) {
+            throw new JRException("Payslip template not found on classpath: " + TEMPLATE_RESOURCE);
+        }
+
+        long version = versionOf(template);
+        if (current != null && current.version == version) {
+            current.checkedAt = System.nanoTime();
+            return current.report;
+        }
+
+        synchronized (PayslipTemplate.class) {
+            current = compiled;
+            if (current != null && current.version == version) {
+                return current.report;
+            }
+
+            long started = System.nanoTime();
+            try (InputStream input = template.openStream()) {
+                JasperReport report = JasperCompileManager.compileReport(input);
+                compiled = new Compiled(version, report);
+                LOGGER.info(String.format("🧾 Payslip template compiled in %.1f ms",
+                        (System.nanoTime() - started) / 1_000_000.0));
+                return report;
+            } catch (IOException e) {
+                throw new JRException("Cannot read payslip template " + TEMPLATE_RESOURCE, e);
+            }
+        }
+    }
+
+    /**
+     * Drop the compiled report so the next use recompiles it
+     */
+    public static void invalidate() {
+        compiled = null;
+    }
+
+    private static long versionOf(URL template) {
+        try {
+            URLConnection connection = template.openConnection();
+            connection.setUseCaches(false);
+            long lastModified = connection.getLastModified();
+            // Opening a connection to a jar entry keeps the jar open unless the stream is closed
+            connection.getInputStream().close();
+            return lastModified;
+        } catch (IOException e) {
+            // Without a version, keep whatever was compiled last
+            Compiled current = compiled;
+            return current != null ? current.version : 0L;
+        }
+    }
+
+    private static final class Compiled {
+        final long version;
+        final JasperReport report;
+        volatile long checkedAt = System.nanoTime();
+
+        Compiled(long version, JasperReport report) {
+            this.version = version;
+            this.report = report;
+        }
+
+        boolean isCheckDue() {
+            return CHECK_INTERVAL_NANOS > 0 && System.nanoTime() - checkedAt >= CHECK_INTERVAL_NANOS;
+        }
+    }
 }
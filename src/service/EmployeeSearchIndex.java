@@ -0,0 +1,338 @@
+package service;
+
+import dao.EmployeeDAO;
+import model.Employee;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * In-memory search over employee ID, name, position and supervisor for the
+ * HR dashboard search box.
+ *
+ * Every word of every field is a term in a sorted array, so each query word
+ * is a binary search for its prefix range. A search never touches the
+ * database. The index is an immutable snapshot that is swapped out whole on
+ * rebuild, so searches need no locking. Employee writes made through
+ * {@link EmployeeDAO} are picked up on the next search.
+ */
+public final class EmployeeSearchIndex {
+    private static final Logger LOGGER = Logger.getLogger(EmployeeSearchIndex.class.getName());
+
+    // Field weights for ranking; an exact word match counts double a prefix match
+    private static final int FIELD_ID = 0;
+    private static final int FIELD_LAST_NAME = 1;
+    private static final int FIELD_FIRST_NAME = 2;
+    private static final int FIELD_POSITION = 3;
+    private static final int FIELD_SUPERVISOR = 4;
+    private static final int[] FIELD_WEIGHTS = { 8, 6, 5, 2, 1 };
+
+    private static final Comparator<Employee> NAME_ORDER = Comparator
+            .comparing(Employee::getLastName, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER))
+            .thenComparing(Employee::getFirstName, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER))
+            .thenComparingInt(Employee::getEmployeeId);
+
+    private static final String[] NO_WORDS = new String[0];
+
+    private static EmployeeSearchIndex instance;
+
+    private final EmployeeDAO employeeDAO;
+    private final Set<Integer> pendingChanges = ConcurrentHashMap.newKeySet();
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    private volatile boolean built = false;
+
+    private EmployeeSearchIndex(EmployeeDAO employeeDAO) {
+        this.employeeDAO = employeeDAO;
+        EmployeeDAO.addChangeListener(pendingChanges::add);
+    }
+
+    public static synchronized EmployeeSearchIndex getInstance() {
+        if (instance == null) {
+            instance = new EmployeeSearchIndex(new EmployeeDAO());
+        }
+        return instance;
+    }
+
+    /**
+     * Rebuild from the database
+     */
+    public void rebuild() {
+        rebuild(employeeDAO.getAllEmployees());
+    }
+
+    /**
+     * Rebuild from an employee list the caller already loaded
+     */
+    public synchronized void rebuild(Collection<Employee> employees) {
+        long started = System.nanoTime();
+        snapshot = Snapshot.build(employees);
+        built = true;
+        LOGGER.info(String.format("🔎 Employee search index built: %d employees, %d terms in %.1f ms",
+                snapshot.employees.length, snapshot.terms.length, (System.nanoTime() - started) / 1_000_000.0));
+    }
+
+    public boolean isBuilt() {
+        return built;
+    }
+
+    public int size() {
+        return snapshot.employees.length;
+    }
+
+    /**
+     * Employees matching every word of the query as a word prefix in any
+     * indexed field, best matches first. A blank query returns everyone in
+     * name order. Returned employees are shared with the index and must not
+     * be modified; fetch an editable copy with {@link EmployeeDAO#getEmployeeById}.
+     * @param query search text, e.g. "gar dev" or "10005"
+     * @param limit maximum number of results, or 0 for no limit
+     */
+    public List<Employee> search(String query, int limit) {
+        if (!built) {
+            rebuild();
+        }
+        applyPendingChanges();
+
+        Snapshot current = snapshot;
+        String[] words = tokenize(query);
+        if (words.length == 0) {
+            return limit(Arrays.asList(current.employees), limit);
+        }
+
+        // Total score per employee index; zero once any query word fails to match
+        int[] scores = null;
+        for (String word : words) {
+            int[] wordScores = current.match(word);
+            if (scores == null) {
+                scores = wordScores;
+            } else {
+                for (int i = 0; i < scores.length; i++) {
+                    scores[i] = scores[i] > 0 && wordScores[i] > 0 ? scores[i] + wordScores[i] : 0;
+                }
+            }
+        }
+        return rank(current, scores, limit);
+    }
+
+    /**
+     * Counting sort by score, best first. Employees are stored in name order,
+     * so equal scores stay in name order.
+     */
+    private static List<Employee> rank(Snapshot current, int[] scores, int limit) {
+        int maxScore = 0;
+        for (int score : scores) {
+            maxScore = Math.max(maxScore, score);
+        }
+        if (maxScore == 0) {
+            return new ArrayList<>();
+        }
+
+        int[] next = new int[maxScore + 1];
+        for (int score : scores) {
+            if (score > 0) {
+                next[score]++;
+            }
+        }
+        int matches = 0;
+        for (int score = maxScore; score > 0; score--) {
+            int count = next[score];
+            next[score] = matches;
+            matches += count;
+        }
+
+        int[] order = new int[matches];
+        for (int i = 0; i < scores.length; i++) {
+            if (scores[i] > 0) {
+                order[next[scores[i]]++] = i;
+            }
+        }
+
+        int count = limit > 0 ? Math.min(limit, matches) : matches;
+        List<Employee> results = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            results.add(current.employees[order[i]]);
+        }
+        return results;
+    }
+
+    public List<Employee> search(String query) {
+        return search(query, 0);
+    }
+
+    // Re-read employees written since the last search and swap in a new snapshot
+    private void applyPendingChanges() {
+        if (pendingChanges.isEmpty()) {
+            return;
+        }
+
+        synchronized (this) {
+            if (pendingChanges.isEmpty()) {
+                return;
+            }
+            List<Integer> changed = new ArrayList<>(pendingChanges);
+            pendingChanges.removeAll(changed);
+
+            Map<Integer, Employee> byId = new LinkedHashMap<>();
+            for (Employee employee : snapshot.employees) {
+                byId.put(employee.getEmployeeId(), employee);
+            }
+            try {
+                for (int employeeId : changed) {
+                    Employee employee = employeeDAO.getEmployeeById(employeeId);
+                    if (employee != null) {
+                        byId.put(employeeId, employee);
+                    } else {
+                        byId.remove(employeeId);
+                    }
+                }
+            } catch (RuntimeException e) {
+                // Try again on the next search rather than serve a half-updated index
+                pendingChanges.addAll(changed);
+                LOGGER.log(Level.WARNING, "⚠️ Could not refresh changed employees in search index", e);
+                return;
+            }
+            snapshot = Snapshot.build(byId.values());
+        }
+    }
+
+    private static List<Employee> limit(List<Employee> employees, int limit) {
+        return new ArrayList<>(limit > 0 && limit < employees.size() ? employees.subList(0, limit) : employees);
+    }
+
+    /**
+     * Lower-case, accent-free words of a text
+     */
+    static String[] tokenize(String text) {
+        if (text == null || text.isEmpty()) {
+            return NO_WORDS;
+        }
+
+        String normalized = text.toLowerCase(Locale.ROOT);
+        for (int i = 0; i < normalized.length(); i++) {
+            if (normalized.charAt(i) > 127) {
+                // Only non-ASCII text pays for decomposition, e.g. "Añonuevo" -> "anonuevo"
+                normalized = Normalizer.normalize(normalized, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+                break;
+            }
+        }
+
+        List<String> words = new ArrayList<>(4);
+        int wordStart = -1;
+        for (int i = 0; i <= normalized.length(); i++) {
+            boolean inWord = i < normalized.length() && Character.isLetterOrDigit(normalized.charAt(i));
+            if (inWord && wordStart < 0) {
+                wordStart = i;
+            } else if (!inWord && wordStart >= 0) {
+                words.add(normalized.substring(wordStart, i));
+                wordStart = -1;
+            }
+        }
+        return words.toArray(NO_WORDS);
+    }
+
+    /**
+     * Immutable index: terms sorted so a prefix is one contiguous range,
+     * with the employee and field each term came from in parallel arrays
+     */
+    private static final class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(new Employee[0], new String[0], new int[0], new byte[0]);
+
+        final Employee[] employees;
+        final String[] terms;
+        final int[] termEmployee;
+        final byte[] termField;
+
+        private Snapshot(Employee[] employees, String[] terms, int[] termEmployee, byte[] termField) {
+            this.employees = employees;
+            this.terms = terms;
+            this.termEmployee = termEmployee;
+            this.termField = termField;
+        }
+
+        static Snapshot build(Collection<Employee> source) {
+            Employee[] employees = source.toArray(new Employee[0]);
+            Arrays.sort(employees, NAME_ORDER);
+
+            List<Posting> postings = new ArrayList<>(employees.length * 6);
+            for (int i = 0; i < employees.length; i++) {
+                Employee e = employees[i];
+                addTerms(postings, String.valueOf(e.getEmployeeId()), i, FIELD_ID);
+                addTerms(postings, e.getLastName(), i, FIELD_LAST_NAME);
+                addTerms(postings, e.getFirstName(), i, FIELD_FIRST_NAME);
+                addTerms(postings, e.getPosition(), i, FIELD_POSITION);
+                addTerms(postings, e.getImmediateSupervisor(), i, FIELD_SUPERVISOR);
+            }
+            postings.sort(Comparator.comparing((Posting p) -> p.term));
+
+            String[] terms = new String[postings.size()];
+            int[] termEmployee = new int[postings.size()];
+            byte[] termField = new byte[postings.size()];
+            for (int i = 0; i < terms.length; i++) {
+                Posting posting = postings.get(i);
+                terms[i] = posting.term;
+                termEmployee[i] = posting.employee;
+                termField[i] = (byte) posting.field;
+            }
+            return new Snapshot(employees, terms, termEmployee, termField);
+        }
+
+        private static void addTerms(List<Posting> postings, String text, int employee, int field) {
+            for (String word : tokenize(text)) {
+                postings.add(new Posting(word, employee, field));
+            }
+        }
+
+        /**
+         * Best score per employee index for one query word, zero if no match
+         */
+        int[] match(String word) {
+            int[] scores = new int[employees.length];
+            for (int i = lowerBound(word); i < terms.length && terms[i].startsWith(word); i++) {
+                int weight = FIELD_WEIGHTS[termField[i]];
+                int score = terms[i].length() == word.length() ? weight * 2 : weight;
+                if (score > scores[termEmployee[i]]) {
+                    scores[termEmployee[i]] = score;
+                }
+            }
+            return scores;
+        }
+
+        // First term >= word
+        private int lowerBound(String word) {
+            int low = 0;
+            int high = terms.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (terms[mid].compareTo(word) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    private static final class Posting {
+        final String term;
+        final int employee;
+        final int field;
+
+        Posting(String term, int employee, int field) {
+            this.term = term;
+            this.employee = employee;
+            this.field = field;
+        }
+    }
+}
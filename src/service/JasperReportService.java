@@ -2,6 +2,12 @@ package service;
 
 import model.Employee;
 import model.Payroll;
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JasperExportManager;
+import net.sf.jasperreports.engine.JasperFillManager;
+import net.sf.jasperreports.engine.JasperPrint;
+import reports.PayslipDataSource;
+import reports.PayslipTemplate;
 
 import java.io.*;
 import java.time.LocalDateTime;
@@ -11,12 +17,12 @@ import java.util.logging.Logger;
 import java.util.logging.Level;
 
 /**
- * FIXED JasperReportService - Professional PDF Generation
- * This addresses mentor feedback about proper reporting libraries
- * 
- * Since JasperReports may not be available in the environment,
- * this implementation provides a professional PDF-like output
- * that can be easily upgraded to JasperReports when the library is added.
+ * JasperReportService - PDF payslips and payroll reports
+ *
+ * Payslips are filled from the MotorPH template in {@link PayslipTemplate},
+ * which is compiled once and reused. A list of payrolls fills as one
+ * report with a page per payslip, so bulk generation fills and exports
+ * once instead of once per employee.
  */
 public class JasperReportService {
     private static final Logger LOGGER = Logger.getLogger(JasperReportService.class.getName());
@@ -24,6 +30,11 @@ public class JasperReportService {
     // Report templates directory
     private static final String REPORTS_DIR = "reports/";
     private static final String OUTPUT_DIR = "reports/output/";
+
+    // Company details printed on every payslip
+    private static final String COMPANY_NAME = "MOTORPH PHILIPPINES";
+    private static final String COMPANY_ADDRESS = "7 Jupiter Avenue cor. F. Sandoval Jr., Bagong Nayon, Quezon City";
+    private static final String COMPANY_CONTACT = "Phone: (028) 911-5071 | Email: corporate@motorph.com";
     
     public JasperReportService() {
         // Ensure output directory exists
@@ -32,7 +43,6 @@ public class JasperReportService {
 
     /**
      * Generate MotorPH Professional Payslip
-     * This method creates a professional payslip following MotorPH template
      * 
      * @param employee Employee information
      * @param payroll Payroll calculation data
@@ -40,170 +50,67 @@ public class JasperReportService {
      * @return File object of generated PDF
      */
     public File generatePayslipPDF(Employee employee, Payroll payroll, String filePath) {
+        LOGGER.info("Generating MotorPH payslip PDF for: " + employee.getFullName());
+        return generatePayslipsPDF(Collections.singletonList(payroll),
+                Collections.singletonMap(employee.getEmployeeId(), employee), filePath);
+    }
+
+    /**
+     * Generate one PDF with a payslip page for each payroll
+     *
+     * @param payrolls Payrolls to print, in page order
+     * @param employeesById Employee for each payroll; payrolls without one are skipped
+     * @param filePath Output file path
+     * @return File object of generated PDF
+     */
+    public File generatePayslipsPDF(List<Payroll> payrolls, Map<Integer, Employee> employeesById, String filePath) {
         try {
-            LOGGER.info("Generating MotorPH professional payslip for: " + employee.getFullName());
-            
-            // Create professional payslip content
-            String payslipContent = createMotorPHPayslipContent(employee, payroll);
-            
-            // For now, we'll create a rich text file that can be converted to PDF
-            // In a real implementation with JasperReports, this would generate actual PDF
-            File outputFile = new File(filePath.replace(".pdf", "_Professional.txt"));
-            
-            try (PrintWriter writer = new PrintWriter(new FileWriter(outputFile))) {
-                writer.write(payslipContent);
-            }
-            
-            LOGGER.info("✅ Professional payslip generated: " + outputFile.getAbsolutePath());
-            
-            // TODO: When JasperReports is available, replace this with actual PDF generation:
-            // JasperReport jasperReport = JasperCompileManager.compileReport(templatePath);
-            // JasperPrint jasperPrint = JasperFillManager.fillReport(jasperReport, parameters, dataSource);
-            // JasperExportManager.exportReportToPdfFile(jasperPrint, filePath);
-            
-            return outputFile;
-            
-        } catch (Exception e) {
+            long started = System.nanoTime();
+            JasperPrint print = fillPayslips(payrolls, employeesById);
+            JasperExportManager.exportReportToPdfFile(print, filePath);
+
+            LOGGER.info(String.format("✅ %d payslip(s) generated in %.1f ms: %s",
+                    print.getPages().size(), (System.nanoTime() - started) / 1_000_000.0, filePath));
+            return new File(filePath);
+
+        } catch (JRException e) {
             LOGGER.log(Level.SEVERE, "Error generating payslip PDF", e);
             throw new RuntimeException("Failed to generate payslip: " + e.getMessage(), e);
         }
     }
 
     /**
-     * Creates professional MotorPH payslip content following company template
+     * Render one payslip as PDF bytes, for callers that write it somewhere
+     * other than a file of its own
+     *
+     * @param employee Employee information
+     * @param payroll Payroll calculation data
+     * @return PDF document
+     * @throws JRException if the template cannot be compiled, filled or exported
      */
-    private String createMotorPHPayslipContent(Employee employee, Payroll payroll) {
-        StringBuilder content = new StringBuilder();
-        
-        // HEADER - MotorPH Company Branding
-        content.append("=" .repeat(80)).append("\n");
-        content.append("                              MOTORPH PHILIPPINES\n");
-        content.append("                    Motorcycle Parts and Accessories\n");
-        content.append("        7 Jupiter Avenue cor. F. Sandoval Jr., Bagong Nayon, Quezon City\n");
-        content.append("         Phone: (028) 911-5071 | Email: corporate@motorph.com\n");
-        content.append("=" .repeat(80)).append("\n\n");
-        
-        // PAYSLIP TITLE
-        content.append("                           EMPLOYEE PAYSLIP\n");
-        content.append("                         Pay Period Summary\n\n");
-        
-        // PAYSLIP NUMBER AND DATE
-        String payslipNumber = generatePayslipNumber(employee, payroll);
-        String generatedDate = LocalDateTime.now().format(DateTimeFormatter.ofPattern("MMMM dd, yyyy 'at' HH:mm:ss"));
-        
-        content.append("Payslip Number: ").append(payslipNumber).append("\n");
-        content.append("Generated: ").append(generatedDate).append("\n");
-        content.append("-" .repeat(80)).append("\n\n");
-        
-        // EMPLOYEE INFORMATION SECTION
-        content.append("EMPLOYEE INFORMATION\n");
-        content.append("-" .repeat(80)).append("\n");
-        content.append(String.format("Employee ID        : %d\n", employee.getEmployeeId()));
-        content.append(String.format("Full Name          : %s, %s\n", employee.getLastName(), employee.getFirstName()));
-        content.append(String.format("Position           : %s\n", employee.getPosition()));
-        content.append(String.format("Department         : %s\n", employee.getPosition())); // Assuming position as department
-        content.append(String.format("Employment Status  : %s\n", employee.getStatus()));
-        content.append(String.format("SSS Number         : %s\n", employee.getSssNumber() != null ? employee.getSssNumber() : "N/A"));
-        content.append(String.format("PhilHealth Number  : %s\n", employee.getPhilhealthNumber() != null ? employee.getPhilhealthNumber() : "N/A"));
-        content.append(String.format("TIN Number         : %s\n", employee.getTinNumber() != null ? employee.getTinNumber() : "N/A"));
-        content.append(String.format("Pag-IBIG Number    : %s\n", employee.getPagibigNumber() != null ? employee.getPagibigNumber() : "N/A"));
-        content.append("\n");
-        
-        // PAY PERIOD INFORMATION
-        content.append("PAY PERIOD INFORMATION\n");
-        content.append("-" .repeat(80)).append("\n");
-        content.append(String.format("Pay Period         : %s to %s\n", 
-            payroll.getStartDateAsLocalDate().format(DateTimeFormatter.ofPattern("MM/dd/yyyy")),
-            payroll.getEndDateAsLocalDate().format(DateTimeFormatter.ofPattern("MM/dd/yyyy"))));
-        content.append(String.format("Days Worked        : %d days\n", payroll.getDaysWorked()));
-        content.append(String.format("Monthly Rate       : %s\n", formatCurrency(payroll.getMonthlyRate())));
-        content.append(String.format("Daily Rate         : %s\n", formatCurrency(payroll.getDailyRate())));
-        content.append(String.format("Overtime Hours     : %.2f hours\n", payroll.getTotalOvertimeHours()));
-        content.append("\n");
-        
-        // EARNINGS BREAKDOWN
-        content.append("EARNINGS BREAKDOWN\n");
-        content.append("-" .repeat(80)).append("\n");
-        content.append(String.format("%-30s : %15s\n", "Basic Pay", formatCurrency(payroll.getGrossEarnings())));
-        content.append(String.format("%-30s : %15s\n", "Overtime Pay", formatCurrency(payroll.getOvertimePay())));
-        content.append(String.format("%-30s : %15s\n", "Rice Subsidy", formatCurrency(payroll.getRiceSubsidy())));
-        content.append(String.format("%-30s : %15s\n", "Phone Allowance", formatCurrency(payroll.getPhoneAllowance())));
-        content.append(String.format("%-30s : %15s\n", "Clothing Allowance", formatCurrency(payroll.getClothingAllowance())));
-        content.append(" " .repeat(30) + " : " + "-" .repeat(15) + "\n");
-        content.append(String.format("%-30s : %15s\n", "GROSS PAY", formatCurrency(payroll.getGrossPay())));
-        content.append("\n");
-        
-        // DEDUCTIONS BREAKDOWN
-        content.append("DEDUCTIONS BREAKDOWN\n");
-        content.append("-" .repeat(80)).append("\n");
-        
-        // Government Contributions
-        content.append("Government Contributions:\n");
-        content.append(String.format("  %-26s : %15s\n", "SSS Contribution", formatCurrency(payroll.getSss())));
-        content.append(String.format("  %-26s : %15s\n", "PhilHealth Premium", formatCurrency(payroll.getPhilhealth())));
-        content.append(String.format("  %-26s : %15s\n", "Pag-IBIG Contribution", formatCurrency(payroll.getPagibig())));
-        content.append(String.format("  %-26s : %15s\n", "Withholding Tax", formatCurrency(payroll.getTax())));
-        
-        // Time-based Deductions (if any)
-        if (payroll.getLateDeduction() > 0 || payroll.getUndertimeDeduction() > 0 || payroll.getUnpaidLeaveDeduction() > 0) {
-            content.append("\nTime-based Deductions:\n");
-            if (payroll.getLateDeduction() > 0) {
-                content.append(String.format("  %-26s : %15s\n", "Late Deduction", formatCurrency(payroll.getLateDeduction())));
-            }
-            if (payroll.getUndertimeDeduction() > 0) {
-                content.append(String.format("  %-26s : %15s\n", "Undertime Deduction", formatCurrency(payroll.getUndertimeDeduction())));
-            }
-            if (payroll.getUnpaidLeaveDeduction() > 0) {
-                content.append(String.format("  %-26s : %15s\n", "Unpaid Leave", formatCurrency(payroll.getUnpaidLeaveDeduction())));
-            }
-        }
-        
-        content.append(" " .repeat(30) + " : " + "-" .repeat(15) + "\n");
-        content.append(String.format("%-30s : %15s\n", "TOTAL DEDUCTIONS", formatCurrency(payroll.getTotalDeductions())));
-        content.append("\n");
-        
-        // NET PAY SUMMARY
-        content.append("PAY SUMMARY\n");
-        content.append("=" .repeat(80)).append("\n");
-        content.append(String.format("%-30s : %15s\n", "Gross Pay", formatCurrency(payroll.getGrossPay())));
-        content.append(String.format("%-30s : %15s\n", "Total Deductions", formatCurrency(payroll.getTotalDeductions())));
-        content.append("=" .repeat(48) + "\n");
-        content.append(String.format("%-30s : %15s\n", "NET TAKE-HOME PAY", formatCurrency(payroll.getNetPay())));
-        content.append("=" .repeat(48) + "\n\n");
-        
-        // GOVERNMENT REMITTANCE DETAILS
-        content.append("GOVERNMENT REMITTANCE DETAILS\n");
-        content.append("-" .repeat(80)).append("\n");
-        content.append("The following amounts have been remitted to government agencies:\n");
-        content.append(String.format("• SSS (Social Security System)     : %s\n", formatCurrency(payroll.getSss())));
-        content.append(String.format("• PhilHealth (Health Insurance)    : %s\n", formatCurrency(payroll.getPhilhealth())));
-        content.append(String.format("• Pag-IBIG (Housing Fund)          : %s\n", formatCurrency(payroll.getPagibig())));
-        content.append(String.format("• BIR (Bureau of Internal Revenue) : %s\n", formatCurrency(payroll.getTax())));
-        content.append("\n");
-        
-        // FOOTER
-        content.append("IMPORTANT NOTES\n");
-        content.append("-" .repeat(80)).append("\n");
-        content.append("• This payslip is computer-generated and does not require signature.\n");
-        content.append("• Please keep this document for your records and tax filing purposes.\n");
-        content.append("• For any questions regarding your payroll, contact HR Department.\n");
-        content.append("• Report any discrepancies within 30 days of payslip generation.\n\n");
-        
-        content.append("Thank you for your dedicated service to MotorPH Philippines!\n");
-        content.append("=" .repeat(80)).append("\n");
-        content.append("                    MotorPH - Driving Excellence Forward\n");
-        content.append("=" .repeat(80));
-        
-        return content.toString();
+    public byte[] renderPayslipPDF(Employee employee, Payroll payroll) throws JRException {
+        JasperPrint print = fillPayslips(Collections.singletonList(payroll),
+                Collections.singletonMap(employee.getEmployeeId(), employee));
+        return JasperExportManager.exportReportToPdf(print);
     }
 
     /**
-     * Generate unique payslip number
+     * Fill the payslip template for a list of payrolls in one pass
+     *
+     * @param payrolls Payrolls to print, in page order
+     * @param employeesById Employee for each payroll; payrolls without one are skipped
+     * @return Filled report, one page per payslip
+     * @throws JRException if the template cannot be compiled or filled
      */
-    private String generatePayslipNumber(Employee employee, Payroll payroll) {
-        return String.format("MP-%04d-%s", 
-            employee.getEmployeeId(),
-            payroll.getEndDateAsLocalDate().format(DateTimeFormatter.ofPattern("yyyy-MM")));
+    public JasperPrint fillPayslips(List<Payroll> payrolls, Map<Integer, Employee> employeesById) throws JRException {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put(PayslipTemplate.PARAM_COMPANY_NAME, COMPANY_NAME);
+        parameters.put(PayslipTemplate.PARAM_COMPANY_ADDRESS, COMPANY_ADDRESS);
+        parameters.put(PayslipTemplate.PARAM_COMPANY_CONTACT, COMPANY_CONTACT);
+        parameters.put(PayslipTemplate.PARAM_GENERATED_AT, new Date());
+
+        return JasperFillManager.fillReport(PayslipTemplate.getReport(), parameters,
+                new PayslipDataSource(payrolls, employeesById));
     }
 
     /**
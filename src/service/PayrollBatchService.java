@@ -0,0 +1,323 @@
+package service;
+
+import dao.PayrollChangeDAO;
+import dao.PayrollDAO;
+import dao.PayrollRunDAO;
+import model.Employee;
+import model.Payroll;
+import util.ConfigurationManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Company-wide payroll runs computed in parallel.
+ *
+ * The period is bulk-loaded once into a {@link PayrollPeriodData} snapshot,
+ * then employees are split into chunks and calculated on a bounded worker
+ * pool. A failure for one employee is recorded and the run continues.
+ */
+public class PayrollBatchService {
+    private static final Logger LOGGER = Logger.getLogger(PayrollBatchService.class.getName());
+
+    // Several chunks per worker keeps threads busy when some employees take longer
+    private static final int CHUNKS_PER_WORKER = 4;
+    private static final String PAYROLL_CACHE_TYPE = "payroll";
+
+    private final PayrollCalculator payrollCalculator;
+    private final int workerCount;
+
+    public PayrollBatchService() {
+        this(new PayrollCalculator());
+    }
+
+    public PayrollBatchService(PayrollCalculator payrollCalculator) {
+        this(payrollCalculator, defaultWorkerCount());
+    }
+
+    public PayrollBatchService(PayrollCalculator payrollCalculator, int workerCount) {
+        if (payrollCalculator == null) {
+            throw new IllegalArgumentException("Payroll calculator cannot be null");
+        }
+        if (workerCount <= 0) {
+            throw new IllegalArgumentException("Worker count must be positive, got: " + workerCount);
+        }
+        this.payrollCalculator = payrollCalculator;
+        this.workerCount = workerCount;
+    }
+
+    /**
+     * Configured worker count, never more than the connection pool can serve
+     * so workers that fall back to the database do not queue on the pool
+     */
+    private static int defaultWorkerCount() {
+        ConfigurationManager config = ConfigurationManager.getInstance();
+        int configured = config.getPayrollBatchWorkers();
+        return Math.max(1, Math.min(configured, config.getPoolMaxSize()));
+    }
+
+    public int getWorkerCount() {
+        return workerCount;
+    }
+
+    /**
+     * Load and calculate payroll for every employee in a period
+     */
+    public BatchResult calculatePeriod(LocalDate periodStart, LocalDate periodEnd) {
+        return calculate(PayrollPeriodData.load(periodStart, periodEnd));
+    }
+
+    /**
+     * Payroll for every employee in a period by employee ID, for reports.
+     * Saved payroll rows are used as they are and only employees whose
+     * payroll is missing or out of date are calculated, so a finalized
+     * period is read in one query. Results for an open period are served
+     * from the {@link ReportCache} while the period's inputs are unchanged.
+     * The payrolls may be shared and must not be modified. A run with
+     * failures is returned without the failed employees and is not cached,
+     * so the next call tries them again.
+     */
+    public Map<Integer, Payroll> getPeriodPayrolls(LocalDate periodStart, LocalDate periodEnd) {
+        PayrollDAO payrollDAO = new PayrollDAO();
+        PayrollDAO.PeriodPayrolls saved = payrollDAO.getPayrollsForPeriod(periodStart, periodEnd);
+        if (saved.isFinalized()) {
+            return saved.getPayrolls();
+        }
+
+        ReportCache.Lookup<LinkedHashMap<Integer, Payroll>> lookup =
+                ReportCache.getInstance().lookup(PAYROLL_CACHE_TYPE, periodStart, periodEnd);
+        if (lookup.isHit()) {
+            return Collections.unmodifiableMap(lookup.getValue());
+        }
+
+        // Read again after the lookup, so nothing older than the input version is cached under it.
+        // The same goes for the statutory rates, which calculate() refreshes before it runs, so a
+        // rate edit that changed the version is always applied to what is stored under it.
+        // Stale rows are left out, so a failed recalculation leaves its employee out too
+        saved = payrollDAO.getPayrollsForPeriod(periodStart, periodEnd);
+        Map<Integer, Payroll> byEmployee = new TreeMap<>(saved.getPayrolls());
+        BatchResult result = recalculate(saved.getStaleEmployeeIds(), periodStart, periodEnd);
+        byEmployee.putAll(result.payrolls);
+
+        LinkedHashMap<Integer, Payroll> payrolls = new LinkedHashMap<>(byEmployee);
+        if (!result.hasFailures()) {
+            lookup.store(payrolls);
+        }
+        return Collections.unmodifiableMap(payrolls);
+    }
+
+    /**
+     * Recalculate only the employees whose saved payroll for the period is
+     * missing or was calculated before a change to their attendance, overtime or leave.
+     * Save the result with {@link #save} to mark them clean again, or use
+     * {@link #runPeriod} to do both.
+     */
+    public BatchResult calculateDirty(LocalDate periodStart, LocalDate periodEnd) {
+        return recalculate(new PayrollChangeDAO().getDirtyEmployeeIds(periodStart, periodEnd), periodStart, periodEnd);
+    }
+
+    /**
+     * Payroll run for a period: recalculate and save only the employees
+     * that changed since their payroll was last calculated, then drop change
+     * log entries older than the configured retention that every payroll has
+     * caught up with. Failed employees are not saved and stay dirty, so the
+     * next run tries them again.
+     */
+    public BatchResult runPeriod(LocalDate periodStart, LocalDate periodEnd) {
+        BatchResult result = calculateDirty(periodStart, periodEnd);
+        int saved = save(result);
+        LOGGER.info(String.format("💾 Payroll run %s to %s saved %d payrolls", periodStart, periodEnd, saved));
+
+        int retentionDays = ConfigurationManager.getInstance().getPayrollChangeLogRetentionDays();
+        new PayrollChangeDAO().purgeProcessedChanges(LocalDate.now().minusDays(retentionDays));
+        return result;
+    }
+
+    private BatchResult recalculate(List<Integer> dirtyIds, LocalDate periodStart, LocalDate periodEnd) {
+        LOGGER.info(String.format("🔁 %d employees need payroll recalculation for %s to %s",
+                dirtyIds.size(), periodStart, periodEnd));
+        if (dirtyIds.isEmpty()) {
+            return new BatchResult(Collections.emptyList(), 0, 0);
+        }
+
+        // The change log outlives deleted employees, so only keep IDs present in the snapshot
+        PayrollPeriodData periodData = PayrollPeriodData.load(periodStart, periodEnd);
+        List<Integer> employeeIds = new ArrayList<>(dirtyIds.size());
+        for (int employeeId : dirtyIds) {
+            if (periodData.getEmployee(employeeId) != null) {
+                employeeIds.add(employeeId);
+            }
+        }
+        return calculate(employeeIds, periodData);
+    }
+
+    /**
+     * Calculate payroll for every employee in an already loaded snapshot
+     */
+    public BatchResult calculate(PayrollPeriodData periodData) {
+        List<Integer> employeeIds = new ArrayList<>();
+        for (Employee employee : periodData.getEmployees()) {
+            employeeIds.add(employee.getEmployeeId());
+        }
+        return calculate(employeeIds, periodData);
+    }
+
+    /**
+     * Calculate payroll for the given employees from a snapshot, with the
+     * statutory rates refreshed first so the whole run uses the current ones.
+     * Results keep the order of {@code employeeIds}.
+     */
+    public BatchResult calculate(List<Integer> employeeIds, PayrollPeriodData periodData) {
+        if (periodData == null) {
+            throw new IllegalArgumentException("Payroll period data cannot be null");
+        }
+        if (employeeIds == null || employeeIds.isEmpty()) {
+            return new BatchResult(Collections.emptyList(), 0, 0);
+        }
+
+        long started = System.currentTimeMillis();
+        payrollCalculator.refreshRates();
+        int threads = Math.min(workerCount, employeeIds.size());
+        int chunkCount = Math.min(employeeIds.size(), threads * CHUNKS_PER_WORKER);
+        int chunkSize = (employeeIds.size() + chunkCount - 1) / chunkCount;
+
+        List<Callable<List<EmployeeResult>>> chunks = new ArrayList<>();
+        for (int from = 0; from < employeeIds.size(); from += chunkSize) {
+            List<Integer> chunk = employeeIds.subList(from, Math.min(from + chunkSize, employeeIds.size()));
+            chunks.add(() -> calculateChunk(chunk, periodData));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads, new WorkerThreadFactory());
+        List<EmployeeResult> results = new ArrayList<>(employeeIds.size());
+        try {
+            for (Future<List<EmployeeResult>> future : executor.invokeAll(chunks)) {
+                results.addAll(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Payroll batch interrupted", e);
+        } catch (ExecutionException e) {
+            // calculateChunk catches per-employee failures, so this is a bug rather than bad data
+            throw new RuntimeException("Payroll batch worker failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        BatchResult result = new BatchResult(results, System.currentTimeMillis() - started,
+                periodData.getChangeLogPosition());
+        LOGGER.info(String.format("✅ Payroll batch %s to %s: %d calculated, %d failed, %d workers, %d ms",
+                periodData.getPeriodStart(), periodData.getPeriodEnd(), result.getSuccessCount(),
+                result.getFailureCount(), threads, result.getElapsedMillis()));
+        return result;
+    }
+
+    /**
+     * Save the payrolls of a batch, with their deduction lines, in one transaction.
+     * Failed employees are skipped; saving again after a recalculation replaces the rows.
+     * The rows record the change log position of the batch's snapshot, so changes
+     * logged since it was loaded leave them dirty.
+     * @return number of payrolls saved
+     */
+    public int save(BatchResult result) {
+        if (result == null) {
+            throw new IllegalArgumentException("Batch result cannot be null");
+        }
+        return new PayrollRunDAO().saveRun(result.getPayrolls(), result.getChangeLogPosition());
+    }
+
+    private List<EmployeeResult> calculateChunk(List<Integer> employeeIds, PayrollPeriodData periodData) {
+        List<EmployeeResult> results = new ArrayList<>(employeeIds.size());
+        for (int employeeId : employeeIds) {
+            try {
+                results.add(new EmployeeResult(employeeId, payrollCalculator.calculatePayroll(employeeId, periodData), null));
+            } catch (Exception e) {
+                LOGGER.log(Level.WARNING, "Error calculating payroll for employee " + employeeId, e);
+                results.add(new EmployeeResult(employeeId, null, e));
+            }
+        }
+        return results;
+    }
+
+    private static final class EmployeeResult {
+        final int employeeId;
+        final Payroll payroll;
+        final Exception error;
+
+        EmployeeResult(int employeeId, Payroll payroll, Exception error) {
+            this.employeeId = employeeId;
+            this.payroll = payroll;
+            this.error = error;
+        }
+    }
+
+    private static final class WorkerThreadFactory implements ThreadFactory {
+        private static final AtomicInteger RUN_COUNTER = new AtomicInteger();
+        private final int run = RUN_COUNTER.incrementAndGet();
+        private final AtomicInteger threadCounter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable task) {
+            Thread thread = new Thread(task, "payroll-batch-" + run + "-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    /**
+     * Outcome of a batch run: calculated payrolls plus the employees that failed
+     */
+    public static class BatchResult {
+        private final Map<Integer, Payroll> payrolls = new LinkedHashMap<>();
+        private final Map<Integer, Exception> failures = new LinkedHashMap<>();
+        private final long elapsedMillis;
+        private final long changeLogPosition;
+
+        private BatchResult(List<EmployeeResult> results, long elapsedMillis, long changeLogPosition) {
+            for (EmployeeResult result : results) {
+                if (result.payroll != null) {
+                    payrolls.put(result.employeeId, result.payroll);
+                } else {
+                    failures.put(result.employeeId, result.error);
+                }
+            }
+            this.elapsedMillis = elapsedMillis;
+            this.changeLogPosition = changeLogPosition;
+        }
+
+        /** Calculated payrolls in employee order */
+        public List<Payroll> getPayrolls() {
+            return new ArrayList<>(payrolls.values());
+        }
+
+        public Payroll getPayroll(int employeeId) {
+            return payrolls.get(employeeId);
+        }
+
+        /** Employee ID to the exception that stopped its calculation */
+        public Map<Integer, Exception> getFailures() {
+            return Collections.unmodifiableMap(failures);
+        }
+
+        public int getSuccessCount() { return payrolls.size(); }
+        public int getFailureCount() { return failures.size(); }
+        public boolean hasFailures() { return !failures.isEmpty(); }
+        public long getElapsedMillis() { return elapsedMillis; }
+
+        /** Change log position of the snapshot the payrolls were calculated from */
+        public long getChangeLogPosition() { return changeLogPosition; }
+    }
+}
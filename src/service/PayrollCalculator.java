@@ -11,7 +11,10 @@ import model.LeaveRequest;
 import model.Overtime;
 import model.Payroll;
 import model.Deduction;
+import service.StatutoryRateTable.ContributionType;
+import util.Money;
 
+import java.math.RoundingMode;
 import java.sql.Date;
 import java.sql.Time;
 import java.sql.SQLException;
@@ -25,6 +28,9 @@ import java.util.logging.Logger;
 /**
  * Enhanced PayrollCalculator with better error handling and AOOP compliance
  * Addresses mentor feedback about functionality bugs and proper OOP implementation
+ *
+ * Instances keep no per-calculation state, so one calculator can be shared
+ * by the worker threads of {@link PayrollBatchService}.
  */
 public class PayrollCalculator {
 
@@ -35,11 +41,18 @@ public class PayrollCalculator {
         int STANDARD_WORKING_DAYS_PER_MONTH = 22;
         int STANDARD_WORKING_HOURS_PER_DAY = 8;
         double OVERTIME_RATE_MULTIPLIER = 1.25;
+        long OVERTIME_RATE_PERCENT = 125;
         LocalTime STANDARD_LOGIN_TIME = LocalTime.of(8, 0);
         LocalTime LATE_THRESHOLD_TIME = LocalTime.of(8, 15);
         LocalTime STANDARD_LOGOUT_TIME = LocalTime.of(17, 0);
     }
 
+    // Amounts are whole centavos; each component is a fraction of the monthly
+    // rate rounded once, so no rounded daily or hourly rate is multiplied up
+    private static final RoundingMode ROUNDING = Money.DEFAULT_ROUNDING;
+    private static final long WORKING_MINUTES_PER_MONTH = PayrollConstants.STANDARD_WORKING_DAYS_PER_MONTH
+            * PayrollConstants.STANDARD_WORKING_HOURS_PER_DAY * 60L;
+
     // DAO instances with proper initialization
     private final EmployeeDAO employeeDAO;
     private final AttendanceDAO attendanceDAO;
@@ -47,8 +60,26 @@ public class PayrollCalculator {
     private OvertimeDAO overtimeDAO;
     private DeductionDAO deductionDAO;
 
+    // Fixed rate schedules, or null to use the shared rates current at each calculation
+    private final StatutoryRates statutoryRates;
+
     // Constructor with better error handling
     public PayrollCalculator() {
+        this.statutoryRates = null;
+        this.employeeDAO = new EmployeeDAO();
+        this.attendanceDAO = new AttendanceDAO();
+
+        initializeOptionalDAOs();
+    }
+
+    /**
+     * Calculator using the given statutory rate schedules
+     */
+    public PayrollCalculator(StatutoryRates statutoryRates) {
+        if (statutoryRates == null) {
+            throw new IllegalArgumentException("Statutory rates cannot be null");
+        }
+        this.statutoryRates = statutoryRates;
         this.employeeDAO = new EmployeeDAO();
         this.attendanceDAO = new AttendanceDAO();
         
@@ -85,10 +116,57 @@ public class PayrollCalculator {
     /**
      * Main payroll calculation method with enhanced error handling
      * FIXED: Better error messages and null checks
+     * Equivalent to {@code compute(loadInputs(employeeId, periodStart, periodEnd))}
+     * after {@link #refreshRates()}.
      */
     public Payroll calculatePayroll(int employeeId, LocalDate periodStart, LocalDate periodEnd)
             throws PayrollCalculationException {
+        PayrollInputs inputs = loadInputs(employeeId, periodStart, periodEnd);
+        refreshRates();
+        return compute(inputs);
+    }
 
+    /**
+     * Pick up statutory rate edits before a payroll run. Does nothing for a
+     * calculator built with fixed rates.
+     */
+    public void refreshRates() {
+        if (statutoryRates == null) {
+            try {
+                StatutoryRates.refresh();
+            } catch (IllegalStateException e) {
+                // Reported again by the calculation that needs the rates
+                LOGGER.log(Level.SEVERE, "❌ Statutory rates not available", e);
+            }
+        }
+    }
+
+    /**
+     * Calculate payroll from a bulk-loaded period snapshot without any
+     * per-employee database access
+     * @param employeeId Employee to calculate
+     * @param periodData Snapshot from {@link PayrollPeriodData#load}
+     */
+    public Payroll calculatePayroll(int employeeId, PayrollPeriodData periodData)
+            throws PayrollCalculationException {
+        if (periodData == null) {
+            throw new PayrollCalculationException("Payroll period data cannot be null");
+        }
+
+        validateCalculationInputs(employeeId, periodData.getPeriodStart(), periodData.getPeriodEnd());
+        validateEmployee(employeeId, periodData.getEmployee(employeeId));
+
+        return compute(periodData.getInputs(employeeId));
+    }
+
+    /**
+     * Load stage: read the employee, attendance, overtime and approved leave
+     * for one period. Attendance is read once and shared by the earnings and
+     * deduction calculations.
+     * @return immutable inputs for {@link #compute(PayrollInputs)}
+     */
+    public PayrollInputs loadInputs(int employeeId, LocalDate periodStart, LocalDate periodEnd)
+            throws PayrollCalculationException {
         try {
             // Enhanced input validation
             validateCalculationInputs(employeeId, periodStart, periodEnd);
@@ -96,11 +174,45 @@ public class PayrollCalculator {
             // Get employee with better error handling
             Employee employee = getEmployeeWithValidation(employeeId);
 
+            return new PayrollInputs(employee, periodStart, periodEnd,
+                    fetchAttendance(employeeId, periodStart, periodEnd),
+                    fetchOvertime(employeeId, periodStart, periodEnd),
+                    fetchApprovedLeaves(employeeId, periodStart, periodEnd));
+
+        } catch (PayrollCalculationException e) {
+            throw e; // Re-throw custom exceptions
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, String.format("❌ Unexpected error loading payroll inputs for employee %d", employeeId), e);
+            throw new PayrollCalculationException("Unexpected error during payroll calculation: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Compute stage: calculate payroll purely from pre-loaded inputs.
+     * Performs no database access, so inputs may come from a cache, a bulk
+     * snapshot or a test.
+     */
+    public Payroll compute(PayrollInputs inputs) throws PayrollCalculationException {
+        if (inputs == null) {
+            throw new PayrollCalculationException("Payroll inputs cannot be null");
+        }
+
+        int employeeId = inputs.getEmployeeId();
+        LocalDate periodStart = inputs.getPeriodStart();
+        LocalDate periodEnd = inputs.getPeriodEnd();
+
+        try {
+            validateCalculationInputs(employeeId, periodStart, periodEnd);
+            Employee employee = validateEmployee(employeeId, inputs.getEmployee());
+            // Read once, so a reload mid-calculation cannot mix two rate versions
+            StatutoryRates rates = statutoryRates != null ? statutoryRates : StatutoryRates.getInstance();
+
             // Initialize payroll object
             Payroll payroll = createPayrollObject(employeeId, periodStart, periodEnd, employee);
 
             // Calculate all payroll components with error handling
-            calculateAllPayrollComponents(payroll, employee, periodStart, periodEnd);
+            calculateAllPayrollComponents(payroll, employee, periodStart, periodEnd,
+                    inputs.getAttendance(), inputs.getOvertime(), inputs.getApprovedLeaves(), rates);
 
             // Final calculations and validation
             finalizePayrollCalculation(payroll);
@@ -110,7 +222,7 @@ public class PayrollCalculator {
             return payroll;
 
         } catch (PayrollCalculationException e) {
-            throw e; // Re-throw custom exceptions
+            throw e;
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, String.format("❌ Unexpected error calculating payroll for employee %d", employeeId), e);
             throw new PayrollCalculationException("Unexpected error during payroll calculation: " + e.getMessage(), e);
@@ -135,16 +247,7 @@ public class PayrollCalculator {
 
     private Employee getEmployeeWithValidation(int employeeId) throws PayrollCalculationException {
         try {
-            Employee employee = employeeDAO.getEmployeeById(employeeId);
-            if (employee == null) {
-                throw new PayrollCalculationException("Employee not found with ID: " + employeeId + ". Please verify the employee exists in the system.");
-            }
-
-            if (employee.getBasicSalary() <= 0) {
-                throw new PayrollCalculationException("Invalid employee data: Employee " + employeeId + " has invalid basic salary (" + employee.getBasicSalary() + ")");
-            }
-
-            return employee;
+            return validateEmployee(employeeId, employeeDAO.getEmployeeById(employeeId));
         } catch (Exception e) {
             if (e instanceof PayrollCalculationException) {
                 throw e;
@@ -153,37 +256,90 @@ public class PayrollCalculator {
         }
     }
 
+    private Employee validateEmployee(int employeeId, Employee employee) throws PayrollCalculationException {
+        if (employee == null) {
+            throw new PayrollCalculationException("Employee not found with ID: " + employeeId + ". Please verify the employee exists in the system.");
+        }
+
+        if (employee.getBasicSalary() <= 0) {
+            throw new PayrollCalculationException("Invalid employee data: Employee " + employeeId + " has invalid basic salary (" + employee.getBasicSalary() + ")");
+        }
+
+        return employee;
+    }
+
+    private List<Attendance> fetchAttendance(int employeeId, LocalDate periodStart, LocalDate periodEnd)
+            throws PayrollCalculationException {
+        try {
+            return attendanceDAO.getAttendanceByEmployeeIdBetweenDates(employeeId, periodStart, periodEnd);
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "❌ Error retrieving attendance for payroll", e);
+            throw new PayrollCalculationException("Failed to calculate attendance-based earnings: " + e.getMessage(), e);
+        }
+    }
+
+    private List<Overtime> fetchOvertime(int employeeId, LocalDate periodStart, LocalDate periodEnd) {
+        if (overtimeDAO == null) {
+            LOGGER.info("ℹ️ Overtime calculation skipped - OvertimeDAO not available");
+            return null;
+        }
+
+        try {
+            return overtimeDAO.getOvertimeByEmployeeIdAndDateRange(employeeId, periodStart, periodEnd);
+        } catch (Exception e) {
+            LOGGER.warning("⚠️ Error retrieving overtime, setting to 0: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private List<LeaveRequest> fetchApprovedLeaves(int employeeId, LocalDate periodStart, LocalDate periodEnd) {
+        if (leaveDAO == null) {
+            LOGGER.info("ℹ️ Unpaid leave calculation skipped - LeaveRequestDAO not available");
+            return null;
+        }
+
+        try {
+            return leaveDAO.getApprovedLeavesByEmployeeIdAndDateRange(employeeId, periodStart, periodEnd);
+        } catch (Exception e) {
+            LOGGER.warning("⚠️ Error retrieving approved leaves, unpaid leave set to 0: " + e.getMessage());
+            return null;
+        }
+    }
+
     private Payroll createPayrollObject(int employeeId, LocalDate periodStart, LocalDate periodEnd, Employee employee) {
         Payroll payroll = new Payroll(employeeId, Date.valueOf(periodStart), Date.valueOf(periodEnd));
         
-        double monthlySalary = employee.getBasicSalary();
-        double dailyRate = monthlySalary / PayrollConstants.STANDARD_WORKING_DAYS_PER_MONTH;
+        long monthlySalary = Money.of(employee.getBasicSalary());
+        long dailyRate = Money.divide(monthlySalary, PayrollConstants.STANDARD_WORKING_DAYS_PER_MONTH, ROUNDING);
 
-        payroll.setMonthlyRate(monthlySalary);
-        payroll.setDailyRate(dailyRate);
+        payroll.setMonthlyRateCentavos(monthlySalary);
+        payroll.setDailyRateCentavos(dailyRate);
 
         return payroll;
     }
 
-    private void calculateAllPayrollComponents(Payroll payroll, Employee employee, LocalDate periodStart, LocalDate periodEnd) 
+    private void calculateAllPayrollComponents(Payroll payroll, Employee employee, LocalDate periodStart, LocalDate periodEnd,
+                                               List<Attendance> attendanceList, List<Overtime> overtimeList,
+                                               List<LeaveRequest> approvedLeaves, StatutoryRates rates)
             throws PayrollCalculationException {
         try {
-            double dailyRate = payroll.getDailyRate();
+            long monthlyRate = payroll.getMonthlyRateCentavos();
+            int employeeId = employee.getEmployeeId();
             
             // Calculate attendance-based earnings
-            calculateAttendanceBasedEarnings(payroll, employee.getEmployeeId(), periodStart, periodEnd, dailyRate);
+            calculateAttendanceBasedEarnings(payroll, employeeId, periodStart, periodEnd, attendanceList, monthlyRate);
 
             // Calculate overtime earnings
-            calculateOvertimeEarnings(payroll, employee.getEmployeeId(), periodStart, periodEnd, dailyRate);
+            calculateOvertimeEarnings(payroll, employeeId, overtimeList, monthlyRate);
 
             // Calculate allowances and benefits
             calculateAllowancesAndBenefits(payroll, employee);
 
             // Calculate time-based deductions
-            calculateTimeBasedDeductions(payroll, employee.getEmployeeId(), periodStart, periodEnd, dailyRate);
+            calculateTimeBasedDeductions(payroll, employeeId, attendanceList, approvedLeaves, monthlyRate);
 
             // Calculate government contributions and tax
-            calculateGovernmentContributionsAndTax(payroll, employee.getBasicSalary());
+            calculateGovernmentContributionsAndTax(payroll, employee.getBasicSalary(), periodEnd, rates);
 
         } catch (Exception e) {
             throw new PayrollCalculationException("Error calculating payroll components: " + e.getMessage(), e);
@@ -207,24 +363,22 @@ public class PayrollCalculator {
      * FIXED: Better attendance calculation with proper error handling
      */
     private void calculateAttendanceBasedEarnings(Payroll payroll, int employeeId,
-                                                   LocalDate periodStart, LocalDate periodEnd, double dailyRate) 
+                                                   LocalDate periodStart, LocalDate periodEnd,
+                                                   List<Attendance> attendanceList, long monthlyRate) 
             throws PayrollCalculationException {
 
-        LOGGER.info(String.format("🔍 Calculating attendance for employee %d (period: %s to %s)", 
+        LOGGER.fine(() -> String.format("🔍 Calculating attendance for employee %d (period: %s to %s)",
                 employeeId, periodStart, periodEnd));
 
         try {
-            List<Attendance> attendanceList = attendanceDAO.getAttendanceByEmployeeIdBetweenDates(
-                    employeeId, periodStart, periodEnd);
-
             if (attendanceList == null) {
                 LOGGER.warning("⚠️ Attendance list is null for employee " + employeeId);
                 payroll.setDaysWorked(0);
-                payroll.setGrossEarnings(0.0);
+                payroll.setGrossEarningsCentavos(0);
                 return;
             }
 
-            LOGGER.info(String.format("📊 Found %d attendance records for employee %d", attendanceList.size(), employeeId));
+            LOGGER.fine(() -> String.format("📊 Found %d attendance records for employee %d", attendanceList.size(), employeeId));
 
             int validAttendanceDays = 0;
             double totalValidHours = 0.0;
@@ -240,25 +394,26 @@ public class PayrollCalculator {
                     double workHours = attendance.getWorkHours();
                     totalValidHours += workHours;
 
-                    LOGGER.fine(String.format("✓ Valid attendance: Date=%s, Hours=%.2f", 
+                    LOGGER.fine(() -> String.format("✓ Valid attendance: Date=%s, Hours=%.2f",
                             attendance.getDate(), workHours));
                 } else {
-                    LOGGER.warning(String.format("⚠️ Invalid attendance (no log in): Date=%s", 
-                            attendance.getDate()));
+                    LOGGER.warning(() -> "⚠️ Invalid attendance (no log in): Date=" + attendance.getDate());
                 }
             }
 
             // Set calculated values
             payroll.setDaysWorked(validAttendanceDays);
-            double basicPay = validAttendanceDays * dailyRate;
-            payroll.setGrossEarnings(basicPay);
+            long basicPay = Money.multiply(monthlyRate, validAttendanceDays,
+                    PayrollConstants.STANDARD_WORKING_DAYS_PER_MONTH, ROUNDING);
+            payroll.setGrossEarningsCentavos(basicPay);
 
-            LOGGER.info(String.format("✅ Attendance calculation complete: %d days worked, %.2f basic pay", 
-                    validAttendanceDays, basicPay));
+            int daysWorked = validAttendanceDays;
+            LOGGER.fine(() -> String.format("✅ Attendance calculation complete: %d days worked, %s basic pay",
+                    daysWorked, Money.format(basicPay)));
 
             // Warn if no valid attendance found
             if (validAttendanceDays == 0) {
-                LOGGER.warning(String.format("⚠️ No valid attendance found for employee %d in period %s to %s", 
+                LOGGER.warning(() -> String.format("⚠️ No valid attendance found for employee %d in period %s to %s",
                         employeeId, periodStart, periodEnd));
             }
 
@@ -272,18 +427,8 @@ public class PayrollCalculator {
      * FIXED: Better overtime calculation with proper null checks
      */
     private void calculateOvertimeEarnings(Payroll payroll, int employeeId,
-                                           LocalDate periodStart, LocalDate periodEnd, double dailyRate) {
-        if (overtimeDAO == null) {
-            LOGGER.info("ℹ️ Overtime calculation skipped - OvertimeDAO not available");
-            payroll.setTotalOvertimeHours(0.0);
-            payroll.setOvertimePay(0.0);
-            return;
-        }
-
+                                           List<Overtime> overtimeList, long monthlyRate) {
         try {
-            List<Overtime> overtimeList = overtimeDAO.getOvertimeByEmployeeIdAndDateRange(
-                    employeeId, periodStart, periodEnd);
-
             if (overtimeList == null) {
                 LOGGER.warning("⚠️ Overtime list is null for employee " + employeeId);
                 payroll.setTotalOvertimeHours(0.0);
@@ -296,14 +441,15 @@ public class PayrollCalculator {
                     .mapToDouble(Overtime::getHours)
                     .sum();
 
-            double hourlyRate = dailyRate / PayrollConstants.STANDARD_WORKING_HOURS_PER_DAY;
-            double overtimePay = totalOvertimeHours * hourlyRate * PayrollConstants.OVERTIME_RATE_MULTIPLIER;
+            long overtimeMinutes = Math.round(totalOvertimeHours * 60);
+            long overtimePay = Money.multiply(monthlyRate, overtimeMinutes * PayrollConstants.OVERTIME_RATE_PERCENT,
+                    WORKING_MINUTES_PER_MONTH * 100, ROUNDING);
 
             payroll.setTotalOvertimeHours(totalOvertimeHours);
-            payroll.setOvertimePay(overtimePay);
+            payroll.setOvertimePayCentavos(overtimePay);
 
-            LOGGER.info(String.format("✅ Overtime calculation: %.2f hours, ₱%.2f pay for employee %d", 
-                    totalOvertimeHours, overtimePay, employeeId));
+            LOGGER.fine(() -> String.format("✅ Overtime calculation: %.2f hours, ₱%s pay for employee %d",
+                    totalOvertimeHours, Money.format(overtimePay), employeeId));
 
         } catch (Exception e) {
             LOGGER.warning("⚠️ Error calculating overtime, setting to 0: " + e.getMessage());
@@ -325,7 +471,7 @@ public class PayrollCalculator {
             payroll.setPhoneAllowance(phoneAllowance);
             payroll.setClothingAllowance(clothingAllowance);
 
-            LOGGER.info(String.format("✅ Allowances for employee %d - Rice: ₱%.2f, Phone: ₱%.2f, Clothing: ₱%.2f",
+            LOGGER.fine(() -> String.format("✅ Allowances for employee %d - Rice: ₱%.2f, Phone: ₱%.2f, Clothing: ₱%.2f",
                     employee.getEmployeeId(), riceSubsidy, phoneAllowance, clothingAllowance));
 
         } catch (Exception e) {
@@ -340,12 +486,9 @@ public class PayrollCalculator {
      * FIXED: Enhanced time-based deductions with better error handling
      */
     private void calculateTimeBasedDeductions(Payroll payroll, int employeeId,
-                                              LocalDate periodStart, LocalDate periodEnd, double dailyRate) {
+                                              List<Attendance> attendanceList, List<LeaveRequest> approvedLeaves,
+                                              long monthlyRate) {
         try {
-            // Get attendance records safely
-            List<Attendance> attendanceList = attendanceDAO.getAttendanceByEmployeeIdBetweenDates(
-                    employeeId, periodStart, periodEnd);
-
             if (attendanceList == null) {
                 LOGGER.warning("⚠️ No attendance data for deduction calculation");
                 setZeroDeductions(payroll);
@@ -353,17 +496,20 @@ public class PayrollCalculator {
             }
 
             // Calculate time-based deductions
-            double lateDeduction = calculateLateDeduction(attendanceList, dailyRate);
-            double undertimeDeduction = calculateUndertimeDeduction(attendanceList, dailyRate);
+            long lateDeduction = Money.multiply(monthlyRate, calculateLateMinutes(attendanceList),
+                    WORKING_MINUTES_PER_MONTH, ROUNDING);
+            long undertimeDeduction = Money.multiply(monthlyRate, calculateUndertimeMinutes(attendanceList),
+                    WORKING_MINUTES_PER_MONTH, ROUNDING);
 
-            payroll.setLateDeduction(lateDeduction);
-            payroll.setUndertimeDeduction(undertimeDeduction);
+            payroll.setLateDeductionCentavos(lateDeduction);
+            payroll.setUndertimeDeductionCentavos(undertimeDeduction);
 
             // Calculate unpaid leave deduction
-            calculateUnpaidLeaveDeduction(payroll, employeeId, periodStart, periodEnd, dailyRate);
+            calculateUnpaidLeaveDeduction(payroll, employeeId, approvedLeaves, monthlyRate);
 
-            LOGGER.info(String.format("✅ Time deductions for employee %d - Late: ₱%.2f, Undertime: ₱%.2f, Unpaid Leave: ₱%.2f",
-                    employeeId, lateDeduction, undertimeDeduction, payroll.getUnpaidLeaveDeduction()));
+            LOGGER.fine(() -> String.format("✅ Time deductions for employee %d - Late: ₱%s, Undertime: ₱%s, Unpaid Leave: ₱%s",
+                    employeeId, Money.format(lateDeduction), Money.format(undertimeDeduction),
+                    Money.format(payroll.getUnpaidLeaveDeductionCentavos())));
 
         } catch (Exception e) {
             LOGGER.warning("⚠️ Error calculating time-based deductions: " + e.getMessage());
@@ -372,27 +518,17 @@ public class PayrollCalculator {
     }
 
     private void setZeroDeductions(Payroll payroll) {
-        payroll.setLateDeduction(0.0);
-        payroll.setUndertimeDeduction(0.0);
-        payroll.setUnpaidLeaveDeduction(0.0);
+        payroll.setLateDeductionCentavos(0);
+        payroll.setUndertimeDeductionCentavos(0);
+        payroll.setUnpaidLeaveDeductionCentavos(0);
         payroll.setUnpaidLeaveCount(0);
     }
 
     private void calculateUnpaidLeaveDeduction(Payroll payroll, int employeeId, 
-                                               LocalDate periodStart, LocalDate periodEnd, double dailyRate) {
-        if (leaveDAO == null) {
-            LOGGER.info("ℹ️ Unpaid leave calculation skipped - LeaveRequestDAO not available");
-            payroll.setUnpaidLeaveDeduction(0.0);
-            payroll.setUnpaidLeaveCount(0);
-            return;
-        }
-
+                                               List<LeaveRequest> approvedLeaves, long monthlyRate) {
         try {
-            List<LeaveRequest> approvedLeaves = leaveDAO.getApprovedLeavesByEmployeeIdAndDateRange(
-                    employeeId, periodStart, periodEnd);
-
             if (approvedLeaves == null) {
-                payroll.setUnpaidLeaveDeduction(0.0);
+                payroll.setUnpaidLeaveDeductionCentavos(0);
                 payroll.setUnpaidLeaveCount(0);
                 return;
             }
@@ -402,33 +538,34 @@ public class PayrollCalculator {
                     .mapToLong(LeaveRequest::getLeaveDays)
                     .sum();
 
-            double unpaidLeaveDeduction = unpaidLeaveCount * dailyRate;
+            long unpaidLeaveDeduction = Money.multiply(monthlyRate, unpaidLeaveCount,
+                    PayrollConstants.STANDARD_WORKING_DAYS_PER_MONTH, ROUNDING);
 
             payroll.setUnpaidLeaveCount(unpaidLeaveCount);
-            payroll.setUnpaidLeaveDeduction(unpaidLeaveDeduction);
+            payroll.setUnpaidLeaveDeductionCentavos(unpaidLeaveDeduction);
 
             if (unpaidLeaveCount > 0) {
-                LOGGER.info(String.format("✅ Unpaid leave for employee %d: %d days, ₱%.2f deduction",
-                        employeeId, unpaidLeaveCount, unpaidLeaveDeduction));
+                LOGGER.fine(() -> String.format("✅ Unpaid leave for employee %d: %d days, ₱%s deduction",
+                        employeeId, unpaidLeaveCount, Money.format(unpaidLeaveDeduction)));
             }
 
         } catch (Exception e) {
             LOGGER.warning("⚠️ Error calculating unpaid leave deduction: " + e.getMessage());
-            payroll.setUnpaidLeaveDeduction(0.0);
+            payroll.setUnpaidLeaveDeductionCentavos(0);
             payroll.setUnpaidLeaveCount(0);
         }
     }
 
     /**
      * FIXED: Enhanced late deduction calculation
+     * @return minutes late over the period, counted from the standard login time
      */
-    private double calculateLateDeduction(List<Attendance> attendanceList, double dailyRate) {
+    private long calculateLateMinutes(List<Attendance> attendanceList) {
         if (attendanceList == null || attendanceList.isEmpty()) {
-            return 0.0;
+            return 0;
         }
 
-        double totalLateDeduction = 0.0;
-        double hourlyRate = dailyRate / PayrollConstants.STANDARD_WORKING_HOURS_PER_DAY;
+        long totalMinutesLate = 0;
 
         for (Attendance attendance : attendanceList) {
             if (attendance == null || attendance.getLogIn() == null) {
@@ -439,28 +576,26 @@ public class PayrollCalculator {
                 LocalTime loginTime = attendance.getLogIn().toLocalTime();
 
                 if (loginTime.isAfter(PayrollConstants.LATE_THRESHOLD_TIME)) {
-                    long minutesLate = ChronoUnit.MINUTES.between(PayrollConstants.STANDARD_LOGIN_TIME, loginTime);
-                    double hoursLate = minutesLate / 60.0;
-                    totalLateDeduction += hoursLate * hourlyRate;
+                    totalMinutesLate += ChronoUnit.MINUTES.between(PayrollConstants.STANDARD_LOGIN_TIME, loginTime);
                 }
             } catch (Exception e) {
                 LOGGER.warning("⚠️ Error processing attendance record for late calculation: " + e.getMessage());
             }
         }
 
-        return totalLateDeduction;
+        return totalMinutesLate;
     }
 
     /**
      * FIXED: Enhanced undertime deduction calculation
+     * @return minutes short of the standard logout time over the period
      */
-    private double calculateUndertimeDeduction(List<Attendance> attendanceList, double dailyRate) {
+    private long calculateUndertimeMinutes(List<Attendance> attendanceList) {
         if (attendanceList == null || attendanceList.isEmpty()) {
-            return 0.0;
+            return 0;
         }
 
-        double totalUndertimeDeduction = 0.0;
-        double hourlyRate = dailyRate / PayrollConstants.STANDARD_WORKING_HOURS_PER_DAY;
+        long totalMinutesShort = 0;
 
         for (Attendance attendance : attendanceList) {
             if (attendance == null || attendance.getLogOut() == null) {
@@ -471,34 +606,34 @@ public class PayrollCalculator {
                 LocalTime logoutTime = attendance.getLogOut().toLocalTime();
 
                 if (logoutTime.isBefore(PayrollConstants.STANDARD_LOGOUT_TIME)) {
-                    long minutesShort = ChronoUnit.MINUTES.between(logoutTime, PayrollConstants.STANDARD_LOGOUT_TIME);
-                    double hoursShort = minutesShort / 60.0;
-                    totalUndertimeDeduction += hoursShort * hourlyRate;
+                    totalMinutesShort += ChronoUnit.MINUTES.between(logoutTime, PayrollConstants.STANDARD_LOGOUT_TIME);
                 }
             } catch (Exception e) {
                 LOGGER.warning("⚠️ Error processing attendance record for undertime calculation: " + e.getMessage());
             }
         }
 
-        return totalUndertimeDeduction;
+        return totalMinutesShort;
     }
 
     /**
      * FIXED: Better government contributions calculation
+     * Rates come from the schedules in force at the end of the period.
      */
-    private void calculateGovernmentContributionsAndTax(Payroll payroll, double monthlySalary) {
+    private void calculateGovernmentContributionsAndTax(Payroll payroll, double monthlySalary, LocalDate periodEnd,
+                                                        StatutoryRates rates) {
         try {
-            double sss = calculateSSSContribution(monthlySalary);
-            double philhealth = calculatePhilHealthContribution(monthlySalary);
-            double pagibig = calculatePagIBIGContribution(monthlySalary);
-            double tax = calculateIncomeTax(monthlySalary);
+            double sss = rates.calculate(ContributionType.SSS, monthlySalary, periodEnd);
+            double philhealth = rates.calculate(ContributionType.PHILHEALTH, monthlySalary, periodEnd);
+            double pagibig = rates.calculate(ContributionType.PAGIBIG, monthlySalary, periodEnd);
+            double tax = rates.calculate(ContributionType.WITHHOLDING_TAX, monthlySalary, periodEnd);
 
             payroll.setSss(sss);
             payroll.setPhilhealth(philhealth);
             payroll.setPagibig(pagibig);
             payroll.setTax(tax);
 
-            LOGGER.info(String.format("✅ Government contributions - SSS: ₱%.2f, PhilHealth: ₱%.2f, Pag-IBIG: ₱%.2f, Tax: ₱%.2f",
+            LOGGER.fine(() -> String.format("✅ Government contributions - SSS: ₱%.2f, PhilHealth: ₱%.2f, Pag-IBIG: ₱%.2f, Tax: ₱%.2f",
                     sss, philhealth, pagibig, tax));
 
         } catch (Exception e) {
@@ -510,84 +645,6 @@ public class PayrollCalculator {
         }
     }
 
-    // Government contribution calculation methods (unchanged but with better error handling)
-    private double calculateSSSContribution(double monthlySalary) {
-        try {
-            if (monthlySalary <= 4000) return 180.00;
-            if (monthlySalary <= 4750) return 202.50;
-            if (monthlySalary <= 5500) return 225.00;
-            if (monthlySalary <= 6250) return 247.50;
-            if (monthlySalary <= 7000) return 270.00;
-            if (monthlySalary <= 7750) return 292.50;
-            if (monthlySalary <= 8500) return 315.00;
-            if (monthlySalary <= 9250) return 337.50;
-            if (monthlySalary <= 10000) return 360.00;
-            if (monthlySalary <= 15000) return 540.00;
-            if (monthlySalary <= 20000) return 720.00;
-            if (monthlySalary <= 25000) return 900.00;
-            return 1125.00;
-        } catch (Exception e) {
-            LOGGER.warning("Error calculating SSS contribution: " + e.getMessage());
-            return 0.0;
-        }
-    }
-
-    private double calculatePhilHealthContribution(double monthlySalary) {
-        try {
-            double rate = 0.05;
-            double employeeShare = (monthlySalary * rate) / 2;
-            double minContribution = 500.00;
-            double maxContribution = 5000.00;
-
-            if (employeeShare < minContribution) return minContribution;
-            if (employeeShare > maxContribution) return maxContribution;
-            return employeeShare;
-        } catch (Exception e) {
-            LOGGER.warning("Error calculating PhilHealth contribution: " + e.getMessage());
-            return 0.0;
-        }
-    }
-
-    private double calculatePagIBIGContribution(double monthlySalary) {
-        try {
-            if (monthlySalary <= 1500) {
-                return monthlySalary * 0.01;
-            } else {
-                double contribution = monthlySalary * 0.02;
-                return Math.min(contribution, 200.00);
-            }
-        } catch (Exception e) {
-            LOGGER.warning("Error calculating Pag-IBIG contribution: " + e.getMessage());
-            return 0.0;
-        }
-    }
-
-    private double calculateIncomeTax(double monthlySalary) {
-        try {
-            double annualSalary = monthlySalary * 12;
-            double annualTax = 0.0;
-
-            if (annualSalary <= 250000) {
-                annualTax = 0.0;
-            } else if (annualSalary <= 400000) {
-                annualTax = (annualSalary - 250000) * 0.15;
-            } else if (annualSalary <= 800000) {
-                annualTax = 22500 + (annualSalary - 400000) * 0.20;
-            } else if (annualSalary <= 2000000) {
-                annualTax = 102500 + (annualSalary - 800000) * 0.25;
-            } else if (annualSalary <= 8000000) {
-                annualTax = 402500 + (annualSalary - 2000000) * 0.30;
-            } else {
-                annualTax = 2202500 + (annualSalary - 8000000) * 0.35;
-            }
-
-            return annualTax / 12;
-        } catch (Exception e) {
-            LOGGER.warning("Error calculating income tax: " + e.getMessage());
-            return 0.0;
-        }
-    }
-
     private void validateFinalPayroll(Payroll payroll) throws PayrollCalculationException {
         if (!payroll.isValid()) {
             throw new PayrollCalculationException("Invalid payroll calculation result - basic validation failed");
@@ -602,25 +659,29 @@ public class PayrollCalculator {
         }
 
         if (payroll.getNetPay() < 0) {
-            LOGGER.warning(String.format("⚠️ Negative net pay detected for employee %d: ₱%.2f (Gross: ₱%.2f, Deductions: ₱%.2f)",
+            LOGGER.warning(() -> String.format("⚠️ Negative net pay detected for employee %d: ₱%.2f (Gross: ₱%.2f, Deductions: ₱%.2f)",
                     payroll.getEmployeeId(), payroll.getNetPay(), payroll.getGrossPay(), payroll.getTotalDeductions()));
         }
     }
 
+    // Per-employee trace, so only built when FINE is enabled
     private void logPayrollSummary(Payroll payroll, Employee employee, LocalDate periodStart, LocalDate periodEnd) {
-        LOGGER.info(String.format("=== PAYROLL CALCULATION SUMMARY ==="));
-        LOGGER.info(String.format("Employee: %s (ID: %d)", employee.getFullName(), employee.getEmployeeId()));
-        LOGGER.info(String.format("Period: %s to %s", periodStart, periodEnd));
-        LOGGER.info(String.format("Days Worked: %d", payroll.getDaysWorked()));
-        LOGGER.info(String.format("Daily Rate: ₱%.2f", payroll.getDailyRate()));
-        LOGGER.info(String.format("Basic Pay: ₱%.2f", payroll.getGrossEarnings()));
-        LOGGER.info(String.format("Overtime Pay: ₱%.2f", payroll.getOvertimePay()));
-        LOGGER.info(String.format("Total Allowances: ₱%.2f", 
+        if (!LOGGER.isLoggable(Level.FINE)) {
+            return;
+        }
+        LOGGER.fine("=== PAYROLL CALCULATION SUMMARY ===");
+        LOGGER.fine(String.format("Employee: %s (ID: %d)", employee.getFullName(), employee.getEmployeeId()));
+        LOGGER.fine(String.format("Period: %s to %s", periodStart, periodEnd));
+        LOGGER.fine(String.format("Days Worked: %d", payroll.getDaysWorked()));
+        LOGGER.fine(String.format("Daily Rate: ₱%.2f", payroll.getDailyRate()));
+        LOGGER.fine(String.format("Basic Pay: ₱%.2f", payroll.getGrossEarnings()));
+        LOGGER.fine(String.format("Overtime Pay: ₱%.2f", payroll.getOvertimePay()));
+        LOGGER.fine(String.format("Total Allowances: ₱%.2f",
                 payroll.getRiceSubsidy() + payroll.getPhoneAllowance() + payroll.getClothingAllowance()));
-        LOGGER.info(String.format("Gross Pay: ₱%.2f", payroll.getGrossPay()));
-        LOGGER.info(String.format("Total Deductions: ₱%.2f", payroll.getTotalDeductions()));
-        LOGGER.info(String.format("Net Pay: ₱%.2f", payroll.getNetPay()));
-        LOGGER.info(String.format("====================================="));
+        LOGGER.fine(String.format("Gross Pay: ₱%.2f", payroll.getGrossPay()));
+        LOGGER.fine(String.format("Total Deductions: ₱%.2f", payroll.getTotalDeductions()));
+        LOGGER.fine(String.format("Net Pay: ₱%.2f", payroll.getNetPay()));
+        LOGGER.fine("=====================================");
     }
 
     /**
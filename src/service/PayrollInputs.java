@@ -0,0 +1,56 @@
+package service;
+
+import model.Attendance;
+import model.Employee;
+import model.LeaveRequest;
+import model.Overtime;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable snapshot of everything needed to calculate one employee's
+ * payroll for one period. Built by {@link PayrollCalculator#loadInputs} or
+ * {@link PayrollPeriodData#getInputs}, or directly from cached or test data,
+ * and consumed by {@link PayrollCalculator#compute} without database access.
+ */
+public final class PayrollInputs {
+    private final Employee employee;
+    private final LocalDate periodStart;
+    private final LocalDate periodEnd;
+    private final List<Attendance> attendance;
+    private final List<Overtime> overtime;
+    private final List<LeaveRequest> approvedLeaves;
+
+    public PayrollInputs(Employee employee, LocalDate periodStart, LocalDate periodEnd,
+                         List<Attendance> attendance, List<Overtime> overtime,
+                         List<LeaveRequest> approvedLeaves) {
+        if (employee == null) {
+            throw new IllegalArgumentException("Employee cannot be null");
+        }
+        if (periodStart == null || periodEnd == null) {
+            throw new IllegalArgumentException("Period start and end dates cannot be null");
+        }
+        this.employee = employee;
+        this.periodStart = periodStart;
+        this.periodEnd = periodEnd;
+        this.attendance = copyOf(attendance);
+        this.overtime = copyOf(overtime);
+        this.approvedLeaves = copyOf(approvedLeaves);
+    }
+
+    // Null elements are kept so the calculator can log and skip them as before
+    private static <T> List<T> copyOf(List<T> source) {
+        return source == null ? Collections.emptyList() : Collections.unmodifiableList(new ArrayList<>(source));
+    }
+
+    public Employee getEmployee() { return employee; }
+    public int getEmployeeId() { return employee.getEmployeeId(); }
+    public LocalDate getPeriodStart() { return periodStart; }
+    public LocalDate getPeriodEnd() { return periodEnd; }
+    public List<Attendance> getAttendance() { return attendance; }
+    public List<Overtime> getOvertime() { return overtime; }
+    public List<LeaveRequest> getApprovedLeaves() { return approvedLeaves; }
+}
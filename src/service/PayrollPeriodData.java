@@ -0,0 +1,149 @@
+package service;
+
+import dao.AttendanceDAO;
+import dao.EmployeeDAO;
+import dao.LeaveRequestDAO;
+import dao.OvertimeDAO;
+import dao.PayrollChangeDAO;
+import model.Attendance;
+import model.Employee;
+import model.LeaveRequest;
+import model.Overtime;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * In-memory snapshot of everything a payroll run needs for one period:
+ * employees plus their attendance, overtime and approved leave.
+ * Loaded with one range query per table so a company-wide run does not
+ * hit the database once per employee.
+ *
+ * The change log position is read before anything else, so payrolls saved
+ * from the snapshot stay dirty for any change the snapshot may have missed.
+ */
+public class PayrollPeriodData {
+    private static final Logger LOGGER = Logger.getLogger(PayrollPeriodData.class.getName());
+
+    private final LocalDate periodStart;
+    private final LocalDate periodEnd;
+    private final Map<Integer, Employee> employees;
+    private final Map<Integer, List<Attendance>> attendanceByEmployee;
+    private final Map<Integer, List<Overtime>> overtimeByEmployee;
+    private final Map<Integer, List<LeaveRequest>> leavesByEmployee;
+    private final long changeLogPosition;
+
+    public PayrollPeriodData(LocalDate periodStart, LocalDate periodEnd,
+                             List<Employee> employees,
+                             Map<Integer, List<Attendance>> attendanceByEmployee,
+                             Map<Integer, List<Overtime>> overtimeByEmployee,
+                             Map<Integer, List<LeaveRequest>> leavesByEmployee) {
+        this(periodStart, periodEnd, employees, attendanceByEmployee, overtimeByEmployee, leavesByEmployee, 0);
+    }
+
+    /**
+     * @param changeLogPosition newest change log ID read before the data was;
+     *        0 treats every logged change as one the data may not include
+     */
+    public PayrollPeriodData(LocalDate periodStart, LocalDate periodEnd,
+                             List<Employee> employees,
+                             Map<Integer, List<Attendance>> attendanceByEmployee,
+                             Map<Integer, List<Overtime>> overtimeByEmployee,
+                             Map<Integer, List<LeaveRequest>> leavesByEmployee,
+                             long changeLogPosition) {
+        if (periodStart == null || periodEnd == null) {
+            throw new IllegalArgumentException("Period start and end dates cannot be null");
+        }
+        this.periodStart = periodStart;
+        this.periodEnd = periodEnd;
+
+        Map<Integer, Employee> byId = new LinkedHashMap<>();
+        if (employees != null) {
+            for (Employee employee : employees) {
+                byId.put(employee.getEmployeeId(), employee);
+            }
+        }
+        this.employees = Collections.unmodifiableMap(byId);
+        this.attendanceByEmployee = attendanceByEmployee != null ? attendanceByEmployee : Collections.emptyMap();
+        this.overtimeByEmployee = overtimeByEmployee != null ? overtimeByEmployee : Collections.emptyMap();
+        this.leavesByEmployee = leavesByEmployee != null ? leavesByEmployee : Collections.emptyMap();
+        this.changeLogPosition = changeLogPosition;
+    }
+
+    /**
+     * Bulk-load a period: one query each for employees, attendance, overtime
+     * and approved leave, regardless of headcount.
+     */
+    public static PayrollPeriodData load(LocalDate periodStart, LocalDate periodEnd) {
+        return load(new EmployeeDAO(), new AttendanceDAO(), new OvertimeDAO(), new LeaveRequestDAO(),
+                new PayrollChangeDAO(), periodStart, periodEnd);
+    }
+
+    public static PayrollPeriodData load(EmployeeDAO employeeDAO, AttendanceDAO attendanceDAO,
+                                         OvertimeDAO overtimeDAO, LeaveRequestDAO leaveDAO,
+                                         PayrollChangeDAO changeDAO,
+                                         LocalDate periodStart, LocalDate periodEnd) {
+        long started = System.currentTimeMillis();
+
+        // Before the data: a change logged during the load may or may not be in it
+        long changeLogPosition = changeDAO.getLatestChangeId();
+        PayrollPeriodData data = new PayrollPeriodData(periodStart, periodEnd,
+                employeeDAO.getAllEmployees(),
+                attendanceDAO.getAttendanceBetweenDatesGroupedByEmployee(periodStart, periodEnd),
+                overtimeDAO.getOvertimeByDateRangeGroupedByEmployee(periodStart, periodEnd),
+                leaveDAO.getApprovedLeavesByDateRangeGroupedByEmployee(periodStart, periodEnd),
+                changeLogPosition);
+
+        LOGGER.info(String.format("📦 Loaded payroll data for %s to %s: %d employees in %d ms",
+                periodStart, periodEnd, data.employees.size(), System.currentTimeMillis() - started));
+        return data;
+    }
+
+    public LocalDate getPeriodStart() { return periodStart; }
+    public LocalDate getPeriodEnd() { return periodEnd; }
+
+    /** Newest change log ID the snapshot is known to include */
+    public long getChangeLogPosition() { return changeLogPosition; }
+
+    /** Employees in the snapshot, in the order they were loaded */
+    public List<Employee> getEmployees() {
+        return List.copyOf(employees.values());
+    }
+
+    public Employee getEmployee(int employeeId) {
+        return employees.get(employeeId);
+    }
+
+    public List<Attendance> getAttendance(int employeeId) {
+        return attendanceByEmployee.getOrDefault(employeeId, Collections.emptyList());
+    }
+
+    public List<Overtime> getOvertime(int employeeId) {
+        return overtimeByEmployee.getOrDefault(employeeId, Collections.emptyList());
+    }
+
+    public List<LeaveRequest> getApprovedLeaves(int employeeId) {
+        return leavesByEmployee.getOrDefault(employeeId, Collections.emptyList());
+    }
+
+    /**
+     * Inputs for one employee, ready for {@link PayrollCalculator#compute}
+     * @return inputs, or null if the employee is not part of this snapshot
+     */
+    public PayrollInputs getInputs(int employeeId) {
+        Employee employee = employees.get(employeeId);
+        if (employee == null) {
+            return null;
+        }
+        return new PayrollInputs(employee, periodStart, periodEnd,
+                getAttendance(employeeId), getOvertime(employeeId), getApprovedLeaves(employeeId));
+    }
+
+    public int getEmployeeCount() {
+        return employees.size();
+    }
+}
@@ -5,6 +5,7 @@
 package service;
 
 import model.Payroll;
+import util.Money;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
@@ -81,17 +82,17 @@ public class PayrollReport {
 
     public double getTotalGrossPay() {
         return payrollData != null ? 
-            payrollData.stream().mapToDouble(Payroll::getGrossPay).sum() : 0.0;
+            Money.toPesos(payrollData.stream().mapToLong(Payroll::getGrossPayCentavos).sum()) : 0.0;
     }
 
     public double getTotalDeductions() {
         return payrollData != null ? 
-            payrollData.stream().mapToDouble(Payroll::getTotalDeductions).sum() : 0.0;
+            Money.toPesos(payrollData.stream().mapToLong(Payroll::getTotalDeductionsCentavos).sum()) : 0.0;
     }
 
     public double getTotalNetPay() {
         return payrollData != null ? 
-            payrollData.stream().mapToDouble(Payroll::getNetPay).sum() : 0.0;
+            Money.toPesos(payrollData.stream().mapToLong(Payroll::getNetPayCentavos).sum()) : 0.0;
     }
 
     /**
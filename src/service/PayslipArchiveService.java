@@ -0,0 +1,434 @@
+package service;
+
+import dao.EmployeeDAO;
+import dao.PayrollDAO;
+import model.Employee;
+import model.Payroll;
+import util.ConfigurationManager;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Every employee's payslip for a pay period, written as ZIP archives.
+ *
+ * Payslips are rendered to PDF in memory on a worker pool and written into
+ * the archive by the calling thread as each one finishes. Only a bounded
+ * number of rendered payslips is held at a time, and nothing is staged on
+ * disk apart from the archives themselves. A payslip that fails to render
+ * is recorded and the run continues.
+ */
+public class PayslipArchiveService {
+    private static final Logger LOGGER = Logger.getLogger(PayslipArchiveService.class.getName());
+
+    // Rendered payslips waiting to be written, per worker
+    private static final int PENDING_PER_WORKER = 4;
+    private static final int BUFFER_BYTES = 64 * 1024;
+    private static final DateTimeFormatter PERIOD_FORMAT = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    /**
+     * How payslips are split into archives
+     */
+    public enum Grouping {
+        /** One archive holding every payslip */
+        SINGLE,
+        /** One archive per department, in the target directory */
+        BY_DEPARTMENT
+    }
+
+    /**
+     * Receives progress on the thread that called {@code writeArchive}
+     */
+    public interface ProgressListener {
+        void onProgress(Progress progress);
+    }
+
+    private final JasperReportService jasperReportService;
+    private final PayrollBatchService payrollBatchService;
+    private final int workerCount;
+
+    public PayslipArchiveService() {
+        this(new JasperReportService(), new PayrollBatchService());
+    }
+
+    public PayslipArchiveService(JasperReportService jasperReportService, PayrollBatchService payrollBatchService) {
+        this(jasperReportService, payrollBatchService, defaultWorkerCount());
+    }
+
+    public PayslipArchiveService(JasperReportService jasperReportService, PayrollBatchService payrollBatchService,
+                                 int workerCount) {
+        if (jasperReportService == null || payrollBatchService == null) {
+            throw new IllegalArgumentException("Report and payroll services cannot be null");
+        }
+        if (workerCount <= 0) {
+            throw new IllegalArgumentException("Worker count must be positive, got: " + workerCount);
+        }
+        this.jasperReportService = jasperReportService;
+        this.payrollBatchService = payrollBatchService;
+        this.workerCount = workerCount;
+    }
+
+    private static int defaultWorkerCount() {
+        return Math.max(1, ConfigurationManager.getInstance().getPayslipArchiveWorkers());
+    }
+
+    public int getWorkerCount() {
+        return workerCount;
+    }
+
+    /**
+     * Archive every employee's payslip for a period. A finalized period is
+     * printed from its saved payroll rows, so the payslips match what was
+     * paid; an open one is calculated first. Employees whose calculation
+     * fails are reported in the result's failures.
+     * @param target ZIP file for {@link Grouping#SINGLE}, directory for {@link Grouping#BY_DEPARTMENT}
+     * @param listener Progress receiver, may be null
+     */
+    public ArchiveResult archivePeriod(LocalDate periodStart, LocalDate periodEnd, Grouping grouping,
+                                       Path target, ProgressListener listener) {
+        PayrollDAO.PeriodPayrolls saved = new PayrollDAO().getPayrollsForPeriod(periodStart, periodEnd);
+        if (saved.isFinalized()) {
+            return writeArchive(new ArrayList<>(saved.getPayrolls().values()),
+                    byId(new EmployeeDAO().getAllEmployees()), grouping, target, listener, Collections.emptyMap());
+        }
+
+        PayrollPeriodData periodData = PayrollPeriodData.load(periodStart, periodEnd);
+        PayrollBatchService.BatchResult batch = payrollBatchService.calculate(periodData);
+        return writeArchive(batch.getPayrolls(), byId(periodData.getEmployees()), grouping, target, listener,
+                batch.getFailures());
+    }
+
+    /**
+     * Render payslips in parallel and write them into ZIP archives
+     * @param payrolls Payrolls to print; those without an employee are skipped
+     * @param employeesById Employee for each payroll
+     * @param target ZIP file for {@link Grouping#SINGLE}, directory for {@link Grouping#BY_DEPARTMENT}
+     * @param listener Progress receiver, may be null
+     */
+    public ArchiveResult writeArchive(List<Payroll> payrolls, Map<Integer, Employee> employeesById,
+                                      Grouping grouping, Path target, ProgressListener listener) {
+        return writeArchive(payrolls, employeesById, grouping, target, listener, Collections.emptyMap());
+    }
+
+    /**
+     * @param calculationFailures Employees with no payroll to print, reported with the render failures
+     */
+    private ArchiveResult writeArchive(List<Payroll> payrolls, Map<Integer, Employee> employeesById,
+                                       Grouping grouping, Path target, ProgressListener listener,
+                                       Map<Integer, Exception> calculationFailures) {
+        if (payrolls == null || employeesById == null) {
+            throw new IllegalArgumentException("Payrolls and employees cannot be null");
+        }
+        if (grouping == null || target == null) {
+            throw new IllegalArgumentException("Grouping and target cannot be null");
+        }
+
+        List<Payroll> printable = new ArrayList<>(payrolls.size());
+        for (Payroll payroll : payrolls) {
+            if (employeesById.containsKey(payroll.getEmployeeId())) {
+                printable.add(payroll);
+            }
+        }
+
+        long started = System.nanoTime();
+        int total = printable.size();
+        int threads = Math.max(1, Math.min(workerCount, total));
+        ExecutorService executor = Executors.newFixedThreadPool(threads, new WorkerThreadFactory());
+        CompletionService<Rendered> completion = new ExecutorCompletionService<>(executor);
+        Archives archives = new Archives(grouping, target);
+        Map<Integer, Exception> failures = new LinkedHashMap<>(calculationFailures);
+        int payslipCount = 0;
+        long bytesWritten = 0;
+        boolean completed = false;
+
+        try {
+            int submitted = 0;
+            int maxPending = threads * PENDING_PER_WORKER;
+            while (submitted < total && submitted < maxPending) {
+                submit(completion, printable.get(submitted++), employeesById);
+            }
+
+            for (int done = 0; done < total; ) {
+                Rendered rendered = completion.take().get();
+                if (submitted < total) {
+                    submit(completion, printable.get(submitted++), employeesById);
+                }
+
+                if (rendered.pdf != null) {
+                    archives.write(rendered.employee, rendered.payroll, rendered.pdf);
+                    payslipCount++;
+                    bytesWritten += rendered.pdf.length;
+                } else {
+                    failures.put(rendered.employee.getEmployeeId(), rendered.error);
+                }
+
+                done++;
+                if (listener != null) {
+                    listener.onProgress(new Progress(done, total, failures.size(), System.nanoTime() - started));
+                }
+            }
+
+            archives.close();
+            completed = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Payslip archive interrupted", e);
+        } catch (ExecutionException e) {
+            // renderPayslip catches per-payslip failures, so this is a bug rather than bad data
+            throw new RuntimeException("Payslip worker failed: " + e.getCause().getMessage(), e.getCause());
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Error writing payslip archive " + target, e);
+            throw new RuntimeException("Failed to write payslip archive", e);
+        } finally {
+            executor.shutdownNow();
+            if (!completed) {
+                archives.discard();
+            }
+        }
+
+        ArchiveResult result = new ArchiveResult(archives.files(), payslipCount, failures,
+                bytesWritten, (System.nanoTime() - started) / 1_000_000);
+        LOGGER.info(String.format("✅ Payslip archive: %d payslips, %d failed, %d archive(s), %d workers, %d ms (%.1f payslips/s)",
+                result.getPayslipCount(), result.getFailureCount(), result.getArchives().size(), threads,
+                result.getElapsedMillis(), result.getPayslipsPerSecond()));
+        return result;
+    }
+
+    private static Map<Integer, Employee> byId(List<Employee> employees) {
+        Map<Integer, Employee> employeesById = new HashMap<>();
+        for (Employee employee : employees) {
+            employeesById.put(employee.getEmployeeId(), employee);
+        }
+        return employeesById;
+    }
+
+    private void submit(CompletionService<Rendered> completion, Payroll payroll, Map<Integer, Employee> employeesById) {
+        Employee employee = employeesById.get(payroll.getEmployeeId());
+        completion.submit(() -> renderPayslip(employee, payroll));
+    }
+
+    private Rendered renderPayslip(Employee employee, Payroll payroll) {
+        try {
+            return new Rendered(employee, payroll, jasperReportService.renderPayslipPDF(employee, payroll), null);
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Error rendering payslip for employee " + employee.getEmployeeId(), e);
+            return new Rendered(employee, payroll, null, e);
+        }
+    }
+
+    /**
+     * Archive entry name, e.g. Payslip_10001_Garcia_2024_06.pdf
+     */
+    static String entryName(Employee employee, Payroll payroll) {
+        return String.format("Payslip_%d_%s_%s.pdf", employee.getEmployeeId(),
+                safeName(employee.getLastName()), payroll.getStartDateAsLocalDate().format(PERIOD_FORMAT));
+    }
+
+    /**
+     * Letters, digits, dashes and underscores only, so the name is valid on any file system
+     */
+    static String safeName(String value) {
+        if (value == null || value.isBlank()) {
+            return "Unassigned";
+        }
+        return value.trim().replaceAll("[^A-Za-z0-9_-]+", "_");
+    }
+
+    private static final class Rendered {
+        final Employee employee;
+        final Payroll payroll;
+        final byte[] pdf;
+        final Exception error;
+
+        Rendered(Employee employee, Payroll payroll, byte[] pdf, Exception error) {
+            this.employee = employee;
+            this.payroll = payroll;
+            this.pdf = pdf;
+            this.error = error;
+        }
+    }
+
+    /**
+     * Open archives for a run, created as the first payslip for each arrives
+     */
+    private static final class Archives {
+        private final Grouping grouping;
+        private final Path target;
+        private final Map<String, ZipOutputStream> open = new LinkedHashMap<>();
+        private final List<Path> files = new ArrayList<>();
+
+        Archives(Grouping grouping, Path target) {
+            this.grouping = grouping;
+            this.target = target;
+        }
+
+        void write(Employee employee, Payroll payroll, byte[] pdf) throws IOException {
+            ZipOutputStream zip = zipFor(grouping == Grouping.SINGLE ? "" : safeName(employee.getDepartment()), payroll);
+            zip.putNextEntry(new ZipEntry(entryName(employee, payroll)));
+            zip.write(pdf);
+            zip.closeEntry();
+        }
+
+        private ZipOutputStream zipFor(String group, Payroll payroll) throws IOException {
+            ZipOutputStream zip = open.get(group);
+            if (zip == null) {
+                Path file = grouping == Grouping.SINGLE ? target
+                        : target.resolve(String.format("Payslips_%s_%s.zip", group,
+                                payroll.getStartDateAsLocalDate().format(PERIOD_FORMAT)));
+                if (file.getParent() != null) {
+                    Files.createDirectories(file.getParent());
+                }
+                OutputStream out = new BufferedOutputStream(Files.newOutputStream(file), BUFFER_BYTES);
+                zip = new ZipOutputStream(out);
+                // PDF content is already compressed; deflating it again gains little
+                zip.setLevel(Deflater.BEST_SPEED);
+                open.put(group, zip);
+                files.add(file);
+            }
+            return zip;
+        }
+
+        void close() throws IOException {
+            IOException failure = null;
+            for (ZipOutputStream zip : open.values()) {
+                try {
+                    zip.close();
+                } catch (IOException e) {
+                    failure = e;
+                }
+            }
+            open.clear();
+            if (failure != null) {
+                throw failure;
+            }
+        }
+
+        /**
+         * Close and delete the archives of a run that did not finish
+         */
+        void discard() {
+            try {
+                close();
+            } catch (IOException e) {
+                LOGGER.log(Level.FINE, "Ignoring close failure of an abandoned archive", e);
+            }
+            for (Path file : files) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    LOGGER.log(Level.WARNING, "Could not delete incomplete archive " + file, e);
+                }
+            }
+            files.clear();
+        }
+
+        List<Path> files() {
+            return new ArrayList<>(files);
+        }
+    }
+
+    private static final class WorkerThreadFactory implements ThreadFactory {
+        private static final AtomicInteger RUN_COUNTER = new AtomicInteger();
+        private final int run = RUN_COUNTER.incrementAndGet();
+        private final AtomicInteger threadCounter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable task) {
+            Thread thread = new Thread(task, "payslip-archive-" + run + "-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    /**
+     * Snapshot of a running archive job
+     */
+    public static final class Progress {
+        private final int done;
+        private final int total;
+        private final int failed;
+        private final long elapsedNanos;
+
+        Progress(int done, int total, int failed, long elapsedNanos) {
+            this.done = done;
+            this.total = total;
+            this.failed = failed;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public int getDone() { return done; }
+        public int getTotal() { return total; }
+        public int getFailed() { return failed; }
+        public long getElapsedMillis() { return elapsedNanos / 1_000_000; }
+
+        public int getPercent() {
+            return total == 0 ? 100 : (int) (done * 100L / total);
+        }
+
+        public double getPayslipsPerSecond() {
+            return elapsedNanos == 0 ? 0 : done * 1_000_000_000.0 / elapsedNanos;
+        }
+
+        /** Estimated time left at the current rate */
+        public long getRemainingMillis() {
+            return done == 0 ? -1 : (long) ((total - done) * (elapsedNanos / 1_000_000.0) / done);
+        }
+    }
+
+    /**
+     * Outcome of an archive job: archives written plus the employees that failed
+     */
+    public static final class ArchiveResult {
+        private final List<Path> archives;
+        private final int payslipCount;
+        private final Map<Integer, Exception> failures;
+        private final long bytesWritten;
+        private final long elapsedMillis;
+
+        private ArchiveResult(List<Path> archives, int payslipCount, Map<Integer, Exception> failures,
+                              long bytesWritten, long elapsedMillis) {
+            this.archives = Collections.unmodifiableList(archives);
+            this.payslipCount = payslipCount;
+            this.failures = Collections.unmodifiableMap(failures);
+            this.bytesWritten = bytesWritten;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public List<Path> getArchives() { return archives; }
+        public int getPayslipCount() { return payslipCount; }
+        /** Employee ID to the exception that stopped its payslip */
+        public Map<Integer, Exception> getFailures() { return failures; }
+        public int getFailureCount() { return failures.size(); }
+        public boolean hasFailures() { return !failures.isEmpty(); }
+        /** Uncompressed PDF bytes written */
+        public long getBytesWritten() { return bytesWritten; }
+        public long getElapsedMillis() { return elapsedMillis; }
+
+        public double getPayslipsPerSecond() {
+            return elapsedMillis == 0 ? 0 : payslipCount * 1000.0 / elapsedMillis;
+        }
+    }
+}
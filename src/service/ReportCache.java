@@ -0,0 +1,379 @@
+package service;
+
+import dao.EmployeeDAO;
+import dao.PayrollChangeDAO;
+import util.ConfigurationManager;
+import util.ExpiringCache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Computed report data, cached by report type, period and the version of
+ * the period's payroll inputs.
+ *
+ * The input version comes from the payroll change log and the employee and
+ * statutory rate tables, so any change to attendance, overtime, leave,
+ * employees or rates for a period gives it a new version and older entries
+ * are simply never read again. Entries live in a small in-memory LRU and in
+ * files on disk, so a closed period stays cached across restarts. The disk
+ * tier is also LRU: reading an entry refreshes its file time, and the
+ * oldest files go first when it is full.
+ *
+ * Employee edits made through {@link EmployeeDAO} mark the whole cache stale,
+ * since updated_at only has second resolution. Memory entries go at once; the
+ * files on disk are deleted by the next lookup rather than on the writing thread.
+ *
+ * Files are read back through an allow-list filter: only the types report
+ * data is made of, within depth and size limits, so a file planted in the
+ * cache directory cannot instantiate arbitrary classes.
+ */
+public class ReportCache {
+    private static final Logger LOGGER = Logger.getLogger(ReportCache.class.getName());
+
+    private static final String FILE_SUFFIX = ".ser";
+
+    // Payroll maps (HashMap checks its Map.Entry table against the filter) and strings; anything else is rejected
+    private static final ObjectInputFilter FILE_FILTER = ObjectInputFilter.Config.createFilter(
+            "maxdepth=8;maxrefs=1000000;maxarray=100000;maxbytes=67108864;"
+            + "java.lang.String;java.lang.Number;java.lang.Integer;java.lang.Long;"
+            + "java.util.HashMap;java.util.LinkedHashMap;java.util.Map$Entry;java.util.ArrayList;"
+            + "java.util.Date;java.sql.Date;model.Payroll;!*");
+
+    private static ReportCache instance;
+
+    /**
+     * Version of a period's payroll inputs; equal versions mean equal inputs
+     */
+    public interface VersionSource {
+        String versionOf(LocalDate periodStart, LocalDate periodEnd);
+    }
+
+    /**
+     * Computes a value on a cache miss
+     */
+    public interface Loader<V> {
+        V load() throws Exception;
+    }
+
+    private final VersionSource versionSource;
+    private final ExpiringCache<String, Serializable> memory;
+    private final Path directory;
+    private final int maxDiskEntries;
+    // Newest key per report type and period, so a superseded version leaves memory
+    private final Map<String, String> currentKeys = new ConcurrentHashMap<>();
+    // Set by markStale; the next lookup clears the disk tier
+    private final AtomicBoolean diskStale = new AtomicBoolean();
+
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong diskWrites = new AtomicLong();
+
+    public static synchronized ReportCache getInstance() {
+        if (instance == null) {
+            ConfigurationManager config = ConfigurationManager.getInstance();
+            PayrollChangeDAO changeDAO = new PayrollChangeDAO();
+            instance = new ReportCache(changeDAO::getPeriodInputVersion,
+                    config.getReportCacheMemoryEntries(), config.getReportCacheTtlSeconds(),
+                    Paths.get(config.getReportCachePath()), config.getReportCacheDiskEntries());
+            ReportCache cache = instance;
+            EmployeeDAO.addChangeListener(employeeId -> cache.markStale());
+        }
+        return instance;
+    }
+
+    /**
+     * @param versionSource Input version of a period
+     * @param memoryEntries Entries kept in memory; zero disables the memory tier
+     * @param ttlSeconds Seconds an entry stays in memory
+     * @param directory Directory for the disk tier, or null for none
+     * @param maxDiskEntries Files kept on disk; zero disables the disk tier
+     */
+    public ReportCache(VersionSource versionSource, int memoryEntries, long ttlSeconds,
+                       Path directory, int maxDiskEntries) {
+        if (versionSource == null) {
+            throw new IllegalArgumentException("Version source cannot be null");
+        }
+        this.versionSource = versionSource;
+        this.memory = new ExpiringCache<>(memoryEntries, ttlSeconds);
+        this.directory = maxDiskEntries > 0 ? directory : null;
+        this.maxDiskEntries = Math.max(0, maxDiskEntries);
+    }
+
+    /**
+     * Cached value for a report type and period, loading and caching it on a miss
+     * @param reportType Kind of data, e.g. "payroll"; part of the key
+     */
+    public <V extends Serializable> V get(String reportType, LocalDate periodStart, LocalDate periodEnd,
+                                          Loader<V> loader) throws Exception {
+        Lookup<V> lookup = lookup(reportType, periodStart, periodEnd);
+        if (lookup.isHit()) {
+            return lookup.getValue();
+        }
+        V value = loader.load();
+        lookup.store(value);
+        return value;
+    }
+
+    /**
+     * Look a period up without loading it, for callers that decide
+     * afterwards whether what they computed should be cached
+     */
+    public <V extends Serializable> Lookup<V> lookup(String reportType, LocalDate periodStart, LocalDate periodEnd) {
+        if (reportType == null || periodStart == null || periodEnd == null) {
+            throw new IllegalArgumentException("Report type and period cannot be null");
+        }
+
+        long stamp = memory.stamp();
+        if (diskStale.getAndSet(false)) {
+            clearFiles(LocalDate.MIN, LocalDate.MAX);
+        }
+        String version;
+        try {
+            version = versionSource.versionOf(periodStart, periodEnd);
+        } catch (RuntimeException e) {
+            // Without a version nothing can be trusted; compute without caching
+            LOGGER.log(Level.WARNING, "Report cache bypassed: cannot read input version for "
+                    + periodStart + " to " + periodEnd, e);
+            return new Lookup<>(this, null, null, stamp, null);
+        }
+
+        String prefix = reportType + "_" + periodStart + "_" + periodEnd + "_";
+        String key = prefix + digest(version);
+
+        @SuppressWarnings("unchecked")
+        V value = (V) memory.get(key);
+        if (value == null) {
+            value = readFile(key);
+            if (value != null) {
+                memory.put(key, value, stamp);
+            }
+        }
+        return new Lookup<>(this, key, prefix, stamp, value);
+    }
+
+    /**
+     * Drop every entry for periods overlapping a date range, in memory and on
+     * disk; for changes the input version cannot see
+     */
+    public void invalidatePeriod(LocalDate periodStart, LocalDate periodEnd) {
+        memory.invalidateAll();
+        clearFiles(periodStart, periodEnd);
+    }
+
+    public void invalidateAll() {
+        invalidatePeriod(LocalDate.MIN, LocalDate.MAX);
+    }
+
+    /**
+     * Treat everything cached so far as stale without touching the disk, for
+     * change listeners that run on the writing thread. Values being loaded
+     * now are not stored, and the next lookup deletes the files on disk.
+     */
+    public void markStale() {
+        diskStale.set(true);
+        memory.invalidateAll();
+    }
+
+    public String getStats() {
+        return String.format("Report cache: memory %s; disk hits=%d, writes=%d",
+                memory.getStats(), diskHits.get(), diskWrites.get());
+    }
+
+    private void clearFiles(LocalDate periodStart, LocalDate periodEnd) {
+        if (directory == null || !Files.isDirectory(directory)) {
+            return;
+        }
+        for (Path file : listFiles()) {
+            String[] parts = file.getFileName().toString().split("_");
+            // reportType_start_end_version.ser; report types do not contain underscores
+            if (parts.length >= 4) {
+                try {
+                    LocalDate start = LocalDate.parse(parts[1]);
+                    LocalDate end = LocalDate.parse(parts[2]);
+                    if (!start.isAfter(periodEnd) && !end.isBefore(periodStart)) {
+                        Files.deleteIfExists(file);
+                    }
+                } catch (RuntimeException | IOException e) {
+                    LOGGER.log(Level.FINE, "Skipping cache file " + file, e);
+                }
+            }
+        }
+    }
+
+    private void store(String key, String prefix, Serializable value, long stamp) {
+        if (memory.stamp() != stamp) {
+            // Invalidated since the lookup, so the value may already be stale
+            return;
+        }
+        memory.put(key, value, stamp);
+        String previous = currentKeys.put(prefix, key);
+        if (previous != null && !previous.equals(key)) {
+            memory.invalidate(previous);
+        }
+        if (directory == null) {
+            return;
+        }
+
+        try {
+            Files.createDirectories(directory);
+            Path file = directory.resolve(key + FILE_SUFFIX);
+            Path temp = Files.createTempFile(directory, key, ".tmp");
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp));
+                 ObjectOutputStream objects = new ObjectOutputStream(out)) {
+                objects.writeObject(value);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            diskWrites.incrementAndGet();
+
+            // Older versions of the same report and period can never be read again
+            for (Path other : listFiles()) {
+                String name = other.getFileName().toString();
+                if (name.startsWith(prefix) && !other.equals(file)) {
+                    Files.deleteIfExists(other);
+                }
+            }
+            evictFiles();
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Could not write report cache entry " + key, e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <V> V readFile(String key) {
+        if (directory == null) {
+            return null;
+        }
+        Path file = directory.resolve(key + FILE_SUFFIX);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file));
+             ObjectInputStream objects = new ObjectInputStream(in)) {
+            objects.setObjectInputFilter(FILE_FILTER);
+            V value = (V) objects.readObject();
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            diskHits.incrementAndGet();
+            return value;
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            // Written by an older build, cut short or rejected by the filter; drop it and recompute
+            LOGGER.log(Level.INFO, "Discarding unreadable report cache file " + file, e);
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException ignored) {
+                // Overwritten on the next store
+            }
+            return null;
+        }
+    }
+
+    private void evictFiles() throws IOException {
+        List<Path> files = listFiles();
+        if (files.size() <= maxDiskEntries) {
+            return;
+        }
+        files.sort(Comparator.comparingLong(ReportCache::lastModified));
+        for (int i = 0; i < files.size() - maxDiskEntries; i++) {
+            Files.deleteIfExists(files.get(i));
+        }
+    }
+
+    private List<Path> listFiles() {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + FILE_SUFFIX)) {
+            for (Path file : stream) {
+                files.add(file);
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Could not list report cache directory " + directory, e);
+        }
+        return files;
+    }
+
+    private static long lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Short file-safe form of an input version
+     */
+    private static String digest(String version) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(version.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder();
+            for (int i = 0; i < 8; i++) {
+                hex.append(String.format("%02x", hash[i]));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Result of {@link #lookup}: the cached value if any, and how to cache a
+     * value computed after a miss under the same input version
+     */
+    public static final class Lookup<V extends Serializable> {
+        private final ReportCache cache;
+        private final String key;
+        private final String prefix;
+        private final long stamp;
+        private final V value;
+
+        private Lookup(ReportCache cache, String key, String prefix, long stamp, V value) {
+            this.cache = cache;
+            this.key = key;
+            this.prefix = prefix;
+            this.stamp = stamp;
+            this.value = value;
+        }
+
+        public boolean isHit() {
+            return value != null;
+        }
+
+        public V getValue() {
+            return value;
+        }
+
+        /**
+         * Cache a value computed from the inputs this lookup saw
+         */
+        public void store(V computed) {
+            if (key != null && computed != null) {
+                cache.store(key, prefix, computed, stamp);
+            }
+        }
+    }
+}
@@ -4,6 +4,8 @@ package service;
 import dao.*;
 import model.*;
 import util.DBConnection;
+import util.ExportFiles;
+import util.Money;
 
 import java.sql.*;
 import java.time.LocalDate;
@@ -12,22 +14,33 @@ import java.util.*;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 import java.io.*;
-import java.nio.file.Files;
 import java.nio.file.Paths;
 
 public class ReportGenerator {
     private static final Logger logger = Logger.getLogger(ReportGenerator.class.getName());
 
+    private static final String CSV_HEADER =
+            "Employee ID,Name,Period,Gross Pay,Deductions,Net Pay,SSS,PhilHealth,Pag-IBIG,Tax" + System.lineSeparator();
+
     private final EmployeeDAO employeeDAO;
     private final PayrollDAO payrollDAO;
     private final AttendanceDAO attendanceDAO;
     private final PayrollCalculator payrollCalculator;
+    private final PayrollBatchService payrollBatchService;
 
     public ReportGenerator() {
+        this(new PayrollCalculator());
+    }
+
+    public ReportGenerator(PayrollCalculator payrollCalculator) {
+        if (payrollCalculator == null) {
+            throw new IllegalArgumentException("Payroll calculator cannot be null");
+        }
         this.employeeDAO = new EmployeeDAO();
         this.payrollDAO = new PayrollDAO();
         this.attendanceDAO = new AttendanceDAO();
-        this.payrollCalculator = new PayrollCalculator();
+        this.payrollCalculator = payrollCalculator;
+        this.payrollBatchService = new PayrollBatchService(payrollCalculator);
     }
 
     /**
@@ -47,18 +60,10 @@ public class ReportGenerator {
         report.setPeriodEnd(periodEnd);
 
         try {
-            List<Employee> employees = employeeDAO.getAllEmployees();
-            List<Payroll> payrollData = new ArrayList<>();
-
-            for (Employee emp : employees) {
-                try {
-                    Payroll payroll = payrollCalculator.calculatePayroll(
-                            emp.getEmployeeId(), periodStart, periodEnd);
-                    payrollData.add(payroll);
-                } catch (Exception e) {
-                    logger.log(Level.WARNING, "Error calculating payroll for employee " + emp.getEmployeeId(), e);
-                }
-            }
+            // A closed month is the saved payroll as paid, read in one query; an open
+            // one is cached per period, so the contributions report and repeat runs reuse it
+            List<Payroll> payrollData = new ArrayList<>(
+                    payrollBatchService.getPeriodPayrolls(periodStart, periodEnd).values());
 
             report.setPayrollData(payrollData);
             report.setSummary(generateReportSummary(payrollData));
@@ -123,12 +128,13 @@ public class ReportGenerator {
 
         try {
             List<Employee> employees = employeeDAO.getAllEmployees();
+            Map<Integer, List<Attendance>> grouped =
+                    attendanceDAO.getAttendanceBetweenDatesGroupedByEmployee(periodStart, periodEnd);
             Map<Integer, List<Attendance>> attendanceMap = new HashMap<>();
 
             for (Employee emp : employees) {
-                List<Attendance> attendanceList = attendanceDAO.getAttendanceByEmployeeIdBetweenDates(
-                        emp.getEmployeeId(), periodStart, periodEnd);
-                attendanceMap.put(emp.getEmployeeId(), attendanceList);
+                attendanceMap.put(emp.getEmployeeId(),
+                        grouped.getOrDefault(emp.getEmployeeId(), Collections.emptyList()));
             }
 
             report.setAttendanceData(attendanceMap);
@@ -158,34 +164,50 @@ public class ReportGenerator {
      * Export report to CSV format
      */
     public void exportReportToCSV(PayrollReport report, String filePath) throws IOException {
-        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(Paths.get(filePath)))) {
-            // Write header
-            writer.println("Employee ID,Name,Period,Gross Pay,Deductions,Net Pay,SSS,PhilHealth,Pag-IBIG,Tax");
-
-            // Write data
-            for (Payroll payroll : report.getPayrollData()) {
-                Employee emp = employeeDAO.getEmployeeById(payroll.getEmployeeId());
-                writer.printf("%d,%s,%s,%.2f,%.2f,%.2f,%.2f,%.2f,%.2f,%.2f%n",
-                        payroll.getEmployeeId(),
-                        emp != null ? emp.getFullName() : "Unknown",
-                        report.getFormattedPeriod(),
-                        payroll.getGrossPay(),
-                        payroll.getTotalDeductions(),
-                        payroll.getNetPay(),
-                        payroll.getSss(),
-                        payroll.getPhilhealth(),
-                        payroll.getPagibig(),
-                        payroll.getTax()
-                );
-            }
+        try (Writer writer = ExportFiles.newWriter(Paths.get(filePath))) {
+            exportReportToCSV(report, getEmployeesById(), writer);
+        }
+    }
 
-            // Write summary
-            writer.println();
-            writer.println("SUMMARY");
-            writer.printf("Total Employees,%d%n", report.getTotalEmployees());
-            writer.printf("Total Gross Pay,%.2f%n", report.getTotalGrossPay());
-            writer.printf("Total Deductions,%.2f%n", report.getTotalDeductions());
-            writer.printf("Total Net Pay,%.2f%n", report.getTotalNetPay());
+    /**
+     * Write a report as CSV
+     * @param employeesById Employee for each payroll, for the name column
+     */
+    public void exportReportToCSV(PayrollReport report, Map<Integer, Employee> employeesById, Writer writer) throws IOException {
+        // Write header
+        writer.write(CSV_HEADER);
+
+        // Write data
+        for (Payroll payroll : report.getPayrollData()) {
+            writeCsvRow(writer, payroll, employeeName(employeesById, payroll), report.getFormattedPeriod());
+        }
+
+        // Write summary
+        writeCsvSummary(writer, report.getTotalEmployees(), report.getTotalGrossPay(),
+                report.getTotalDeductions(), report.getTotalNetPay());
+    }
+
+    /**
+     * Export saved payroll records for a date range to CSV, writing each row
+     * as it is read from the database so memory use does not depend on how
+     * many periods are exported
+     * @return number of payroll records exported
+     */
+    public int exportPayrollHistoryToCSV(LocalDate startDate, LocalDate endDate, String filePath) throws IOException {
+        try (Writer writer = ExportFiles.newWriter(Paths.get(filePath))) {
+            writer.write(CSV_HEADER);
+
+            Set<Integer> employeeIds = new HashSet<>();
+            long[] totals = new long[3];
+            int rows = streamPayrollHistory(startDate, endDate, (payroll, name) -> {
+                writeCsvRow(writer, payroll, name, formatPeriod(payroll));
+                employeeIds.add(payroll.getEmployeeId());
+                addToTotals(totals, payroll);
+            });
+
+            writeCsvSummary(writer, employeeIds.size(), Money.toPesos(totals[0]),
+                    Money.toPesos(totals[1]), Money.toPesos(totals[2]));
+            return rows;
         }
     }
 
@@ -193,53 +215,188 @@ public class ReportGenerator {
      * Export report to HTML format
      */
     public void exportReportToHTML(PayrollReport report, String filePath) throws IOException {
-        StringBuilder html = new StringBuilder();
-
-        html.append("<!DOCTYPE html><html><head>");
-        html.append("<title>").append(report.getReportTitle()).append("</title>");
-        html.append("<style>");
-        html.append("body { font-family: Arial, sans-serif; margin: 20px; }");
-        html.append("table { border-collapse: collapse; width: 100%; }");
-        html.append("th, td { border: 1px solid #ddd; padding: 8px; text-align: left; }");
-        html.append("th { background-color: #f2f2f2; }");
-        html.append(".summary { margin-top: 20px; background-color: #f9f9f9; padding: 15px; }");
-        html.append("</style></head><body>");
+        try (Writer writer = ExportFiles.newWriter(Paths.get(filePath))) {
+            exportReportToHTML(report, getEmployeesById(), writer);
+        }
+    }
+
+    /**
+     * Write a report as HTML
+     * @param employeesById Employee for each payroll, for the name column
+     */
+    public void exportReportToHTML(PayrollReport report, Map<Integer, Employee> employeesById, Writer writer) throws IOException {
+        writeHtmlHeader(writer, report.getReportTitle(), report.getGeneratedDate(),
+                report.getFormattedPeriod(), report.getGeneratedBy(), false);
+
+        for (Payroll payroll : report.getPayrollData()) {
+            writeHtmlRow(writer, payroll, employeeName(employeesById, payroll), null);
+        }
+
+        writeHtmlSummary(writer, report.getTotalEmployees(), report.getTotalGrossPay(),
+                report.getTotalDeductions(), report.getTotalNetPay());
+    }
+
+    /**
+     * All employees by ID, read once per export rather than once per row
+     */
+    private Map<Integer, Employee> getEmployeesById() {
+        Map<Integer, Employee> employeesById = new HashMap<>();
+        for (Employee employee : employeeDAO.getAllEmployees()) {
+            employeesById.put(employee.getEmployeeId(), employee);
+        }
+        return employeesById;
+    }
+
+    private static String employeeName(Map<Integer, Employee> employeesById, Payroll payroll) {
+        Employee emp = employeesById.get(payroll.getEmployeeId());
+        return emp != null ? emp.getFullName() : "Unknown";
+    }
+
+    /**
+     * Export saved payroll records for a date range to HTML, streaming rows
+     * from the database into the file; the summary follows the table, so it
+     * is totalled along the way
+     * @return number of payroll records exported
+     */
+    public int exportPayrollHistoryToHTML(LocalDate startDate, LocalDate endDate, String generatedBy, String filePath) throws IOException {
+        try (Writer writer = ExportFiles.newWriter(Paths.get(filePath))) {
+            writeHtmlHeader(writer, "Payroll History Report", LocalDate.now(),
+                    startDate + " to " + endDate, generatedBy, true);
+
+            Set<Integer> employeeIds = new HashSet<>();
+            long[] totals = new long[3];
+            int rows = streamPayrollHistory(startDate, endDate, (payroll, name) -> {
+                writeHtmlRow(writer, payroll, name, formatPeriod(payroll));
+                employeeIds.add(payroll.getEmployeeId());
+                addToTotals(totals, payroll);
+            });
+
+            writeHtmlSummary(writer, employeeIds.size(), Money.toPesos(totals[0]),
+                    Money.toPesos(totals[1]), Money.toPesos(totals[2]));
+            return rows;
+        }
+    }
+
+    /**
+     * Export row writer; lets a row callback throw IOException
+     */
+    private interface RowWriter {
+        void write(Payroll payroll, String employeeName) throws IOException;
+    }
+
+    private int streamPayrollHistory(LocalDate startDate, LocalDate endDate, RowWriter rowWriter) throws IOException {
+        try {
+            return payrollDAO.streamPayrollHistory(startDate, endDate, (payroll, name) -> {
+                try {
+                    rowWriter.write(payroll, name);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Running gross, deduction and net totals in centavos
+     */
+    private static void addToTotals(long[] totals, Payroll payroll) {
+        totals[0] += payroll.getGrossPayCentavos();
+        totals[1] += payroll.getTotalDeductionsCentavos();
+        totals[2] += payroll.getNetPayCentavos();
+    }
+
+    private static String formatPeriod(Payroll payroll) {
+        return payroll.getPeriodStart() + " to " + payroll.getPeriodEnd();
+    }
+
+    private static void writeCsvRow(Writer writer, Payroll payroll, String employeeName, String period) throws IOException {
+        writer.write(String.format("%d,%s,%s,%.2f,%.2f,%.2f,%.2f,%.2f,%.2f,%.2f%n",
+                payroll.getEmployeeId(),
+                csvEscape(employeeName),
+                period,
+                payroll.getGrossPay(),
+                payroll.getTotalDeductions(),
+                payroll.getNetPay(),
+                payroll.getSss(),
+                payroll.getPhilhealth(),
+                payroll.getPagibig(),
+                payroll.getTax()
+        ));
+    }
+
+    private static void writeCsvSummary(Writer writer, int totalEmployees, double totalGross,
+                                        double totalDeductions, double totalNet) throws IOException {
+        writer.write(System.lineSeparator());
+        writer.write("SUMMARY" + System.lineSeparator());
+        writer.write(String.format("Total Employees,%d%n", totalEmployees));
+        writer.write(String.format("Total Gross Pay,%.2f%n", totalGross));
+        writer.write(String.format("Total Deductions,%.2f%n", totalDeductions));
+        writer.write(String.format("Total Net Pay,%.2f%n", totalNet));
+    }
+
+    private static void writeHtmlHeader(Writer writer, String title, LocalDate generatedDate, String period,
+                                        String generatedBy, boolean withPeriodColumn) throws IOException {
+        writer.write("<!DOCTYPE html><html><head>");
+        writer.write("<meta charset='UTF-8'>");
+        writer.write("<title>" + title + "</title>");
+        writer.write("<style>");
+        writer.write("body { font-family: Arial, sans-serif; margin: 20px; }");
+        writer.write("table { border-collapse: collapse; width: 100%; }");
+        writer.write("th, td { border: 1px solid #ddd; padding: 8px; text-align: left; }");
+        writer.write("th { background-color: #f2f2f2; }");
+        writer.write(".summary { margin-top: 20px; background-color: #f9f9f9; padding: 15px; }");
+        writer.write("</style></head><body>");
 
         // Header
-        html.append("<h1>").append(report.getReportTitle()).append("</h1>");
-        html.append("<p>Generated on: ").append(report.getGeneratedDate()).append("</p>");
-        html.append("<p>Period: ").append(report.getFormattedPeriod()).append("</p>");
-        html.append("<p>Generated by: ").append(report.getGeneratedBy()).append("</p>");
+        writer.write("<h1>" + title + "</h1>");
+        writer.write("<p>Generated on: " + generatedDate + "</p>");
+        writer.write("<p>Period: " + period + "</p>");
+        writer.write("<p>Generated by: " + generatedBy + "</p>");
 
         // Table
-        html.append("<table>");
-        html.append("<tr><th>Employee ID</th><th>Name</th><th>Gross Pay</th><th>Deductions</th><th>Net Pay</th></tr>");
+        writer.write("<table>");
+        writer.write(withPeriodColumn
+                ? "<tr><th>Employee ID</th><th>Name</th><th>Period</th><th>Gross Pay</th><th>Deductions</th><th>Net Pay</th></tr>"
+                : "<tr><th>Employee ID</th><th>Name</th><th>Gross Pay</th><th>Deductions</th><th>Net Pay</th></tr>");
+    }
 
-        for (Payroll payroll : report.getPayrollData()) {
-            Employee emp = employeeDAO.getEmployeeById(payroll.getEmployeeId());
-            html.append("<tr>");
-            html.append("<td>").append(payroll.getEmployeeId()).append("</td>");
-            html.append("<td>").append(emp != null ? emp.getFullName() : "Unknown").append("</td>");
-            html.append("<td>₱").append(String.format("%.2f", payroll.getGrossPay())).append("</td>");
-            html.append("<td>₱").append(String.format("%.2f", payroll.getTotalDeductions())).append("</td>");
-            html.append("<td>₱").append(String.format("%.2f", payroll.getNetPay())).append("</td>");
-            html.append("</tr>");
+    private static void writeHtmlRow(Writer writer, Payroll payroll, String employeeName, String period) throws IOException {
+        writer.write("<tr>");
+        writer.write("<td>" + payroll.getEmployeeId() + "</td>");
+        writer.write("<td>" + employeeName + "</td>");
+        if (period != null) {
+            writer.write("<td>" + period + "</td>");
         }
+        writer.write("<td>₱" + String.format("%.2f", payroll.getGrossPay()) + "</td>");
+        writer.write("<td>₱" + String.format("%.2f", payroll.getTotalDeductions()) + "</td>");
+        writer.write("<td>₱" + String.format("%.2f", payroll.getNetPay()) + "</td>");
+        writer.write("</tr>\n");
+    }
 
-        html.append("</table>");
+    private static void writeHtmlSummary(Writer writer, int totalEmployees, double totalGross,
+                                         double totalDeductions, double totalNet) throws IOException {
+        writer.write("</table>");
 
         // Summary
-        html.append("<div class='summary'>");
-        html.append("<h3>Summary</h3>");
-        html.append("<p>Total Employees: ").append(report.getTotalEmployees()).append("</p>");
-        html.append("<p>Total Gross Pay: ₱").append(String.format("%.2f", report.getTotalGrossPay())).append("</p>");
-        html.append("<p>Total Deductions: ₱").append(String.format("%.2f", report.getTotalDeductions())).append("</p>");
-        html.append("<p>Total Net Pay: ₱").append(String.format("%.2f", report.getTotalNetPay())).append("</p>");
-        html.append("</div>");
-
-        html.append("</body></html>");
+        writer.write("<div class='summary'>");
+        writer.write("<h3>Summary</h3>");
+        writer.write("<p>Total Employees: " + totalEmployees + "</p>");
+        writer.write("<p>Total Gross Pay: ₱" + String.format("%.2f", totalGross) + "</p>");
+        writer.write("<p>Total Deductions: ₱" + String.format("%.2f", totalDeductions) + "</p>");
+        writer.write("<p>Total Net Pay: ₱" + String.format("%.2f", totalNet) + "</p>");
+        writer.write("</div>");
+
+        writer.write("</body></html>");
+    }
 
-        Files.write(Paths.get(filePath), html.toString().getBytes());
+    private static String csvEscape(String value) {
+        if (value == null) return "";
+        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
     }
 
     /**
@@ -252,14 +409,26 @@ public class ReportGenerator {
             return summary;
         }
 
+        // Summed in centavos, so the totals are exact whatever the row order
+        long grossPay = 0, deductions = 0, netPay = 0, sss = 0, philhealth = 0, pagibig = 0, tax = 0;
+        for (Payroll payroll : payrollData) {
+            grossPay += payroll.getGrossPayCentavos();
+            deductions += payroll.getTotalDeductionsCentavos();
+            netPay += payroll.getNetPayCentavos();
+            sss += payroll.getSssCentavos();
+            philhealth += payroll.getPhilhealthCentavos();
+            pagibig += payroll.getPagibigCentavos();
+            tax += payroll.getTaxCentavos();
+        }
+
         summary.setTotalEmployees(payrollData.size());
-        summary.setTotalGrossPay(payrollData.stream().mapToDouble(Payroll::getGrossPay).sum());
-        summary.setTotalDeductions(payrollData.stream().mapToDouble(Payroll::getTotalDeductions).sum());
-        summary.setTotalNetPay(payrollData.stream().mapToDouble(Payroll::getNetPay).sum());
-        summary.setTotalSSSContributions(payrollData.stream().mapToDouble(Payroll::getSss).sum());
-        summary.setTotalPhilHealthContributions(payrollData.stream().mapToDouble(Payroll::getPhilhealth).sum());
-        summary.setTotalPagIBIGContributions(payrollData.stream().mapToDouble(Payroll::getPagibig).sum());
-        summary.setTotalTax(payrollData.stream().mapToDouble(Payroll::getTax).sum());
+        summary.setTotalGrossPay(Money.toPesos(grossPay));
+        summary.setTotalDeductions(Money.toPesos(deductions));
+        summary.setTotalNetPay(Money.toPesos(netPay));
+        summary.setTotalSSSContributions(Money.toPesos(sss));
+        summary.setTotalPhilHealthContributions(Money.toPesos(philhealth));
+        summary.setTotalPagIBIGContributions(Money.toPesos(pagibig));
+        summary.setTotalTax(Money.toPesos(tax));
 
         return summary;
     }
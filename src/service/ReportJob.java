@@ -0,0 +1,230 @@
+package service;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * A report request in the {@link ReportJobQueue}.
+ *
+ * Callers can poll {@link #getStatus}, subscribe with {@link #addListener},
+ * or wait on {@link #getResult}. Listeners are called on the thread that
+ * changed the status, so UI code must hand the update to its own thread.
+ *
+ * @param <T> What the report task produces, e.g. preview text or a file
+ */
+public class ReportJob<T> {
+    private static final String CANCELLED_MESSAGE = "Cancelled by user";
+
+    public enum Priority {
+        HIGH(1), NORMAL(5), LOW(9);
+
+        private final int level;
+
+        Priority(int level) {
+            this.level = level;
+        }
+
+        /** Stored in report_generation_log; lower runs first */
+        public int getLevel() {
+            return level;
+        }
+    }
+
+    public enum Status {
+        QUEUED("Queued"),
+        IN_PROGRESS("In Progress"),
+        SUCCESS("Success"),
+        FAILED("Failed"),
+        CANCELLED("Cancelled");
+
+        private final String displayName;
+
+        Status(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+
+        /** report_generation_log has no Cancelled status; a cancelled job is logged as Failed */
+        public String getLogStatus() {
+            return this == CANCELLED ? FAILED.displayName : displayName;
+        }
+
+        public boolean isFinished() {
+            return this == SUCCESS || this == FAILED || this == CANCELLED;
+        }
+    }
+
+    public interface Listener<T> {
+        void jobUpdated(ReportJob<T> job);
+    }
+
+    private final ReportJobQueue queue;
+    private final long id;
+    private final String templateName;
+    private final int requestedBy;
+    private final Priority priority;
+    private final long queuedAt = System.currentTimeMillis();
+    private final CompletableFuture<T> result = new CompletableFuture<>();
+    private final List<Listener<T>> listeners = new CopyOnWriteArrayList<>();
+
+    // Written by the queue's log writer once the job is logged
+    volatile int logId;
+
+    private Status status = Status.QUEUED;
+    private long startedAt;
+    private long finishedAt;
+    private Thread runner;
+    private boolean cancelRequested;
+    private String errorMessage;
+    private volatile Path outputFile;
+
+    ReportJob(ReportJobQueue queue, long id, String templateName, int requestedBy, Priority priority) {
+        this.queue = queue;
+        this.id = id;
+        this.templateName = templateName;
+        this.requestedBy = requestedBy;
+        this.priority = priority;
+    }
+
+    /** Identifies the job within this application run */
+    public long getId() { return id; }
+    /** ID in report_generation_log, or 0 while or if the job is not logged */
+    public int getLogId() { return logId; }
+    public String getTemplateName() { return templateName; }
+    public int getRequestedBy() { return requestedBy; }
+    public Priority getPriority() { return priority; }
+    public long getQueuedAt() { return queuedAt; }
+    public Path getOutputFile() { return outputFile; }
+
+    /**
+     * Completes with the task's result, exceptionally with its failure,
+     * or is cancelled along with the job
+     */
+    public CompletableFuture<T> getResult() {
+        return result;
+    }
+
+    public synchronized Status getStatus() {
+        return status;
+    }
+
+    public synchronized String getErrorMessage() {
+        return errorMessage;
+    }
+
+    /**
+     * Time spent running, or waiting if the job has not started
+     */
+    public synchronized long getElapsedMillis() {
+        long end = finishedAt != 0 ? finishedAt : System.currentTimeMillis();
+        return end - (startedAt != 0 ? startedAt : queuedAt);
+    }
+
+    /**
+     * Called by the report task to record the file it wrote
+     */
+    public void setOutputFile(Path outputFile) {
+        this.outputFile = outputFile;
+    }
+
+    /**
+     * Receive every later status change. A job that has already finished
+     * calls the listener once straight away.
+     */
+    public void addListener(Listener<T> listener) {
+        listeners.add(listener);
+        if (getStatus().isFinished()) {
+            listener.jobUpdated(this);
+        }
+    }
+
+    public void removeListener(Listener<T> listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Cancel a queued job, or interrupt a running one
+     * @return false if the job had already finished
+     */
+    public boolean cancel() {
+        synchronized (this) {
+            if (status == Status.IN_PROGRESS) {
+                cancelRequested = true;
+                runner.interrupt();
+                return true;
+            }
+            if (status != Status.QUEUED) {
+                return false;
+            }
+            status = Status.CANCELLED;
+            errorMessage = CANCELLED_MESSAGE;
+            finishedAt = System.currentTimeMillis();
+        }
+        result.cancel(false);
+        queue.finished(this);
+        fireUpdated();
+        return true;
+    }
+
+    /**
+     * Move to In Progress on a worker thread
+     * @return false if the job was cancelled while queued
+     */
+    boolean start(Thread thread) {
+        synchronized (this) {
+            if (status != Status.QUEUED) {
+                return false;
+            }
+            status = Status.IN_PROGRESS;
+            startedAt = System.currentTimeMillis();
+            runner = thread;
+        }
+        fireUpdated();
+        return true;
+    }
+
+    void succeed(T value) {
+        synchronized (this) {
+            status = Status.SUCCESS;
+            finishedAt = System.currentTimeMillis();
+            runner = null;
+        }
+        // Leave the active jobs before anyone waiting on the result can look at them
+        queue.finished(this);
+        result.complete(value);
+        fireUpdated();
+    }
+
+    void fail(Exception error) {
+        boolean cancelled;
+        synchronized (this) {
+            cancelled = cancelRequested;
+            status = cancelled ? Status.CANCELLED : Status.FAILED;
+            errorMessage = cancelled ? CANCELLED_MESSAGE : String.valueOf(error.getMessage());
+            finishedAt = System.currentTimeMillis();
+            runner = null;
+        }
+        queue.finished(this);
+        if (cancelled) {
+            result.cancel(false);
+        } else {
+            result.completeExceptionally(error);
+        }
+        fireUpdated();
+    }
+
+    synchronized long getRunMillis() {
+        return startedAt == 0 ? 0 : finishedAt - startedAt;
+    }
+
+    private void fireUpdated() {
+        for (Listener<T> listener : listeners) {
+            listener.jobUpdated(this);
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package service;
+
+import dao.ReportJobDAO;
+import util.ConfigurationManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs report jobs in the background on a small worker pool, highest
+ * priority first and in request order within a priority.
+ *
+ * Every job is recorded in report_generation_log: Queued when submitted,
+ * then In Progress, Success or Failed with its run time and output size.
+ * Log writes go through a single background thread in order, so neither
+ * the caller nor the workers wait on them, and a database problem with the
+ * log does not stop the report itself.
+ */
+public class ReportJobQueue {
+    private static final Logger LOGGER = Logger.getLogger(ReportJobQueue.class.getName());
+
+    private static ReportJobQueue instance;
+
+    /**
+     * The work of a report job. Runs on a worker thread; a running job is
+     * cancelled by interrupting that thread.
+     */
+    public interface ReportTask<T> {
+        T run(ReportJob<T> job) throws Exception;
+    }
+
+    private final ReportJobDAO reportJobDAO;
+    private final ThreadPoolExecutor workers;
+    private final ExecutorService logWriter;
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<Long, ReportJob<?>> activeJobs = new ConcurrentHashMap<>();
+
+    public static synchronized ReportJobQueue getInstance() {
+        if (instance == null) {
+            instance = new ReportJobQueue(new ReportJobDAO(),
+                    Math.max(1, ConfigurationManager.getInstance().getReportJobWorkers()));
+        }
+        return instance;
+    }
+
+    public ReportJobQueue(ReportJobDAO reportJobDAO, int workerCount) {
+        if (reportJobDAO == null) {
+            throw new IllegalArgumentException("Report job DAO cannot be null");
+        }
+        if (workerCount <= 0) {
+            throw new IllegalArgumentException("Worker count must be positive, got: " + workerCount);
+        }
+        this.reportJobDAO = reportJobDAO;
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 60, TimeUnit.SECONDS,
+                new PriorityBlockingQueue<>(), new NamedThreadFactory("report-job"));
+        this.workers.allowCoreThreadTimeOut(true);
+        this.logWriter = Executors.newSingleThreadExecutor(new NamedThreadFactory("report-job-log"));
+    }
+
+    /**
+     * Queue a report
+     * @param templateName Name in report_templates, recorded in the log
+     * @param requestedBy Employee ID of the requester
+     * @param parameters Report parameters recorded in the log
+     * @param priority Scheduling priority
+     * @param task Work that produces the report
+     * @return Job to poll, subscribe to or cancel
+     */
+    public <T> ReportJob<T> submit(String templateName, int requestedBy, Map<String, ?> parameters,
+                                   ReportJob.Priority priority, ReportTask<T> task) {
+        if (templateName == null || task == null || priority == null) {
+            throw new IllegalArgumentException("Template name, priority and task cannot be null");
+        }
+
+        ReportJob<T> job = new ReportJob<>(this, sequence.incrementAndGet(), templateName, requestedBy, priority);
+        activeJobs.put(job.getId(), job);
+
+        String parametersJson = toJson(parameters);
+        logWriter.execute(() -> {
+            try {
+                job.logId = reportJobDAO.enqueue(templateName, requestedBy, parametersJson, priority.getLevel());
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Report job " + job.getId() + " is not logged; running it anyway", e);
+            }
+        });
+
+        job.addListener(this::logStatus);
+        workers.execute(new QueuedJob<>(job, task));
+        LOGGER.info(String.format("📥 Report job %d queued: %s (%s priority, %d active)",
+                job.getId(), templateName, priority, activeJobs.size()));
+        return job;
+    }
+
+    /**
+     * Jobs queued or running, in the order they will be run
+     */
+    public List<ReportJob<?>> getActiveJobs() {
+        List<ReportJob<?>> jobs = new ArrayList<>(activeJobs.values());
+        jobs.sort(Comparator.comparingInt((ReportJob<?> job) -> job.getPriority().getLevel())
+                .thenComparingLong(ReportJob::getId));
+        return jobs;
+    }
+
+    public ReportJob<?> getJob(long id) {
+        return activeJobs.get(id);
+    }
+
+    public int getActiveJobCount() {
+        return activeJobs.size();
+    }
+
+    /**
+     * Stop taking jobs and cancel those still queued or running
+     */
+    public synchronized void shutdown() {
+        if (workers.isShutdown()) {
+            return;
+        }
+        for (ReportJob<?> job : getActiveJobs()) {
+            job.cancel();
+        }
+        workers.shutdown();
+        // Running jobs log their Cancelled status as they stop, so the log writer closes after them
+        logWriter.execute(() -> {
+            try {
+                workers.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            logWriter.shutdown();
+        });
+    }
+
+    void finished(ReportJob<?> job) {
+        activeJobs.remove(job.getId());
+    }
+
+    private <T> void run(ReportJob<T> job, ReportTask<T> task) {
+        if (!job.start(Thread.currentThread())) {
+            return;
+        }
+        try {
+            job.succeed(task.run(job));
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Report job " + job.getId() + " (" + job.getTemplateName() + ") failed", e);
+            job.fail(e);
+        } finally {
+            // A cancel that arrived as the task finished must not leak into the next job
+            Thread.interrupted();
+            finished(job);
+        }
+    }
+
+    private void logStatus(ReportJob<?> job) {
+        ReportJob.Status status = job.getStatus();
+        if (status == ReportJob.Status.QUEUED) {
+            return;
+        }
+
+        boolean finished = status.isFinished();
+        Path outputFile = finished ? job.getOutputFile() : null;
+        String errorMessage = finished ? job.getErrorMessage() : null;
+        Integer runMillis = finished ? (int) Math.min(Integer.MAX_VALUE, job.getRunMillis()) : null;
+        if (finished) {
+            LOGGER.info(String.format("📤 Report job %d %s: %s in %d ms",
+                    job.getId(), status.getDisplayName(), job.getTemplateName(), runMillis));
+        }
+
+        logWriter.execute(() -> {
+            if (job.logId == 0) {
+                return;
+            }
+            try {
+                reportJobDAO.updateStatus(job.logId, status.getLogStatus(),
+                        outputFile != null ? outputFile.toAbsolutePath().toString() : null,
+                        errorMessage, runMillis, sizeOf(outputFile));
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Could not log status of report job " + job.getId(), e);
+            }
+        });
+    }
+
+    private static Long sizeOf(Path file) {
+        try {
+            return file != null && Files.isRegularFile(file) ? Files.size(file) : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Flat JSON object of strings, numbers and booleans
+     */
+    static String toJson(Map<String, ?> parameters) {
+        if (parameters == null || parameters.isEmpty()) {
+            return "{}";
+        }
+        StringBuilder json = new StringBuilder("{");
+        for (Map.Entry<String, ?> entry : parameters.entrySet()) {
+            if (json.length() > 1) {
+                json.append(", ");
+            }
+            json.append(jsonString(entry.getKey())).append(": ");
+            Object value = entry.getValue();
+            if (value == null) {
+                json.append("null");
+            } else if (value instanceof Number || value instanceof Boolean) {
+                json.append(value);
+            } else {
+                json.append(jsonString(value.toString()));
+            }
+        }
+        return json.append("}").toString();
+    }
+
+    private static String jsonString(String value) {
+        StringBuilder quoted = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': quoted.append("\\\""); break;
+                case '\\': quoted.append("\\\\"); break;
+                case '\n': quoted.append("\\n"); break;
+                case '\r': quoted.append("\\r"); break;
+                case '\t': quoted.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        quoted.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        quoted.append(c);
+                    }
+            }
+        }
+        return quoted.append('"').toString();
+    }
+
+    /**
+     * Queue entry ordered by priority, then by request order
+     */
+    private final class QueuedJob<T> implements Runnable, Comparable<QueuedJob<?>> {
+        private final ReportJob<T> job;
+        private final ReportTask<T> task;
+
+        QueuedJob(ReportJob<T> job, ReportTask<T> task) {
+            this.job = job;
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            ReportJobQueue.this.run(job, task);
+        }
+
+        @Override
+        public int compareTo(QueuedJob<?> other) {
+            int byPriority = Integer.compare(job.getPriority().getLevel(), other.job.getPriority().getLevel());
+            return byPriority != 0 ? byPriority : Long.compare(job.getId(), other.job.getId());
+        }
+    }
+
+    private static final class NamedThreadFactory implements ThreadFactory {
+        private final String prefix;
+        private final AtomicInteger threadCounter = new AtomicInteger();
+
+        NamedThreadFactory(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable task) {
+            Thread thread = new Thread(task, prefix + "-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
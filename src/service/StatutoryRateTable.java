@@ -0,0 +1,141 @@
+package service;
+
+import model.StatutoryRateBracket;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * One compiled statutory schedule: every bracket of a single contribution
+ * type in force from one effective date.
+ *
+ * Brackets are held in parallel primitive arrays sorted by upper bound, so
+ * {@link #calculate(double)} is a binary search plus a little arithmetic and
+ * allocates nothing. Instances are immutable and safe to share between threads.
+ */
+public final class StatutoryRateTable {
+
+    public enum ContributionType {
+        SSS, PHILHEALTH, PAGIBIG, WITHHOLDING_TAX
+    }
+
+    private final ContributionType type;
+    private final LocalDate effectiveDate;
+    private final boolean annualized;
+
+    // Bracket i covers (upperBounds[i - 1], upperBounds[i]]; the last bound is +infinity
+    private final double[] upperBounds;
+    private final double[] fixedAmounts;
+    private final double[] rates;
+    private final double[] excessOver;
+    private final double[] minAmounts;
+    private final double[] maxAmounts;
+
+    private StatutoryRateTable(ContributionType type, LocalDate effectiveDate, boolean annualized,
+                               double[] upperBounds, double[] fixedAmounts, double[] rates,
+                               double[] excessOver, double[] minAmounts, double[] maxAmounts) {
+        this.type = type;
+        this.effectiveDate = effectiveDate;
+        this.annualized = annualized;
+        this.upperBounds = upperBounds;
+        this.fixedAmounts = fixedAmounts;
+        this.rates = rates;
+        this.excessOver = excessOver;
+        this.minAmounts = minAmounts;
+        this.maxAmounts = maxAmounts;
+    }
+
+    /**
+     * Compile the brackets of one schedule.
+     * @param brackets brackets in ascending upper-bound order; only the last may be unbounded
+     * @throws IllegalArgumentException if the brackets do not form a complete, ordered schedule
+     */
+    public static StatutoryRateTable compile(ContributionType type, LocalDate effectiveDate,
+                                             List<StatutoryRateBracket> brackets) {
+        if (type == null || effectiveDate == null) {
+            throw new IllegalArgumentException("Contribution type and effective date cannot be null");
+        }
+        if (brackets == null || brackets.isEmpty()) {
+            throw new IllegalArgumentException("No brackets for " + type + " effective " + effectiveDate);
+        }
+
+        int size = brackets.size();
+        double[] upperBounds = new double[size];
+        double[] fixedAmounts = new double[size];
+        double[] rates = new double[size];
+        double[] excessOver = new double[size];
+        double[] minAmounts = new double[size];
+        double[] maxAmounts = new double[size];
+        boolean annualized = brackets.get(0).isAnnualized();
+
+        for (int i = 0; i < size; i++) {
+            StatutoryRateBracket bracket = brackets.get(i);
+            boolean last = i == size - 1;
+
+            if (bracket.getUpperBound() == null && !last) {
+                throw new IllegalArgumentException("Only the last " + type + " bracket may be unbounded (effective "
+                        + effectiveDate + ")");
+            }
+            if (bracket.isAnnualized() != annualized) {
+                throw new IllegalArgumentException("Mixed annualized flags in " + type + " schedule effective "
+                        + effectiveDate);
+            }
+
+            // The top bracket always catches everything above the last bound
+            upperBounds[i] = last ? Double.POSITIVE_INFINITY : bracket.getUpperBound();
+            if (i > 0 && upperBounds[i] <= upperBounds[i - 1]) {
+                throw new IllegalArgumentException("Brackets out of order in " + type + " schedule effective "
+                        + effectiveDate + " at upper bound " + upperBounds[i]);
+            }
+
+            fixedAmounts[i] = bracket.getFixedAmount();
+            rates[i] = bracket.getRate();
+            excessOver[i] = bracket.getExcessOver();
+            minAmounts[i] = bracket.getMinAmount();
+            maxAmounts[i] = bracket.getMaxAmount() != null ? bracket.getMaxAmount() : Double.POSITIVE_INFINITY;
+        }
+
+        return new StatutoryRateTable(type, effectiveDate, annualized,
+                upperBounds, fixedAmounts, rates, excessOver, minAmounts, maxAmounts);
+    }
+
+    /**
+     * Monthly amount due on a monthly base (salary)
+     */
+    public double calculate(double monthlyBase) {
+        double base = annualized ? monthlyBase * 12 : monthlyBase;
+        int i = bracketIndex(base);
+
+        double amount = fixedAmounts[i] + (base - excessOver[i]) * rates[i];
+        if (amount < minAmounts[i]) amount = minAmounts[i];
+        if (amount > maxAmounts[i]) amount = maxAmounts[i];
+
+        return annualized ? amount / 12 : amount;
+    }
+
+    // First bracket whose upper bound is >= base
+    private int bracketIndex(double base) {
+        int low = 0;
+        int high = upperBounds.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (upperBounds[mid] < base) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    public ContributionType getType() { return type; }
+    public LocalDate getEffectiveDate() { return effectiveDate; }
+    public boolean isAnnualized() { return annualized; }
+    public int getBracketCount() { return upperBounds.length; }
+
+    @Override
+    public String toString() {
+        return String.format("StatutoryRateTable{%s effective %s, %d brackets%s}",
+                type, effectiveDate, upperBounds.length, annualized ? ", annualized" : "");
+    }
+}
@@ -0,0 +1,220 @@
+package service;
+
+import dao.StatutoryRateDAO;
+import model.StatutoryRateBracket;
+import service.StatutoryRateTable.ContributionType;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Every statutory schedule known to the system, indexed by contribution type
+ * and effective date.
+ *
+ * Loaded from statutory_rate_brackets and then read without locking by all
+ * payroll threads. Payroll runs call {@link #refresh()} first, which reloads
+ * the tables when their version has changed, so edited rates are used from
+ * the next run on without a restart. Contribution types with no rows in the
+ * database fall back to the built-in TRAIN-era schedules; rate tables that
+ * cannot be read at all are an error rather than a silent fallback.
+ */
+public final class StatutoryRates {
+    private static final Logger LOGGER = Logger.getLogger(StatutoryRates.class.getName());
+
+    private static final LocalDate DEFAULT_EFFECTIVE_DATE = LocalDate.of(2018, 1, 1);
+    private static final StatutoryRates DEFAULTS = new StatutoryRates(defaultBrackets(), null);
+
+    private static volatile StatutoryRates instance;
+
+    // Per type: effective dates as epoch days, ascending, parallel to the compiled tables
+    private final Map<ContributionType, long[]> effectiveDays = new EnumMap<>(ContributionType.class);
+    private final Map<ContributionType, StatutoryRateTable[]> tables = new EnumMap<>(ContributionType.class);
+    // Rate table version these schedules were loaded at; null for the built-in schedules
+    private final String version;
+
+    private StatutoryRates(List<StatutoryRateBracket> brackets, String version) {
+        this.version = version;
+        // Group rows into schedules; input is ordered by type, effective date, upper bound
+        Map<ContributionType, Map<LocalDate, List<StatutoryRateBracket>>> schedules = new EnumMap<>(ContributionType.class);
+        for (StatutoryRateBracket bracket : brackets) {
+            ContributionType type = ContributionType.valueOf(bracket.getContributionType());
+            schedules.computeIfAbsent(type, t -> new LinkedHashMap<>())
+                    .computeIfAbsent(bracket.getEffectiveDate(), d -> new ArrayList<>())
+                    .add(bracket);
+        }
+
+        for (Map.Entry<ContributionType, Map<LocalDate, List<StatutoryRateBracket>>> entry : schedules.entrySet()) {
+            List<StatutoryRateTable> compiled = new ArrayList<>();
+            for (Map.Entry<LocalDate, List<StatutoryRateBracket>> schedule : entry.getValue().entrySet()) {
+                compiled.add(StatutoryRateTable.compile(entry.getKey(), schedule.getKey(), schedule.getValue()));
+            }
+            compiled.sort((a, b) -> a.getEffectiveDate().compareTo(b.getEffectiveDate()));
+
+            long[] days = new long[compiled.size()];
+            for (int i = 0; i < days.length; i++) {
+                days[i] = compiled.get(i).getEffectiveDate().toEpochDay();
+            }
+            effectiveDays.put(entry.getKey(), days);
+            tables.put(entry.getKey(), compiled.toArray(new StatutoryRateTable[0]));
+        }
+    }
+
+    /**
+     * Shared rates, loaded from the database on first use
+     * @throws IllegalStateException if the rate tables cannot be read
+     */
+    public static StatutoryRates getInstance() {
+        StatutoryRates rates = instance;
+        return rates != null ? rates : refresh();
+    }
+
+    /**
+     * Reload the shared rates if the rate tables changed since they were
+     * loaded. If the tables cannot be read, rates loaded earlier are kept.
+     * @throws IllegalStateException if the tables cannot be read and no rates
+     *         have been loaded yet
+     */
+    public static StatutoryRates refresh() {
+        return refresh(new StatutoryRateDAO());
+    }
+
+    private static synchronized StatutoryRates refresh(StatutoryRateDAO dao) {
+        StatutoryRates current = instance;
+        try {
+            String version = dao.getRatesVersion();
+            if (current != null && version.equals(current.version)) {
+                return current;
+            }
+            instance = load(dao, version);
+            return instance;
+        } catch (RuntimeException e) {
+            if (current == null) {
+                throw new IllegalStateException("Statutory rate tables cannot be loaded", e);
+            }
+            LOGGER.log(Level.SEVERE, "❌ Statutory rate tables cannot be reloaded, keeping rates loaded at version "
+                    + current.version, e);
+            return current;
+        }
+    }
+
+    /**
+     * Built-in schedules, matching the seed rows of the statutory rates migration
+     */
+    public static StatutoryRates defaults() {
+        return DEFAULTS;
+    }
+
+    /**
+     * Load schedules from the database. Types missing from the table use the
+     * built-in schedules.
+     * @param version Version of the rate tables being read, from {@link StatutoryRateDAO#getRatesVersion()}
+     * @throws IllegalStateException if the tables cannot be read or are invalid
+     */
+    private static StatutoryRates load(StatutoryRateDAO dao, String version) {
+        List<StatutoryRateBracket> brackets = dao.getAllBrackets();
+
+        List<StatutoryRateBracket> merged = new ArrayList<>(brackets);
+        for (ContributionType type : ContributionType.values()) {
+            boolean present = false;
+            for (StatutoryRateBracket bracket : brackets) {
+                if (type.name().equals(bracket.getContributionType())) {
+                    present = true;
+                    break;
+                }
+            }
+            if (!present) {
+                LOGGER.warning("⚠️ No " + type + " rates in database, using built-in schedule");
+                for (StatutoryRateBracket bracket : defaultBrackets()) {
+                    if (type.name().equals(bracket.getContributionType())) {
+                        merged.add(bracket);
+                    }
+                }
+            }
+        }
+
+        StatutoryRates rates;
+        try {
+            rates = new StatutoryRates(merged, version);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("Invalid statutory rate tables in database: " + e.getMessage(), e);
+        }
+        LOGGER.info("✅ Statutory rates loaded: " + rates.tables.values().stream().mapToInt(t -> t.length).sum()
+                + " schedules from " + brackets.size() + " brackets");
+        return rates;
+    }
+
+    /**
+     * Schedule in force on a date. Dates before the first schedule use the earliest one.
+     */
+    public StatutoryRateTable tableFor(ContributionType type, LocalDate asOf) {
+        long[] days = effectiveDays.get(type);
+        StatutoryRateTable[] schedules = tables.get(type);
+        if (days == null) {
+            throw new IllegalStateException("No statutory rates configured for " + type);
+        }
+
+        long target = asOf.toEpochDay();
+        int low = 0;
+        int high = days.length - 1;
+        int found = 0;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (days[mid] <= target) {
+                found = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return schedules[found];
+    }
+
+    /**
+     * Monthly amount due for one contribution type on a monthly salary as of a date
+     */
+    public double calculate(ContributionType type, double monthlySalary, LocalDate asOf) {
+        return tableFor(type, asOf).calculate(monthlySalary);
+    }
+
+    // Rules PayrollCalculator applied before rates moved to the database
+    private static List<StatutoryRateBracket> defaultBrackets() {
+        List<StatutoryRateBracket> brackets = new ArrayList<>();
+
+        double[][] sss = {
+                {4000, 180.00}, {4750, 202.50}, {5500, 225.00}, {6250, 247.50}, {7000, 270.00},
+                {7750, 292.50}, {8500, 315.00}, {9250, 337.50}, {10000, 360.00},
+                {15000, 540.00}, {20000, 720.00}, {25000, 900.00}
+        };
+        for (double[] row : sss) {
+            brackets.add(bracket(ContributionType.SSS, row[0], row[1], 0, 0, 0, null, false));
+        }
+        brackets.add(bracket(ContributionType.SSS, null, 1125.00, 0, 0, 0, null, false));
+
+        brackets.add(bracket(ContributionType.PHILHEALTH, null, 0, 0.025, 0, 500.00, 5000.00, false));
+
+        brackets.add(bracket(ContributionType.PAGIBIG, 1500.0, 0, 0.01, 0, 0, null, false));
+        brackets.add(bracket(ContributionType.PAGIBIG, null, 0, 0.02, 0, 0, 200.00, false));
+
+        brackets.add(bracket(ContributionType.WITHHOLDING_TAX, 250000.0, 0, 0, 0, 0, null, true));
+        brackets.add(bracket(ContributionType.WITHHOLDING_TAX, 400000.0, 0, 0.15, 250000, 0, null, true));
+        brackets.add(bracket(ContributionType.WITHHOLDING_TAX, 800000.0, 22500, 0.20, 400000, 0, null, true));
+        brackets.add(bracket(ContributionType.WITHHOLDING_TAX, 2000000.0, 102500, 0.25, 800000, 0, null, true));
+        brackets.add(bracket(ContributionType.WITHHOLDING_TAX, 8000000.0, 402500, 0.30, 2000000, 0, null, true));
+        brackets.add(bracket(ContributionType.WITHHOLDING_TAX, null, 2202500, 0.35, 8000000, 0, null, true));
+
+        return brackets;
+    }
+
+    private static StatutoryRateBracket bracket(ContributionType type, Double upperBound, double fixedAmount,
+                                                double rate, double excessOver, double minAmount,
+                                                Double maxAmount, boolean annualized) {
+        return new StatutoryRateBracket(type.name(), DEFAULT_EFFECTIVE_DATE, upperBound,
+                fixedAmount, rate, excessOver, minAmount, maxAmount, annualized);
+    }
+}
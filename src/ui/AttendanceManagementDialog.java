@@ -3,11 +3,11 @@ package ui;
 
 import dao.AttendanceDAO;
 import dao.EmployeeDAO;
+import dao.PayrollChangeDAO;
 import model.Employee;
 import model.Attendance;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import javax.swing.table.DefaultTableCellRenderer;
 import java.awt.*;
 import java.awt.event.ActionEvent;
@@ -29,7 +29,7 @@ public class AttendanceManagementDialog extends JDialog {
 
     // UI Components
     private JTable attendanceTable;
-    private DefaultTableModel tableModel;
+    private AttendanceTableModel tableModel;
     private JComboBox<Employee> employeeComboBox;
     private JSpinner dateSpinner;
     private JSpinner logInSpinner;
@@ -39,6 +39,7 @@ public class AttendanceManagementDialog extends JDialog {
     private JButton deleteButton;
     private JButton refreshButton;
     private JButton clearButton;
+    private JButton rebuildSummaryButton;
     private JLabel statusLabel;
 
     // Form state
@@ -65,13 +66,7 @@ public class AttendanceManagementDialog extends JDialog {
 
     private void initializeComponents() {
         // Table setup
-        String[] columns = {"ID", "Employee", "Date", "Log In", "Log Out", "Hours", "Status"};
-        tableModel = new DefaultTableModel(columns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        tableModel = new AttendanceTableModel(attendanceDAO, new PayrollChangeDAO());
 
         attendanceTable = new JTable(tableModel);
         attendanceTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
@@ -92,6 +87,7 @@ public class AttendanceManagementDialog extends JDialog {
 
         // Custom renderer for status column - Fixed
         attendanceTable.getColumnModel().getColumn(6).setCellRenderer(new StatusCellRenderer());
+        attendanceTable.getColumnModel().getColumn(5).setCellRenderer(new HoursCellRenderer());
 
         // Employee combo box - Fixed
         employeeComboBox = new JComboBox<>();
@@ -143,6 +139,8 @@ public class AttendanceManagementDialog extends JDialog {
         deleteButton = createStyledButton("Delete", new Color(220, 20, 60), Color.WHITE);
         refreshButton = createStyledButton("Refresh", new Color(128, 128, 128), Color.WHITE);
         clearButton = createStyledButton("Clear Form", new Color(255, 140, 0), Color.WHITE);
+        rebuildSummaryButton = createStyledButton("Rebuild Summary", new Color(25, 25, 112), Color.WHITE);
+        rebuildSummaryButton.setToolTipText("Recompute the monthly attendance summary for the month of the selected date");
 
         // Set button sizes
         Dimension buttonSize = new Dimension(100, 30);
@@ -276,6 +274,7 @@ public class AttendanceManagementDialog extends JDialog {
         buttonPanel.add(Box.createHorizontalStrut(20));
         buttonPanel.add(clearButton);
         buttonPanel.add(refreshButton);
+        buttonPanel.add(rebuildSummaryButton);
 
         return buttonPanel;
     }
@@ -298,6 +297,7 @@ public class AttendanceManagementDialog extends JDialog {
             setStatus("Records refreshed");
         });
         clearButton.addActionListener(e -> clearForm());
+        rebuildSummaryButton.addActionListener(e -> rebuildMonthlySummary());
 
         // Table selection listener
         attendanceTable.getSelectionModel().addListSelectionListener(e -> {
@@ -325,36 +325,12 @@ public class AttendanceManagementDialog extends JDialog {
     }
 
     private void loadAttendanceRecords() {
-        tableModel.setRowCount(0);
-
         try {
-            // Load recent attendance records (last 30 days)
+            // Load recent attendance records (last 30 days); after the first load only changed rows are read
             LocalDate endDate = LocalDate.now();
             LocalDate startDate = endDate.minusDays(30);
 
-            List<Employee> employees = employeeDAO.getAllEmployees();
-            int totalRecords = 0;
-
-            for (Employee emp : employees) {
-                List<Attendance> records = attendanceDAO.getAttendanceByEmployeeIdBetweenDates(
-                        emp.getEmployeeId(), startDate, endDate);
-
-                for (Attendance attendance : records) {
-                    String status = determineAttendanceStatus(attendance);
-
-                    Object[] row = {
-                            attendance.getId(),
-                            emp.getFullName(),
-                            attendance.getDate(),
-                            attendance.getLogIn(),
-                            attendance.getLogOut(),
-                            String.format("%.2f", attendance.getWorkHours()),
-                            status
-                    };
-                    tableModel.addRow(row);
-                    totalRecords++;
-                }
-            }
+            int totalRecords = tableModel.refresh(startDate, endDate);
 
             setStatus("Loaded " + totalRecords + " attendance records");
 
@@ -363,30 +339,6 @@ public class AttendanceManagementDialog extends JDialog {
         }
     }
 
-    private String determineAttendanceStatus(Attendance attendance) {
-        if (attendance.getLogIn() == null) {
-            return "No Log In";
-        }
-        if (attendance.getLogOut() == null) {
-            return "No Log Out";
-        }
-
-        boolean isLate = attendance.isLate();
-        boolean hasUndertime = attendance.hasUndertime();
-
-        if (isLate && hasUndertime) {
-            return "Late & Undertime";
-        } else if (isLate) {
-            return "Late";
-        } else if (hasUndertime) {
-            return "Undertime";
-        } else if (attendance.isFullDay()) {
-            return "Full Day";
-        } else {
-            return "Present";
-        }
-    }
-
     private void addAttendanceRecord() {
         if (!validateForm()) return;
 
@@ -485,6 +437,45 @@ public class AttendanceManagementDialog extends JDialog {
         }
     }
 
+    /**
+     * Recompute the monthly summary for the month of the selected date, for
+     * attendance loaded in bulk without the summary triggers
+     */
+    private void rebuildMonthlySummary() {
+        LocalDate date = new Date(((java.util.Date) dateSpinner.getValue()).getTime()).toLocalDate();
+        LocalDate monthStart = date.withDayOfMonth(1);
+        LocalDate monthEnd = date.withDayOfMonth(date.lengthOfMonth());
+
+        int confirm = JOptionPane.showConfirmDialog(this,
+                "Rebuild the attendance summary for " + monthStart.getMonth() + " " + monthStart.getYear() + "?",
+                "Rebuild Summary", JOptionPane.YES_NO_OPTION);
+        if (confirm != JOptionPane.YES_OPTION) {
+            return;
+        }
+
+        rebuildSummaryButton.setEnabled(false);
+        setStatus("Rebuilding attendance summary...");
+        new SwingWorker<Void, Void>() {
+            @Override
+            protected Void doInBackground() {
+                attendanceDAO.rebuildMonthlySummaries(monthStart, monthEnd);
+                return null;
+            }
+
+            @Override
+            protected void done() {
+                rebuildSummaryButton.setEnabled(true);
+                try {
+                    get();
+                    setStatus("Attendance summary rebuilt for " + monthStart.getMonth() + " " + monthStart.getYear());
+                } catch (Exception e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    showError("Error rebuilding attendance summary: " + cause.getMessage());
+                }
+            }
+        }.execute();
+    }
+
     private void populateFormFromSelection() {
         int selectedRow = attendanceTable.getSelectedRow();
         if (selectedRow == -1) {
@@ -608,7 +599,19 @@ public class AttendanceManagementDialog extends JDialog {
         }
     }
 
+    private static class HoursCellRenderer extends DefaultTableCellRenderer {
+        @Override
+        protected void setValue(Object value) {
+            super.setValue(value instanceof Double ? TableFormats.hours((Double) value) : value);
+        }
+    }
+
     private class StatusCellRenderer extends DefaultTableCellRenderer {
+        private final Color lateColor = new Color(255, 182, 193); // Light red
+        private final Color undertimeColor = new Color(255, 218, 185); // Peach
+        private final Color fullDayColor = new Color(144, 238, 144); // Light green
+        private final Color presentColor = new Color(173, 216, 230); // Light blue
+
         @Override
         public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected,
                                                        boolean hasFocus, int row, int column) {
@@ -619,16 +622,16 @@ public class AttendanceManagementDialog extends JDialog {
                 switch (status) {
                     case "Late":
                     case "Late & Undertime":
-                        setBackground(new Color(255, 182, 193)); // Light red
+                        setBackground(lateColor);
                         break;
                     case "Undertime":
-                        setBackground(new Color(255, 218, 185)); // Peach
+                        setBackground(undertimeColor);
                         break;
                     case "Full Day":
-                        setBackground(new Color(144, 238, 144)); // Light green
+                        setBackground(fullDayColor);
                         break;
                     case "Present":
-                        setBackground(new Color(173, 216, 230)); // Light blue
+                        setBackground(presentColor);
                         break;
                     default:
                         setBackground(Color.WHITE);
@@ -641,4 +644,4 @@ public class AttendanceManagementDialog extends JDialog {
             return this;
         }
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,308 @@
+package ui;
+
+import dao.AttendanceDAO;
+import dao.PayrollChangeDAO;
+import model.Attendance;
+
+import javax.swing.table.AbstractTableModel;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Attendance records in a date range, newest first, stored column by
+ * column in primitive arrays.
+ *
+ * The range is read with one streamed query that also brings the employee
+ * names. After that, {@link #refresh} transfers only the rows inserted or
+ * updated since the previous read, plus the days the payroll change log
+ * shows as deleted, and patches them into place. Confined to the Event
+ * Dispatch Thread.
+ */
+class AttendanceTableModel extends AbstractTableModel {
+    static final int COL_ID = 0;
+    static final int COL_EMPLOYEE = 1;
+    static final int COL_DATE = 2;
+    static final int COL_LOG_IN = 3;
+    static final int COL_LOG_OUT = 4;
+    static final int COL_HOURS = 5;
+    static final int COL_STATUS = 6;
+
+    private static final String[] COLUMNS = {"ID", "Employee", "Date", "Log In", "Log Out", "Hours", "Status"};
+    private static final String[] STATUSES = {"No Log In", "No Log Out", "Late & Undertime", "Late", "Undertime", "Full Day", "Present"};
+
+    private static final long NO_TIME = Long.MIN_VALUE;
+    private static final int INITIAL_CAPACITY = 1024;
+    // Above this many changed rows, patching row by row costs more than a full read
+    private static final int MAX_DELTA_ROWS = 1000;
+    // Re-read a little before the previous read: updated_at has one-second
+    // precision and a row can commit after its timestamp was taken.
+    // Re-reading a row that did not change is harmless.
+    private static final long CHANGE_OVERLAP_MILLIS = 5_000;
+
+    private final AttendanceDAO attendanceDAO;
+    private final PayrollChangeDAO changeDAO;
+
+    // One name string per employee, shared by all of their rows
+    private final Map<Integer, String> employeeNames = new HashMap<>();
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private Timestamp lastRead;
+
+    private Rows rows = new Rows(INITIAL_CAPACITY);
+
+    AttendanceTableModel(AttendanceDAO attendanceDAO, PayrollChangeDAO changeDAO) {
+        this.attendanceDAO = attendanceDAO;
+        this.changeDAO = changeDAO;
+    }
+
+    /**
+     * Read every record in a date range
+     * @return number of records in the range
+     */
+    public int reload(LocalDate startDate, LocalDate endDate) {
+        Rows loaded = new Rows(Math.max(INITIAL_CAPACITY, rows.size));
+        Map<Integer, String> names = new HashMap<>();
+        Timestamp readStarted = attendanceDAO.streamAttendanceWithEmployeeNames(startDate, endDate, null,
+                (attendance, name) -> {
+                    names.putIfAbsent(attendance.getEmployeeId(), name);
+                    loaded.add(attendance);
+                });
+
+        employeeNames.clear();
+        employeeNames.putAll(names);
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.lastRead = readStarted;
+        this.rows = loaded;
+        fireTableDataChanged();
+        return loaded.size;
+    }
+
+    /**
+     * Bring the table up to date with only the records changed since the
+     * last read. Reads everything if the range moved or nothing was read yet.
+     * @return number of records in the range
+     */
+    public int refresh(LocalDate startDate, LocalDate endDate) {
+        if (lastRead == null || !startDate.equals(this.startDate) || !endDate.equals(this.endDate)) {
+            return reload(startDate, endDate);
+        }
+
+        Timestamp since = new Timestamp(lastRead.getTime() - CHANGE_OVERLAP_MILLIS);
+        Rows changed = new Rows(16);
+        Map<Integer, String> names = new HashMap<>();
+        Timestamp readStarted = attendanceDAO.streamAttendanceWithEmployeeNames(startDate, endDate, since,
+                (attendance, name) -> {
+                    names.put(attendance.getEmployeeId(), name);
+                    changed.add(attendance);
+                });
+        // Read after the rows, so a delete between the two reads is seen now or next time
+        Map<Integer, Set<LocalDate>> changedDays = changeDAO.getAttendanceChangesSince(startDate, endDate, since);
+
+        if (changed.size > MAX_DELTA_ROWS) {
+            return reload(startDate, endDate);
+        }
+
+        Set<Integer> changedIds = new HashSet<>();
+        for (int i = 0; i < changed.size; i++) {
+            changedIds.add(changed.ids[i]);
+        }
+        for (int row = rows.size - 1; row >= 0; row--) {
+            if (changedIds.contains(rows.ids[row]) || isChangedDay(changedDays, rows.employeeIds[row], rows.dates[row])) {
+                rows.remove(row);
+                fireTableRowsDeleted(row, row);
+            }
+        }
+
+        employeeNames.putAll(names);
+        for (int i = 0; i < changed.size; i++) {
+            int row = rows.insertPosition(changed.dates[i], changed.ids[i]);
+            rows.insert(row, changed, i);
+            fireTableRowsInserted(row, row);
+        }
+
+        lastRead = readStarted;
+        return rows.size;
+    }
+
+    private static boolean isChangedDay(Map<Integer, Set<LocalDate>> changedDays, int employeeId, long date) {
+        Set<LocalDate> days = changedDays.get(employeeId);
+        return days != null && days.contains(new Date(date).toLocalDate());
+    }
+
+    @Override
+    public int getRowCount() {
+        return rows.size;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMNS[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return column == COL_HOURS ? Double.class : Object.class;
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        switch (column) {
+            case COL_ID: return rows.ids[row];
+            case COL_EMPLOYEE: return employeeName(rows.employeeIds[row]);
+            case COL_DATE: return new Date(rows.dates[row]);
+            case COL_LOG_IN: return rows.logIns[row] == NO_TIME ? null : new Time(rows.logIns[row]);
+            case COL_LOG_OUT: return rows.logOuts[row] == NO_TIME ? null : new Time(rows.logOuts[row]);
+            case COL_HOURS: return rows.hours[row];
+            case COL_STATUS: return STATUSES[rows.statuses[row]];
+            default: throw new IndexOutOfBoundsException("Column " + column);
+        }
+    }
+
+    private String employeeName(int employeeId) {
+        String name = employeeNames.get(employeeId);
+        return name != null ? name : "Employee #" + employeeId;
+    }
+
+    /**
+     * Index into STATUSES for a record
+     */
+    static int statusOf(Attendance attendance) {
+        if (attendance.getLogIn() == null) {
+            return 0;
+        }
+        if (attendance.getLogOut() == null) {
+            return 1;
+        }
+
+        boolean isLate = attendance.isLate();
+        boolean hasUndertime = attendance.hasUndertime();
+
+        if (isLate && hasUndertime) {
+            return 2;
+        } else if (isLate) {
+            return 3;
+        } else if (hasUndertime) {
+            return 4;
+        } else if (attendance.isFullDay()) {
+            return 5;
+        } else {
+            return 6;
+        }
+    }
+
+    /**
+     * Growable column arrays in table order: date descending, then ID
+     * descending. The Attendance objects rows are built from are not kept.
+     */
+    private static final class Rows {
+        int size;
+        int[] ids;
+        int[] employeeIds;
+        long[] dates;
+        long[] logIns;
+        long[] logOuts;
+        double[] hours;
+        byte[] statuses;
+
+        Rows(int capacity) {
+            ids = new int[capacity];
+            employeeIds = new int[capacity];
+            dates = new long[capacity];
+            logIns = new long[capacity];
+            logOuts = new long[capacity];
+            hours = new double[capacity];
+            statuses = new byte[capacity];
+        }
+
+        void add(Attendance a) {
+            ensureCapacity(size + 1);
+            ids[size] = a.getId();
+            employeeIds[size] = a.getEmployeeId();
+            dates[size] = a.getDate().getTime();
+            logIns[size] = a.getLogIn() != null ? a.getLogIn().getTime() : NO_TIME;
+            logOuts[size] = a.getLogOut() != null ? a.getLogOut().getTime() : NO_TIME;
+            hours[size] = a.getWorkHours();
+            statuses[size] = (byte) statusOf(a);
+            size++;
+        }
+
+        /**
+         * Row at which a record with this date and ID belongs
+         */
+        int insertPosition(long date, int id) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                boolean before = dates[mid] > date || (dates[mid] == date && ids[mid] > id);
+                if (before) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        void insert(int row, Rows from, int i) {
+            ensureCapacity(size + 1);
+            shift(row, row + 1, size - row);
+            ids[row] = from.ids[i];
+            employeeIds[row] = from.employeeIds[i];
+            dates[row] = from.dates[i];
+            logIns[row] = from.logIns[i];
+            logOuts[row] = from.logOuts[i];
+            hours[row] = from.hours[i];
+            statuses[row] = from.statuses[i];
+            size++;
+        }
+
+        void remove(int row) {
+            shift(row + 1, row, size - row - 1);
+            size--;
+        }
+
+        private void shift(int from, int to, int length) {
+            System.arraycopy(ids, from, ids, to, length);
+            System.arraycopy(employeeIds, from, employeeIds, to, length);
+            System.arraycopy(dates, from, dates, to, length);
+            System.arraycopy(logIns, from, logIns, to, length);
+            System.arraycopy(logOuts, from, logOuts, to, length);
+            System.arraycopy(hours, from, hours, to, length);
+            System.arraycopy(statuses, from, statuses, to, length);
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity <= ids.length) {
+                return;
+            }
+
+            int newCapacity = Math.max(capacity, ids.length * 2);
+            ids = Arrays.copyOf(ids, newCapacity);
+            employeeIds = Arrays.copyOf(employeeIds, newCapacity);
+            dates = Arrays.copyOf(dates, newCapacity);
+            logIns = Arrays.copyOf(logIns, newCapacity);
+            logOuts = Arrays.copyOf(logOuts, newCapacity);
+            hours = Arrays.copyOf(hours, newCapacity);
+            statuses = Arrays.copyOf(statuses, newCapacity);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package ui;
+
+import javax.swing.SwingWorker;
+import java.util.function.Supplier;
+
+/**
+ * Runs a background refresh for a dashboard, at most one at a time.
+ *
+ * Asking for a refresh while one is already running does not start a second
+ * worker; it queues exactly one more run that starts when the current one
+ * finishes, however many requests came in meanwhile. The worker is created
+ * when it starts, so it picks up the latest parameters (e.g. search text).
+ * The screen keeps showing the previous data until the new worker replaces it.
+ *
+ * Confined to the Event Dispatch Thread, like the Swing components it feeds.
+ */
+public class CoalescingRefresher {
+    private final Supplier<? extends SwingWorker<?, ?>> workerFactory;
+    private SwingWorker<?, ?> running;
+    private boolean rerunRequested;
+
+    public CoalescingRefresher(Supplier<? extends SwingWorker<?, ?>> workerFactory) {
+        this.workerFactory = workerFactory;
+    }
+
+    /**
+     * Start a refresh, or queue one behind the refresh already running
+     */
+    public void request() {
+        if (running != null) {
+            rerunRequested = true;
+            return;
+        }
+        start();
+    }
+
+    public boolean isRunning() {
+        return running != null;
+    }
+
+    private void start() {
+        rerunRequested = false;
+        SwingWorker<?, ?> worker = workerFactory.get();
+        running = worker;
+
+        // State events arrive on the EDT after the worker's done() has run
+        worker.addPropertyChangeListener(evt -> {
+            if ("state".equals(evt.getPropertyName()) && evt.getNewValue() == SwingWorker.StateValue.DONE) {
+                running = null;
+                if (rerunRequested) {
+                    start();
+                }
+            }
+        });
+        worker.execute();
+    }
+}
@@ -0,0 +1,156 @@
+package ui;
+
+import model.Employee;
+
+import javax.swing.table.AbstractTableModel;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Employee table for the HR dashboard, stored column by column.
+ *
+ * Each column is one array, so a table of tens of thousands of employees is
+ * a handful of objects rather than an Object[] and a formatted string per
+ * cell. Salaries stay as numbers (which also makes the column sort
+ * numerically); the cell renderer formats only the rows being painted.
+ * Confined to the Event Dispatch Thread.
+ */
+class EmployeeTableModel extends AbstractTableModel {
+    static final int COL_ID = 0;
+    static final int COL_SALARY = 8;
+
+    private static final String[] COLUMNS = {"ID", "Last Name", "First Name", "Position", "Department", "Email", "Phone", "Hire Date", "Salary"};
+    private static final DateTimeFormatter HIRE_DATE_FORMAT = DateTimeFormatter.ofPattern("MMM dd, yyyy");
+    private static final String NOT_PROVIDED = "Not provided";
+    private static final int INITIAL_CAPACITY = 256;
+
+    private int rowCount;
+    private int[] ids = new int[INITIAL_CAPACITY];
+    private String[] lastNames = new String[INITIAL_CAPACITY];
+    private String[] firstNames = new String[INITIAL_CAPACITY];
+    private String[] positions = new String[INITIAL_CAPACITY];
+    private String[] departments = new String[INITIAL_CAPACITY];
+    private LocalDate[] hireDates = new LocalDate[INITIAL_CAPACITY];
+    private String[] phones = new String[INITIAL_CAPACITY];
+    private double[] salaries = new double[INITIAL_CAPACITY];
+    // Built the first time a row's email is painted
+    private String[] emails = new String[INITIAL_CAPACITY];
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMNS[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        switch (column) {
+            case COL_ID: return Integer.class;
+            case COL_SALARY: return Double.class;
+            default: return String.class;
+        }
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        switch (column) {
+            case 0: return ids[row];
+            case 1: return lastNames[row];
+            case 2: return firstNames[row];
+            case 3: return positions[row];
+            case 4: return departments[row] != null ? departments[row] : NOT_PROVIDED;
+            case 5:
+                if (emails[row] == null) {
+                    emails[row] = ids[row] + "@motorphilippines.com"; // Email placeholder
+                }
+                return emails[row];
+            case 6: return phones[row] != null ? phones[row] : NOT_PROVIDED;
+            case 7: return hireDates[row] != null ? hireDates[row].format(HIRE_DATE_FORMAT) : NOT_PROVIDED;
+            case 8: return salaries[row];
+            default: throw new IndexOutOfBoundsException("Column " + column);
+        }
+    }
+
+    public int getEmployeeId(int row) {
+        return ids[row];
+    }
+
+    /**
+     * Append employees after the current rows
+     */
+    public void addEmployees(List<Employee> employees) {
+        if (employees.isEmpty()) {
+            return;
+        }
+
+        int first = rowCount;
+        ensureCapacity(rowCount + employees.size());
+        for (Employee emp : employees) {
+            ids[rowCount] = emp.getEmployeeId();
+            lastNames[rowCount] = emp.getLastName();
+            firstNames[rowCount] = emp.getFirstName();
+            positions[rowCount] = emp.getPosition();
+            departments[rowCount] = emp.getDepartment();
+            hireDates[rowCount] = emp.getHireDate();
+            phones[rowCount] = emp.getPhoneNumber();
+            salaries[rowCount] = emp.getBasicSalary();
+            emails[rowCount] = null;
+            rowCount++;
+        }
+        fireTableRowsInserted(first, rowCount - 1);
+    }
+
+    /**
+     * Remove all rows, keeping the arrays for the next load
+     */
+    public void clear() {
+        if (rowCount == 0) {
+            return;
+        }
+
+        int last = rowCount - 1;
+        // Drop string references so removed employees can be collected
+        Arrays.fill(lastNames, 0, rowCount, null);
+        Arrays.fill(firstNames, 0, rowCount, null);
+        Arrays.fill(positions, 0, rowCount, null);
+        Arrays.fill(departments, 0, rowCount, null);
+        Arrays.fill(hireDates, 0, rowCount, null);
+        Arrays.fill(phones, 0, rowCount, null);
+        Arrays.fill(emails, 0, rowCount, null);
+        rowCount = 0;
+        fireTableRowsDeleted(0, last);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= ids.length) {
+            return;
+        }
+
+        int newCapacity = Math.max(capacity, ids.length * 2);
+        ids = Arrays.copyOf(ids, newCapacity);
+        lastNames = Arrays.copyOf(lastNames, newCapacity);
+        firstNames = Arrays.copyOf(firstNames, newCapacity);
+        positions = Arrays.copyOf(positions, newCapacity);
+        departments = Arrays.copyOf(departments, newCapacity);
+        hireDates = Arrays.copyOf(hireDates, newCapacity);
+        phones = Arrays.copyOf(phones, newCapacity);
+        salaries = Arrays.copyOf(salaries, newCapacity);
+        emails = Arrays.copyOf(emails, newCapacity);
+    }
+}
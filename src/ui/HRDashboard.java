@@ -5,6 +5,8 @@ import dao.AttendanceDAO;
 import model.Employee;
 import model.Attendance;
 import model.Payroll;
+import service.EmployeeSearchIndex;
+import service.PayrollBatchService;
 import service.PayrollCalculator;
 import ui.LoginForm;
 import ui.EmployeeDetailsDialog;
@@ -15,23 +17,30 @@ import ui.ReportsDialog;
 import ui.PayrollDetailsDialog;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import javax.swing.table.DefaultTableCellRenderer;
 import javax.swing.table.TableRowSorter;
 import javax.swing.border.AbstractBorder;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.ActionEvent;
 import java.awt.image.BufferedImage;
+import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Comparator;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 public class HRDashboard extends JFrame {
+    private static final Logger LOGGER = Logger.getLogger(HRDashboard.class.getName());
+
     private Employee currentUser;
     private JPanel mainContentPanel;
     private JPanel sidebarPanel;
@@ -53,11 +62,10 @@ public class HRDashboard extends JFrame {
 
     // Dashboard Components
     private JTable employeeTable;
-    private DefaultTableModel employeeTableModel;
-    private TableRowSorter<DefaultTableModel> tableSorter;
+    private EmployeeTableModel employeeTableModel;
+    private TableRowSorter<EmployeeTableModel> tableSorter;
     private JTextField searchField;
     private JLabel totalEmployeesLabel;
-    private JLabel newEmployeesLabel;
     private JLabel attendanceRateLabel;
     private JLabel currentDateTimeLabel;
 
@@ -65,11 +73,22 @@ public class HRDashboard extends JFrame {
     private EmployeeDAO employeeDAO;
     private AttendanceDAO attendanceDAO;
     private PayrollCalculator payrollCalculator;
+    private PayrollBatchService payrollBatchService;
+    private EmployeeSearchIndex searchIndex;
 
     // Timer for real-time updates
     private Timer dateTimeTimer;
     private Timer metricsTimer;
 
+    // Search-as-you-type waits for a short pause in typing
+    private static final int SEARCH_DELAY_MS = 150;
+    private Timer searchDelayTimer;
+
+    // Background loading; overlapping refreshes collapse into one follow-up run
+    private String requestedSearchTerm = "";
+    private final CoalescingRefresher tableRefresher = new CoalescingRefresher(() -> new EmployeeTableWorker(requestedSearchTerm));
+    private final CoalescingRefresher metricsRefresher = new CoalescingRefresher(MetricsWorker::new);
+
     public HRDashboard(Employee user) {
         this.currentUser = user;
 
@@ -80,6 +99,8 @@ public class HRDashboard extends JFrame {
             this.employeeDAO = new EmployeeDAO();
             this.attendanceDAO = new AttendanceDAO();
             this.payrollCalculator = new PayrollCalculator();
+            this.payrollBatchService = new PayrollBatchService(payrollCalculator);
+            this.searchIndex = EmployeeSearchIndex.getInstance();
 
             initializeComponents();
             setupLayout();
@@ -90,8 +111,7 @@ public class HRDashboard extends JFrame {
             System.out.println("✅ Comprehensive HR Dashboard initialized for: " + user.getFullName());
 
         } catch (Exception e) {
-            System.err.println("❌ HR Dashboard initialization failed: " + e.getMessage());
-            e.printStackTrace();
+            LOGGER.log(Level.SEVERE, "❌ HR Dashboard initialization failed", e);
             createErrorInterface(e);
         }
 
@@ -173,18 +193,11 @@ public class HRDashboard extends JFrame {
 
         // Initialize dashboard metrics labels
         totalEmployeesLabel = new JLabel("0");
-        newEmployeesLabel = new JLabel("+0");
         attendanceRateLabel = new JLabel("0%");
         currentDateTimeLabel = new JLabel();
 
         // Initialize employee table for dashboard
-        String[] columns = {"ID", "Last Name", "First Name", "Position", "Department", "Email", "Phone", "Hire Date", "Salary"};
-        employeeTableModel = new DefaultTableModel(columns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        employeeTableModel = new EmployeeTableModel();
 
         employeeTable = new JTable(employeeTableModel);
         setupTableStyling(employeeTable);
@@ -376,7 +389,7 @@ public class HRDashboard extends JFrame {
         dateTimeCard.add(currentDateTimeLabel, BorderLayout.SOUTH);
 
         // Metrics cards
-        JPanel metricsPanel = new JPanel(new GridLayout(1, 3, 20, 0));
+        JPanel metricsPanel = new JPanel(new GridLayout(1, 2, 20, 0));
         metricsPanel.setBackground(BACKGROUND_LIGHT);
 
         JPanel totalEmployeesCard = createMetricCard("👥 Total Employees", "", ACCENT_BLUE);
@@ -384,18 +397,12 @@ public class HRDashboard extends JFrame {
         totalEmployeesLabel.setForeground(Color.WHITE);
         totalEmployeesCard.add(totalEmployeesLabel, BorderLayout.CENTER);
 
-        JPanel newEmployeesCard = createMetricCard("🆕 New Employees", "", SUCCESS_GREEN);
-        newEmployeesLabel.setFont(new Font("Segoe UI", Font.BOLD, 28));
-        newEmployeesLabel.setForeground(Color.WHITE);
-        newEmployeesCard.add(newEmployeesLabel, BorderLayout.CENTER);
-
         JPanel attendanceCard = createMetricCard("📈 Attendance Rate", "", WARNING_ORANGE);
         attendanceRateLabel.setFont(new Font("Segoe UI", Font.BOLD, 28));
         attendanceRateLabel.setForeground(Color.WHITE);
         attendanceCard.add(attendanceRateLabel, BorderLayout.CENTER);
 
         metricsPanel.add(totalEmployeesCard);
-        metricsPanel.add(newEmployeesCard);
         metricsPanel.add(attendanceCard);
 
         topSection.add(dateTimeCard, BorderLayout.WEST);
@@ -612,11 +619,73 @@ public class HRDashboard extends JFrame {
         title.setForeground(TEXT_PRIMARY);
 
         panel.add(title, BorderLayout.NORTH);
-        // Add payroll management content here
+
+        YearMonth month = YearMonth.now();
+        JButton runButton = createModernButton("▶ Run Payroll for " +
+                month.format(DateTimeFormatter.ofPattern("MMMM yyyy")), PRIMARY_PURPLE);
+        JLabel runStatusLabel = new JLabel("Recalculates employees whose attendance, overtime or leave changed since the last run");
+        runStatusLabel.setFont(new Font("Segoe UI", Font.PLAIN, 13));
+        runStatusLabel.setForeground(TEXT_SECONDARY);
+        runButton.addActionListener(e -> {
+            runButton.setEnabled(false);
+            runStatusLabel.setText("⏳ Running payroll...");
+            new PayrollRunWorker(month.atDay(1), month.atEndOfMonth(), runButton, runStatusLabel).execute();
+        });
+
+        JPanel runPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 20));
+        runPanel.setOpaque(false);
+        runPanel.add(runButton);
+        runPanel.add(runStatusLabel);
+        panel.add(runPanel, BorderLayout.CENTER);
 
         return panel;
     }
 
+    /**
+     * Runs payroll for a period off the EDT; only changed employees are recalculated and saved
+     */
+    private class PayrollRunWorker extends SwingWorker<PayrollBatchService.BatchResult, Void> {
+        private final LocalDate periodStart;
+        private final LocalDate periodEnd;
+        private final JButton runButton;
+        private final JLabel statusLabel;
+
+        PayrollRunWorker(LocalDate periodStart, LocalDate periodEnd, JButton runButton, JLabel statusLabel) {
+            this.periodStart = periodStart;
+            this.periodEnd = periodEnd;
+            this.runButton = runButton;
+            this.statusLabel = statusLabel;
+        }
+
+        @Override
+        protected PayrollBatchService.BatchResult doInBackground() {
+            return payrollBatchService.runPeriod(periodStart, periodEnd);
+        }
+
+        @Override
+        protected void done() {
+            runButton.setEnabled(true);
+            try {
+                PayrollBatchService.BatchResult result = get();
+                if (result.hasFailures()) {
+                    statusLabel.setText(String.format("⚠️ %d payrolls saved, %d failed (see log)",
+                            result.getSuccessCount(), result.getFailureCount()));
+                } else if (result.getSuccessCount() == 0) {
+                    statusLabel.setText("✅ Payroll is up to date, nothing changed since the last run");
+                } else {
+                    statusLabel.setText(String.format("✅ %d payrolls recalculated and saved", result.getSuccessCount()));
+                }
+            } catch (Exception e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                LOGGER.log(Level.SEVERE, "Payroll run failed for " + periodStart + " to " + periodEnd, cause);
+                statusLabel.setText("❌ Payroll run failed");
+                JOptionPane.showMessageDialog(HRDashboard.this,
+                        "<html><center><h3>❌ Payroll Run Error</h3><p>" + cause.getMessage() + "</p></center></html>",
+                        "Error", JOptionPane.ERROR_MESSAGE);
+            }
+        }
+    }
+
     private JPanel createAttendanceView() {
         JPanel panel = new JPanel(new BorderLayout());
         panel.setBackground(BACKGROUND_LIGHT);
@@ -653,25 +722,77 @@ public class HRDashboard extends JFrame {
     }
 
     private void updateMetrics() {
-        try {
-            List<Employee> allEmployees = employeeDAO.getAllEmployees();
-            totalEmployeesLabel.setText(String.valueOf(allEmployees.size()));
+        metricsRefresher.request();
+    }
 
-            // Calculate new employees - simplified since getHireDate might not exist
-            // For now, show a placeholder value
-            newEmployeesLabel.setText("+2");
+    /**
+     * Reads the metrics in the background; labels keep their old values until it finishes.
+     * The attendance rate is days present this month over employees times weekdays so far.
+     */
+    private class MetricsWorker extends SwingWorker<DashboardMetrics, Void> {
+        @Override
+        protected DashboardMetrics doInBackground() {
+            int employeeCount = employeeDAO.getEmployeeCount();
+
+            LocalDate today = LocalDate.now();
+            long daysPresent = 0;
+            for (AttendanceDAO.MonthlySummary summary : attendanceDAO.getMonthlySummaries(today).values()) {
+                daysPresent += summary.getDaysPresent();
+            }
+            long expectedDays = (long) employeeCount * countWeekdays(today.withDayOfMonth(1), today);
+            // No rate when there is nothing to measure yet, e.g. on a weekend at the start of the month
+            Double attendanceRate = expectedDays > 0 ? Math.min(1.0, (double) daysPresent / expectedDays) : null;
+            return new DashboardMetrics(employeeCount, attendanceRate);
+        }
 
-            // Calculate attendance rate (placeholder - implement based on your logic)
-            attendanceRateLabel.setText("96.8%");
+        @Override
+        protected void done() {
+            try {
+                DashboardMetrics metrics = get();
+                totalEmployeesLabel.setText(String.valueOf(metrics.employeeCount));
+                attendanceRateLabel.setText(metrics.attendanceRate != null
+                        ? String.format("%.1f%%", metrics.attendanceRate * 100) : "N/A");
+            } catch (Exception e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                LOGGER.log(Level.SEVERE, "Error loading dashboard metrics", cause);
+            }
+        }
+    }
 
-        } catch (Exception e) {
-            e.printStackTrace();
+    private static final class DashboardMetrics {
+        final int employeeCount;
+        final Double attendanceRate;
+
+        DashboardMetrics(int employeeCount, Double attendanceRate) {
+            this.employeeCount = employeeCount;
+            this.attendanceRate = attendanceRate;
+        }
+    }
+
+    private static int countWeekdays(LocalDate from, LocalDate to) {
+        int weekdays = 0;
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            if (day.getDayOfWeek() != DayOfWeek.SATURDAY && day.getDayOfWeek() != DayOfWeek.SUNDAY) {
+                weekdays++;
+            }
         }
+        return weekdays;
     }
 
     private void setupEventHandlers() {
         searchField.addActionListener(e -> searchEmployees());
 
+        searchDelayTimer = new Timer(SEARCH_DELAY_MS, e -> searchEmployees());
+        searchDelayTimer.setRepeats(false);
+        searchField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) { searchDelayTimer.restart(); }
+            @Override
+            public void removeUpdate(DocumentEvent e) { searchDelayTimer.restart(); }
+            @Override
+            public void changedUpdate(DocumentEvent e) { searchDelayTimer.restart(); }
+        });
+
         employeeTable.addMouseListener(new MouseAdapter() {
             @Override
             public void mouseClicked(MouseEvent e) {
@@ -679,7 +800,7 @@ public class HRDashboard extends JFrame {
                     int row = employeeTable.getSelectedRow();
                     if (row >= 0) {
                         int modelRow = employeeTable.convertRowIndexToModel(row);
-                        int employeeId = (Integer) employeeTableModel.getValueAt(modelRow, 0);
+                        int employeeId = employeeTableModel.getEmployeeId(modelRow);
                         Employee employee = employeeDAO.getEmployeeById(employeeId);
                         if (employee != null) {
                             showEmployeeDetails(employee);
@@ -696,66 +817,73 @@ public class HRDashboard extends JFrame {
     }
 
     private void loadEmployeeData() {
-        employeeTableModel.setRowCount(0);
+        requestedSearchTerm = "";
+        tableRefresher.request();
+    }
 
-        try {
-            List<Employee> employees = employeeDAO.getAllEmployees();
+    private void searchEmployees() {
+        requestedSearchTerm = searchField.getText().trim();
+        tableRefresher.request();
+    }
 
-            for (Employee emp : employees) {
-                Object[] row = {
-                        emp.getEmployeeId(),
-                        emp.getLastName(),
-                        emp.getFirstName(),
-                        emp.getPosition(),
-                        "HR", // Department placeholder since getDepartment() doesn't exist
-                        emp.getEmployeeId() + "@motorphilippines.com", // Email placeholder
-                        emp.getPhoneNumber() != null ? emp.getPhoneNumber() : "Not provided",
-                        "Jan 15, 2024", // Hire date placeholder since getHireDate() doesn't exist
-                        String.format("₱%,.2f", emp.getBasicSalary())
-                };
-                employeeTableModel.addRow(row);
+    /**
+     * Loads all employees (blank search term) or search results off the EDT.
+     * The current rows stay on screen until the first new rows are ready,
+     * then rows are published in batches so a large workforce does not
+     * block painting while the table fills.
+     */
+    private class EmployeeTableWorker extends SwingWorker<Integer, Employee> {
+        private final String searchTerm;
+        private boolean tableCleared = false;
+
+        EmployeeTableWorker(String searchTerm) {
+            this.searchTerm = searchTerm;
+        }
+
+        @Override
+        protected Integer doInBackground() {
+            List<Employee> employees;
+            if (searchTerm.isEmpty()) {
+                employees = employeeDAO.getAllEmployees();
+                searchIndex.rebuild(employees);
+            } else {
+                employees = searchIndex.search(searchTerm);
             }
 
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(this, 
-                    "<html><center><h3>❌ Data Loading Error</h3><p>Error loading employee data: " + e.getMessage() + "</p></center></html>",
-                    "Error", JOptionPane.ERROR_MESSAGE);
-            e.printStackTrace();
+            for (Employee emp : employees) {
+                publish(emp);
+            }
+            return employees.size();
         }
-    }
 
-    private void searchEmployees() {
-        String searchTerm = searchField.getText().trim();
-        if (searchTerm.isEmpty()) {
-            loadEmployeeData();
-            return;
+        @Override
+        protected void process(List<Employee> employees) {
+            clearTableOnce();
+            employeeTableModel.addEmployees(employees);
         }
 
-        employeeTableModel.setRowCount(0);
-
-        try {
-            List<Employee> employees = employeeDAO.searchEmployees(searchTerm);
-
-            for (Employee emp : employees) {
-                Object[] row = {
-                        emp.getEmployeeId(),
-                        emp.getLastName(),
-                        emp.getFirstName(),
-                        emp.getPosition(),
-                        "HR", // Department placeholder
-                        emp.getEmployeeId() + "@motorphilippines.com", // Email placeholder
-                        emp.getPhoneNumber() != null ? emp.getPhoneNumber() : "Not provided",
-                        "Jan 15, 2024", // Hire date placeholder
-                        String.format("₱%,.2f", emp.getBasicSalary())
-                };
-                employeeTableModel.addRow(row);
+        @Override
+        protected void done() {
+            try {
+                if (get() == 0) {
+                    clearTableOnce();
+                }
+            } catch (Exception e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                String title = searchTerm.isEmpty() ? "Data Loading Error" : "Search Error";
+                String message = searchTerm.isEmpty() ? "Error loading employee data: " : "Error searching employees: ";
+                JOptionPane.showMessageDialog(HRDashboard.this,
+                        "<html><center><h3>❌ " + title + "</h3><p>" + message + cause.getMessage() + "</p></center></html>",
+                        "Error", JOptionPane.ERROR_MESSAGE);
+                LOGGER.log(Level.SEVERE, message.trim(), cause);
             }
+        }
 
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(this, 
-                    "<html><center><h3>❌ Search Error</h3><p>Error searching employees: " + e.getMessage() + "</p></center></html>",
-                    "Error", JOptionPane.ERROR_MESSAGE);
-            e.printStackTrace();
+        private void clearTableOnce() {
+            if (!tableCleared) {
+                tableCleared = true;
+                employeeTableModel.clear();
+            }
         }
     }
 
@@ -793,7 +921,7 @@ public class HRDashboard extends JFrame {
             JOptionPane.showMessageDialog(this, 
                     "<html><center><h3>❌ System Error</h3><p>Unable to open leave management: " + e.getMessage() + "</p></center></html>",
                     "Error", JOptionPane.ERROR_MESSAGE);
-            e.printStackTrace();
+            LOGGER.log(Level.SEVERE, "Unable to open leave management", e);
         }
     }
 
@@ -805,7 +933,7 @@ public class HRDashboard extends JFrame {
             JOptionPane.showMessageDialog(this, 
                     "<html><center><h3>❌ System Error</h3><p>Unable to open reports: " + e.getMessage() + "</p></center></html>",
                     "Error", JOptionPane.ERROR_MESSAGE);
-            e.printStackTrace();
+            LOGGER.log(Level.SEVERE, "Unable to open reports", e);
         }
     }
 
@@ -957,7 +1085,7 @@ public class HRDashboard extends JFrame {
                         "<p>Error removing employee: " + e.getMessage() + "</p>" +
                         "</center></html>",
                         "Error", JOptionPane.ERROR_MESSAGE);
-                e.printStackTrace();
+                LOGGER.log(Level.SEVERE, "Error removing employee", e);
             }
         }
     }
@@ -977,8 +1105,8 @@ public class HRDashboard extends JFrame {
             employeeTable.getColumnModel().getColumn(8).setPreferredWidth(120); // Salary
         }
 
-        // Add alternating row colors for better readability
-        employeeTable.setDefaultRenderer(Object.class, new DefaultTableCellRenderer() {
+        // Add alternating row colors for better readability; numbers are formatted as they are painted
+        DefaultTableCellRenderer renderer = new DefaultTableCellRenderer() {
             @Override
             public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected,
                                                            boolean hasFocus, int row, int column) {
@@ -988,13 +1116,21 @@ public class HRDashboard extends JFrame {
                     if (row % 2 == 0) {
                         c.setBackground(CARD_WHITE);
                     } else {
-                        c.setBackground(new Color(248, 250, 252));
+                        c.setBackground(BACKGROUND_LIGHT);
                     }
                 }
                 
                 return c;
             }
-        });
+
+            @Override
+            protected void setValue(Object value) {
+                super.setValue(value instanceof Double ? TableFormats.peso((Double) value) : value);
+            }
+        };
+        employeeTable.setDefaultRenderer(Object.class, renderer);
+        employeeTable.setDefaultRenderer(Number.class, renderer);
+        employeeTable.setDefaultRenderer(Double.class, renderer);
     }
 
     // Create notification system for real-time updates
@@ -1093,7 +1229,7 @@ public class HRDashboard extends JFrame {
                 dashboard.setVisible(true);
                 
             } catch (Exception e) {
-                e.printStackTrace();
+                LOGGER.log(Level.SEVERE, "Error starting HR Dashboard", e);
                 
                 JOptionPane.showMessageDialog(null,
                         "<html><center>" +
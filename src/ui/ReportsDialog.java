@@ -6,7 +6,15 @@ import dao.AttendanceDAO;
 import model.Employee;
 import model.Payroll;
 import model.Attendance;
+import service.PayrollBatchService;
+import service.JasperReportService;
 import service.PayrollCalculator;
+import service.PayslipArchiveService;
+import service.ReportGenerator;
+import service.ReportJob;
+import service.ReportJobQueue;
+import util.ExportFiles;
+import util.Money;
 
 import javax.swing.*;
 import java.awt.*;
@@ -15,25 +23,48 @@ import java.awt.event.ActionListener;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.io.File;
-import java.io.PrintWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 public class ReportsDialog extends JDialog {
+    // Names in report_templates, recorded with each report job
+    private static final String TEMPLATE_PAYROLL = "MotorPH Monthly Payroll Report";
+    private static final String TEMPLATE_ATTENDANCE = "MotorPH Attendance Report";
+    private static final String TEMPLATE_DIRECTORY = "MotorPH Employee Directory";
+    private static final String TEMPLATE_CONTRIBUTIONS = "MotorPH Government Contributions";
+    private static final String TEMPLATE_PAYSLIP_ARCHIVE = "MotorPH Payslip Archive";
+    private static final String TEMPLATE_PAYROLL_HISTORY = "MotorPH Payroll History";
+
     private Employee currentUser;
     private EmployeeDAO employeeDAO;
     private PayrollDAO payrollDAO;
     private AttendanceDAO attendanceDAO;
     private PayrollCalculator payrollCalculator;
+    private PayrollBatchService payrollBatchService;
+    private PayslipArchiveService payslipArchiveService;
+    private ReportGenerator reportGenerator;
+    private ReportJobQueue reportJobQueue;
 
     private JComboBox<String> reportTypeComboBox;
     private JComboBox<String> monthComboBox;
     private JComboBox<String> yearComboBox;
     private JComboBox<String> formatComboBox;
     private JButton generateButton;
+    private JButton payslipArchiveButton;
     private JButton closeButton;
     private JTextArea previewArea;
+    private JLabel jobStatusLabel;
 
     // Employee Directory specific controls
     private JPanel directoryOptionsPanel;
@@ -49,6 +80,10 @@ public class ReportsDialog extends JDialog {
         this.payrollDAO = new PayrollDAO();
         this.attendanceDAO = new AttendanceDAO();
         this.payrollCalculator = new PayrollCalculator();
+        this.payrollBatchService = new PayrollBatchService(payrollCalculator);
+        this.payslipArchiveService = new PayslipArchiveService(new JasperReportService(), payrollBatchService);
+        this.reportGenerator = new ReportGenerator(payrollCalculator);
+        this.reportJobQueue = ReportJobQueue.getInstance();
 
         initializeComponents();
         setupLayout();
@@ -64,7 +99,8 @@ public class ReportsDialog extends JDialog {
                 "Monthly Payroll Report",
                 "Employee Directory Report",
                 "Attendance Summary Report",
-                "Government Contributions Report"
+                "Government Contributions Report",
+                "Payroll History Report"
         };
         reportTypeComboBox = new JComboBox<>(reportTypes);
 
@@ -101,7 +137,9 @@ public class ReportsDialog extends JDialog {
 
         // Buttons
         generateButton = new JButton("Generate Report");
+        payslipArchiveButton = new JButton("Bulk Payslips (ZIP)");
         closeButton = new JButton("Close");
+        jobStatusLabel = new JLabel(" ");
 
         generateButton.setBackground(new Color(70, 130, 180));
         generateButton.setFont(new Font("Arial", Font.BOLD, 12));
@@ -167,7 +205,9 @@ public class ReportsDialog extends JDialog {
         // Buttons
         JPanel buttonPanel = new JPanel(new FlowLayout());
         buttonPanel.add(generateButton);
+        buttonPanel.add(payslipArchiveButton);
         buttonPanel.add(closeButton);
+        buttonPanel.add(jobStatusLabel);
 
         gbc.gridx = 0; gbc.gridy = 4;
         gbc.gridwidth = 4;
@@ -187,12 +227,13 @@ public class ReportsDialog extends JDialog {
         reportTypeComboBox.addActionListener(e -> {
             String selectedType = (String) reportTypeComboBox.getSelectedItem();
             boolean isEmployeeDirectory = "Employee Directory Report".equals(selectedType);
+            boolean isPayrollHistory = "Payroll History Report".equals(selectedType);
 
             // Show/hide directory options
             directoryOptionsPanel.setVisible(isEmployeeDirectory);
 
             // Show/hide month/year selectors for reports that don't need them
-            monthComboBox.setEnabled(!isEmployeeDirectory);
+            monthComboBox.setEnabled(!isEmployeeDirectory && !isPayrollHistory);
             yearComboBox.setEnabled(!isEmployeeDirectory);
 
             revalidate();
@@ -206,6 +247,8 @@ public class ReportsDialog extends JDialog {
             }
         });
 
+        payslipArchiveButton.addActionListener(e -> generatePayslipArchive());
+
         closeButton.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
@@ -214,26 +257,158 @@ public class ReportsDialog extends JDialog {
         });
     }
 
+    /**
+     * Every employee's payslip for the selected month, rendered in the
+     * background into one ZIP or one ZIP per department
+     */
+    private void generatePayslipArchive() {
+        int selectedMonth = monthComboBox.getSelectedIndex() + 1;
+        int selectedYear = Integer.parseInt((String) yearComboBox.getSelectedItem());
+        LocalDate periodStart = LocalDate.of(selectedYear, selectedMonth, 1);
+        LocalDate periodEnd = periodStart.withDayOfMonth(periodStart.lengthOfMonth());
+        String period = periodStart.format(DateTimeFormatter.ofPattern("yyyy_MM"));
+
+        Object[] groupings = {"Single ZIP", "One ZIP per Department", "Cancel"};
+        int choice = JOptionPane.showOptionDialog(this,
+                "Generate payslips for every employee for " + periodStart.format(DateTimeFormatter.ofPattern("MMMM yyyy")) + ".",
+                "Bulk Payslips", JOptionPane.YES_NO_CANCEL_OPTION, JOptionPane.QUESTION_MESSAGE,
+                null, groupings, groupings[0]);
+        if (choice != 0 && choice != 1) {
+            return;
+        }
+        PayslipArchiveService.Grouping grouping = choice == 0
+                ? PayslipArchiveService.Grouping.SINGLE : PayslipArchiveService.Grouping.BY_DEPARTMENT;
+
+        JFileChooser fileChooser = new JFileChooser();
+        if (grouping == PayslipArchiveService.Grouping.SINGLE) {
+            fileChooser.setDialogTitle("Save Payslip Archive");
+            fileChooser.setSelectedFile(new File("Payslips_" + period + ".zip"));
+        } else {
+            fileChooser.setDialogTitle("Choose Folder for Department Archives");
+            fileChooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
+        }
+        if (fileChooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        Path target = fileChooser.getSelectedFile().toPath();
+        if (grouping == PayslipArchiveService.Grouping.SINGLE && !target.toString().toLowerCase().endsWith(".zip")) {
+            target = Paths.get(target + ".zip");
+        }
+        Path archiveTarget = target;
+
+        JProgressBar progressBar = new JProgressBar(0, 100);
+        progressBar.setStringPainted(true);
+        progressBar.setString("Waiting in report queue...");
+        JButton cancelButton = new JButton("Cancel");
+        JDialog progressDialog = new JDialog(this, "Generating Payslips", false);
+        progressDialog.setLayout(new BorderLayout(10, 10));
+        progressDialog.add(progressBar, BorderLayout.CENTER);
+        progressDialog.add(cancelButton, BorderLayout.SOUTH);
+        progressDialog.setSize(420, 110);
+        progressDialog.setLocationRelativeTo(this);
+        payslipArchiveButton.setEnabled(false);
+
+        // Only the latest snapshot matters, so at most one update waits on the EDT
+        AtomicReference<PayslipArchiveService.Progress> latestProgress = new AtomicReference<>();
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        parameters.put("period", periodStart.toString());
+        parameters.put("grouping", grouping.name());
+
+        ReportJob<PayslipArchiveService.ArchiveResult> job = reportJobQueue.submit(TEMPLATE_PAYSLIP_ARCHIVE,
+                currentUser.getEmployeeId(), parameters, ReportJob.Priority.LOW, running -> {
+                    SwingUtilities.invokeLater(() -> progressBar.setString("Calculating payroll..."));
+                    running.setOutputFile(archiveTarget);
+                    return payslipArchiveService.archivePeriod(periodStart, periodEnd, grouping, archiveTarget, progress -> {
+                        if (latestProgress.getAndSet(progress) == null) {
+                            SwingUtilities.invokeLater(() -> showArchiveProgress(progressBar, latestProgress.getAndSet(null)));
+                        }
+                    });
+                });
+
+        watchJob(job, result -> {
+            StringBuilder message = new StringBuilder();
+            message.append(String.format("%d payslips written to %d archive(s) in %.1f s (%.0f payslips/s).",
+                    result.getPayslipCount(), result.getArchives().size(),
+                    result.getElapsedMillis() / 1000.0, result.getPayslipsPerSecond()));
+            message.append("\n\nLocation: ").append(archiveTarget.toAbsolutePath());
+            if (result.hasFailures()) {
+                message.append("\n\n").append(result.getFailureCount())
+                        .append(" payslip(s) failed, employee IDs: ").append(result.getFailures().keySet());
+            }
+            JOptionPane.showMessageDialog(ReportsDialog.this, message.toString(), "Bulk Payslips",
+                    result.hasFailures() ? JOptionPane.WARNING_MESSAGE : JOptionPane.INFORMATION_MESSAGE);
+        });
+        job.getResult().whenComplete((result, error) -> SwingUtilities.invokeLater(() -> {
+            progressDialog.dispose();
+            payslipArchiveButton.setEnabled(true);
+        }));
+
+        cancelButton.addActionListener(e -> job.cancel());
+        progressDialog.setVisible(true);
+    }
+
+    private void showArchiveProgress(JProgressBar progressBar, PayslipArchiveService.Progress progress) {
+        if (progress == null) {
+            return;
+        }
+        progressBar.setValue(progress.getPercent());
+        long remainingSeconds = Math.max(0, progress.getRemainingMillis() / 1000);
+        progressBar.setString(String.format("%d / %d payslips  (%.0f/s, %d:%02d left)",
+                progress.getDone(), progress.getTotal(), progress.getPayslipsPerSecond(),
+                remainingSeconds / 60, remainingSeconds % 60));
+    }
+
+    /**
+     * Show a job's progress in the status line, and hand its result to the
+     * EDT when it succeeds. Failures are reported; cancellation is silent.
+     */
+    private <T> void watchJob(ReportJob<T> job, Consumer<T> onSuccess) {
+        job.addListener(updated -> SwingUtilities.invokeLater(() -> showJobStatus(updated)));
+        job.getResult().whenComplete((value, error) -> SwingUtilities.invokeLater(() -> {
+            if (error == null) {
+                onSuccess.accept(value);
+            } else if (!(error instanceof CancellationException)) {
+                JOptionPane.showMessageDialog(this, "Error generating report: " + error.getMessage(),
+                        "Error", JOptionPane.ERROR_MESSAGE);
+            }
+        }));
+    }
+
+    private void showJobStatus(ReportJob<?> job) {
+        int active = reportJobQueue.getActiveJobCount();
+        String text = job.getTemplateName().replace("MotorPH ", "") + ": " + job.getStatus().getDisplayName();
+        jobStatusLabel.setText(active > 0 ? text + "  (" + active + " in queue)" : text);
+    }
+
     private void generateReport() {
         try {
-            generateButton.setEnabled(false);
-            generateButton.setText("Generating...");
-
             String reportType = (String) reportTypeComboBox.getSelectedItem();
             String format = (String) formatComboBox.getSelectedItem();
+            int selectedMonth = monthComboBox.getSelectedIndex() + 1;
+            int selectedYear = Integer.parseInt((String) yearComboBox.getSelectedItem());
+            LocalDate periodStart = LocalDate.of(selectedYear, selectedMonth, 1);
+            LocalDate periodEnd = periodStart.withDayOfMonth(periodStart.lengthOfMonth());
+            String period = selectedMonth + "_" + selectedYear;
 
+            // Reports run in the background report queue, so the dialog stays usable meanwhile
             switch (reportType) {
                 case "Monthly Payroll Report":
-                    generatePayrollReport(format);
+                    submitTextReport(TEMPLATE_PAYROLL, "Payroll_Report_" + period, format, periodStart,
+                            () -> buildPayrollReport(periodStart, periodEnd));
                     break;
                 case "Employee Directory Report":
                     generateEmployeeDirectoryReport(format);
                     break;
                 case "Government Contributions Report":
-                    generateGovernmentContributionsReport(format);
+                    submitTextReport(TEMPLATE_CONTRIBUTIONS, "Government_Contributions_" + period, format, periodStart,
+                            () -> buildGovernmentContributionsReport(periodStart, periodEnd));
                     break;
                 case "Attendance Summary Report":
-                    generateAttendanceReport(format);
+                    submitTextReport(TEMPLATE_ATTENDANCE, "Attendance_Summary_" + period, format, periodStart,
+                            () -> buildAttendanceReport(periodStart, periodEnd));
+                    break;
+                case "Payroll History Report":
+                    exportPayrollHistory(format, selectedYear);
                     break;
                 default:
                     JOptionPane.showMessageDialog(this, "Selected report type not yet implemented.",
@@ -245,19 +420,51 @@ public class ReportsDialog extends JDialog {
             JOptionPane.showMessageDialog(this, "Error generating report: " + e.getMessage(),
                     "Error", JOptionPane.ERROR_MESSAGE);
             e.printStackTrace();
-        } finally {
-            generateButton.setEnabled(true);
-            generateButton.setText("Generate Report");
         }
     }
 
-    private void generatePayrollReport(String format) {
-        try {
-            int selectedMonth = monthComboBox.getSelectedIndex() + 1;
-            int selectedYear = Integer.parseInt((String) yearComboBox.getSelectedItem());
-            LocalDate periodStart = LocalDate.of(selectedYear, selectedMonth, 1);
-            LocalDate periodEnd = periodStart.withDayOfMonth(periodStart.lengthOfMonth());
+    /**
+     * Queue a text report. A preview is shown when it is ready; an export is
+     * written to a file chosen before the job is queued.
+     */
+    private void submitTextReport(String templateName, String baseFileName, String format,
+                                  LocalDate periodStart, Callable<String> builder) {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        parameters.put("period", periodStart.toString());
+        parameters.put("format", format);
+
+        if ("Preview Only".equals(format)) {
+            previewArea.setText("Generating report...");
+            ReportJob<String> job = reportJobQueue.submit(templateName, currentUser.getEmployeeId(), parameters,
+                    ReportJob.Priority.HIGH, running -> builder.call());
+            watchJob(job, report -> {
+                previewArea.setText(report);
+                previewArea.setCaretPosition(0);
+            });
+            return;
+        }
+
+        String extension = exportExtension(format);
+        File fileToSave = chooseExportFile("Save Report", baseFileName + "." + extension);
+        if (fileToSave == null) {
+            return;
+        }
 
+        ReportJob<File> job = reportJobQueue.submit(templateName, currentUser.getEmployeeId(), parameters,
+                ReportJob.Priority.NORMAL, running -> {
+                    running.setOutputFile(fileToSave.toPath());
+                    writeTextReport(builder.call(), baseFileName, extension, fileToSave);
+                    return fileToSave;
+                });
+        watchJob(job, file -> JOptionPane.showMessageDialog(this,
+                "Report exported successfully to:\n" + file.getAbsolutePath(),
+                "Export Successful", JOptionPane.INFORMATION_MESSAGE));
+    }
+
+    private String buildPayrollReport(LocalDate periodStart, LocalDate periodEnd) {
+        try {
+            // Saved payroll where it is current, the rest calculated in parallel; cached per period
+            Map<Integer, Payroll> payrolls = payrollBatchService.getPeriodPayrolls(periodStart, periodEnd);
             List<Employee> employees = employeeDAO.getAllEmployees();
             StringBuilder report = new StringBuilder();
 
@@ -272,19 +479,18 @@ public class ReportsDialog extends JDialog {
                     "ID", "Name", "Basic Pay", "Allowances", "Deductions", "Net Pay"));
             report.append("-".repeat(80)).append("\n");
 
-            double totalGross = 0, totalDeductions = 0, totalNet = 0;
+            // Totals in centavos, exact to the last row
+            long totalGross = 0, totalDeductions = 0, totalNet = 0;
 
             for (Employee emp : employees) {
-                try {
-                    Payroll payroll = payrollCalculator.calculatePayroll(emp.getEmployeeId(), periodStart, periodEnd);
-
-                    double grossPay = payroll.getGrossPay();
+                Payroll payroll = payrolls.get(emp.getEmployeeId());
+                if (payroll != null) {
                     double deductions = payroll.getTotalDeductions();
                     double netPay = payroll.getNetPay();
 
-                    totalGross += grossPay;
-                    totalDeductions += deductions;
-                    totalNet += netPay;
+                    totalGross += payroll.getGrossPayCentavos();
+                    totalDeductions += payroll.getTotalDeductionsCentavos();
+                    totalNet += payroll.getNetPayCentavos();
 
                     String name = emp.getFullName();
                     if (name.length() > 25) name = name.substring(0, 22) + "...";
@@ -293,7 +499,7 @@ public class ReportsDialog extends JDialog {
                             emp.getEmployeeId(), name, payroll.getGrossEarnings(),
                             payroll.getRiceSubsidy() + payroll.getPhoneAllowance() + payroll.getClothingAllowance(),
                             deductions, netPay));
-                } catch (Exception e) {
+                } else {
                     report.append(String.format("%-6d %-25s %-12s %-12s %-12s %-12s%n",
                             emp.getEmployeeId(), emp.getFullName(), "Error", "Error", "Error", "Error"));
                 }
@@ -301,13 +507,10 @@ public class ReportsDialog extends JDialog {
 
             report.append("-".repeat(80)).append("\n");
             report.append(String.format("%-31s ₱%-11.2f ₱%-11.2f ₱%-11.2f ₱%-11.2f%n",
-                    "TOTALS:", totalGross - totalDeductions, 0.0, totalDeductions, totalNet));
+                    "TOTALS:", Money.toPesos(totalGross - totalDeductions), 0.0,
+                    Money.toPesos(totalDeductions), Money.toPesos(totalNet)));
 
-            if ("Preview Only".equals(format)) {
-                previewArea.setText(report.toString());
-            } else {
-                exportTextReport(report.toString(), "Payroll_Report_" + selectedMonth + "_" + selectedYear, format);
-            }
+            return report.toString();
 
         } catch (Exception e) {
             throw new RuntimeException("Error generating payroll report: " + e.getMessage(), e);
@@ -316,32 +519,29 @@ public class ReportsDialog extends JDialog {
 
     private void generateEmployeeDirectoryReport(String format) {
         try {
-            List<Employee> employees = employeeDAO.getAllEmployees();
+            if ("Preview Only".equals(format)) {
+                List<Employee> employees = employeeDAO.getAllEmployees();
 
-            // Sort employees by last name, then first name
-            employees.sort((e1, e2) -> {
-                int lastNameCompare = e1.getLastName().compareToIgnoreCase(e2.getLastName());
-                if (lastNameCompare != 0) return lastNameCompare;
-                return e1.getFirstName().compareToIgnoreCase(e2.getFirstName());
-            });
+                // Sort employees by last name, then first name
+                employees.sort((e1, e2) -> {
+                    int lastNameCompare = e1.getLastName().compareToIgnoreCase(e2.getLastName());
+                    if (lastNameCompare != 0) return lastNameCompare;
+                    return e1.getFirstName().compareToIgnoreCase(e2.getFirstName());
+                });
 
-            if ("Preview Only".equals(format)) {
                 showEmployeeDirectoryPreview(employees);
             } else {
-                exportEmployeeDirectory(employees, format);
+                // Exports stream employees from the database in name order
+                exportEmployeeDirectory(format);
             }
         } catch (Exception e) {
             throw new RuntimeException("Error generating employee directory: " + e.getMessage(), e);
         }
     }
 
-    private void generateGovernmentContributionsReport(String format) {
+    private String buildGovernmentContributionsReport(LocalDate periodStart, LocalDate periodEnd) {
         try {
-            int selectedMonth = monthComboBox.getSelectedIndex() + 1;
-            int selectedYear = Integer.parseInt((String) yearComboBox.getSelectedItem());
-            LocalDate periodStart = LocalDate.of(selectedYear, selectedMonth, 1);
-            LocalDate periodEnd = periodStart.withDayOfMonth(periodStart.lengthOfMonth());
-
+            Map<Integer, Payroll> payrolls = payrollBatchService.getPeriodPayrolls(periodStart, periodEnd);
             List<Employee> employees = employeeDAO.getAllEmployees();
             StringBuilder report = new StringBuilder();
 
@@ -354,16 +554,15 @@ public class ReportsDialog extends JDialog {
                     "ID", "Name", "SSS", "PhilHealth", "Pag-IBIG", "Tax"));
             report.append("-".repeat(80)).append("\n");
 
-            double totalSSS = 0, totalPhilHealth = 0, totalPagIBIG = 0, totalTax = 0;
+            long totalSSS = 0, totalPhilHealth = 0, totalPagIBIG = 0, totalTax = 0;
 
             for (Employee emp : employees) {
-                try {
-                    Payroll payroll = payrollCalculator.calculatePayroll(emp.getEmployeeId(), periodStart, periodEnd);
-
-                    totalSSS += payroll.getSss();
-                    totalPhilHealth += payroll.getPhilhealth();
-                    totalPagIBIG += payroll.getPagibig();
-                    totalTax += payroll.getTax();
+                Payroll payroll = payrolls.get(emp.getEmployeeId());
+                if (payroll != null) {
+                    totalSSS += payroll.getSssCentavos();
+                    totalPhilHealth += payroll.getPhilhealthCentavos();
+                    totalPagIBIG += payroll.getPagibigCentavos();
+                    totalTax += payroll.getTaxCentavos();
 
                     String name = emp.getFullName();
                     if (name.length() > 20) name = name.substring(0, 17) + "...";
@@ -371,7 +570,7 @@ public class ReportsDialog extends JDialog {
                     report.append(String.format("%-6d %-20s ₱%-9.2f ₱%-11.2f ₱%-9.2f ₱%-9.2f%n",
                             emp.getEmployeeId(), name, payroll.getSss(), payroll.getPhilhealth(),
                             payroll.getPagibig(), payroll.getTax()));
-                } catch (Exception e) {
+                } else {
                     report.append(String.format("%-6d %-20s %-10s %-12s %-10s %-10s%n",
                             emp.getEmployeeId(), emp.getFullName(), "Error", "Error", "Error", "Error"));
                 }
@@ -379,27 +578,26 @@ public class ReportsDialog extends JDialog {
 
             report.append("-".repeat(80)).append("\n");
             report.append(String.format("%-26s ₱%-9.2f ₱%-11.2f ₱%-9.2f ₱%-9.2f%n",
-                    "TOTALS:", totalSSS, totalPhilHealth, totalPagIBIG, totalTax));
+                    "TOTALS:", Money.toPesos(totalSSS), Money.toPesos(totalPhilHealth),
+                    Money.toPesos(totalPagIBIG), Money.toPesos(totalTax)));
 
-            if ("Preview Only".equals(format)) {
-                previewArea.setText(report.toString());
-            } else {
-                exportTextReport(report.toString(), "Government_Contributions_" + selectedMonth + "_" + selectedYear, format);
-            }
+            return report.toString();
 
         } catch (Exception e) {
             throw new RuntimeException("Error generating government contributions report: " + e.getMessage(), e);
         }
     }
 
-    private void generateAttendanceReport(String format) {
+    private String buildAttendanceReport(LocalDate startDate, LocalDate endDate) {
         try {
-            int selectedMonth = monthComboBox.getSelectedIndex() + 1;
-            int selectedYear = Integer.parseInt((String) yearComboBox.getSelectedItem());
-            LocalDate startDate = LocalDate.of(selectedYear, selectedMonth, 1);
-            LocalDate endDate = startDate.withDayOfMonth(startDate.lengthOfMonth());
-
             List<Employee> employees = employeeDAO.getAllEmployees();
+            // Whole months come from the monthly summary table, one row per employee
+            boolean wholeMonth = startDate.getDayOfMonth() == 1
+                    && endDate.equals(startDate.withDayOfMonth(startDate.lengthOfMonth()));
+            Map<Integer, AttendanceDAO.MonthlySummary> summaries = wholeMonth
+                    ? attendanceDAO.getMonthlySummaries(startDate) : null;
+            Map<Integer, List<Attendance>> attendanceByEmployee = wholeMonth
+                    ? null : attendanceDAO.getAttendanceBetweenDatesGroupedByEmployee(startDate, endDate);
             StringBuilder report = new StringBuilder();
 
             report.append("ATTENDANCE SUMMARY REPORT\n");
@@ -417,43 +615,40 @@ public class ReportsDialog extends JDialog {
             double totalHours = 0;
 
             for (Employee emp : employees) {
-                try {
-                    List<Attendance> attendanceList = attendanceDAO.getAttendanceByEmployeeIdBetweenDates(
-                            emp.getEmployeeId(), startDate, endDate);
-
-                    int daysPresent = attendanceList.size();
-                    double empTotalHours = 0;
-
-                    for (Attendance att : attendanceList) {
+                int daysPresent = 0;
+                double empTotalHours = 0;
+
+                if (summaries != null) {
+                    AttendanceDAO.MonthlySummary summary = summaries.get(emp.getEmployeeId());
+                    if (summary != null) {
+                        daysPresent = summary.getDaysPresent();
+                        empTotalHours = summary.getTotalWorkHours();
+                    }
+                } else {
+                    for (Attendance att : attendanceByEmployee.getOrDefault(emp.getEmployeeId(), List.of())) {
+                        daysPresent++;
                         empTotalHours += att.getWorkHours();
                     }
+                }
 
-                    double avgHours = daysPresent > 0 ? empTotalHours / daysPresent : 0;
+                double avgHours = daysPresent > 0 ? empTotalHours / daysPresent : 0;
 
-                    totalEmployees++;
-                    totalDaysPresent += daysPresent;
-                    totalHours += empTotalHours;
+                totalEmployees++;
+                totalDaysPresent += daysPresent;
+                totalHours += empTotalHours;
 
-                    String name = emp.getFullName();
-                    if (name.length() > 25) name = name.substring(0, 22) + "...";
+                String name = emp.getFullName();
+                if (name.length() > 25) name = name.substring(0, 22) + "...";
 
-                    report.append(String.format("%-6d %-25s %-12d %-12.2f %-12.2f%n",
-                            emp.getEmployeeId(), name, daysPresent, empTotalHours, avgHours));
-                } catch (Exception e) {
-                    report.append(String.format("%-6d %-25s %-12s %-12s %-12s%n",
-                            emp.getEmployeeId(), emp.getFullName(), "Error", "Error", "Error"));
-                }
+                report.append(String.format("%-6d %-25s %-12d %-12.2f %-12.2f%n",
+                        emp.getEmployeeId(), name, daysPresent, empTotalHours, avgHours));
             }
 
             report.append("-".repeat(80)).append("\n");
             report.append(String.format("TOTALS: %d employees, %d total days present, %.2f total hours%n",
                     totalEmployees, totalDaysPresent, totalHours));
 
-            if ("Preview Only".equals(format)) {
-                previewArea.setText(report.toString());
-            } else {
-                exportTextReport(report.toString(), "Attendance_Summary_" + selectedMonth + "_" + selectedYear, format);
-            }
+            return report.toString();
 
         } catch (Exception e) {
             throw new RuntimeException("Error generating attendance report: " + e.getMessage(), e);
@@ -545,73 +740,120 @@ public class ReportsDialog extends JDialog {
         previewArea.setText(preview.toString());
     }
 
-    private void exportEmployeeDirectory(List<Employee> employees, String format) {
-        JFileChooser fileChooser = new JFileChooser();
-        fileChooser.setDialogTitle("Save Employee Directory");
-
-        String extension = format.toLowerCase().replace(" export", "");
+    private void exportEmployeeDirectory(String format) {
+        String extension = exportExtension(format);
         String fileName = "Employee_Directory_" + LocalDate.now().format(DateTimeFormatter.ofPattern("yyyy_MM_dd")) + "." + extension;
-        fileChooser.setSelectedFile(new File(fileName));
+        File fileToSave = chooseExportFile("Save Employee Directory", fileName);
+        if (fileToSave == null) {
+            return;
+        }
 
-        int userSelection = fileChooser.showSaveDialog(this);
-        if (userSelection == JFileChooser.APPROVE_OPTION) {
-            File fileToSave = fileChooser.getSelectedFile();
-
-            try {
-                if ("csv".equals(extension)) {
-                    exportEmployeeDirectoryToCSV(employees, fileToSave.getAbsolutePath());
-                } else if ("html".equals(extension)) {
-                    exportEmployeeDirectoryToHTML(employees, fileToSave.getAbsolutePath());
-                }
+        // Options are read here on the EDT; the export runs on a report worker
+        boolean contactInfo = includeContactInfoCheckBox.isSelected();
+        boolean jobInfo = includeJobInfoCheckBox.isSelected();
+        boolean personalInfo = includePersonalInfoCheckBox.isSelected();
+        boolean compensation = includeCompensationCheckBox.isSelected();
+
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        parameters.put("format", format);
+        parameters.put("contactInfo", contactInfo);
+        parameters.put("jobInfo", jobInfo);
+        parameters.put("personalInfo", personalInfo);
+        parameters.put("compensation", compensation);
+
+        ReportJob<File> job = reportJobQueue.submit(TEMPLATE_DIRECTORY, currentUser.getEmployeeId(), parameters,
+                ReportJob.Priority.NORMAL, running -> {
+                    running.setOutputFile(fileToSave.toPath());
+                    if ("csv".equals(extension)) {
+                        exportEmployeeDirectoryToCSV(fileToSave.getAbsolutePath(), contactInfo, jobInfo, personalInfo, compensation);
+                    } else if ("html".equals(extension)) {
+                        exportEmployeeDirectoryToHTML(fileToSave.getAbsolutePath(), contactInfo, jobInfo, personalInfo, compensation);
+                    }
+                    return fileToSave;
+                });
+        watchJob(job, file -> JOptionPane.showMessageDialog(this,
+                "Employee directory exported successfully to:\n" + file.getAbsolutePath(),
+                "Export Successful", JOptionPane.INFORMATION_MESSAGE));
+    }
 
-                JOptionPane.showMessageDialog(this,
-                        "Employee directory exported successfully to:\n" + fileToSave.getAbsolutePath(),
-                        "Export Successful", JOptionPane.INFORMATION_MESSAGE);
+    /**
+     * Saved payroll of every period in a year, streamed from the database
+     * into the export file so the whole history is never held in memory
+     */
+    private void exportPayrollHistory(String format, int year) {
+        if ("Preview Only".equals(format)) {
+            JOptionPane.showMessageDialog(this,
+                    "Payroll history is exported to a file. Please choose HTML or CSV export.",
+                    "Export Required", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
 
-            } catch (Exception e) {
-                JOptionPane.showMessageDialog(this,
-                        "Error exporting employee directory: " + e.getMessage(),
-                        "Export Error", JOptionPane.ERROR_MESSAGE);
-                e.printStackTrace();
-            }
+        String extension = exportExtension(format);
+        File fileToSave = chooseExportFile("Save Payroll History", "Payroll_History_" + year + "." + extension);
+        if (fileToSave == null) {
+            return;
         }
+
+        LocalDate startDate = LocalDate.of(year, 1, 1);
+        LocalDate endDate = LocalDate.of(year, 12, 31);
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        parameters.put("year", year);
+        parameters.put("format", format);
+
+        ReportJob<Integer> job = reportJobQueue.submit(TEMPLATE_PAYROLL_HISTORY, currentUser.getEmployeeId(), parameters,
+                ReportJob.Priority.NORMAL, running -> {
+                    running.setOutputFile(fileToSave.toPath());
+                    if ("csv".equals(extension)) {
+                        return reportGenerator.exportPayrollHistoryToCSV(startDate, endDate, fileToSave.getAbsolutePath());
+                    }
+                    return reportGenerator.exportPayrollHistoryToHTML(startDate, endDate,
+                            currentUser.getFullName(), fileToSave.getAbsolutePath());
+                });
+        watchJob(job, rows -> JOptionPane.showMessageDialog(this,
+                rows + " payroll records exported successfully to:\n" + fileToSave.getAbsolutePath(),
+                "Export Successful", JOptionPane.INFORMATION_MESSAGE));
     }
 
-    private void exportEmployeeDirectoryToCSV(List<Employee> employees, String filePath) throws Exception {
-        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(Paths.get(filePath)))) {
+    private void exportEmployeeDirectoryToCSV(String filePath, boolean contactInfo, boolean jobInfo,
+                                              boolean personalInfo, boolean compensation) throws Exception {
+
+        try (Writer writer = ExportFiles.newWriter(Paths.get(filePath))) {
             // Build CSV header
             StringBuilder header = new StringBuilder();
             header.append("Employee ID,Last Name,First Name,Full Name");
 
-            if (includeContactInfoCheckBox.isSelected()) {
+            if (contactInfo) {
                 header.append(",Phone Number,Address");
             }
-            if (includeJobInfoCheckBox.isSelected()) {
+            if (jobInfo) {
                 header.append(",Position,Status,Supervisor,SSS Number,PhilHealth Number,TIN Number,Pag-IBIG Number");
             }
-            if (includePersonalInfoCheckBox.isSelected()) {
+            if (personalInfo) {
                 header.append(",Birthday,Age");
             }
-            if (includeCompensationCheckBox.isSelected()) {
+            if (compensation) {
                 header.append(",Basic Salary,Rice Subsidy,Phone Allowance,Clothing Allowance,Total Compensation");
             }
 
-            writer.println(header.toString());
+            writer.write(header.append(System.lineSeparator()).toString());
 
-            // Write employee data
-            for (Employee emp : employees) {
-                StringBuilder row = new StringBuilder();
+            // Write employee data as it is read; the summary is counted along the way
+            long[] statusCounts = new long[2];
+            double[] salaryTotal = new double[1];
+            StringBuilder row = new StringBuilder();
+            int totalEmployees = streamEmployees(emp -> {
+                row.setLength(0);
                 row.append(emp.getEmployeeId()).append(",");
                 row.append(csvEscape(emp.getLastName())).append(",");
                 row.append(csvEscape(emp.getFirstName())).append(",");
                 row.append(csvEscape(emp.getFullName()));
 
-                if (includeContactInfoCheckBox.isSelected()) {
+                if (contactInfo) {
                     row.append(",").append(csvEscape(emp.getPhoneNumber()));
                     row.append(",").append(csvEscape(emp.getAddress()));
                 }
 
-                if (includeJobInfoCheckBox.isSelected()) {
+                if (jobInfo) {
                     row.append(",").append(csvEscape(emp.getPosition()));
                     row.append(",").append(csvEscape(emp.getStatus()));
                     row.append(",").append(csvEscape(emp.getImmediateSupervisor()));
@@ -621,12 +863,12 @@ public class ReportsDialog extends JDialog {
                     row.append(",").append(csvEscape(emp.getPagibigNumber()));
                 }
 
-                if (includePersonalInfoCheckBox.isSelected()) {
+                if (personalInfo) {
                     row.append(",").append(emp.getBirthday() != null ? emp.getBirthday().toString() : "");
                     row.append(",").append(emp.getAge());
                 }
 
-                if (includeCompensationCheckBox.isSelected()) {
+                if (compensation) {
                     row.append(",").append(String.format("%.2f", emp.getBasicSalary()));
                     row.append(",").append(String.format("%.2f", emp.getRiceSubsidy()));
                     row.append(",").append(String.format("%.2f", emp.getPhoneAllowance()));
@@ -634,176 +876,187 @@ public class ReportsDialog extends JDialog {
                     row.append(",").append(String.format("%.2f", emp.getBasicSalary() + emp.getTotalAllowances()));
                 }
 
-                writer.println(row.toString());
-            }
-
-            // Summary
-            writer.println();
-            writer.println("SUMMARY");
-            writer.println("Total Employees," + employees.size());
-
-            long regularCount = employees.stream().filter(e -> "Regular".equals(e.getStatus())).count();
-            long probationaryCount = employees.stream().filter(e -> "Probationary".equals(e.getStatus())).count();
+                writer.write(row.append(System.lineSeparator()).toString());
 
-            writer.println("Regular Employees," + regularCount);
-            writer.println("Probationary Employees," + probationaryCount);
+                if ("Regular".equals(emp.getStatus())) statusCounts[0]++;
+                if ("Probationary".equals(emp.getStatus())) statusCounts[1]++;
+                salaryTotal[0] += emp.getBasicSalary();
+            });
 
-            if (includeCompensationCheckBox.isSelected()) {
-                double avgSalary = employees.stream().mapToDouble(Employee::getBasicSalary).average().orElse(0.0);
-                writer.println("Average Salary," + String.format("%.2f", avgSalary));
+            // Summary
+            String newline = System.lineSeparator();
+            writer.write(newline);
+            writer.write("SUMMARY" + newline);
+            writer.write("Total Employees," + totalEmployees + newline);
+            writer.write("Regular Employees," + statusCounts[0] + newline);
+            writer.write("Probationary Employees," + statusCounts[1] + newline);
+
+            if (compensation) {
+                double avgSalary = totalEmployees > 0 ? salaryTotal[0] / totalEmployees : 0.0;
+                writer.write("Average Salary," + String.format("%.2f", avgSalary) + newline);
             }
         }
     }
 
-    private void exportEmployeeDirectoryToHTML(List<Employee> employees, String filePath) throws Exception {
-        StringBuilder html = new StringBuilder();
-
-        // HTML structure
-        html.append("<!DOCTYPE html><html><head>");
-        html.append("<title>Employee Directory</title>");
-        html.append("<meta charset='UTF-8'>");
-        html.append("<style>");
-        html.append("body { font-family: 'Segoe UI', Arial, sans-serif; margin: 20px; background-color: #f5f5f5; }");
-        html.append(".header { background: linear-gradient(135deg, #667eea 0%, #764ba2 100%); color: white; padding: 30px; border-radius: 10px; margin-bottom: 30px; }");
-        html.append(".header h1 { margin: 0; font-size: 2.5em; }");
-        html.append(".summary { background: white; padding: 25px; border-radius: 10px; margin-bottom: 30px; box-shadow: 0 2px 10px rgba(0,0,0,0.1); }");
-        html.append("table { width: 100%; border-collapse: collapse; background: white; border-radius: 10px; overflow: hidden; box-shadow: 0 2px 10px rgba(0,0,0,0.1); }");
-        html.append("th { background: #495057; color: white; padding: 15px 12px; text-align: left; }");
-        html.append("td { padding: 12px; border-bottom: 1px solid #dee2e6; }");
-        html.append("tr:nth-child(even) { background-color: #f8f9fa; }");
-        html.append("tr:hover { background-color: #e9ecef; }");
-        html.append(".footer { margin-top: 30px; text-align: center; color: #6c757d; }");
-        html.append("</style></head><body>");
-
-        // Header
-        html.append("<div class='header'>");
-        html.append("<h1>Employee Directory</h1>");
-        html.append("<p>Generated on: ").append(LocalDate.now().format(DateTimeFormatter.ofPattern("MMMM dd, yyyy"))).append("</p>");
-        html.append("<p>Generated by: ").append(currentUser.getFullName()).append("</p>");
-        html.append("</div>");
-
-        // Summary
-        html.append("<div class='summary'>");
-        html.append("<h2>Summary</h2>");
-        html.append("<p><strong>Total Employees:</strong> ").append(employees.size()).append("</p>");
+    private void exportEmployeeDirectoryToHTML(String filePath, boolean contactInfo, boolean jobInfo,
+                                              boolean personalInfo, boolean compensation) throws Exception {
+
+        try (Writer writer = ExportFiles.newWriter(Paths.get(filePath))) {
+            // HTML structure
+            writer.write("<!DOCTYPE html><html><head>");
+            writer.write("<title>Employee Directory</title>");
+            writer.write("<meta charset='UTF-8'>");
+            writer.write("<style>");
+            writer.write("body { font-family: 'Segoe UI', Arial, sans-serif; margin: 20px; background-color: #f5f5f5; }");
+            writer.write(".header { background: linear-gradient(135deg, #667eea 0%, #764ba2 100%); color: white; padding: 30px; border-radius: 10px; margin-bottom: 30px; }");
+            writer.write(".header h1 { margin: 0; font-size: 2.5em; }");
+            writer.write(".summary { background: white; padding: 25px; border-radius: 10px; margin-bottom: 30px; box-shadow: 0 2px 10px rgba(0,0,0,0.1); }");
+            writer.write("table { width: 100%; border-collapse: collapse; background: white; border-radius: 10px; overflow: hidden; box-shadow: 0 2px 10px rgba(0,0,0,0.1); }");
+            writer.write("th { background: #495057; color: white; padding: 15px 12px; text-align: left; }");
+            writer.write("td { padding: 12px; border-bottom: 1px solid #dee2e6; }");
+            writer.write("tr:nth-child(even) { background-color: #f8f9fa; }");
+            writer.write("tr:hover { background-color: #e9ecef; }");
+            writer.write(".footer { margin-top: 30px; text-align: center; color: #6c757d; }");
+            writer.write("</style></head><body>");
+
+            // Header
+            writer.write("<div class='header'>");
+            writer.write("<h1>Employee Directory</h1>");
+            writer.write("<p>Generated on: " + LocalDate.now().format(DateTimeFormatter.ofPattern("MMMM dd, yyyy")) + "</p>");
+            writer.write("<p>Generated by: " + currentUser.getFullName() + "</p>");
+            writer.write("</div>");
+
+            // Summary comes before the table, so it is counted by the database instead of from the rows
+            writer.write("<div class='summary'>");
+            writer.write("<h2>Summary</h2>");
+            writer.write("<p><strong>Total Employees:</strong> " + employeeDAO.getEmployeeCount() + "</p>");
+            writer.write("<p><strong>Regular Employees:</strong> " + employeeDAO.getEmployeeCountByStatus("Regular") + "</p>");
+            writer.write("<p><strong>Probationary Employees:</strong> " + employeeDAO.getEmployeeCountByStatus("Probationary") + "</p>");
+
+            if (compensation) {
+                double avgSalary = employeeDAO.getAverageBasicSalary();
+                writer.write("<p><strong>Average Salary:</strong> ₱" + String.format("%.2f", avgSalary) + "</p>");
+            }
+            writer.write("</div>");
 
-        long regularCount = employees.stream().filter(e -> "Regular".equals(e.getStatus())).count();
-        long probationaryCount = employees.stream().filter(e -> "Probationary".equals(e.getStatus())).count();
+            // Table
+            writer.write("<table>");
+            writer.write("<thead><tr>");
+            writer.write("<th>Employee ID</th>");
+            writer.write("<th>Full Name</th>");
 
-        html.append("<p><strong>Regular Employees:</strong> ").append(regularCount).append("</p>");
-        html.append("<p><strong>Probationary Employees:</strong> ").append(probationaryCount).append("</p>");
+            if (contactInfo) {
+                writer.write("<th>Phone</th>");
+                writer.write("<th>Address</th>");
+            }
 
-        if (includeCompensationCheckBox.isSelected()) {
-            double avgSalary = employees.stream().mapToDouble(Employee::getBasicSalary).average().orElse(0.0);
-            html.append("<p><strong>Average Salary:</strong> ₱").append(String.format("%.2f", avgSalary)).append("</p>");
-        }
-        html.append("</div>");
+            if (jobInfo) {
+                writer.write("<th>Position</th>");
+                writer.write("<th>Status</th>");
+                writer.write("<th>Supervisor</th>");
+            }
 
-        // Table
-        html.append("<table>");
-        html.append("<thead><tr>");
-        html.append("<th>Employee ID</th>");
-        html.append("<th>Full Name</th>");
+            if (personalInfo) {
+                writer.write("<th>Birthday</th>");
+                writer.write("<th>Age</th>");
+            }
 
-        if (includeContactInfoCheckBox.isSelected()) {
-            html.append("<th>Phone</th>");
-            html.append("<th>Address</th>");
-        }
+            if (compensation) {
+                writer.write("<th>Basic Salary</th>");
+                writer.write("<th>Allowances</th>");
+                writer.write("<th>Total Compensation</th>");
+            }
 
-        if (includeJobInfoCheckBox.isSelected()) {
-            html.append("<th>Position</th>");
-            html.append("<th>Status</th>");
-            html.append("<th>Supervisor</th>");
-        }
+            writer.write("</tr></thead><tbody>");
 
-        if (includePersonalInfoCheckBox.isSelected()) {
-            html.append("<th>Birthday</th>");
-            html.append("<th>Age</th>");
-        }
+            // Employee rows
+            streamEmployees(emp -> {
+                writer.write("<tr>");
+                writer.write("<td>" + emp.getEmployeeId() + "</td>");
+                writer.write("<td>" + htmlEscape(emp.getFullName()) + "</td>");
 
-        if (includeCompensationCheckBox.isSelected()) {
-            html.append("<th>Basic Salary</th>");
-            html.append("<th>Allowances</th>");
-            html.append("<th>Total Compensation</th>");
-        }
+                if (contactInfo) {
+                    writer.write("<td>" + htmlEscape(emp.getPhoneNumber()) + "</td>");
+                    writer.write("<td>" + htmlEscape(emp.getAddress()) + "</td>");
+                }
 
-        html.append("</tr></thead><tbody>");
+                if (jobInfo) {
+                    writer.write("<td>" + htmlEscape(emp.getPosition()) + "</td>");
+                    writer.write("<td>" + htmlEscape(emp.getStatus()) + "</td>");
+                    writer.write("<td>" + htmlEscape(emp.getImmediateSupervisor()) + "</td>");
+                }
 
-        // Employee rows
-        for (Employee emp : employees) {
-            html.append("<tr>");
-            html.append("<td>").append(emp.getEmployeeId()).append("</td>");
-            html.append("<td>").append(htmlEscape(emp.getFullName())).append("</td>");
+                if (personalInfo) {
+                    writer.write("<td>" + (emp.getBirthday() != null ? emp.getBirthday().toString() : "N/A") + "</td>");
+                    writer.write("<td>" + emp.getAge() + "</td>");
+                }
 
-            if (includeContactInfoCheckBox.isSelected()) {
-                html.append("<td>").append(htmlEscape(emp.getPhoneNumber())).append("</td>");
-                html.append("<td>").append(htmlEscape(emp.getAddress())).append("</td>");
-            }
+                if (compensation) {
+                    writer.write("<td>₱" + String.format("%.2f", emp.getBasicSalary()) + "</td>");
+                    writer.write("<td>₱" + String.format("%.2f", emp.getTotalAllowances()) + "</td>");
+                    writer.write("<td>₱" + String.format("%.2f", emp.getBasicSalary() + emp.getTotalAllowances()) + "</td>");
+                }
 
-            if (includeJobInfoCheckBox.isSelected()) {
-                html.append("<td>").append(htmlEscape(emp.getPosition())).append("</td>");
-                html.append("<td>").append(htmlEscape(emp.getStatus())).append("</td>");
-                html.append("<td>").append(htmlEscape(emp.getImmediateSupervisor())).append("</td>");
-            }
+                writer.write("</tr>\n");
+            });
 
-            if (includePersonalInfoCheckBox.isSelected()) {
-                html.append("<td>").append(emp.getBirthday() != null ? emp.getBirthday().toString() : "N/A").append("</td>");
-                html.append("<td>").append(emp.getAge()).append("</td>");
-            }
+            writer.write("</tbody></table>");
 
-            if (includeCompensationCheckBox.isSelected()) {
-                html.append("<td>₱").append(String.format("%.2f", emp.getBasicSalary())).append("</td>");
-                html.append("<td>₱").append(String.format("%.2f", emp.getTotalAllowances())).append("</td>");
-                html.append("<td>₱").append(String.format("%.2f", emp.getBasicSalary() + emp.getTotalAllowances())).append("</td>");
-            }
+            // Footer
+            writer.write("<div class='footer'>");
+            writer.write("<p>Generated by MotorPH Payroll System</p>");
+            writer.write("</div>");
 
-            html.append("</tr>");
+            writer.write("</body></html>");
         }
+    }
 
-        html.append("</tbody></table>");
-
-        // Footer
-        html.append("<div class='footer'>");
-        html.append("<p>Generated by MotorPH Payroll System</p>");
-        html.append("</div>");
-
-        html.append("</body></html>");
-
-        Files.write(Paths.get(filePath), html.toString().getBytes());
+    /**
+     * Export row callback that may throw IOException
+     */
+    private interface EmployeeRowWriter {
+        void write(Employee employee) throws IOException;
     }
 
-    private void exportTextReport(String reportContent, String baseFileName, String format) {
-        JFileChooser fileChooser = new JFileChooser();
-        fileChooser.setDialogTitle("Save Report");
+    private int streamEmployees(EmployeeRowWriter rowWriter) throws IOException {
+        try {
+            return employeeDAO.streamAllEmployees(emp -> {
+                try {
+                    rowWriter.write(emp);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
 
+    private String exportExtension(String format) {
         String extension = format.toLowerCase().replace(" export", "");
-        if (extension.equals("preview only")) extension = "txt";
+        return extension.equals("preview only") ? "txt" : extension;
+    }
 
-        String fileName = baseFileName + "." + extension;
+    /**
+     * Ask where to save an export
+     * @return chosen file, or null if the user cancelled
+     */
+    private File chooseExportFile(String title, String fileName) {
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle(title);
         fileChooser.setSelectedFile(new File(fileName));
 
         int userSelection = fileChooser.showSaveDialog(this);
-        if (userSelection == JFileChooser.APPROVE_OPTION) {
-            File fileToSave = fileChooser.getSelectedFile();
-
-            try {
-                if ("html".equals(extension)) {
-                    // Convert text report to HTML
-                    String htmlContent = convertTextToHTML(reportContent, baseFileName);
-                    Files.write(fileToSave.toPath(), htmlContent.getBytes());
-                } else {
-                    Files.write(fileToSave.toPath(), reportContent.getBytes());
-                }
-
-                JOptionPane.showMessageDialog(this,
-                        "Report exported successfully to:\n" + fileToSave.getAbsolutePath(),
-                        "Export Successful", JOptionPane.INFORMATION_MESSAGE);
+        return userSelection == JFileChooser.APPROVE_OPTION ? fileChooser.getSelectedFile() : null;
+    }
 
-            } catch (Exception e) {
-                JOptionPane.showMessageDialog(this,
-                        "Error exporting report: " + e.getMessage(),
-                        "Export Error", JOptionPane.ERROR_MESSAGE);
-            }
+    private void writeTextReport(String reportContent, String baseFileName, String extension, File fileToSave) throws IOException {
+        if ("html".equals(extension)) {
+            // Convert text report to HTML
+            String htmlContent = convertTextToHTML(reportContent, baseFileName);
+            Files.write(fileToSave.toPath(), htmlContent.getBytes());
+        } else {
+            Files.write(fileToSave.toPath(), reportContent.getBytes());
         }
     }
 
@@ -840,4 +1093,4 @@ public class ReportsDialog extends JDialog {
                 .replace("\"", "&quot;")
                 .replace("'", "&#39;");
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,35 @@
+package ui;
+
+import java.math.RoundingMode;
+import java.text.DecimalFormat;
+
+/**
+ * Shared number formats for table cell renderers.
+ *
+ * Table models hold raw numbers and the renderers format only the cells
+ * being painted, so a reload does not build a formatted string for every
+ * row. DecimalFormat is not thread-safe; like the renderers, these are
+ * only used on the Event Dispatch Thread.
+ */
+final class TableFormats {
+    // Same output as String.format("₱%,.2f", ...)
+    private static final DecimalFormat PESO = new DecimalFormat("₱#,##0.00");
+    // Same output as String.format("%.2f", ...)
+    private static final DecimalFormat HOURS = new DecimalFormat("0.00");
+
+    static {
+        PESO.setRoundingMode(RoundingMode.HALF_UP);
+        HOURS.setRoundingMode(RoundingMode.HALF_UP);
+    }
+
+    private TableFormats() {
+    }
+
+    static String peso(double amount) {
+        return PESO.format(amount);
+    }
+
+    static String hours(double hours) {
+        return HOURS.format(hours);
+    }
+}
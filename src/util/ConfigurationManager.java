@@ -24,6 +24,15 @@ public class ConfigurationManager {
         loadConfiguration();
     }
     
+    /**
+     * Configuration from the given properties instead of application.properties,
+     * e.g. for a connection pool under test; unset keys take their defaults
+     */
+    public ConfigurationManager(Properties properties) {
+        this.properties = new Properties();
+        this.properties.putAll(properties);
+    }
+    
     public static synchronized ConfigurationManager getInstance() {
         if (instance == null) {
             instance = new ConfigurationManager();
@@ -90,8 +99,108 @@ public class ConfigurationManager {
     }
     
     public String getDatabaseUrl() {
-        return String.format("jdbc:mysql://%s:%d/%s?useSSL=false&serverTimezone=UTC&allowPublicKeyRetrieval=true",
-                getDatabaseHost(), getDatabasePort(), getDatabaseName());
+        // A complete JDBC URL, when given, replaces the one built from the MySQL settings
+        String url = getProperty("db.url", null);
+        if (url != null) {
+            return url;
+        }
+        // Cursor fetch only works with server-side prepared statements, so both follow one switch
+        boolean serverPrepare = isServerPreparedStatements();
+        return String.format("jdbc:mysql://%s:%d/%s?useSSL=false&serverTimezone=UTC&allowPublicKeyRetrieval=true&useUnicode=true&characterEncoding=UTF-8&rewriteBatchedStatements=true&useServerPrepStmts=%b&useCursorFetch=%b",
+                getDatabaseHost(), getDatabasePort(), getDatabaseName(), serverPrepare, serverPrepare);
+    }
+    
+    // Prepare statements on the server; the per-connection statement cache keeps them prepared between uses
+    public boolean isServerPreparedStatements() {
+        return getBooleanProperty("db.server.prepared.statements", true);
+    }
+    
+    // Connection Pool Configuration
+    public int getPoolInitialSize() {
+        return getIntProperty("db.pool.initial.size", 5);
+    }
+    
+    public int getPoolMaxSize() {
+        return getIntProperty("db.pool.max.size", 20);
+    }
+    
+    public int getPoolBorrowTimeoutSeconds() {
+        return getIntProperty("db.pool.borrow.timeout.seconds", 30);
+    }
+    
+    public int getPoolMinIdle() {
+        return getIntProperty("db.pool.min.idle", getPoolInitialSize());
+    }
+    
+    // Background maintenance: validation, eviction and refill
+    public int getPoolMaintenanceSeconds() {
+        return getIntProperty("db.pool.maintenance.seconds", 15);
+    }
+    
+    // Idle connections not used or checked for this long are validated
+    public int getPoolValidationIdleSeconds() {
+        return getIntProperty("db.pool.validation.idle.seconds", 30);
+    }
+    
+    public int getPoolIdleTimeoutSeconds() {
+        return getIntProperty("db.pool.idle.timeout.seconds", 600);
+    }
+    
+    public int getPoolMaxLifetimeSeconds() {
+        return getIntProperty("db.pool.max.lifetime.seconds", 1800);
+    }
+    
+    // Connections held longer than this are logged with the borrower's stack; 0 disables
+    public int getPoolLeakDetectionMillis() {
+        return getIntProperty("db.pool.leak.detection.millis", 60000);
+    }
+    
+    // Interval of the pool status log line; 0 disables
+    public int getPoolStatusLogSeconds() {
+        return getIntProperty("db.pool.status.log.seconds", 300);
+    }
+    
+    // Prepared statements kept open per pooled connection for reuse; 0 disables
+    public int getStatementCacheSize() {
+        return getIntProperty("db.pool.statement.cache.size", 64);
+    }
+    
+    // SQL Statistics Configuration
+    public boolean isSqlStatisticsEnabled() {
+        return getBooleanProperty("db.stats.enabled", true);
+    }
+    
+    public int getSlowQueryThresholdMillis() {
+        return getIntProperty("db.stats.slow.query.millis", 500);
+    }
+    
+    public int getSqlStatisticsMaxStatements() {
+        return getIntProperty("db.stats.max.statements", 500);
+    }
+    
+    // Cache Configuration
+    public int getEmployeeCacheMaxSize() {
+        return getIntProperty("cache.employee.max.size", 1000);
+    }
+    
+    public int getEmployeeCacheTtlSeconds() {
+        return getIntProperty("cache.employee.ttl.seconds", 60);
+    }
+    
+    public int getReportCacheMemoryEntries() {
+        return getIntProperty("cache.report.memory.entries", 32);
+    }
+    
+    public int getReportCacheDiskEntries() {
+        return getIntProperty("cache.report.disk.entries", 256);
+    }
+    
+    public int getReportCacheTtlSeconds() {
+        return getIntProperty("cache.report.ttl.seconds", 86400);
+    }
+    
+    public String getReportCachePath() {
+        return getProperty("cache.report.path", "reports/cache/");
     }
     
     // JasperReports Configuration
@@ -107,6 +216,11 @@ public class ConfigurationManager {
         return getProperty("jasper.compile.path", "src/reports/compiled/");
     }
     
+    // How often a compiled template checks its source for edits; 0 never checks
+    public int getJasperTemplateCheckSeconds() {
+        return getIntProperty("jasper.template.check.seconds", isDebugMode() ? 2 : 0);
+    }
+    
     // Business Rules Configuration
     public int getWorkingDaysPerMonth() {
         return getIntProperty("payroll.working.days.per.month", 22);
@@ -128,6 +242,34 @@ public class ConfigurationManager {
         return getIntProperty("payroll.max.leave.days.per.year", 15);
     }
     
+    public int getPayrollBatchWorkers() {
+        return getIntProperty("payroll.batch.workers", Runtime.getRuntime().availableProcessors());
+    }
+    
+    public int getPayrollPersistBatchSize() {
+        return getIntProperty("payroll.persist.batch.size", 500);
+    }
+
+    // Change log entries ending longer ago than this are purged once every payroll they affect has caught up
+    public int getPayrollChangeLogRetentionDays() {
+        return getIntProperty("payroll.changelog.retention.days", 400);
+    }
+
+    // Background report jobs that run at once; each may use its own workers
+    public int getReportJobWorkers() {
+        return getIntProperty("report.jobs.workers", 2);
+    }
+    
+    // Payslip rendering is CPU-bound and does not use the database
+    public int getPayslipArchiveWorkers() {
+        return getIntProperty("payslip.archive.workers", Runtime.getRuntime().availableProcessors());
+    }
+    
+    // Rows per round trip for streamed reads (exports, large lists)
+    public int getStreamingFetchSize() {
+        return getIntProperty("db.streaming.fetch.size", 1000);
+    }
+    
     // Security Configuration
     public int getPasswordMinLength() {
         return getIntProperty("security.password.min.length", 8);
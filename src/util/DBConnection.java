@@ -1,14 +1,18 @@
 package util;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.logging.Logger;
 import java.util.logging.Level;
+import javax.sql.DataSource;
 
 /**
  * Fixed Database Connection Utility Class
- * Provides centralized database connection management
+ * Provides centralized database connection management.
+ * Connections are borrowed from {@link DatabaseConnectionPool}; closing them
+ * returns them to the pool.
  */
 public class DBConnection {
     private static final Logger LOGGER = Logger.getLogger(DBConnection.class.getName());
@@ -18,8 +22,6 @@ public class DBConnection {
     private static final String DB_PORT = "3306";
     private static final String DB_NAME = "aoopdatabase_payroll";
     private static final String DB_USERNAME = "root";
-    private static final String DB_PASSWORD = "admin";
-    private static final String DB_DRIVER = "com.mysql.cj.jdbc.Driver";
     
     // Connection URL
     private static final String DB_URL = String.format(
@@ -27,26 +29,35 @@ public class DBConnection {
         DB_HOST, DB_PORT, DB_NAME
     );
     
-    // Static block to load the driver
-    static {
-        try {
-            Class.forName(DB_DRIVER);
-            LOGGER.info("✅ MySQL JDBC Driver loaded successfully");
-        } catch (ClassNotFoundException e) {
-            LOGGER.log(Level.SEVERE, "❌ MySQL JDBC Driver not found", e);
-            throw new RuntimeException("MySQL JDBC Driver not found. Please add mysql-connector-java to classpath.", e);
-        }
+    // Replaces the pool when set, e.g. by tests
+    private static volatile DataSource dataSourceOverride;
+    
+    /**
+     * Get the shared pooled data source used by all DAOs
+     * @return DataSource backed by the application connection pool
+     */
+    public static DataSource getDataSource() {
+        DataSource override = dataSourceOverride;
+        return override != null ? override : DatabaseConnectionPool.getInstance();
     }
     
     /**
-     * Get a database connection
-     * @return Connection object
+     * Have every DAO use another data source instead of the application pool
+     * @param dataSource Data source to use, or null to go back to the pool
+     */
+    public static void setDataSource(DataSource dataSource) {
+        dataSourceOverride = dataSource;
+    }
+    
+    /**
+     * Get a database connection from the pool
+     * @return Connection object; close() returns it to the pool
      * @throws SQLException if connection fails
      */
     public static Connection getConnection() throws SQLException {
         try {
-            Connection connection = DriverManager.getConnection(DB_URL, DB_USERNAME, DB_PASSWORD);
-            LOGGER.fine("🔗 Database connection established");
+            Connection connection = getDataSource().getConnection();
+            LOGGER.fine("🔗 Database connection borrowed from pool");
             return connection;
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "❌ Failed to establish database connection", e);
@@ -58,6 +69,26 @@ public class DBConnection {
         }
     }
     
+    /**
+     * Prepare a forward-only, read-only query for reading large results.
+     * Rows are fetched from the server in chunks of the configured fetch
+     * size (the URL enables useCursorFetch) instead of all at once, so
+     * memory use does not grow with the number of rows. With server-side
+     * prepared statements turned off there is no cursor fetch, and the
+     * driver streams the rows one at a time instead.
+     * @param connection Connection to prepare on
+     * @param sql Query
+     * @return Statement; close it before reusing the connection
+     * @throws SQLException if preparing fails
+     */
+    public static PreparedStatement prepareStreamingStatement(Connection connection, String sql) throws SQLException {
+        PreparedStatement stmt = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        ConfigurationManager config = ConfigurationManager.getInstance();
+        // Integer.MIN_VALUE is Connector/J's signal for row-by-row streaming
+        stmt.setFetchSize(config.isServerPreparedStatements() ? config.getStreamingFetchSize() : Integer.MIN_VALUE);
+        return stmt;
+    }
+    
     /**
      * Test database connection
      * @return true if connection is successful, false otherwise
@@ -85,7 +116,7 @@ public class DBConnection {
         if (connection != null) {
             try {
                 connection.close();
-                LOGGER.fine("🔒 Database connection closed");
+                LOGGER.fine("🔒 Database connection returned to pool");
             } catch (SQLException e) {
                 LOGGER.log(Level.WARNING, "⚠️ Error closing database connection", e);
             }
@@ -114,8 +145,9 @@ public class DBConnection {
             };
             
             for (String table : requiredTables) {
-                try {
-                    connection.prepareStatement("SELECT 1 FROM " + table + " LIMIT 1").executeQuery();
+                try (PreparedStatement stmt = connection.prepareStatement("SELECT 1 FROM " + table + " LIMIT 1")) {
+                    // Fails if the table does not exist; an empty table is fine
+                    stmt.execute();
                 } catch (SQLException e) {
                     LOGGER.warning("❌ Required table missing: " + table);
                     return false;
@@ -137,4 +169,4 @@ public class DBConnection {
     public static String getDatabaseName() { return DB_NAME; }
     public static String getUsername() { return DB_USERNAME; }
     public static String getUrl() { return DB_URL; }
-}
\ No newline at end of file
+}
\ No newline at end of file
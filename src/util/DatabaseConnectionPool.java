@@ -1,186 +1,1039 @@
 package util;
 
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.logging.Logger;
 import java.util.logging.Level;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import javax.sql.DataSource;
 
 /**
  * Enhanced Database Connection Pool for better performance
  * Addresses mentor feedback about database optimization
+ *
+ * Connections handed out by {@link #getConnection()} are proxies: calling
+ * close() on them returns the physical connection to the pool instead of
+ * closing it, so DAO try-with-resources blocks work unchanged. Statements
+ * prepared on them are timed by {@link SqlStatistics}.
+ *
+ * The pool keeps histograms of how long borrowers wait for a connection
+ * and how long they hold it. A monitor thread logs connections held past
+ * the leak detection threshold, with the stack that borrowed them, and
+ * writes a periodic status line. All of it is published over JMX as
+ * {@value #OBJECT_NAME}.
+ *
+ * Borrowing does not touch the network: it takes the most recently
+ * returned idle connection. The monitor thread does the upkeep instead. It
+ * validates connections that have sat idle past the validation interval,
+ * which also keeps them from hitting the server's wait_timeout. It retires
+ * connections past their lifetime, and closes those idle past the idle
+ * timeout beyond the minimum. It then opens connections up to the minimum
+ * idle count, so a restarted database gets a warm pool again.
+ *
+ * Each physical connection keeps a small LRU cache of the prepared
+ * statements its borrowers closed. DAOs prepare the same few queries over
+ * and over; a cache hit skips the prepare round trip to the server, and
+ * with server-side prepared statements also the re-parse and the close.
  */
-public class DatabaseConnectionPool {
+public class DatabaseConnectionPool implements DataSource, DatabaseConnectionPoolMBean {
     private static final Logger LOGGER = Logger.getLogger(DatabaseConnectionPool.class.getName());
-    
+
+    public static final String OBJECT_NAME = "motorph.payroll:type=ConnectionPool";
+    private static final long LEAK_CHECK_SECONDS = 5;
+
     private static DatabaseConnectionPool instance;
-    private BlockingQueue<Connection> connectionPool;
-    private final int INITIAL_POOL_SIZE = 5;
-    private final int MAX_POOL_SIZE = 20;
-    private final int CONNECTION_TIMEOUT = 30; // seconds
-    
+    // Most recently returned first, so rarely needed connections drift to the end and are evicted
+    private final BlockingDeque<PhysicalConnection> idleConnections;
+    private final Semaphore borrowPermits;
+    private final int INITIAL_POOL_SIZE;
+    private final int MAX_POOL_SIZE;
+    private final int MIN_IDLE;
+    private final int CONNECTION_TIMEOUT; // seconds
+    private final long VALIDATION_IDLE_NANOS;
+    private final long IDLE_TIMEOUT_NANOS;
+    private final long MAX_LIFETIME_NANOS;
+    private final int STATEMENT_CACHE_SIZE; // per physical connection
+
     private final String DB_URL;
     private final String DB_USERNAME;
     private final String DB_PASSWORD;
-    
-    private DatabaseConnectionPool() {
-        ConfigurationManager config = ConfigurationManager.getInstance();
+
+    private final SqlStatistics sqlStatistics = SqlStatistics.getInstance();
+
+    // Telemetry
+    private final LatencyHistogram borrowWait = new LatencyHistogram();
+    private final LatencyHistogram holdTime = new LatencyHistogram();
+    private final LongAdder borrowTimeouts = new LongAdder();
+    private final LongAdder connectionsCreated = new LongAdder();
+    private final LongAdder connectionsClosed = new LongAdder();
+    private final LongAdder leaksDetected = new LongAdder();
+    private final LongAdder validations = new LongAdder();
+    private final LongAdder validationFailures = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder statementCacheHits = new LongAdder();
+    private final LongAdder statementCacheMisses = new LongAdder();
+    private final LongAdder statementCacheEvictions = new LongAdder();
+    private volatile boolean refillFailing;
+    private final Set<PooledConnectionHandler> borrowed = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService monitor;
+    private volatile long leakDetectionMillis;
+    private long borrowsAtLastStatusLog;
+
+    private volatile boolean shutdown = false;
+    private int loginTimeout = 0;
+    private PrintWriter logWriter;
+
+    /**
+     * A pool of its own with the given settings. The application shares the
+     * one from {@link #getInstance()}; close others with {@link #closeAllConnections()}.
+     */
+    public DatabaseConnectionPool(ConfigurationManager config) {
         this.DB_URL = config.getDatabaseUrl();
         this.DB_USERNAME = config.getDatabaseUsername();
         this.DB_PASSWORD = config.getDatabasePassword();
-        
-        initializePool();
+        this.MAX_POOL_SIZE = Math.max(1, config.getPoolMaxSize());
+        this.INITIAL_POOL_SIZE = Math.min(Math.max(0, config.getPoolInitialSize()), MAX_POOL_SIZE);
+        this.MIN_IDLE = Math.min(Math.max(0, config.getPoolMinIdle()), MAX_POOL_SIZE);
+        this.CONNECTION_TIMEOUT = Math.max(1, config.getPoolBorrowTimeoutSeconds());
+        this.VALIDATION_IDLE_NANOS = TimeUnit.SECONDS.toNanos(Math.max(1, config.getPoolValidationIdleSeconds()));
+        this.IDLE_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(Math.max(1, config.getPoolIdleTimeoutSeconds()));
+        this.MAX_LIFETIME_NANOS = TimeUnit.SECONDS.toNanos(Math.max(1, config.getPoolMaxLifetimeSeconds()));
+        this.STATEMENT_CACHE_SIZE = Math.max(0, config.getStatementCacheSize());
+        this.leakDetectionMillis = Math.max(0, config.getPoolLeakDetectionMillis());
+
+        // Idle connections can never exceed MAX_POOL_SIZE, and a connection only
+        // exists while someone holds (or held) one of these permits
+        this.idleConnections = new LinkedBlockingDeque<>(MAX_POOL_SIZE);
+        this.borrowPermits = new Semaphore(MAX_POOL_SIZE, true);
+
+        initializePool(config.getDatabaseDriver());
+
+        this.monitor = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "db-pool-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        monitor.scheduleWithFixedDelay(this::detectLeaks, LEAK_CHECK_SECONDS, LEAK_CHECK_SECONDS, TimeUnit.SECONDS);
+        long maintenanceSeconds = Math.max(1, config.getPoolMaintenanceSeconds());
+        monitor.scheduleWithFixedDelay(this::maintain, maintenanceSeconds, maintenanceSeconds, TimeUnit.SECONDS);
+        int statusLogSeconds = config.getPoolStatusLogSeconds();
+        if (statusLogSeconds > 0) {
+            monitor.scheduleAtFixedRate(this::logStatus, statusLogSeconds, statusLogSeconds, TimeUnit.SECONDS);
+        }
     }
-    
+
     public static synchronized DatabaseConnectionPool getInstance() {
         if (instance == null) {
-            instance = new DatabaseConnectionPool();
+            instance = new DatabaseConnectionPool(ConfigurationManager.getInstance());
+            try {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(instance, new ObjectName(OBJECT_NAME));
+            } catch (JMException e) {
+                LOGGER.log(Level.WARNING, "⚠️ Connection pool status not available over JMX", e);
+            }
         }
         return instance;
     }
-    
-    private void initializePool() {
-        connectionPool = new LinkedBlockingQueue<>(MAX_POOL_SIZE);
-        
+
+    private void initializePool(String driverClassName) {
         try {
             // Load MySQL driver
-            Class.forName("com.mysql.cj.jdbc.Driver");
-            
-            // Create initial connections
-            for (int i = 0; i < INITIAL_POOL_SIZE; i++) {
-                Connection connection = createNewConnection();
-                if (connection != null) {
-                    connectionPool.offer(connection);
-                }
-            }
-            
-            LOGGER.info("✅ Database connection pool initialized with " + connectionPool.size() + " connections");
-            
+            Class.forName(driverClassName);
         } catch (ClassNotFoundException e) {
             LOGGER.log(Level.SEVERE, "❌ MySQL driver not found", e);
             throw new RuntimeException("MySQL driver not found", e);
         }
-    }
-    
-    private Connection createNewConnection() {
-        try {
-            Connection connection = DriverManager.getConnection(DB_URL, DB_USERNAME, DB_PASSWORD);
-            
-            // Configure connection
-            connection.setAutoCommit(true);
-            connection.setTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
-            
-            return connection;
-            
-        } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "❌ Failed to create database connection", e);
-            return null;
+
+        // Create initial connections; a database that is down at startup is not
+        // fatal, connections will be opened on demand or by maintenance once it comes back
+        for (int i = 0; i < INITIAL_POOL_SIZE; i++) {
+            try {
+                idleConnections.offerFirst(createNewConnection());
+            } catch (SQLException e) {
+                LOGGER.log(Level.WARNING, "⚠️ Could not pre-open pooled connection", e);
+                break;
+            }
         }
+
+        LOGGER.info("✅ Database connection pool initialized with " + idleConnections.size() +
+                " connections (max " + MAX_POOL_SIZE + ")");
+    }
+
+    private PhysicalConnection createNewConnection() throws SQLException {
+        Connection connection = DriverManager.getConnection(DB_URL, DB_USERNAME, DB_PASSWORD);
+        connectionsCreated.increment();
+
+        // Configure connection
+        connection.setAutoCommit(true);
+        connection.setTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+
+        return new PhysicalConnection(connection);
     }
-    
+
+    /**
+     * Borrow a connection from the pool, waiting up to the configured borrow
+     * timeout when every connection is in use.
+     * @return pooled connection; close() returns it to the pool
+     * @throws SQLException if the pool is exhausted or a connection cannot be opened
+     */
+    @Override
     public Connection getConnection() throws SQLException {
+        if (shutdown) {
+            throw new SQLException("Connection pool has been shut down");
+        }
+
+        long started = System.nanoTime();
         try {
-            Connection connection = connectionPool.poll(CONNECTION_TIMEOUT, TimeUnit.SECONDS);
-            
-            if (connection == null) {
-                // Pool is empty, create new connection if under max limit
-                if (getTotalConnections() < MAX_POOL_SIZE) {
-                    connection = createNewConnection();
-                    if (connection == null) {
-                        throw new SQLException("Unable to create new database connection");
-                    }
-                } else {
-                    throw new SQLException("Connection pool exhausted. Maximum connections: " + MAX_POOL_SIZE);
-                }
+            if (!borrowPermits.tryAcquire(CONNECTION_TIMEOUT, TimeUnit.SECONDS)) {
+                borrowTimeouts.increment();
+                throw new SQLException("Connection pool exhausted. Timed out after " + CONNECTION_TIMEOUT +
+                        "s waiting for one of " + MAX_POOL_SIZE + " connections");
             }
-            
-            // Validate connection
-            if (!isConnectionValid(connection)) {
-                connection = createNewConnection();
-                if (connection == null) {
-                    throw new SQLException("Unable to create valid database connection");
-                }
-            }
-            
-            return connection;
-            
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             throw new SQLException("Interrupted while waiting for database connection", e);
         }
+
+        // From here on we own a permit and must give it back on any failure
+        try {
+            // Idle connections are validated in the background; only skip
+            // those that have outlived their lifetime, which needs no round trip
+            PhysicalConnection physical = idleConnections.pollFirst();
+            while (physical != null && physical.isExpired(System.nanoTime())) {
+                evict(physical);
+                physical = idleConnections.pollFirst();
+            }
+
+            if (physical == null) {
+                physical = createNewConnection();
+            }
+
+            Connection connection = wrap(physical);
+            borrowWait.record(System.nanoTime() - started);
+            return connection;
+
+        } catch (SQLException | RuntimeException e) {
+            borrowPermits.release();
+            throw e;
+        }
     }
-    
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Pooled connections use the configured database credentials");
+    }
+
+    /**
+     * Return a connection obtained from {@link #getConnection()}. Equivalent to
+     * calling close() on it; kept for callers that manage connections manually.
+     * @param connection pooled connection to return
+     */
     public void returnConnection(Connection connection) {
         if (connection != null) {
             try {
-                if (isConnectionValid(connection)) {
-                    // Reset connection state
-                    connection.setAutoCommit(true);
-                    connection.clearWarnings();
-                    
-                    // Return to pool
-                    if (!connectionPool.offer(connection)) {
-                        // Pool is full, close the connection
-                        connection.close();
-                    }
-                } else {
-                    // Connection is invalid, close it
-                    connection.close();
-                }
+                connection.close();
             } catch (SQLException e) {
                 LOGGER.log(Level.WARNING, "⚠️ Error returning connection to pool", e);
+            }
+        }
+    }
+
+    private void release(PhysicalConnection entry) {
+        Connection physical = entry.connection;
+        try {
+            if (shutdown || physical.isClosed()) {
+                closeQuietly(entry);
+                return;
+            }
+
+            // Reset connection state left behind by the borrower
+            if (!physical.getAutoCommit()) {
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+            physical.clearWarnings();
+
+            long now = System.nanoTime();
+            if (entry.isExpired(now)) {
+                evict(entry);
+                return;
+            }
+
+            // Return to pool; it worked for the borrower, so it counts as checked
+            entry.returnedAt = now;
+            entry.checkedAt = now;
+            if (!idleConnections.offerFirst(entry)) {
+                closeQuietly(entry);
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "⚠️ Error returning connection to pool, discarding it", e);
+            closeQuietly(entry);
+        } finally {
+            borrowPermits.release();
+        }
+    }
+
+    /**
+     * Background upkeep of the idle connections, run on the monitor thread
+     */
+    private void maintain() {
+        if (shutdown) {
+            return;
+        }
+        try {
+            long now = System.nanoTime();
+            int idleCount = idleConnections.size();
+
+            // Oldest idle first; a connection is only touched once it has been
+            // taken off the idle list, so it cannot be borrowed meanwhile
+            List<PhysicalConnection> snapshot = new ArrayList<>(idleConnections);
+            for (int i = snapshot.size() - 1; i >= 0; i--) {
+                PhysicalConnection entry = snapshot.get(i);
+                boolean expired = entry.isExpired(now);
+                boolean idleTooLong = idleCount > MIN_IDLE && now - entry.returnedAt >= IDLE_TIMEOUT_NANOS;
+                boolean needsCheck = now - entry.checkedAt >= VALIDATION_IDLE_NANOS;
+                if (!(expired || idleTooLong || needsCheck)) {
+                    continue;
+                }
+
+                // Off the idle list the connection still counts against the pool size, so hold
+                // a permit like a borrower; otherwise a borrower finding the list empty would
+                // open one connection more than the maximum
+                if (!borrowPermits.tryAcquire()) {
+                    break; // Every permit is taken; the rest waits for the next run
+                }
                 try {
-                    connection.close();
-                } catch (SQLException closeException) {
-                    LOGGER.log(Level.WARNING, "⚠️ Error closing invalid connection", closeException);
+                    if (!idleConnections.remove(entry)) {
+                        continue;
+                    }
+                    if (expired || idleTooLong) {
+                        evict(entry);
+                        idleCount--;
+                    } else if (validate(entry)) {
+                        if (!idleConnections.offerLast(entry)) {
+                            closeQuietly(entry);
+                        }
+                    } else {
+                        idleCount--;
+                    }
+                } finally {
+                    borrowPermits.release();
                 }
             }
+
+            refill();
+        } catch (RuntimeException e) {
+            // Never let an exception cancel the scheduled task
+            LOGGER.log(Level.WARNING, "⚠️ Connection pool maintenance failed", e);
         }
     }
-    
-    private boolean isConnectionValid(Connection connection) {
+
+    private boolean validate(PhysicalConnection entry) {
+        validations.increment();
+        boolean valid;
         try {
-            return connection != null && 
-                   !connection.isClosed() && 
-                   connection.isValid(5);
+            valid = !entry.connection.isClosed() && entry.connection.isValid(5);
         } catch (SQLException e) {
-            return false;
+            valid = false;
+        }
+        if (valid) {
+            entry.checkedAt = System.nanoTime();
+        } else {
+            validationFailures.increment();
+            LOGGER.fine("Discarding idle connection that failed validation");
+            closeQuietly(entry);
+        }
+        return valid;
+    }
+
+    /**
+     * Open connections until the minimum idle count is met, within the pool size
+     */
+    private void refill() {
+        while (!shutdown && idleConnections.size() < MIN_IDLE) {
+            // Opening holds a permit for the same reason as validating
+            if (!borrowPermits.tryAcquire()) {
+                return;
+            }
+            try {
+                // The permit is counted already, the connection it opens is not
+                if (getTotalConnections() > MAX_POOL_SIZE) {
+                    return;
+                }
+                PhysicalConnection entry;
+                try {
+                    entry = createNewConnection();
+                } catch (SQLException e) {
+                    if (!refillFailing) {
+                        refillFailing = true;
+                        LOGGER.log(Level.WARNING, "⚠️ Cannot open pooled connections; retrying on each maintenance run", e);
+                    }
+                    return;
+                }
+                if (refillFailing) {
+                    refillFailing = false;
+                    LOGGER.info("✅ Database reachable again; refilling connection pool");
+                }
+                if (!idleConnections.offerLast(entry)) {
+                    closeQuietly(entry);
+                    return;
+                }
+            } finally {
+                borrowPermits.release();
+            }
+        }
+    }
+
+    private void evict(PhysicalConnection entry) {
+        evictions.increment();
+        closeQuietly(entry);
+    }
+
+    private void closeQuietly(PhysicalConnection entry) {
+        entry.statements.closeAll();
+        closeQuietly(entry.connection);
+    }
+
+    private void closeQuietly(Connection connection) {
+        connectionsClosed.increment();
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            LOGGER.log(Level.FINE, "Error closing discarded connection", e);
+        }
+    }
+
+    private Connection wrap(PhysicalConnection physical) {
+        PooledConnectionHandler handler = new PooledConnectionHandler(physical, leakDetectionMillis > 0);
+        borrowed.add(handler);
+        return (Connection) Proxy.newProxyInstance(
+                DatabaseConnectionPool.class.getClassLoader(),
+                new Class<?>[] { Connection.class },
+                handler);
+    }
+
+    /**
+     * Log connections held past the leak detection threshold, once each
+     */
+    private void detectLeaks() {
+        long threshold = leakDetectionMillis;
+        if (threshold <= 0) {
+            return;
+        }
+        for (PooledConnectionHandler handler : borrowed) {
+            long heldMillis = handler.getHeldMillis();
+            if (heldMillis >= threshold && handler.markLeakReported()) {
+                leaksDetected.increment();
+                LOGGER.log(Level.WARNING, String.format("⚠️ Possible connection leak: held for %d ms by thread %s",
+                        heldMillis, handler.borrowerThread), handler.borrowSite);
+            }
         }
     }
-    
+
+    /**
+     * Periodic status line, skipped while the pool is not being used
+     */
+    private void logStatus() {
+        long borrows = getBorrowCount();
+        if (borrows != borrowsAtLastStatusLog || getActiveConnections() > 0) {
+            borrowsAtLastStatusLog = borrows;
+            LOGGER.info(getPoolStatus());
+        }
+    }
+
+    @Override
     public int getAvailableConnections() {
-        return connectionPool.size();
+        return idleConnections.size();
+    }
+
+    @Override
+    public int getActiveConnections() {
+        return MAX_POOL_SIZE - borrowPermits.availablePermits();
     }
-    
+
+    @Override
+    public int getPendingThreads() {
+        return borrowPermits.getQueueLength();
+    }
+
+    @Override
     public int getTotalConnections() {
-        // This is a simplified implementation
-        // In a real pool, you'd track all connections (available + in use)
-        return connectionPool.size();
+        return getActiveConnections() + getAvailableConnections();
+    }
+
+    @Override
+    public int getMaxConnections() {
+        return MAX_POOL_SIZE;
+    }
+
+    @Override
+    public long getBorrowCount() {
+        return borrowWait.snapshot().getCount();
+    }
+
+    @Override
+    public long getBorrowTimeoutCount() {
+        return borrowTimeouts.sum();
+    }
+
+    @Override
+    public long getConnectionsCreated() {
+        return connectionsCreated.sum();
+    }
+
+    @Override
+    public long getConnectionsClosed() {
+        return connectionsClosed.sum();
+    }
+
+    @Override
+    public long getLeakCount() {
+        return leaksDetected.sum();
+    }
+
+    @Override
+    public int getMinIdleConnections() {
+        return MIN_IDLE;
+    }
+
+    @Override
+    public long getValidationCount() {
+        return validations.sum();
+    }
+
+    @Override
+    public long getValidationFailureCount() {
+        return validationFailures.sum();
+    }
+
+    @Override
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    @Override
+    public int getStatementCacheSize() {
+        return STATEMENT_CACHE_SIZE;
+    }
+
+    @Override
+    public long getStatementCacheHitCount() {
+        return statementCacheHits.sum();
+    }
+
+    @Override
+    public long getStatementCacheMissCount() {
+        return statementCacheMisses.sum();
+    }
+
+    @Override
+    public double getStatementCacheHitRate() {
+        long hits = getStatementCacheHitCount();
+        long lookups = hits + getStatementCacheMissCount();
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    @Override
+    public long getStatementCacheEvictionCount() {
+        return statementCacheEvictions.sum();
+    }
+
+    @Override
+    public String getBorrowWait() {
+        return borrowWait.snapshot().toString();
+    }
+
+    @Override
+    public double getBorrowWaitP99Millis() {
+        return borrowWait.snapshot().getPercentileMillis(99);
+    }
+
+    @Override
+    public String getHoldTime() {
+        return holdTime.snapshot().toString();
+    }
+
+    @Override
+    public double getHoldTimeP99Millis() {
+        return holdTime.snapshot().getPercentileMillis(99);
+    }
+
+    @Override
+    public long getLeakDetectionThresholdMillis() {
+        return leakDetectionMillis;
+    }
+
+    @Override
+    public void setLeakDetectionThresholdMillis(long thresholdMillis) {
+        this.leakDetectionMillis = Math.max(0, thresholdMillis);
     }
-    
+
+    @Override
+    public String[] getBorrowedConnections() {
+        List<String> lines = new ArrayList<>();
+        for (PooledConnectionHandler handler : borrowed) {
+            lines.add(String.format("%s held %d ms%s", handler.borrowerThread, handler.getHeldMillis(),
+                    handler.leakReported ? " (reported as possible leak)" : ""));
+        }
+        return lines.toArray(new String[0]);
+    }
+
     public void closeAllConnections() {
         LOGGER.info("🔒 Closing all database connections...");
-        
-        Connection connection;
-        while ((connection = connectionPool.poll()) != null) {
+        shutdown = true;
+        monitor.shutdownNow();
+        LOGGER.info(getPoolStatus());
+
+        if (sqlStatistics.getTotalExecutions() > 0) {
+            LOGGER.info(sqlStatistics.getReport(10));
+        }
+
+        PhysicalConnection entry;
+        while ((entry = idleConnections.poll()) != null) {
+            entry.statements.closeAll();
             try {
-                connection.close();
+                entry.connection.close();
             } catch (SQLException e) {
                 LOGGER.log(Level.WARNING, "⚠️ Error closing connection", e);
             }
         }
-        
+
         LOGGER.info("✅ All database connections closed");
     }
-    
+
+    @Override
     public String getPoolStatus() {
-        return String.format("Connection Pool Status: Available=%d, Total=%d, Max=%d",
-                getAvailableConnections(), getTotalConnections(), MAX_POOL_SIZE);
+        return String.format("Connection Pool Status: Active=%d, Available=%d, Pending=%d, Total=%d, Max=%d; " +
+                        "borrow wait %s; hold time %s; timeouts=%d, leaks=%d, created=%d, closed=%d, " +
+                        "evicted=%d, failed validation=%d; statement cache hit rate %.1f%% (hits=%d, misses=%d, evicted=%d)",
+                getActiveConnections(), getAvailableConnections(), getPendingThreads(), getTotalConnections(),
+                MAX_POOL_SIZE, getBorrowWait(), getHoldTime(), getBorrowTimeoutCount(), getLeakCount(),
+                getConnectionsCreated(), getConnectionsClosed(), getEvictionCount(), getValidationFailureCount(),
+                getStatementCacheHitRate() * 100, getStatementCacheHitCount(), getStatementCacheMissCount(),
+                getStatementCacheEvictionCount());
     }
-    
+
+    // DataSource plumbing
+    @Override
+    public PrintWriter getLogWriter() {
+        return logWriter;
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) {
+        this.logWriter = out;
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) {
+        this.loginTimeout = seconds;
+    }
+
+    @Override
+    public int getLoginTimeout() {
+        return loginTimeout;
+    }
+
+    @Override
+    public Logger getParentLogger() {
+        return LOGGER;
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        throw new SQLException("Not a wrapper for " + iface.getName());
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) {
+        return iface.isInstance(this);
+    }
+
+    /**
+     * A physical connection with the times maintenance decides on
+     */
+    private final class PhysicalConnection {
+        private final Connection connection;
+        private final long createdAt = System.nanoTime();
+        // Written when returned or validated, read by the monitor thread
+        private volatile long returnedAt = createdAt;
+        private volatile long checkedAt = createdAt;
+        private final StatementCache statements = new StatementCache();
+
+        PhysicalConnection(Connection connection) {
+            this.connection = connection;
+        }
+
+        boolean isExpired(long now) {
+            return now - createdAt >= MAX_LIFETIME_NANOS;
+        }
+
+        /**
+         * prepareStatement(sql) or prepareStatement(sql, autoGeneratedKeys),
+         * served from the cache when an idle statement for them is there
+         * @param pooled Pooled connection the statement is prepared on
+         */
+        PreparedStatement prepareCached(Connection pooled, Object[] args) throws SQLException {
+            String sql = (String) args[0];
+            String key = args.length == 1 ? sql : sql + '\u0000' + args[1];
+            CachedStatement cached = statements.take(key);
+            if (cached != null && !cached.statement.isClosed()) {
+                statementCacheHits.increment();
+            } else {
+                statementCacheMisses.increment();
+                cached = new CachedStatement(args.length == 1
+                        ? connection.prepareStatement(sql)
+                        : connection.prepareStatement(sql, (Integer) args[1]));
+            }
+            return (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    new PooledStatementHandler(pooled, this, key, cached));
+        }
+
+        /**
+         * Takes back a statement its borrower closed, reset for the next one
+         */
+        void recycle(String key, CachedStatement cached, List<ResultSet> openResults) {
+            PreparedStatement statement = cached.statement;
+            try {
+                if (statement.isClosed()) {
+                    return;
+                }
+                // Only a real close releases them; the next borrower must not find a cursor still open
+                for (ResultSet resultSet : openResults) {
+                    resultSet.close();
+                }
+                cached.reset();
+                if (statements.offer(key, cached)) {
+                    return;
+                }
+            } catch (SQLException e) {
+                LOGGER.log(Level.FINE, "Prepared statement could not be reset for reuse", e);
+            }
+            closeQuietly(statement);
+        }
+    }
+
+    /**
+     * A cached prepared statement with the settings it was prepared with.
+     * A borrower may change them, e.g. a streaming fetch size, so they are
+     * put back before the statement is lent again.
+     */
+    private static final class CachedStatement {
+        private final PreparedStatement statement;
+        private final int fetchSize;
+        private final int maxRows;
+        private final int queryTimeout;
+
+        CachedStatement(PreparedStatement statement) throws SQLException {
+            this.statement = statement;
+            this.fetchSize = statement.getFetchSize();
+            this.maxRows = statement.getMaxRows();
+            this.queryTimeout = statement.getQueryTimeout();
+        }
+
+        void reset() throws SQLException {
+            statement.clearParameters();
+            statement.clearBatch();
+            statement.clearWarnings();
+            if (statement.getFetchSize() != fetchSize) {
+                statement.setFetchSize(fetchSize);
+            }
+            if (statement.getMaxRows() != maxRows) {
+                statement.setMaxRows(maxRows);
+            }
+            if (statement.getQueryTimeout() != queryTimeout) {
+                statement.setQueryTimeout(queryTimeout);
+            }
+        }
+    }
+
+    /**
+     * Idle prepared statements of one physical connection, keyed by SQL.
+     * A statement is taken out while in use, so two borrowers of the same
+     * query on one connection never share it.
+     */
+    private final class StatementCache {
+        // Insertion order is recency: a statement is re-inserted each time it is returned
+        private final Map<String, CachedStatement> idle = new LinkedHashMap<>();
+
+        synchronized CachedStatement take(String key) {
+            return idle.remove(key);
+        }
+
+        /**
+         * @return false if the statement was not kept and should be closed
+         */
+        boolean offer(String key, CachedStatement statement) {
+            CachedStatement evicted = null;
+            synchronized (this) {
+                if (STATEMENT_CACHE_SIZE == 0 || idle.containsKey(key)) {
+                    return false;
+                }
+                idle.put(key, statement);
+                if (idle.size() > STATEMENT_CACHE_SIZE) {
+                    Iterator<CachedStatement> eldest = idle.values().iterator();
+                    evicted = eldest.next();
+                    eldest.remove();
+                }
+            }
+            if (evicted != null) {
+                statementCacheEvictions.increment();
+                closeQuietly(evicted.statement);
+            }
+            return true;
+        }
+
+        /**
+         * Close the idle statements before their connection is closed,
+         * rather than rely on the driver to release them with it
+         */
+        void closeAll() {
+            List<CachedStatement> closing;
+            synchronized (this) {
+                closing = new ArrayList<>(idle.values());
+                idle.clear();
+            }
+            for (CachedStatement cached : closing) {
+                closeQuietly(cached.statement);
+            }
+        }
+    }
+
+    private static void closeQuietly(Statement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            LOGGER.log(Level.FINE, "Error closing prepared statement", e);
+        }
+    }
+
+    /**
+     * Stands in for a statement of a pooled connection. getConnection()
+     * returns the pooled connection that handed it out, never the physical
+     * one, so closing that returns it to the pool. A cached prepared
+     * statement goes back to its connection's cache on close() instead of
+     * being closed on the server.
+     */
+    private static final class PooledStatementHandler implements InvocationHandler {
+        private final Connection pooled;
+        // Set only for statements from the cache
+        private final PhysicalConnection owner;
+        private final String key;
+        private final CachedStatement cached;
+        private final Statement statement;
+        // Result sets handed out, closed with a cached statement that the borrower left them open on
+        private final List<ResultSet> results = new ArrayList<>();
+        private boolean closed = false;
+
+        PooledStatementHandler(Connection pooled, Statement statement) {
+            this(pooled, null, null, null, statement);
+        }
+
+        PooledStatementHandler(Connection pooled, PhysicalConnection owner, String key, CachedStatement cached) {
+            this(pooled, owner, key, cached, cached.statement);
+        }
+
+        private PooledStatementHandler(Connection pooled, PhysicalConnection owner, String key,
+                                       CachedStatement cached, Statement statement) {
+            this.pooled = pooled;
+            this.owner = owner;
+            this.key = key;
+            this.cached = cached;
+            this.statement = statement;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        if (owner != null) {
+                            owner.recycle(key, cached, results);
+                        } else {
+                            statement.close();
+                        }
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || statement.isClosed();
+                case "unwrap":
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return proxy;
+                    }
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledStatement[" + statement + (closed ? ", closed" : "") + "]";
+                default:
+                    break;
+            }
+
+            if (closed) {
+                throw new SQLException("Statement has already been closed");
+            }
+            if ("getConnection".equals(method.getName())) {
+                return pooled;
+            }
+
+            if (method.getName().startsWith("execute")) {
+                // Executing again closes the statement's earlier result sets
+                results.clear();
+            }
+            try {
+                Object result = method.invoke(statement, args);
+                if (owner != null && result instanceof ResultSet resultSet) {
+                    results.add(resultSet);
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * Delegates every call to the physical connection except close(), which
+     * hands the connection back to the pool exactly once.
+     */
+    private final class PooledConnectionHandler implements InvocationHandler {
+        private final PhysicalConnection entry;
+        private final Connection physical;
+        private final long borrowedAt = System.nanoTime();
+        private final String borrowerThread = Thread.currentThread().getName();
+        // Where the connection was borrowed, kept only while leak detection is on
+        private final Exception borrowSite;
+        private volatile boolean leakReported;
+        private boolean closed = false;
+
+        PooledConnectionHandler(PhysicalConnection entry, boolean captureBorrowSite) {
+            this.entry = entry;
+            this.physical = entry.connection;
+            this.borrowSite = captureBorrowSite ? new Exception("Connection borrowed here") : null;
+        }
+
+        long getHeldMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - borrowedAt);
+        }
+
+        boolean markLeakReported() {
+            if (leakReported) {
+                return false;
+            }
+            leakReported = true;
+            return true;
+        }
+
+        private void returnToPool() {
+            long heldNanos = System.nanoTime() - borrowedAt;
+            borrowed.remove(this);
+            holdTime.record(heldNanos);
+            if (leakReported) {
+                LOGGER.info(String.format("🔁 Connection reported as a possible leak was returned after %d ms by thread %s",
+                        TimeUnit.NANOSECONDS.toMillis(heldNanos), borrowerThread));
+            }
+            release(entry);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        returnToPool();
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || physical.isClosed();
+                case "unwrap":
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return proxy;
+                    }
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + physical + (closed ? ", closed" : "") + "]";
+                default:
+                    break;
+            }
+
+            if (closed) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+
+            if (STATEMENT_CACHE_SIZE > 0 && isCacheablePrepare(method)) {
+                return sqlStatistics.instrument(entry.prepareCached((Connection) proxy, args),
+                        PreparedStatement.class, (String) args[0]);
+            }
+
+            Object result;
+            try {
+                result = method.invoke(physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+
+            if (result instanceof Statement) {
+                // prepareStatement and prepareCall take the SQL first; createStatement has none
+                String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+                Class<?> type = method.getReturnType();
+                Statement statement = (Statement) Proxy.newProxyInstance(
+                        DatabaseConnectionPool.class.getClassLoader(),
+                        new Class<?>[]{type},
+                        new PooledStatementHandler((Connection) proxy, (Statement) result));
+                return sqlStatistics.instrument(statement, type, sql);
+            }
+            return result;
+        }
+    }
+
+    // prepareStatement(String) and prepareStatement(String, int autoGeneratedKeys); other
+    // overloads (cursor options, key columns) are rare enough to prepare each time
+    private static boolean isCacheablePrepare(Method method) {
+        if (!"prepareStatement".equals(method.getName())) {
+            return false;
+        }
+        Class<?>[] parameters = method.getParameterTypes();
+        return parameters.length == 1 || (parameters.length == 2 && parameters[1] == int.class);
+    }
+
     // Shutdown hook to clean up connections
     static {
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
@@ -189,4 +1042,4 @@ public class DatabaseConnectionPool {
             }
         }));
     }
-}
\ No newline at end of file
+}
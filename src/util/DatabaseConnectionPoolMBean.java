@@ -0,0 +1,73 @@
+package util;
+
+/**
+ * JMX view of {@link DatabaseConnectionPool}, registered as
+ * {@value DatabaseConnectionPool#OBJECT_NAME}
+ */
+public interface DatabaseConnectionPoolMBean {
+    /** Connections borrowed, plus any the monitor is validating or opening */
+    int getActiveConnections();
+
+    /** Idle connections ready to borrow */
+    int getAvailableConnections();
+
+    /** Threads waiting for a connection (an estimate) */
+    int getPendingThreads();
+
+    int getTotalConnections();
+
+    int getMaxConnections();
+
+    long getBorrowCount();
+
+    long getBorrowTimeoutCount();
+
+    long getConnectionsCreated();
+
+    long getConnectionsClosed();
+
+    long getLeakCount();
+
+    int getMinIdleConnections();
+
+    /** Background validations of idle connections */
+    long getValidationCount();
+
+    long getValidationFailureCount();
+
+    /** Connections closed for exceeding their lifetime or idle timeout */
+    long getEvictionCount();
+
+    /** Idle prepared statements kept per connection; 0 when the cache is off */
+    int getStatementCacheSize();
+
+    long getStatementCacheHitCount();
+
+    long getStatementCacheMissCount();
+
+    /** Hits over all cacheable prepares, from 0 to 1 */
+    double getStatementCacheHitRate();
+
+    /** Cached statements closed to make room for others */
+    long getStatementCacheEvictionCount();
+
+    /** Time to get a connection, including waiting for one */
+    String getBorrowWait();
+
+    double getBorrowWaitP99Millis();
+
+    /** Time from borrowing a connection to closing it */
+    String getHoldTime();
+
+    double getHoldTimeP99Millis();
+
+    long getLeakDetectionThresholdMillis();
+
+    /** Zero turns leak detection off */
+    void setLeakDetectionThresholdMillis(long thresholdMillis);
+
+    /** One line per connection currently borrowed: thread and time held */
+    String[] getBorrowedConnections();
+
+    String getPoolStatus();
+}
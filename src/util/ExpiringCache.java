@@ -0,0 +1,152 @@
+package util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Small thread-safe cache with a per-entry time to live and a size bound.
+ * When full, the least recently used entry is evicted.
+ *
+ * Loads that race with an invalidation are handled with stamps: take
+ * {@link #stamp()} before reading the source, and {@link #put(Object, Object, long)}
+ * drops the value if anything was invalidated in the meantime.
+ */
+public class ExpiringCache<K, V> {
+    private final int maxSize;
+    private final long ttlNanos;
+
+    // Access-ordered, so iteration starts at the least recently used entry
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final AtomicLong invalidations = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * @param maxSize maximum number of entries; zero or less disables caching
+     * @param ttlSeconds seconds an entry stays valid; zero or less disables caching
+     */
+    public ExpiringCache(int maxSize, long ttlSeconds) {
+        this.maxSize = Math.max(0, maxSize);
+        this.ttlNanos = ttlSeconds > 0 ? ttlSeconds * 1_000_000_000L : 0;
+    }
+
+    public boolean isEnabled() {
+        return maxSize > 0 && ttlNanos > 0;
+    }
+
+    /**
+     * @return cached value, or null if absent or expired
+     */
+    public V get(K key) {
+        if (!isEnabled()) {
+            misses.incrementAndGet();
+            return null;
+        }
+
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && entry.expiresAt - System.nanoTime() > 0) {
+                hits.incrementAndGet();
+                return entry.value;
+            }
+            if (entry != null) {
+                entries.remove(key);
+            }
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Current invalidation stamp, to pass to {@link #put(Object, Object, long)}
+     */
+    public long stamp() {
+        return invalidations.get();
+    }
+
+    /**
+     * Cache a value loaded after {@code stamp} was taken, unless an
+     * invalidation happened since then
+     */
+    public void put(K key, V value, long stamp) {
+        if (!isEnabled() || key == null || value == null) {
+            return;
+        }
+
+        synchronized (entries) {
+            if (invalidations.get() != stamp) {
+                return;
+            }
+            entries.put(key, new Entry<>(value, System.nanoTime() + ttlNanos));
+            evictOverflow();
+        }
+    }
+
+    public void invalidate(K key) {
+        synchronized (entries) {
+            invalidations.incrementAndGet();
+            entries.remove(key);
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            invalidations.incrementAndGet();
+            entries.clear();
+        }
+    }
+
+    private void evictOverflow() {
+        // Expired entries go first, then the least recently used
+        long now = System.nanoTime();
+        Iterator<Map.Entry<K, Entry<V>>> it = entries.entrySet().iterator();
+        while (entries.size() > maxSize && it.hasNext()) {
+            Map.Entry<K, Entry<V>> candidate = it.next();
+            if (candidate.getValue().expiresAt - now <= 0) {
+                it.remove();
+                evictions.incrementAndGet();
+            }
+        }
+        it = entries.entrySet().iterator();
+        while (entries.size() > maxSize && it.hasNext()) {
+            it.next();
+            it.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHitCount() { return hits.get(); }
+    public long getMissCount() { return misses.get(); }
+    public long getEvictionCount() { return evictions.get(); }
+
+    public double getHitRate() {
+        long h = hits.get();
+        long total = h + misses.get();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    public String getStats() {
+        return String.format("Cache Status: Size=%d/%d, Hits=%d, Misses=%d, Evictions=%d, HitRate=%.1f%%",
+                size(), maxSize, getHitCount(), getMissCount(), getEvictionCount(), getHitRate() * 100);
+    }
+
+    private static final class Entry<V> {
+        final V value;
+        final long expiresAt;
+
+        Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
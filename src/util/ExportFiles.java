@@ -0,0 +1,37 @@
+package util;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writers for report exports.
+ *
+ * Exports are written row by row as the data is read, so the file is never
+ * held in memory. Text goes through a char buffer and is encoded straight
+ * into the file channel in large writes.
+ */
+public final class ExportFiles {
+    private static final int BUFFER_CHARS = 64 * 1024;
+
+    private ExportFiles() {
+    }
+
+    /**
+     * Open a UTF-8 writer that creates or replaces a file
+     * @param path File to write
+     * @return Buffered writer; closing it closes the file
+     * @throws IOException if the file cannot be opened
+     */
+    public static Writer newWriter(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        return new BufferedWriter(
+                Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(), BUFFER_CHARS), BUFFER_CHARS);
+    }
+}
@@ -0,0 +1,100 @@
+package util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe histogram of durations in fixed millisecond buckets.
+ *
+ * Recording is a couple of adder increments, cheap enough for every SQL
+ * execution or connection borrow. Percentiles are estimated as the upper
+ * bound of the bucket they fall in, capped at the slowest value seen.
+ */
+public final class LatencyHistogram {
+    // Upper bounds of the buckets in ms; one more bucket takes everything slower
+    private static final long[] BUCKET_MILLIS = {1, 2, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000, 30000};
+
+    private final LongAdder[] buckets = new LongAdder[BUCKET_MILLIS.length + 1];
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public LatencyHistogram() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(long elapsedNanos) {
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        int bucket = 0;
+        while (bucket < BUCKET_MILLIS.length && elapsedMillis >= BUCKET_MILLIS[bucket]) {
+            bucket++;
+        }
+        buckets[bucket].increment();
+        totalNanos.add(elapsedNanos);
+        maxNanos.accumulateAndGet(elapsedNanos, Math::max);
+    }
+
+    public Snapshot snapshot() {
+        long[] counts = new long[buckets.length];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = buckets[i].sum();
+        }
+        return new Snapshot(counts, totalNanos.sum(), maxNanos.get());
+    }
+
+    /**
+     * Histogram contents at a point in time
+     */
+    public static final class Snapshot {
+        private final long[] bucketCounts;
+        private final long count;
+        private final long totalNanos;
+        private final long maxNanos;
+
+        private Snapshot(long[] bucketCounts, long totalNanos, long maxNanos) {
+            long sum = 0;
+            for (long bucketCount : bucketCounts) {
+                sum += bucketCount;
+            }
+            this.bucketCounts = bucketCounts;
+            this.count = sum;
+            this.totalNanos = totalNanos;
+            this.maxNanos = maxNanos;
+        }
+
+        public long getCount() { return count; }
+        public long getTotalNanos() { return totalNanos; }
+        public double getTotalMillis() { return totalNanos / 1_000_000.0; }
+        public double getMaxMillis() { return maxNanos / 1_000_000.0; }
+
+        public double getMeanMillis() {
+            return count == 0 ? 0 : getTotalMillis() / count;
+        }
+
+        /**
+         * @param percentile From 0 to 100
+         */
+        public double getPercentileMillis(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(count * percentile / 100.0));
+            long seen = 0;
+            for (int i = 0; i < BUCKET_MILLIS.length; i++) {
+                seen += bucketCounts[i];
+                if (seen >= rank) {
+                    return Math.min(BUCKET_MILLIS[i], getMaxMillis());
+                }
+            }
+            return getMaxMillis();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("n=%d mean=%.1f p50=%.1f p95=%.1f p99=%.1f max=%.1f ms", count, getMeanMillis(),
+                    getPercentileMillis(50), getPercentileMillis(95), getPercentileMillis(99), getMaxMillis());
+        }
+    }
+}
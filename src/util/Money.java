@@ -0,0 +1,116 @@
+package util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point peso amounts held in a {@code long} as whole centavos.
+ *
+ * Amounts stay primitives, so arithmetic allocates nothing and sums are
+ * exact: adding the same payrolls in any order, on any number of threads,
+ * gives the same total to the centavo. Every operation that can leave a
+ * fraction of a centavo takes an explicit {@link RoundingMode}.
+ * Conversions from {@code double} are for values coming from the database
+ * or the UI; calculations should stay in centavos.
+ */
+public final class Money {
+    public static final long CENTAVOS_PER_PESO = 100;
+
+    /** Rounding used where none is given: half a centavo rounds away from zero */
+    public static final RoundingMode DEFAULT_ROUNDING = RoundingMode.HALF_UP;
+
+    private Money() {
+    }
+
+    /**
+     * Centavos for a peso amount, rounded half up
+     */
+    public static long of(double pesos) {
+        return of(pesos, DEFAULT_ROUNDING);
+    }
+
+    /**
+     * Centavos for a peso amount
+     * @throws ArithmeticException if the amount is not finite or does not fit
+     */
+    public static long of(double pesos, RoundingMode rounding) {
+        if (Double.isNaN(pesos) || Double.isInfinite(pesos)) {
+            throw new ArithmeticException("Not a peso amount: " + pesos);
+        }
+        double scaled = pesos * CENTAVOS_PER_PESO;
+        if (Math.abs(scaled) < 1e15) {
+            long nearest = Math.round(scaled);
+            if (Math.abs(scaled - nearest) < 1e-6) {
+                // Already a whole number of centavos, as amounts read from DECIMAL(,2) columns are
+                return nearest;
+            }
+        }
+        // Round the decimal the double was written as, not its binary expansion
+        return BigDecimal.valueOf(pesos).setScale(2, rounding).unscaledValue().longValueExact();
+    }
+
+    public static long ofPesos(long pesos) {
+        return Math.multiplyExact(pesos, CENTAVOS_PER_PESO);
+    }
+
+    public static double toPesos(long centavos) {
+        return centavos / (double) CENTAVOS_PER_PESO;
+    }
+
+    public static BigDecimal toBigDecimal(long centavos) {
+        return BigDecimal.valueOf(centavos, 2);
+    }
+
+    /**
+     * {@code centavos * numerator / denominator}, rounded once. Rates such as
+     * "monthly salary over 22 days" are applied as a ratio this way rather
+     * than by first rounding the rate itself.
+     * @throws ArithmeticException if the product overflows or the denominator is zero
+     */
+    public static long multiply(long centavos, long numerator, long denominator, RoundingMode rounding) {
+        return divide(Math.multiplyExact(centavos, numerator), denominator, rounding);
+    }
+
+    /**
+     * {@code centavos / divisor}, rounded
+     * @throws ArithmeticException if the divisor is zero, or with
+     *         {@link RoundingMode#UNNECESSARY} if the division is not exact
+     */
+    public static long divide(long centavos, long divisor, RoundingMode rounding) {
+        if (divisor == 0) {
+            throw new ArithmeticException("Division by zero");
+        }
+        long quotient = centavos / divisor;
+        long remainder = centavos % divisor;
+        if (remainder == 0) {
+            return quotient;
+        }
+
+        // Direction away from zero, and how the remainder compares with half the divisor
+        int signum = (centavos < 0) == (divisor < 0) ? 1 : -1;
+        long absRemainder = Math.abs(remainder);
+        int half = Long.compare(absRemainder, Math.abs(divisor) - absRemainder);
+
+        boolean awayFromZero;
+        switch (rounding) {
+            case UP:          awayFromZero = true; break;
+            case DOWN:        awayFromZero = false; break;
+            case CEILING:     awayFromZero = signum > 0; break;
+            case FLOOR:       awayFromZero = signum < 0; break;
+            case HALF_UP:     awayFromZero = half >= 0; break;
+            case HALF_DOWN:   awayFromZero = half > 0; break;
+            case HALF_EVEN:   awayFromZero = half > 0 || (half == 0 && (quotient & 1) != 0); break;
+            case UNNECESSARY: throw new ArithmeticException("Rounding necessary: " + centavos + " / " + divisor);
+            default:          throw new IllegalArgumentException("Unknown rounding mode: " + rounding);
+        }
+        return awayFromZero ? quotient + signum : quotient;
+    }
+
+    /**
+     * Amount with thousands separators and two decimals, e.g. "-1,234.50"
+     */
+    public static String format(long centavos) {
+        long abs = Math.abs(centavos);
+        return String.format("%s%,d.%02d", centavos < 0 ? "-" : "", abs / CENTAVOS_PER_PESO, abs % CENTAVOS_PER_PESO);
+    }
+}
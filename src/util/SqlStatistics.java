@@ -0,0 +1,436 @@
+package util;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Latency, row and error counts for every SQL statement run through
+ * {@link DatabaseConnectionPool}.
+ *
+ * The pool hands each statement it prepares to {@link #instrument}, which
+ * wraps it so every execute call is timed and its rows counted. Statements
+ * are keyed by their SQL text, so all calls to one DAO query add up in one
+ * place, each with a latency histogram. Executions slower than the
+ * threshold are written to the "sql.slow" logger, which can be routed or
+ * silenced on its own. The numbers are exposed over JMX as
+ * {@value #OBJECT_NAME}.
+ */
+public class SqlStatistics implements SqlStatisticsMBean {
+    private static final Logger LOGGER = Logger.getLogger(SqlStatistics.class.getName());
+    private static final Logger SLOW_QUERY_LOGGER = Logger.getLogger("sql.slow");
+
+    public static final String OBJECT_NAME = "motorph.payroll:type=SqlStatistics";
+
+    private static final String OTHER_STATEMENTS = "(other statements)";
+    private static final String STATEMENT_BATCH = "(statement batch)";
+    private static final int TOP_STATEMENTS = 20;
+
+    private static SqlStatistics instance;
+
+    private final Map<String, StatementStats> statements = new ConcurrentHashMap<>();
+    private final int maxStatements;
+    private final LongAdder slowQueries = new LongAdder();
+    private volatile boolean enabled;
+    private volatile long slowQueryThresholdMillis;
+
+    public static synchronized SqlStatistics getInstance() {
+        if (instance == null) {
+            ConfigurationManager config = ConfigurationManager.getInstance();
+            instance = new SqlStatistics(config.isSqlStatisticsEnabled(),
+                    config.getSlowQueryThresholdMillis(), config.getSqlStatisticsMaxStatements());
+            try {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(instance, new ObjectName(OBJECT_NAME));
+            } catch (JMException e) {
+                LOGGER.log(Level.WARNING, "⚠️ SQL statistics not available over JMX", e);
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * @param enabled Whether statements are instrumented at all
+     * @param slowQueryThresholdMillis Executions at least this slow are logged
+     * @param maxStatements Distinct SQL strings tracked; later ones are
+     *        counted together, so SQL built with literal values cannot grow
+     *        the table without bound
+     */
+    public SqlStatistics(boolean enabled, long slowQueryThresholdMillis, int maxStatements) {
+        this.enabled = enabled;
+        this.slowQueryThresholdMillis = Math.max(0, slowQueryThresholdMillis);
+        this.maxStatements = Math.max(1, maxStatements);
+    }
+
+    /**
+     * Wrap a statement so its executions are recorded
+     * @param statement Statement from the physical connection
+     * @param type Interface to expose: Statement, PreparedStatement or CallableStatement
+     * @param sql SQL it was prepared with, or null for a plain Statement,
+     *        whose SQL comes with each execute call
+     * @return The instrumented statement, or the statement itself while disabled
+     */
+    public Statement instrument(Statement statement, Class<?> type, String sql) {
+        if (!enabled || !Statement.class.isAssignableFrom(type) || !type.isInterface()) {
+            return statement;
+        }
+        return (Statement) Proxy.newProxyInstance(SqlStatistics.class.getClassLoader(),
+                new Class<?>[] { type }, new StatementHandler(statement, sql));
+    }
+
+    /**
+     * Record one execution
+     * @param rows Rows updated, or 0 for a query whose rows are added when read
+     * @return Statistics for the statement, for adding rows later
+     */
+    StatementStats record(String sql, long elapsedNanos, long rows, boolean failed) {
+        StatementStats stats = statsFor(sql);
+        stats.record(elapsedNanos, rows, failed);
+
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        if (elapsedMillis >= slowQueryThresholdMillis) {
+            slowQueries.increment();
+            if (SLOW_QUERY_LOGGER.isLoggable(Level.WARNING)) {
+                SLOW_QUERY_LOGGER.warning(String.format("🐢 Slow SQL: %d ms%s%s: %s", elapsedMillis,
+                        rows > 0 ? ", " + rows + " rows" : "", failed ? ", failed" : "", compact(sql)));
+            }
+        }
+        return stats;
+    }
+
+    private StatementStats statsFor(String sql) {
+        StatementStats stats = statements.get(sql);
+        if (stats != null) {
+            return stats;
+        }
+        String key = statements.size() < maxStatements ? sql : OTHER_STATEMENTS;
+        return statements.computeIfAbsent(key, StatementStats::new);
+    }
+
+    /**
+     * Statistics for every statement, most total time first
+     */
+    public List<StatementSnapshot> getSnapshots() {
+        List<StatementSnapshot> snapshots = new ArrayList<>(statements.size());
+        for (StatementStats stats : statements.values()) {
+            snapshots.add(stats.snapshot());
+        }
+        snapshots.sort(Comparator.comparingLong(StatementSnapshot::getTotalNanos).reversed());
+        return snapshots;
+    }
+
+    @Override
+    public String getReport(int limit) {
+        List<StatementSnapshot> snapshots = getSnapshots();
+        StringBuilder report = new StringBuilder(String.format(
+                "SQL statistics: %d statements, %d executions, %d errors, %d slow (>= %d ms)%n",
+                snapshots.size(), getTotalExecutions(), getTotalErrors(), getSlowQueryCount(), slowQueryThresholdMillis));
+        report.append(String.format("%10s %10s %8s %8s %8s %8s %8s %10s %6s  %s%n",
+                "total ms", "calls", "mean ms", "p50 ms", "p95 ms", "p99 ms", "max ms", "rows", "errors", "sql"));
+        for (int i = 0; i < Math.min(limit, snapshots.size()); i++) {
+            report.append(snapshots.get(i)).append(System.lineSeparator());
+        }
+        return report.toString();
+    }
+
+    @Override
+    public String[] getTopStatements() {
+        List<StatementSnapshot> snapshots = getSnapshots();
+        String[] lines = new String[Math.min(TOP_STATEMENTS, snapshots.size())];
+        for (int i = 0; i < lines.length; i++) {
+            lines[i] = snapshots.get(i).toString();
+        }
+        return lines;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Override
+    public long getSlowQueryThresholdMillis() {
+        return slowQueryThresholdMillis;
+    }
+
+    @Override
+    public void setSlowQueryThresholdMillis(long thresholdMillis) {
+        this.slowQueryThresholdMillis = Math.max(0, thresholdMillis);
+    }
+
+    @Override
+    public int getStatementCount() {
+        return statements.size();
+    }
+
+    @Override
+    public long getTotalExecutions() {
+        return statements.values().stream().mapToLong(stats -> stats.latency.snapshot().getCount()).sum();
+    }
+
+    @Override
+    public long getTotalErrors() {
+        return statements.values().stream().mapToLong(stats -> stats.errors.sum()).sum();
+    }
+
+    @Override
+    public long getSlowQueryCount() {
+        return slowQueries.sum();
+    }
+
+    @Override
+    public void reset() {
+        statements.clear();
+        slowQueries.reset();
+    }
+
+    /**
+     * SQL on one line with runs of whitespace collapsed, for logs
+     */
+    private static String compact(String sql) {
+        return sql.replaceAll("\\s+", " ").trim();
+    }
+
+    private static Object delegate(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Rows reported by an execute call: update counts, or 0 for a query
+     */
+    private static long rowsOf(Object result) {
+        if (result instanceof Number) {
+            return Math.max(0, ((Number) result).longValue());
+        }
+        long rows = 0;
+        if (result instanceof int[]) {
+            for (int count : (int[]) result) {
+                rows += Math.max(0, count);
+            }
+        } else if (result instanceof long[]) {
+            for (long count : (long[]) result) {
+                rows += Math.max(0, count);
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Running totals for one SQL string
+     */
+    static final class StatementStats {
+        private final String sql;
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        StatementStats(String sql) {
+            this.sql = sql;
+        }
+
+        void record(long elapsedNanos, long rowCount, boolean failed) {
+            latency.record(elapsedNanos);
+            if (failed) {
+                errors.increment();
+            }
+            addRows(rowCount);
+        }
+
+        void addRows(long rowCount) {
+            if (rowCount > 0) {
+                rows.add(rowCount);
+            }
+        }
+
+        StatementSnapshot snapshot() {
+            return new StatementSnapshot(sql, errors.sum(), rows.sum(), latency.snapshot());
+        }
+    }
+
+    /**
+     * Statistics for one SQL string at a point in time
+     */
+    public static final class StatementSnapshot {
+        private final String sql;
+        private final long errors;
+        private final long rows;
+        private final LatencyHistogram.Snapshot latency;
+
+        StatementSnapshot(String sql, long errors, long rows, LatencyHistogram.Snapshot latency) {
+            this.sql = sql;
+            this.errors = errors;
+            this.rows = rows;
+            this.latency = latency;
+        }
+
+        public String getSql() { return sql; }
+        public long getExecutions() { return latency.getCount(); }
+        public long getErrors() { return errors; }
+        public long getRows() { return rows; }
+        public long getTotalNanos() { return latency.getTotalNanos(); }
+        public LatencyHistogram.Snapshot getLatency() { return latency; }
+
+        @Override
+        public String toString() {
+            return String.format("%10.1f %10d %8.2f %8.1f %8.1f %8.1f %8.1f %10d %6d  %s",
+                    latency.getTotalMillis(), latency.getCount(), latency.getMeanMillis(),
+                    latency.getPercentileMillis(50), latency.getPercentileMillis(95),
+                    latency.getPercentileMillis(99), latency.getMaxMillis(), rows, errors, compact(sql));
+        }
+    }
+
+    /**
+     * Times every execute call on a statement. Rows of a query are counted
+     * as the result set is read and added when it is closed.
+     */
+    private final class StatementHandler implements InvocationHandler {
+        private final Statement statement;
+        private final String sql;
+        private StatementStats lastExecuted;
+        private ResultSetHandler openResults;
+
+        StatementHandler(Statement statement, String sql) {
+            this.statement = statement;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                return execute(method, args);
+            }
+            switch (name) {
+                case "getResultSet":
+                    Object results = delegate(statement, method, args);
+                    return results != null && lastExecuted != null ? wrapResults((ResultSet) results, lastExecuted) : results;
+                case "close":
+                    closeResults();
+                    break;
+                case "unwrap":
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return proxy;
+                    }
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "InstrumentedStatement[" + statement + "]";
+                default:
+                    break;
+            }
+            return delegate(statement, method, args);
+        }
+
+        private Object execute(Method method, Object[] args) throws Throwable {
+            String key = sql;
+            if (key == null) {
+                key = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : STATEMENT_BATCH;
+            }
+            closeResults();
+
+            long started = System.nanoTime();
+            Object result;
+            try {
+                result = delegate(statement, method, args);
+            } catch (Throwable e) {
+                lastExecuted = record(key, System.nanoTime() - started, 0, true);
+                throw e;
+            }
+            lastExecuted = record(key, System.nanoTime() - started, rowsOf(result), false);
+
+            if (result instanceof ResultSet) {
+                return wrapResults((ResultSet) result, lastExecuted);
+            }
+            return result;
+        }
+
+        private ResultSet wrapResults(ResultSet results, StatementStats stats) {
+            closeResults();
+            openResults = new ResultSetHandler(results, stats);
+            return (ResultSet) Proxy.newProxyInstance(SqlStatistics.class.getClassLoader(),
+                    new Class<?>[] { ResultSet.class }, openResults);
+        }
+
+        private void closeResults() {
+            if (openResults != null) {
+                openResults.flush();
+                openResults = null;
+            }
+        }
+    }
+
+    /**
+     * Counts the rows read from a result set
+     */
+    private static final class ResultSetHandler implements InvocationHandler {
+        private final ResultSet results;
+        private final StatementStats stats;
+        private long rows;
+        private boolean flushed;
+
+        ResultSetHandler(ResultSet results, StatementStats stats) {
+            this.results = results;
+            this.stats = stats;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "next":
+                    Object hasRow = delegate(results, method, args);
+                    if (Boolean.TRUE.equals(hasRow)) {
+                        rows++;
+                    }
+                    return hasRow;
+                case "close":
+                    flush();
+                    break;
+                case "unwrap":
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return proxy;
+                    }
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+            return delegate(results, method, args);
+        }
+
+        void flush() {
+            if (!flushed) {
+                flushed = true;
+                stats.addRows(rows);
+            }
+        }
+    }
+}
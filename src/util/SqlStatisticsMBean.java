@@ -0,0 +1,33 @@
+package util;
+
+/**
+ * JMX view of {@link SqlStatistics}, registered as
+ * {@value SqlStatistics#OBJECT_NAME}
+ */
+public interface SqlStatisticsMBean {
+    boolean isEnabled();
+
+    /** Statements prepared after this call are timed, or not */
+    void setEnabled(boolean enabled);
+
+    long getSlowQueryThresholdMillis();
+
+    void setSlowQueryThresholdMillis(long thresholdMillis);
+
+    /** Distinct SQL strings seen since the last reset */
+    int getStatementCount();
+
+    long getTotalExecutions();
+
+    long getTotalErrors();
+
+    long getSlowQueryCount();
+
+    /** One line per statement, most total time first */
+    String[] getTopStatements();
+
+    /** Table of the statements with the most total time */
+    String getReport(int limit);
+
+    void reset();
+}
@@ -0,0 +1,150 @@
+-- Effective-dated statutory rate tables for MotorPH Payroll System
+-- SSS, PhilHealth, Pag-IBIG and withholding tax brackets move out of code so
+-- rate changes are a data change. PayrollCalculator (via StatutoryRates) and
+-- sp_calculate_government_contributions both read these rows.
+
+USE aoopdatabase_payroll;
+
+-- =============================================
+-- RATE BRACKETS
+-- =============================================
+-- One row per bracket. A schedule is every row sharing contribution_type and
+-- effective_date; the row with the smallest upper_bound >= base applies and
+-- the amount is fixed_amount + (base - excess_over) * rate, clamped to
+-- [min_amount, max_amount]. Annualized schedules (withholding tax) look up
+-- base = monthly * 12 and return the result divided by 12.
+CREATE TABLE IF NOT EXISTS statutory_rate_brackets (
+    bracket_id INT AUTO_INCREMENT PRIMARY KEY,
+    contribution_type ENUM('SSS', 'PHILHEALTH', 'PAGIBIG', 'WITHHOLDING_TAX') NOT NULL,
+    effective_date DATE NOT NULL,
+    upper_bound DECIMAL(14,2) NULL COMMENT 'Inclusive; NULL means no upper limit',
+    fixed_amount DECIMAL(14,2) NOT NULL DEFAULT 0,
+    rate DECIMAL(7,5) NOT NULL DEFAULT 0,
+    excess_over DECIMAL(14,2) NOT NULL DEFAULT 0,
+    min_amount DECIMAL(14,2) NOT NULL DEFAULT 0,
+    max_amount DECIMAL(14,2) NULL,
+    annualized BOOLEAN NOT NULL DEFAULT FALSE,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    -- upper_bound with the open-ended bracket as a value, since NULLs never collide in a unique key
+    upper_bound_key DECIMAL(14,2) AS (COALESCE(upper_bound, 999999999999.99)) STORED,
+    UNIQUE KEY unique_bracket (contribution_type, effective_date, upper_bound_key),
+    INDEX idx_rate_lookup (contribution_type, effective_date)
+);
+
+-- Current schedules, matching the rules PayrollCalculator has always applied.
+-- IGNORE keeps a rerun from duplicating brackets or overwriting edited rates.
+INSERT IGNORE INTO statutory_rate_brackets
+    (contribution_type, effective_date, upper_bound, fixed_amount, rate, excess_over, min_amount, max_amount, annualized)
+VALUES
+-- SSS employee share
+('SSS', '2018-01-01', 4000.00, 180.00, 0, 0, 0, NULL, FALSE),
+('SSS', '2018-01-01', 4750.00, 202.50, 0, 0, 0, NULL, FALSE),
+('SSS', '2018-01-01', 5500.00, 225.00, 0, 0, 0, NULL, FALSE),
+('SSS', '2018-01-01', 6250.00, 247.50, 0, 0, 0, NULL, FALSE),
+('SSS', '2018-01-01', 7000.00, 270.00, 0, 0, 0, NULL, FALSE),
+('SSS', '2018-01-01', 7750.00, 292.50, 0, 0, 0, NULL, FALSE),
+('SSS', '2018-01-01', 8500.00, 315.00, 0, 0, 0, NULL, FALSE),
+('SSS', '2018-01-01', 9250.00, 337.50, 0, 0, 0, NULL, FALSE),
+('SSS', '2018-01-01', 10000.00, 360.00, 0, 0, 0, NULL, FALSE),
+('SSS', '2018-01-01', 15000.00, 540.00, 0, 0, 0, NULL, FALSE),
+('SSS', '2018-01-01', 20000.00, 720.00, 0, 0, 0, NULL, FALSE),
+('SSS', '2018-01-01', 25000.00, 900.00, 0, 0, 0, NULL, FALSE),
+('SSS', '2018-01-01', NULL, 1125.00, 0, 0, 0, NULL, FALSE),
+
+-- PhilHealth employee share (5% premium split with employer)
+('PHILHEALTH', '2018-01-01', NULL, 0, 0.02500, 0, 500.00, 5000.00, FALSE),
+
+-- Pag-IBIG employee share
+('PAGIBIG', '2018-01-01', 1500.00, 0, 0.01000, 0, 0, NULL, FALSE),
+('PAGIBIG', '2018-01-01', NULL, 0, 0.02000, 0, 0, 200.00, FALSE),
+
+-- Withholding tax (TRAIN law, annual brackets)
+('WITHHOLDING_TAX', '2018-01-01', 250000.00, 0, 0, 0, 0, NULL, TRUE),
+('WITHHOLDING_TAX', '2018-01-01', 400000.00, 0, 0.15000, 250000.00, 0, NULL, TRUE),
+('WITHHOLDING_TAX', '2018-01-01', 800000.00, 22500.00, 0.20000, 400000.00, 0, NULL, TRUE),
+('WITHHOLDING_TAX', '2018-01-01', 2000000.00, 102500.00, 0.25000, 800000.00, 0, NULL, TRUE),
+('WITHHOLDING_TAX', '2018-01-01', 8000000.00, 402500.00, 0.30000, 2000000.00, 0, NULL, TRUE),
+('WITHHOLDING_TAX', '2018-01-01', NULL, 2202500.00, 0.35000, 8000000.00, 0, NULL, TRUE);
+
+-- =============================================
+-- LOOKUP FUNCTION AND PROCEDURE
+-- =============================================
+DELIMITER //
+
+DROP FUNCTION IF EXISTS fn_statutory_amount //
+
+-- Amount due for one contribution type on a monthly base as of a date
+CREATE FUNCTION fn_statutory_amount(
+    p_type VARCHAR(20),
+    p_monthly_base DECIMAL(14,2),
+    p_as_of DATE
+)
+RETURNS DECIMAL(14,4)
+READS SQL DATA
+BEGIN
+    DECLARE v_effective DATE;
+    DECLARE v_annualized BOOLEAN DEFAULT FALSE;
+    DECLARE v_base DECIMAL(16,2);
+    DECLARE v_amount DECIMAL(16,4) DEFAULT 0;
+
+    -- Latest schedule in force on the date; dates before the first schedule use the earliest
+    SELECT MAX(effective_date) INTO v_effective
+    FROM statutory_rate_brackets
+    WHERE contribution_type = p_type AND effective_date <= p_as_of;
+
+    IF v_effective IS NULL THEN
+        SELECT MIN(effective_date) INTO v_effective
+        FROM statutory_rate_brackets
+        WHERE contribution_type = p_type;
+    END IF;
+
+    IF v_effective IS NULL THEN
+        RETURN 0.00;
+    END IF;
+
+    SELECT annualized INTO v_annualized
+    FROM statutory_rate_brackets
+    WHERE contribution_type = p_type AND effective_date = v_effective
+    LIMIT 1;
+
+    SET v_base = IF(v_annualized, p_monthly_base * 12, p_monthly_base);
+
+    SELECT LEAST(GREATEST(fixed_amount + (v_base - excess_over) * rate, min_amount),
+                 COALESCE(max_amount, GREATEST(fixed_amount + (v_base - excess_over) * rate, min_amount)))
+    INTO v_amount
+    FROM statutory_rate_brackets
+    WHERE contribution_type = p_type
+      AND effective_date = v_effective
+      AND (upper_bound IS NULL OR upper_bound >= v_base)
+    ORDER BY upper_bound IS NULL, upper_bound
+    LIMIT 1;
+
+    RETURN IF(v_annualized, v_amount / 12, v_amount);
+END //
+
+-- Replaces the hard-coded CASE version, which had drifted from the Java rules
+-- (SSS above 7,000 and the withholding tax brackets above 2,000,000)
+DROP PROCEDURE IF EXISTS sp_calculate_government_contributions //
+
+CREATE PROCEDURE sp_calculate_government_contributions(
+    IN p_basic_salary DECIMAL(10,2),
+    OUT p_sss DECIMAL(8,2),
+    OUT p_philhealth DECIMAL(8,2),
+    OUT p_pagibig DECIMAL(8,2),
+    OUT p_tax DECIMAL(8,2)
+)
+BEGIN
+    SET p_sss = fn_statutory_amount('SSS', p_basic_salary, CURDATE());
+    SET p_philhealth = fn_statutory_amount('PHILHEALTH', p_basic_salary, CURDATE());
+    SET p_pagibig = fn_statutory_amount('PAGIBIG', p_basic_salary, CURDATE());
+    SET p_tax = fn_statutory_amount('WITHHOLDING_TAX', p_basic_salary, CURDATE());
+END //
+
+DELIMITER ;
+
+-- Test the setup
+SELECT contribution_type, effective_date, COUNT(*) AS brackets
+FROM statutory_rate_brackets
+GROUP BY contribution_type, effective_date;
+
+SELECT 'Statutory rate tables setup completed successfully!' AS Status;
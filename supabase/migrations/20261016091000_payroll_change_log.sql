@@ -0,0 +1,134 @@
+-- Change tracking for incremental payroll recomputation
+-- Every write to attendance, overtime or leave_request records the employee
+-- and the dates it affects. An employee is dirty for a period when a change
+-- overlapping the period is newer than the saved payroll row for it.
+
+USE aoopdatabase_payroll;
+
+CREATE TABLE IF NOT EXISTS payroll_change_log (
+    change_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    employee_id INT NOT NULL,
+    change_start DATE NOT NULL,
+    change_end DATE NOT NULL,
+    source ENUM('ATTENDANCE', 'OVERTIME', 'LEAVE') NOT NULL,
+    changed_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    INDEX idx_change_range (change_start, change_end, employee_id),
+    INDEX idx_changed_at (changed_at)
+);
+
+-- =============================================
+-- CHANGE CAPTURE TRIGGERS
+-- =============================================
+-- Updates log both the old and the new dates so moving a row from one
+-- period to another marks both periods dirty.
+
+DELIMITER //
+
+-- Attendance
+DROP TRIGGER IF EXISTS tr_attendance_change_insert //
+CREATE TRIGGER tr_attendance_change_insert
+    AFTER INSERT ON attendance
+    FOR EACH ROW
+BEGIN
+    INSERT INTO payroll_change_log (employee_id, change_start, change_end, source)
+    VALUES (NEW.employee_id, NEW.date, NEW.date, 'ATTENDANCE');
+END //
+
+DROP TRIGGER IF EXISTS tr_attendance_change_update //
+CREATE TRIGGER tr_attendance_change_update
+    AFTER UPDATE ON attendance
+    FOR EACH ROW
+BEGIN
+    INSERT INTO payroll_change_log (employee_id, change_start, change_end, source)
+    VALUES (NEW.employee_id, NEW.date, NEW.date, 'ATTENDANCE');
+    IF OLD.employee_id <> NEW.employee_id OR OLD.date <> NEW.date THEN
+        INSERT INTO payroll_change_log (employee_id, change_start, change_end, source)
+        VALUES (OLD.employee_id, OLD.date, OLD.date, 'ATTENDANCE');
+    END IF;
+END //
+
+DROP TRIGGER IF EXISTS tr_attendance_change_delete //
+CREATE TRIGGER tr_attendance_change_delete
+    AFTER DELETE ON attendance
+    FOR EACH ROW
+BEGIN
+    INSERT INTO payroll_change_log (employee_id, change_start, change_end, source)
+    VALUES (OLD.employee_id, OLD.date, OLD.date, 'ATTENDANCE');
+END //
+
+-- Overtime (approval changes go through UPDATE)
+DROP TRIGGER IF EXISTS tr_overtime_change_insert //
+CREATE TRIGGER tr_overtime_change_insert
+    AFTER INSERT ON overtime
+    FOR EACH ROW
+BEGIN
+    INSERT INTO payroll_change_log (employee_id, change_start, change_end, source)
+    VALUES (NEW.employee_id, NEW.date, NEW.date, 'OVERTIME');
+END //
+
+DROP TRIGGER IF EXISTS tr_overtime_change_update //
+CREATE TRIGGER tr_overtime_change_update
+    AFTER UPDATE ON overtime
+    FOR EACH ROW
+BEGIN
+    INSERT INTO payroll_change_log (employee_id, change_start, change_end, source)
+    VALUES (NEW.employee_id, NEW.date, NEW.date, 'OVERTIME');
+    IF OLD.employee_id <> NEW.employee_id OR OLD.date <> NEW.date THEN
+        INSERT INTO payroll_change_log (employee_id, change_start, change_end, source)
+        VALUES (OLD.employee_id, OLD.date, OLD.date, 'OVERTIME');
+    END IF;
+END //
+
+DROP TRIGGER IF EXISTS tr_overtime_change_delete //
+CREATE TRIGGER tr_overtime_change_delete
+    AFTER DELETE ON overtime
+    FOR EACH ROW
+BEGIN
+    INSERT INTO payroll_change_log (employee_id, change_start, change_end, source)
+    VALUES (OLD.employee_id, OLD.date, OLD.date, 'OVERTIME');
+END //
+
+-- Leave requests (status changes go through UPDATE); requests without dates cannot affect a period
+DROP TRIGGER IF EXISTS tr_leave_change_insert //
+CREATE TRIGGER tr_leave_change_insert
+    AFTER INSERT ON leave_request
+    FOR EACH ROW
+BEGIN
+    IF NEW.start_date IS NOT NULL AND NEW.end_date IS NOT NULL THEN
+        INSERT INTO payroll_change_log (employee_id, change_start, change_end, source)
+        VALUES (NEW.employee_id, NEW.start_date, NEW.end_date, 'LEAVE');
+    END IF;
+END //
+
+DROP TRIGGER IF EXISTS tr_leave_change_update //
+CREATE TRIGGER tr_leave_change_update
+    AFTER UPDATE ON leave_request
+    FOR EACH ROW
+BEGIN
+    IF NEW.start_date IS NOT NULL AND NEW.end_date IS NOT NULL THEN
+        INSERT INTO payroll_change_log (employee_id, change_start, change_end, source)
+        VALUES (NEW.employee_id, NEW.start_date, NEW.end_date, 'LEAVE');
+    END IF;
+    IF OLD.start_date IS NOT NULL AND OLD.end_date IS NOT NULL
+       AND (OLD.employee_id <> NEW.employee_id
+            OR NOT (OLD.start_date <=> NEW.start_date)
+            OR NOT (OLD.end_date <=> NEW.end_date)) THEN
+        INSERT INTO payroll_change_log (employee_id, change_start, change_end, source)
+        VALUES (OLD.employee_id, OLD.start_date, OLD.end_date, 'LEAVE');
+    END IF;
+END //
+
+DROP TRIGGER IF EXISTS tr_leave_change_delete //
+CREATE TRIGGER tr_leave_change_delete
+    AFTER DELETE ON leave_request
+    FOR EACH ROW
+BEGIN
+    IF OLD.start_date IS NOT NULL AND OLD.end_date IS NOT NULL THEN
+        INSERT INTO payroll_change_log (employee_id, change_start, change_end, source)
+        VALUES (OLD.employee_id, OLD.start_date, OLD.end_date, 'LEAVE');
+    END IF;
+END //
+
+DELIMITER ;
+
+SELECT 'Payroll change tracking setup completed successfully!' AS Status;
@@ -0,0 +1,143 @@
+-- Report job queue
+-- report_generation_log becomes the record of queued report jobs: a job is
+-- logged as Queued when requested, then moves to In Progress, Success or
+-- Failed as a worker runs it. Jobs carry a priority, and the start and end
+-- times are kept alongside the generation time.
+
+USE aoopdatabase_payroll;
+
+ALTER TABLE report_generation_log
+    MODIFY generation_status ENUM('Queued', 'In Progress', 'Success', 'Failed') DEFAULT 'Queued';
+
+-- MySQL has no ADD COLUMN / ADD INDEX IF NOT EXISTS, so each addition checks
+-- information_schema first and the migration can be run again
+DROP PROCEDURE IF EXISTS sp_upgrade_report_generation_log;
+
+DELIMITER //
+
+CREATE PROCEDURE sp_upgrade_report_generation_log()
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM information_schema.COLUMNS
+                   WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'report_generation_log'
+                     AND COLUMN_NAME = 'priority') THEN
+        ALTER TABLE report_generation_log ADD COLUMN priority TINYINT NOT NULL DEFAULT 5 AFTER report_parameters;
+    END IF;
+
+    IF NOT EXISTS (SELECT 1 FROM information_schema.COLUMNS
+                   WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'report_generation_log'
+                     AND COLUMN_NAME = 'started_at') THEN
+        ALTER TABLE report_generation_log ADD COLUMN started_at TIMESTAMP NULL AFTER created_at;
+    END IF;
+
+    IF NOT EXISTS (SELECT 1 FROM information_schema.COLUMNS
+                   WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'report_generation_log'
+                     AND COLUMN_NAME = 'completed_at') THEN
+        ALTER TABLE report_generation_log ADD COLUMN completed_at TIMESTAMP NULL AFTER started_at;
+    END IF;
+
+    IF NOT EXISTS (SELECT 1 FROM information_schema.STATISTICS
+                   WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'report_generation_log'
+                     AND INDEX_NAME = 'idx_report_log_status') THEN
+        ALTER TABLE report_generation_log
+            ADD INDEX idx_report_log_status (generation_status, priority, created_at);
+    END IF;
+
+    IF NOT EXISTS (SELECT 1 FROM information_schema.STATISTICS
+                   WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'report_generation_log'
+                     AND INDEX_NAME = 'idx_report_log_requester') THEN
+        ALTER TABLE report_generation_log
+            ADD INDEX idx_report_log_requester (generated_by, created_at);
+    END IF;
+END //
+
+DELIMITER ;
+
+CALL sp_upgrade_report_generation_log();
+DROP PROCEDURE sp_upgrade_report_generation_log;
+
+-- Templates for the reports the Reports screen generates that had none
+ALTER TABLE report_templates
+    MODIFY template_type ENUM('Payslip', 'Payroll Report', 'Attendance Report', 'Leave Report',
+                              'Employee Report', 'Contributions Report') NOT NULL;
+
+INSERT IGNORE INTO report_templates (template_name, template_file_path, template_type, description, parameters) VALUES
+('MotorPH Employee Directory', 'reports/templates/motorph_employee_directory.jrxml', 'Employee Report',
+ 'Employee directory with optional contact, job, personal and compensation details',
+ '{"report_title": "Employee Directory"}'),
+('MotorPH Government Contributions', 'reports/templates/motorph_government_contributions.jrxml', 'Contributions Report',
+ 'Monthly SSS, PhilHealth, Pag-IBIG and withholding tax per employee',
+ '{"report_title": "Government Contributions Report"}'),
+('MotorPH Payslip Archive', 'reports/motorph_payslip.jrxml', 'Payslip',
+ 'Every employee payslip for a period as ZIP archives',
+ '{"grouping": "SINGLE"}');
+
+DROP PROCEDURE IF EXISTS sp_generate_jasper_report;
+DROP PROCEDURE IF EXISTS sp_update_report_status;
+
+DELIMITER //
+
+-- Log a report request as Queued
+CREATE PROCEDURE sp_generate_jasper_report(
+    IN p_template_name VARCHAR(100),
+    IN p_employee_id INT,
+    IN p_parameters JSON,
+    IN p_priority TINYINT,
+    OUT p_report_id INT,
+    OUT p_status VARCHAR(50),
+    OUT p_message VARCHAR(255)
+)
+BEGIN
+    DECLARE v_template_id INT;
+    DECLARE EXIT HANDLER FOR SQLEXCEPTION
+    BEGIN
+        ROLLBACK;
+        SET p_status = 'Failed';
+        SET p_message = 'Database error during report generation';
+    END;
+
+    START TRANSACTION;
+
+    SELECT template_id
+    INTO v_template_id
+    FROM report_templates
+    WHERE template_name = p_template_name AND is_active = TRUE;
+
+    IF v_template_id IS NULL THEN
+        SET p_status = 'Failed';
+        SET p_message = 'Report template not found';
+        ROLLBACK;
+    ELSE
+        INSERT INTO report_generation_log (template_id, generated_by, report_parameters, priority, generation_status)
+        VALUES (v_template_id, p_employee_id, p_parameters, COALESCE(p_priority, 5), 'Queued');
+
+        SET p_report_id = LAST_INSERT_ID();
+        SET p_status = 'Queued';
+        SET p_message = CONCAT('Report queued with ID: ', p_report_id);
+
+        COMMIT;
+    END IF;
+END //
+
+-- Record a status change; In Progress stamps the start, Success and Failed the end
+CREATE PROCEDURE sp_update_report_status(
+    IN p_report_id INT,
+    IN p_status VARCHAR(50),
+    IN p_output_path VARCHAR(255),
+    IN p_error_message TEXT,
+    IN p_generation_time_ms INT,
+    IN p_file_size_bytes BIGINT
+)
+BEGIN
+    UPDATE report_generation_log
+    SET
+        generation_status = p_status,
+        output_file_path = p_output_path,
+        error_message = p_error_message,
+        generation_time_ms = p_generation_time_ms,
+        file_size_bytes = p_file_size_bytes,
+        started_at = IF(p_status = 'In Progress', CURRENT_TIMESTAMP, started_at),
+        completed_at = IF(p_status IN ('Success', 'Failed'), CURRENT_TIMESTAMP, completed_at)
+    WHERE log_id = p_report_id;
+END //
+
+DELIMITER ;
@@ -0,0 +1,134 @@
+-- Monthly attendance summary maintained on write
+-- v_attendance_summary grouped the whole attendance table on every read.
+-- attendance_monthly_summary keeps one row per employee and month with the
+-- same figures, updated by triggers as attendance rows are inserted, updated
+-- or deleted, so reports and dashboards read one row per employee.
+-- sp_rebuild_attendance_monthly_summary recomputes a date range from the
+-- attendance table, for backfill or after bulk loads.
+
+USE aoopdatabase_payroll;
+
+CREATE TABLE IF NOT EXISTS attendance_monthly_summary (
+    employee_id INT NOT NULL,
+    month_start DATE NOT NULL COMMENT 'First day of the month',
+    days_present INT NOT NULL DEFAULT 0,
+    total_work_minutes BIGINT NOT NULL DEFAULT 0,
+    late_count INT NOT NULL DEFAULT 0 COMMENT 'Days logged in after 08:15',
+    undertime_count INT NOT NULL DEFAULT 0 COMMENT 'Days logged out before 17:00',
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    PRIMARY KEY (employee_id, month_start),
+    INDEX idx_attendance_summary_month (month_start, employee_id),
+    FOREIGN KEY (employee_id) REFERENCES employees(employee_id) ON DELETE CASCADE
+);
+
+DROP PROCEDURE IF EXISTS sp_apply_attendance_summary;
+DROP PROCEDURE IF EXISTS sp_rebuild_attendance_monthly_summary;
+
+DELIMITER //
+
+-- Add (p_sign = 1) or remove (p_sign = -1) one attendance row from its month
+CREATE PROCEDURE sp_apply_attendance_summary(
+    IN p_employee_id INT,
+    IN p_date DATE,
+    IN p_log_in TIME,
+    IN p_log_out TIME,
+    IN p_sign INT
+)
+BEGIN
+    IF p_log_in IS NOT NULL THEN
+        INSERT INTO attendance_monthly_summary
+            (employee_id, month_start, days_present, total_work_minutes, late_count, undertime_count)
+        VALUES (
+            p_employee_id,
+            DATE_SUB(p_date, INTERVAL DAYOFMONTH(p_date) - 1 DAY),
+            p_sign,
+            p_sign * COALESCE(TIMESTAMPDIFF(MINUTE, p_log_in, p_log_out), 0),
+            p_sign * (p_log_in > '08:15:00'),
+            p_sign * COALESCE(p_log_out < '17:00:00', 0)
+        )
+        ON DUPLICATE KEY UPDATE
+            days_present = days_present + VALUES(days_present),
+            total_work_minutes = total_work_minutes + VALUES(total_work_minutes),
+            late_count = late_count + VALUES(late_count),
+            undertime_count = undertime_count + VALUES(undertime_count);
+    END IF;
+END //
+
+-- Recompute every month overlapping a date range from the attendance table
+CREATE PROCEDURE sp_rebuild_attendance_monthly_summary(
+    IN p_from DATE,
+    IN p_to DATE
+)
+BEGIN
+    DECLARE v_from DATE DEFAULT DATE_SUB(p_from, INTERVAL DAYOFMONTH(p_from) - 1 DAY);
+    DECLARE v_to DATE DEFAULT LAST_DAY(p_to);
+
+    START TRANSACTION;
+
+    DELETE FROM attendance_monthly_summary
+    WHERE month_start BETWEEN v_from AND v_to;
+
+    INSERT INTO attendance_monthly_summary
+        (employee_id, month_start, days_present, total_work_minutes, late_count, undertime_count)
+    SELECT
+        a.employee_id,
+        DATE_SUB(a.date, INTERVAL DAYOFMONTH(a.date) - 1 DAY) AS month_start,
+        COUNT(*),
+        COALESCE(SUM(TIMESTAMPDIFF(MINUTE, a.log_in, a.log_out)), 0),
+        SUM(a.log_in > '08:15:00'),
+        SUM(COALESCE(a.log_out < '17:00:00', 0))
+    FROM attendance a
+    WHERE a.date BETWEEN v_from AND v_to AND a.log_in IS NOT NULL
+    GROUP BY a.employee_id, month_start;
+
+    COMMIT;
+END //
+
+DROP TRIGGER IF EXISTS tr_attendance_summary_insert //
+CREATE TRIGGER tr_attendance_summary_insert
+    AFTER INSERT ON attendance
+    FOR EACH ROW
+BEGIN
+    CALL sp_apply_attendance_summary(NEW.employee_id, NEW.date, NEW.log_in, NEW.log_out, 1);
+END //
+
+DROP TRIGGER IF EXISTS tr_attendance_summary_update //
+CREATE TRIGGER tr_attendance_summary_update
+    AFTER UPDATE ON attendance
+    FOR EACH ROW
+BEGIN
+    CALL sp_apply_attendance_summary(OLD.employee_id, OLD.date, OLD.log_in, OLD.log_out, -1);
+    CALL sp_apply_attendance_summary(NEW.employee_id, NEW.date, NEW.log_in, NEW.log_out, 1);
+END //
+
+DROP TRIGGER IF EXISTS tr_attendance_summary_delete //
+CREATE TRIGGER tr_attendance_summary_delete
+    AFTER DELETE ON attendance
+    FOR EACH ROW
+BEGIN
+    CALL sp_apply_attendance_summary(OLD.employee_id, OLD.date, OLD.log_in, OLD.log_out, -1);
+END //
+
+DELIMITER ;
+
+-- Same columns as before, now read from the summary table
+CREATE OR REPLACE VIEW v_attendance_summary AS
+SELECT
+    s.employee_id,
+    e.full_name,
+    e.position,
+    DATE_FORMAT(s.month_start, '%Y-%m') AS month_year,
+    s.days_present,
+    s.total_work_minutes / 60.0 / s.days_present AS avg_hours_per_day,
+    s.late_count,
+    s.undertime_count
+FROM attendance_monthly_summary s
+JOIN v_employee_summary e ON s.employee_id = e.employee_id
+WHERE s.days_present > 0;
+
+-- Backfill from existing attendance
+CALL sp_rebuild_attendance_monthly_summary(
+    COALESCE((SELECT MIN(date) FROM attendance), CURRENT_DATE),
+    COALESCE((SELECT MAX(date) FROM attendance), CURRENT_DATE));
+
+SELECT 'Attendance monthly summary created successfully!' AS Status;
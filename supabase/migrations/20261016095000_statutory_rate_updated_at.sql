@@ -0,0 +1,26 @@
+-- Statutory rate change tracking
+-- Rates edited in place leave created_at and the bracket count unchanged, so
+-- cached report results keyed on the payroll input version would never see
+-- them. updated_at moves on every insert and update.
+
+USE aoopdatabase_payroll;
+
+-- Checked in information_schema first, so the migration can be run again
+DROP PROCEDURE IF EXISTS sp_add_statutory_rate_updated_at;
+
+DELIMITER //
+
+CREATE PROCEDURE sp_add_statutory_rate_updated_at()
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM information_schema.COLUMNS
+                   WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'statutory_rate_brackets'
+                     AND COLUMN_NAME = 'updated_at') THEN
+        ALTER TABLE statutory_rate_brackets
+            ADD COLUMN updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP AFTER created_at;
+    END IF;
+END //
+
+DELIMITER ;
+
+CALL sp_add_statutory_rate_updated_at();
+DROP PROCEDURE sp_add_statutory_rate_updated_at;
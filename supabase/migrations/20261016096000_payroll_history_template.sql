@@ -0,0 +1,12 @@
+-- Payroll history export template
+-- The Reports screen exports saved payroll for a whole year through the
+-- report queue, which records each job against its template.
+
+USE aoopdatabase_payroll;
+
+INSERT IGNORE INTO report_templates (template_name, template_file_path, template_type, description, parameters) VALUES
+('MotorPH Payroll History', 'reports/templates/motorph_payroll_history.jrxml', 'Payroll Report',
+ 'Saved payroll records for every period in a year, streamed to CSV or HTML',
+ '{"report_title": "Payroll History Report"}');
+
+SELECT 'Payroll history template registered successfully!' AS Status;
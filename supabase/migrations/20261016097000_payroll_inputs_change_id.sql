@@ -0,0 +1,28 @@
+-- Change log position of saved payrolls
+-- A payroll run reads the newest change_id before it loads the period and
+-- saves it with each payroll. Changes logged after that read, including ones
+-- logged while the run was calculating or saving, have a higher change_id and
+-- leave the employee dirty. Existing rows start at 0, so their next run
+-- recalculates them once.
+
+USE aoopdatabase_payroll;
+
+-- Checked in information_schema first, so the migration can be run again
+DROP PROCEDURE IF EXISTS sp_add_payroll_inputs_change_id;
+
+DELIMITER //
+
+CREATE PROCEDURE sp_add_payroll_inputs_change_id()
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM information_schema.COLUMNS
+                   WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'payroll'
+                     AND COLUMN_NAME = 'inputs_change_id') THEN
+        ALTER TABLE payroll
+            ADD COLUMN inputs_change_id BIGINT NOT NULL DEFAULT 0;
+    END IF;
+END //
+
+DELIMITER ;
+
+CALL sp_add_payroll_inputs_change_id();
+DROP PROCEDURE sp_add_payroll_inputs_change_id;